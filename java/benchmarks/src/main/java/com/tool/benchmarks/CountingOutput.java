@@ -0,0 +1,31 @@
+package com.tool.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 丢弃命令输出，只统计字节数，避免终端输出影响测量结果，
+ * 统计值交给 Blackhole 防止输出逻辑被优化掉
+ */
+final class CountingOutput extends OutputStream {
+    private long count;
+
+    static PrintStream printStream(CountingOutput sink) {
+        return new PrintStream(sink, false, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+
+    long count() {
+        return count;
+    }
+}
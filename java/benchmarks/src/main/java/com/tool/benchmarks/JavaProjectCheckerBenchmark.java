@@ -0,0 +1,43 @@
+package com.tool.benchmarks;
+
+import com.tool.checkers.JavaProjectChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JavaProjectChecker.runChecks 的吞吐量测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JavaProjectCheckerBenchmark {
+    private String project;
+    private PrintStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        project = SyntheticTree.javaProject().toString();
+        out = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public boolean runChecks() {
+        return new JavaProjectChecker(project, true, out).runChecks();
+    }
+}
@@ -0,0 +1,65 @@
+package com.tool.benchmarks;
+
+import com.tool.App;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * readFile 按范围读取和读取末尾的吞吐量测试
+ * 默认最多 100000 行，1000000 行（约 64MB）的文件只在 scripts/run-benchmarks.sh --full 时使用
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadFileBenchmark {
+    @Param({"10000", "100000"})
+    public int lines;
+
+    private String file;
+    private String middle;
+    private CountingOutput sink;
+    private PrintStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = SyntheticTree.largeFile(lines).toString();
+        middle = Integer.toString(lines / 2);
+        sink = new CountingOutput();
+        out = CountingOutput.printStream(sink);
+    }
+
+    @Benchmark
+    public void head(Blackhole blackhole) {
+        App.run(new String[]{"readFile", file, "1", "100"}, out);
+        blackhole.consume(sink.count());
+    }
+
+    @Benchmark
+    public void middleRange(Blackhole blackhole) {
+        App.run(new String[]{"readFile", file, middle, middle + "00"}, out);
+        blackhole.consume(sink.count());
+    }
+
+    @Benchmark
+    public void tail(Blackhole blackhole) {
+        App.run(new String[]{"readFile", file, "--tail", "100"}, out);
+        blackhole.consume(sink.count());
+    }
+}
@@ -0,0 +1,83 @@
+package com.tool.benchmarks;
+
+import com.tool.App;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * codebaseSearch、grepSearch 和 fileSearch 的吞吐量测试
+ * 默认参数生成的目录树不超过 10000 个文件（大文件时约 2.5GB）。100000 和 1000000 个文件的目录树
+ * 在大文件时分别需要约 25GB 和 256GB 磁盘空间，只在 scripts/run-benchmarks.sh --full 或显式指定
+ * -p files=... 时运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"1000", "10000"})
+    public int files;
+
+    @Param({"small", "large"})
+    public String fileSize;
+
+    @Param({"many", "few"})
+    public String matches;
+
+    private String root;
+    private CountingOutput sink;
+    private PrintStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = SyntheticTree.get(files, fileSize, matches).toString();
+        sink = new CountingOutput();
+        out = CountingOutput.printStream(sink);
+    }
+
+    @Benchmark
+    public void codebaseSearch(Blackhole blackhole) {
+        App.run(new String[]{"codebaseSearch", SyntheticTree.NEEDLE, root}, out);
+        blackhole.consume(sink.count());
+    }
+
+    @Benchmark
+    public void grepSearch(Blackhole blackhole) {
+        App.run(new String[]{"grepSearch", SyntheticTree.NEEDLE + "\\s*$", root, "--no-index"}, out);
+        blackhole.consume(sink.count());
+    }
+
+    @Benchmark
+    public void grepSearchIgnoreCase(Blackhole blackhole) {
+        App.run(new String[]{"grepSearch", "(?i)NEEDLETOKEN\\w*", root, "--no-index"}, out);
+        blackhole.consume(sink.count());
+    }
+
+    @Benchmark
+    public void fileSearchSubstring(Blackhole blackhole) {
+        App.run(new String[]{"fileSearch", "File12", root, "--no-index"}, out);
+        blackhole.consume(sink.count());
+    }
+
+    @Benchmark
+    public void fileSearchFuzzy(Blackhole blackhole) {
+        App.run(new String[]{"fileSearch", "fl99jv", root, "--fuzzy", "--no-index"}, out);
+        blackhole.consume(sink.count());
+    }
+}
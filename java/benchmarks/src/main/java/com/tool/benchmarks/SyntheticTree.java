@@ -0,0 +1,123 @@
+package com.tool.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * 基准测试使用的合成目录树
+ * 内容由参数和固定随机种子决定，生成结果保存在临时目录中，
+ * 参数相同的多次运行（包括 JMH 的多个 fork）直接复用
+ */
+public final class SyntheticTree {
+    /** 搜索基准使用的关键字，按匹配密度写入文件 */
+    public static final String NEEDLE = "needleToken";
+    /** 每个目录中的文件数 */
+    private static final int FILES_PER_DIR = 100;
+    private static final String[] WORDS = {
+            "public", "class", "return", "import", "static", "final", "void", "private",
+            "string", "value", "result", "config", "buffer", "index", "search", "handler"
+    };
+
+    private SyntheticTree() {
+    }
+
+    /**
+     * 获取（必要时生成）合成目录树
+     * @param files 文件总数
+     * @param fileSize small（约 2KB）或 large（约 256KB）
+     * @param matches many（每 20 行一处匹配）或 few（每 200 个文件一处匹配）
+     * @return 目录树根路径
+     */
+    public static Path get(int files, String fileSize, String matches) throws IOException {
+        Path base = Paths.get(System.getProperty("tool.bench.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "env-tool-bench").toString()));
+        Path root = base.resolve("tree-" + files + "-" + fileSize + "-" + matches);
+        Path marker = root.resolve(".complete");
+        if (Files.exists(marker)) {
+            return root;
+        }
+        int linesPerFile = fileSize.equals("large") ? 4096 : 32;
+        boolean many = matches.equals("many");
+        Random random = new Random(files * 31L + linesPerFile);
+        for (int i = 0; i < files; i++) {
+            Path dir = root.resolve("d" + (i / (FILES_PER_DIR * FILES_PER_DIR))).resolve("d" + (i / FILES_PER_DIR));
+            if (i % FILES_PER_DIR == 0) {
+                Files.createDirectories(dir);
+            }
+            boolean matchFile = many || i % 200 == 0;
+            writeFile(dir.resolve("File" + i + (i % 3 == 0 ? ".java" : ".txt")), linesPerFile, matchFile, many, random);
+        }
+        Files.createDirectories(root);
+        Files.createFile(marker);
+        return root;
+    }
+
+    /**
+     * 获取（必要时生成）单个大文本文件
+     * @param lines 行数
+     */
+    public static Path largeFile(int lines) throws IOException {
+        Path base = Paths.get(System.getProperty("tool.bench.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "env-tool-bench").toString()));
+        Path file = base.resolve("lines-" + lines + ".txt");
+        if (Files.exists(file)) {
+            return file;
+        }
+        Files.createDirectories(base);
+        Path temp = Files.createTempFile(base, "lines", ".tmp");
+        writeFile(temp, lines, false, false, new Random(lines));
+        Files.move(temp, file);
+        return file;
+    }
+
+    /**
+     * 获取（必要时生成）一个 Maven 结构的 Java 项目
+     */
+    public static Path javaProject() throws IOException {
+        Path base = Paths.get(System.getProperty("tool.bench.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "env-tool-bench").toString()));
+        Path root = base.resolve("java-project");
+        if (Files.exists(root.resolve("pom.xml"))) {
+            return root;
+        }
+        Path main = root.resolve("src/main/java/com/example");
+        Files.createDirectories(main);
+        Files.createDirectories(root.resolve("src/test/java/com/example"));
+        for (int i = 0; i < 200; i++) {
+            Files.writeString(main.resolve("Service" + i + ".java"),
+                    "package com.example;\n\npublic class Service" + i + " {\n}\n");
+        }
+        Files.writeString(root.resolve(".sdkmanrc"), "java=17.0.9-tem\n");
+        Files.writeString(root.resolve("pom.xml"), "<project>\n    <properties>\n"
+                + "        <maven.compiler.source>17</maven.compiler.source>\n"
+                + "        <maven.compiler.target>17</maven.compiler.target>\n"
+                + "    </properties>\n</project>\n");
+        return root;
+    }
+
+    private static void writeFile(Path file, int lines, boolean matchFile, boolean many, Random random)
+            throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            int matchLine = matchFile && !many ? random.nextInt(lines) : -1;
+            for (int line = 0; line < lines; line++) {
+                for (int w = 0; w < 8; w++) {
+                    if (w > 0) {
+                        writer.write(' ');
+                    }
+                    writer.write(WORDS[random.nextInt(WORDS.length)]);
+                    writer.write(Integer.toString(random.nextInt(1000)));
+                }
+                if (line == matchLine || matchFile && many && line % 20 == 0) {
+                    writer.write(' ');
+                    writer.write(NEEDLE);
+                }
+                writer.write('\n');
+            }
+        }
+    }
+}
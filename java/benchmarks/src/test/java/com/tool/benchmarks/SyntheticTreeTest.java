@@ -0,0 +1,91 @@
+package com.tool.benchmarks;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticTreeTest {
+    @TempDir
+    Path dir;
+    private String previousBenchDir;
+
+    @BeforeEach
+    void useTempDir() {
+        previousBenchDir = System.getProperty("tool.bench.dir");
+        System.setProperty("tool.bench.dir", dir.toString());
+    }
+
+    @AfterEach
+    void restoreDir() {
+        if (previousBenchDir == null) {
+            System.clearProperty("tool.bench.dir");
+        } else {
+            System.setProperty("tool.bench.dir", previousBenchDir);
+        }
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().equals(".complete"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long needleLines(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> line.contains(SyntheticTree.NEEDLE)).count();
+        }
+    }
+
+    @Test
+    void fewMatchesPutOneMatchInEvery200thFile() throws IOException {
+        Path root = SyntheticTree.get(450, "small", "few");
+        List<Path> files = files(root);
+        assertEquals(450, files.size());
+        long matching = 0;
+        for (Path file : files) {
+            long count = needleLines(file);
+            assertTrue(count <= 1, file.toString());
+            matching += count;
+        }
+        assertEquals(3, matching);
+    }
+
+    @Test
+    void manyMatchesPutAMatchEvery20Lines() throws IOException {
+        Path root = SyntheticTree.get(10, "small", "many");
+        for (Path file : files(root)) {
+            assertEquals(32, Files.readAllLines(file).size());
+            assertEquals(2, needleLines(file), file.toString());
+        }
+    }
+
+    @Test
+    void generatedContentIsDeterministicAndReused() throws IOException {
+        Path first = SyntheticTree.largeFile(1000);
+        String content = Files.readString(first);
+        Files.delete(first);
+        Path second = SyntheticTree.largeFile(1000);
+        assertEquals(content, Files.readString(second));
+        assertEquals(1000, Files.readAllLines(second).size());
+
+        Path root = SyntheticTree.get(5, "small", "few");
+        Files.writeString(root.resolve("marker-check.txt"), "");
+        // 已完成的目录树直接复用，不会重新生成
+        assertEquals(root, SyntheticTree.get(5, "small", "few"));
+        assertTrue(Files.exists(root.resolve("marker-check.txt")));
+    }
+}
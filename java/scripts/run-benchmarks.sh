@@ -0,0 +1,32 @@
+#!/bin/bash
+
+# 运行 JMH 基准测试，结果以 JSON 格式保存在 benchmarks/results/ 下，便于不同版本之间对比
+# 用法: scripts/run-benchmarks.sh [--full] [JMH 参数...]
+# 默认参数只生成小规模的测试数据；--full 加入 100000/1000000 个文件的目录树和 1000000 行的文件，
+# 大文件的 1000000 个文件目录树约需 256GB 磁盘空间
+# 例如: scripts/run-benchmarks.sh SearchBenchmark -p files=1000,100000 -p fileSize=small
+set -e
+
+FULL_PARAMS=()
+if [ "$1" = "--full" ]; then
+    shift
+    FULL_PARAMS=(-p files=1000,10000,100000,1000000 -p lines=10000,100000,1000000)
+fi
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(cd "$SCRIPT_DIR/.." && pwd)"
+
+cd "$PROJECT_ROOT"
+echo "正在安装主模块..."
+mvn -B -q install -DskipTests
+
+cd "$PROJECT_ROOT/benchmarks"
+echo "正在构建基准测试..."
+mvn -B -q package
+
+VERSION="$(git -C "$PROJECT_ROOT" describe --tags --always --dirty 2>/dev/null || echo unknown)"
+mkdir -p results
+RESULT="results/jmh-$VERSION-$(date +%Y%m%d-%H%M%S).json"
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "${FULL_PARAMS[@]}" "$@"
+echo "结果已保存: benchmarks/$RESULT"
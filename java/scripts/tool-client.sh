@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# 向常驻服务发送命令，服务未启动时先在后台启动
+# 用法: scripts/tool-client.sh <命令> [参数...]
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(cd "$SCRIPT_DIR/.." && pwd)"
+CLASSES="${TOOL_CLASSPATH:-$PROJECT_ROOT/target/classes}"
+# 与服务的默认路径一致：优先 $XDG_RUNTIME_DIR，否则使用临时目录下只有当前用户可以访问的目录
+if [ -n "$TOOL_SOCKET" ]; then
+    SOCKET="$TOOL_SOCKET"
+elif [ -n "$XDG_RUNTIME_DIR" ] && [ -d "$XDG_RUNTIME_DIR" ]; then
+    SOCKET="$XDG_RUNTIME_DIR/env-tool.sock"
+else
+    SOCKET_DIR="${TMPDIR:-/tmp}/env-tool-$(id -un)"
+    if [ -e "$SOCKET_DIR" ] && { [ ! -d "$SOCKET_DIR" ] || [ -L "$SOCKET_DIR" ] || [ ! -O "$SOCKET_DIR" ]; }; then
+        echo "套接字目录不属于当前用户，拒绝使用: $SOCKET_DIR" >&2
+        exit 1
+    fi
+    SOCKET="$SOCKET_DIR/tool.sock"
+fi
+export TOOL_SOCKET="$SOCKET"
+
+# 其他用户创建的同名套接字不会收到工作目录和参数
+if [ -e "$SOCKET" ] && [ ! -O "$SOCKET" ]; then
+    echo "套接字不属于当前用户，拒绝使用: $SOCKET" >&2
+    exit 1
+fi
+
+if [ ! -S "$SOCKET" ]; then
+    nohup java -cp "$CLASSES" com.tool.App serve --socket "$SOCKET" > /dev/null 2>&1 &
+    for _ in $(seq 1 50); do
+        [ -S "$SOCKET" ] && break
+        sleep 0.1
+    done
+fi
+
+# socat 可用时直接转发，避免为每条命令启动 JVM；请求依次为工作目录、参数个数和各个参数。
+# 发送完请求后 socat 等待响应的时间由 -t 决定，服务在命令结束时关闭连接，因此不限制命令（包括 --watch）的运行时间
+if command -v socat &> /dev/null && [ -S "$SOCKET" ] && [ -O "$SOCKET" ]; then
+    printf '%s\0' "$PWD" "$#" "$@" | socat -t 2147483647 - "UNIX-CONNECT:$SOCKET"
+else
+    exec java -cp "$CLASSES" com.tool.server.CommandClient "$@"
+fi
@@ -5,609 +5,1051 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.nio.file.DirectoryStream;
+import java.nio.file.LinkOption;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.tool.batch.BatchRunner;
+import com.tool.checkers.CheckResultCache;
+import com.tool.checkers.FrontendChecker;
+import com.tool.checkers.JavaProjectChecker;
+import com.tool.checkers.PythonChecker;
+import com.tool.delete.TreeDeleter;
+import com.tool.edit.StreamingReplacer;
+import com.tool.exec.CommandRunner;
+import com.tool.index.FileNameIndex;
+import com.tool.index.IndexDirectory;
+import com.tool.index.LineOffsetIndex;
+import com.tool.index.TrigramIndex;
+import com.tool.list.DirectoryLister;
+import com.tool.metrics.CommandStats;
+import com.tool.output.SearchHit;
+import com.tool.output.SearchOutput;
+import com.tool.search.FileNameMatcher;
+import com.tool.search.IgnoreRules;
+import com.tool.search.LineScanner;
+import com.tool.search.MultiPatternMatcher;
+import com.tool.search.ParallelTreeWalker;
+import com.tool.search.RegexLiterals;
+import com.tool.search.RegexPrefilter;
+import com.tool.server.CommandServer;
+import com.tool.watch.MatchDiff;
+import com.tool.watch.TreeWatcher;
 
 public class App {
+    /** runTerminalCmd 在命令之前可以出现的选项 */
+    private static final List<String> TERMINAL_OPTIONS = List.of("--timeout", "--parallel", "--cmd", "--commands-file");
+    /** 不支持 --stats 的命令 */
+    private static final List<String> STATS_UNSUPPORTED = List.of("runTerminalCmd", "batch", "serve");
+
     public static void main(String[] args) {
+        run(args, System.out);
+    }
+
+    /**
+     * 执行一条命令，所有输出写入 out。
+     * 命令之间不共享可变状态，可以在多个线程中同时执行
+     * @param args 命令及参数
+     * @param out 输出流
+     */
+    public static void run(String[] args, PrintStream out) {
         if(args.length < 1) {
-            showUsage();
+            showUsage(out);
             return;
         }
         String command = args[0];
+        String statsFormat = statsFormat(args);
+        if(statsFormat == null) {
+            dispatch(command, args, out);
+            return;
+        }
+        CommandStats stats = new CommandStats(command);
+        CommandStats previous = CommandStats.bind(stats);
+        try {
+            dispatch(command, args, out);
+        } finally {
+            CommandStats.bind(previous);
+        }
+        stats.print(out, statsFormat.equals("json"));
+    }
+
+    /**
+     * 解析 --stats（文本摘要）和 --stats=json（单行 JSON）。
+     * runTerminalCmd 的参数属于被执行的命令，batch 和 serve 中的每条请求各自统计，这三个命令不支持
+     * @return 未指定时返回 null
+     */
+    private static String statsFormat(String[] args) {
+        if(STATS_UNSUPPORTED.contains(args[0])) {
+            return null;
+        }
+        for(String arg : args) {
+            if(arg.equals("--")) {
+                break;
+            }
+            if(arg.equals("--stats") || arg.equals("--stats=text")) {
+                return "text";
+            }
+            if(arg.equals("--stats=json")) {
+                return "json";
+            }
+        }
+        return null;
+    }
+
+    private static void dispatch(String command, String[] args, PrintStream out) {
         switch(command) {
             case "codebaseSearch":
-                codebaseSearch(args);
+                codebaseSearch(args, out);
                 break;
             case "readFile":
-                readFile(args);
+                readFile(args, out);
                 break;
             case "runTerminalCmd":
-                runTerminalCmd(args);
+                runTerminalCmd(args, out);
                 break;
             case "listDir":
-                listDir(args);
+                listDir(args, out);
                 break;
             case "grepSearch":
-                grepSearch(args);
+                grepSearch(args, out);
                 break;
             case "editFile":
-                editFile(args);
+                editFile(args, out);
                 break;
             case "fileSearch":
-                fileSearch(args);
+                fileSearch(args, out);
                 break;
             case "deleteFile":
-                deleteFile(args);
+                deleteFile(args, out);
                 break;
             case "reapply":
-                reapply(args);
+                reapply(args, out);
                 break;
             case "checkProject":
-                checkProject(args);
+                checkProject(args, out);
                 break;
             case "checkFrontend":
-                checkFrontend(args);
+                checkFrontend(args, out);
                 break;
             case "checkPython":
-                checkPython(args);
+                checkPython(args, out);
+                break;
+            case "index":
+                index(args, out);
+                break;
+            case "batch":
+                BatchRunner.batch(args, out);
+                break;
+            case "serve":
+                CommandServer.serve(args, out);
                 break;
             default:
-                System.out.println("未识别的命令: " + command);
-                showUsage();
+                out.println("未识别的命令: " + command);
+                showUsage(out);
                 break;
         }
     }
 
-    private static void showUsage() {
-        System.out.println("使用说明:");
-        System.out.println(" java -jar YourApp.jar <命令> [参数...]");
-        System.out.println("可用的命令:");
-        System.out.println(" codebaseSearch <查询字符串> [目标目录]");
-        System.out.println(" readFile <文件路径> [起始行] [结束行] (行号为1-indexed)");
-        System.out.println(" runTerminalCmd <命令> (多个参数将拼接成一个命令)");
-        System.out.println(" listDir <目录路径>");
-        System.out.println(" grepSearch <正则表达式> [目标目录]");
-        System.out.println(" editFile <文件路径> <目标字符串> <替换字符串>");
-        System.out.println(" fileSearch <文件名片段> [目录]");
-        System.out.println(" deleteFile <文件路径>");
-        System.out.println(" reapply (功能暂未实现)");
-        System.out.println(" checkProject <项目路径> [verbose]");
-        System.out.println(" checkFrontend <项目路径> [verbose]");
-        System.out.println(" checkPython <项目路径> [verbose]");
-    }
-
-    private static void codebaseSearch(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供查询字符串。");
+    private static void showUsage(PrintStream out) {
+        out.println("使用说明:");
+        out.println(" java -jar YourApp.jar <命令> [参数...]");
+        out.println("可用的命令（除 runTerminalCmd、batch、serve 外均可加 --stats 或 --stats=json 输出运行统计）:");
+        out.println(" codebaseSearch <查询字符串> [目标目录] [--threads N] [--ordered] [--no-ignore] [--format plain|ndjson|vimgrep]");
+        out.println(" codebaseSearch --query <查询1> --query <查询2>... | --pattern-file <模式文件> [目标目录] [--no-ignore] (多模式单次遍历)");
+        out.println(" readFile <文件路径> [起始行] [结束行] (行号为1-indexed)");
+        out.println(" readFile <文件路径> --tail <行数>");
+        out.println(" runTerminalCmd [--timeout 秒] <命令> (多个参数将拼接成一个命令)");
+        out.println(" runTerminalCmd --cmd <命令1> --cmd <命令2>... | --commands-file <文件> [--parallel N] [--timeout 秒] (并发执行多条命令)");
+        out.println(" listDir <目录路径> [--long] [--recursive [--max-depth N]] [--sort] [--offset N] [--limit N] [--after 游标] [--next-page]");
+        out.println(" grepSearch <正则表达式> [目标目录] [--threads N] [--ordered] [--no-index] [--no-ignore] [--format plain|ndjson|vimgrep] [--watch]");
+        out.println(" editFile <文件路径> <目标字符串> <替换字符串> [--regex] [--charset 编码] [--dry-run]");
+        out.println(" editFile --bulk <目录> <目标字符串> <替换字符串> [--regex] [--glob 模式] [--charset 编码] [--dry-run] [--threads N] [--no-ignore]");
+        out.println(" fileSearch <文件名片段> [目录] [--prefix | --fuzzy [--limit N]] [--threads N] [--ordered] [--no-index] [--no-ignore] [--format plain|ndjson|vimgrep]");
+        out.println(" deleteFile <文件路径> [--recursive] [--dry-run] [--progress] [--threads N]");
+        out.println(" deleteFile <根目录> --glob <模式> [--max-depth N] [--dry-run] [--progress] [--threads N] (删除名称或相对路径匹配的全部文件和目录)");
+        out.println(" reapply (功能暂未实现)");
+        out.println(" checkProject <项目路径>... [verbose] [--paths-file 文件] [--discover 根目录 [--max-depth N]] [--format text|ndjson|json] [--threads N] [--modules] [--no-cache] [--watch]");
+        out.println(" checkFrontend <项目路径> [verbose] [--threads N] [--no-cache]");
+        out.println(" checkPython <项目路径> [verbose] [--venv 虚拟环境目录] [--threads N] [--no-ignore]");
+        out.println(" index build <目录> [--threads N] [--no-ignore] (建立或增量刷新三元组索引和文件名索引)");
+        out.println(" batch [命令文件|-] [--threads N] [--format text|ndjson] (每行一条命令或 NDJSON 请求，只读命令并行执行)");
+        out.println(" serve [--socket 路径] [--threads N] [--idle-timeout 秒] (常驻服务，通过 scripts/tool-client.sh 发送命令)");
+    }
+
+    private static void codebaseSearch(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--query", "--pattern-file", "--format");
+        if(!cmd.options("--query").isEmpty() || cmd.option("--pattern-file", null) != null) {
+            multiPatternSearch(cmd, out);
+            return;
+        }
+        if(cmd.size() < 2) {
+            out.println("请提供查询字符串。");
+            return;
+        }
+        String query = cmd.get(1);
+        String targetDir = cmd.get(2, ".");
+        SearchOutput.Format format = searchFormat(cmd, out);
+        if(format == null) {
             return;
         }
-        String query = args[1];
-        String targetDir = args.length >= 3 ? args[2] : ".";
         try {
-            Files.walk(Paths.get(targetDir))
-                .filter(Files::isRegularFile)
-                .forEach(path -> {
-                    try {
-                        List<String> lines = Files.readAllLines(path);
-                        for (int i = 0; i < lines.size(); i++) {
-                            if(lines.get(i).contains(query)) {
-                                System.out.println("匹配: " + path.toString() + " 行号: " + (i+1));
-                            }
+            byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+            Path root = WorkingDirectory.resolve(targetDir);
+            try(SearchOutput output = new SearchOutput(out, format)) {
+                newWalker(cmd, root).<SearchHit>walkFiles(root, (path, results) -> {
+                    LineScanner.forCurrentThread().scan(path, region -> {
+                        ByteBuffer buf = region.buffer();
+                        int from = region.start();
+                        int match;
+                        while((match = LineScanner.indexOf(buf, needle, from, region.end())) >= 0) {
+                            results.accept(searchHit(format, path, region.lineAt(match), region, match, query, null));
+                            from = region.lineEnd(match) + 1;
                         }
-                    } catch(Exception e) {
-                        // 忽略文件读取错误
+                    });
+                }, output::write);
+            }
+        } catch(Exception e) {
+            out.println("搜索过程中发生错误: " + WorkingDirectory.display(e.getMessage()));
+        }
+    }
+
+    /**
+     * 多模式搜索：所有查询在一次遍历中通过 Aho-Corasick 自动机匹配，
+     * 每个匹配行列出命中的模式
+     */
+    private static void multiPatternSearch(CommandArgs cmd, PrintStream out) {
+        List<String> queries = new ArrayList<>(cmd.options("--query"));
+        String patternFile = cmd.option("--pattern-file", null);
+        if(patternFile != null) {
+            try {
+                for(String line : Files.readAllLines(WorkingDirectory.resolve(patternFile), StandardCharsets.UTF_8)) {
+                    if(!line.isBlank()) {
+                        queries.add(line.strip());
                     }
-                });
+                }
+            } catch(IOException e) {
+                out.println("读取模式文件时发生错误: " + WorkingDirectory.display(e.getMessage()));
+                return;
+            }
+        }
+        MultiPatternMatcher matcher = new MultiPatternMatcher(queries);
+        if(matcher.patternCount() == 0) {
+            out.println("请提供查询字符串。");
+            return;
+        }
+        String targetDir = cmd.get(1, ".");
+        SearchOutput.Format format = searchFormat(cmd, out);
+        if(format == null) {
+            return;
+        }
+        try {
+            Path root = WorkingDirectory.resolve(targetDir);
+            try(SearchOutput output = new SearchOutput(out, format)) {
+                newWalker(cmd, root).<SearchHit>walkFiles(root, (path, results) -> {
+                    BitSet hits = new BitSet();
+                    long[] hitLine = {0};
+                    // 行中第一个匹配的结束偏移和模式，用于计算列号
+                    int[] first = {0, 0};
+                    LineScanner.Region[] current = {null};
+                    Runnable flush = () -> {
+                        if(hits.isEmpty()) {
+                            return;
+                        }
+                        List<String> names = new ArrayList<>();
+                        hits.stream().forEach(id -> names.add(matcher.pattern(id)));
+                        String pattern = matcher.pattern(first[1]);
+                        int start = first[0] - pattern.getBytes(StandardCharsets.UTF_8).length;
+                        results.accept(searchHit(format, path, hitLine[0], current[0], start, pattern, names));
+                        hits.clear();
+                    };
+                    LineScanner.forCurrentThread().scan(path, region -> {
+                        current[0] = region;
+                        matcher.find(region.buffer(), region.start(), region.end(), (ids, end) -> {
+                            long line = region.lineAt(end - 1);
+                            if(line != hitLine[0]) {
+                                flush.run();
+                                hitLine[0] = line;
+                                first[0] = end;
+                                first[1] = ids[0];
+                            }
+                            for(int id : ids) {
+                                hits.set(id);
+                            }
+                        });
+                        // 区域内容只在回调期间有效，区域末尾的匹配行在此输出
+                        flush.run();
+                    });
+                }, output::write);
+            }
         } catch(Exception e) {
-            System.out.println("搜索过程中发生错误: " + e.getMessage());
+            out.println("搜索过程中发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void readFile(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供文件路径。");
+    /**
+     * 解析搜索命令的 --format 选项（plain、ndjson、vimgrep），不支持时输出提示
+     * @return 不支持的格式返回 null
+     */
+    private static SearchOutput.Format searchFormat(CommandArgs cmd, PrintStream out) {
+        String name = cmd.option("--format", "plain");
+        SearchOutput.Format format = SearchOutput.Format.parse(name);
+        if(format == null) {
+            out.println("不支持的输出格式: " + name);
+        }
+        return format;
+    }
+
+    /**
+     * 创建位于 offset 处的匹配行结果，格式需要时解码行内容并按字符计算列号
+     * @param line offset 所在的行号
+     * @param match 匹配的文本
+     * @param patterns 多模式搜索命中的模式，其他搜索为 null
+     */
+    private static SearchHit searchHit(SearchOutput.Format format, Path path, long line, LineScanner.Region region,
+                                       int offset, String match, List<String> patterns) {
+        if(!format.detailed()) {
+            return new SearchHit(path, line, 0, null, null, patterns);
+        }
+        int lineStart = region.lineStart(offset);
+        int column = region.chars(lineStart, offset).length() + 1;
+        return new SearchHit(path, line, column, match, region.decode(lineStart, region.lineEnd(offset)), patterns);
+    }
+
+    /**
+     * 根据 --threads、--ordered 和 --no-ignore 选项创建目录遍历器
+     * @param root 遍历根目录，用于加载 .gitignore 和 .ignore 规则
+     */
+    private static ParallelTreeWalker newWalker(CommandArgs cmd, Path root) {
+        ParallelTreeWalker walker = new ParallelTreeWalker(cmd.threads(), cmd.flag("--ordered"));
+        walker.setDirectoryFilter(dir -> !IndexDirectory.isIndexDirectory(dir));
+        walker.setIgnoreRules(ignoreRules(cmd, root));
+        return walker;
+    }
+
+    /**
+     * 加载忽略规则，指定 --no-ignore 时返回 null
+     */
+    private static IgnoreRules ignoreRules(CommandArgs cmd, Path root) {
+        return cmd.flag("--no-ignore") ? null : IgnoreRules.load(root);
+    }
+
+    private static void readFile(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--tail");
+        if(cmd.size() < 2) {
+            out.println("请提供文件路径。");
             return;
         }
-        String filePath = args[1];
+        Path path = WorkingDirectory.resolve(cmd.get(1));
+        LineOffsetIndex.LineVisitor printer = (number, line) -> out.println(number + ": " + line);
         try {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            if(args.length >= 4) {
-                int start = Integer.parseInt(args[2]) - 1;
-                int end = Integer.parseInt(args[3]) - 1;
-                for (int i = start; i <= end && i < lines.size(); i++) {
-                    System.out.println((i+1) + ": " + lines.get(i));
-                }
+            String tail = cmd.option("--tail", null);
+            if(tail != null) {
+                LineOffsetIndex.tail(path, Long.parseLong(tail), printer);
+            } else if(cmd.size() >= 4) {
+                long start = Long.parseLong(cmd.get(2));
+                long end = Long.parseLong(cmd.get(3));
+                LineOffsetIndex.read(path, start, end, printer);
             } else {
-                for (int i = 0; i < lines.size(); i++) {
-                    System.out.println((i+1) + ": " + lines.get(i));
-                }
+                LineOffsetIndex.read(path, 1, Long.MAX_VALUE, printer);
             }
         } catch(Exception e) {
-            System.out.println("读取文件时发生错误: " + e.getMessage());
+            out.println("读取文件时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void runTerminalCmd(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供要执行的命令。");
-            return;
+    /**
+     * 按 shell 规则给参数加引号，使输出的参数可以直接复制到命令行或 batch 文件中使用
+     */
+    static String shellQuote(String arg) {
+        if(!arg.isEmpty() && arg.matches("[A-Za-z0-9_./:=@%+,-]+")) {
+            return arg;
+        }
+        return "'" + arg.replace("'", "'\\''") + "'";
+    }
+
+    private static void runTerminalCmd(String[] args, PrintStream out) {
+        // 只解析命令之前的选项，命令本身的 "--" 参数原样保留
+        int first = 1;
+        while (first < args.length && TERMINAL_OPTIONS.contains(args[first]) && first + 1 < args.length) {
+            first += 2;
         }
-        // 将所有参数拼接为一个命令字符串
+        CommandArgs options = CommandArgs.parse(Arrays.copyOfRange(args, 0, first),
+                TERMINAL_OPTIONS.toArray(new String[0]));
+        // 将其余参数拼接为一个命令字符串
         StringBuilder cmdBuilder = new StringBuilder();
-        for (int i = 1; i < args.length; i++) {
+        for (int i = first; i < args.length; i++) {
             cmdBuilder.append(args[i]).append(" ");
         }
         String command = cmdBuilder.toString().trim();
         try {
-            ProcessBuilder pb = new ProcessBuilder();
-            // 根据操作系统分割命令
-            if(System.getProperty("os.name").toLowerCase().contains("windows")){
-                pb.command("cmd.exe", "/c", command);
-            } else {
-                pb.command("bash", "-c", command);
+            List<String> commands = new ArrayList<>(options.options("--cmd"));
+            String commandsFile = options.option("--commands-file", null);
+            if(commandsFile != null) {
+                for (String line : Files.readAllLines(WorkingDirectory.resolve(commandsFile), StandardCharsets.UTF_8)) {
+                    String trimmed = line.trim();
+                    if(!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                        commands.add(trimmed);
+                    }
+                }
+            }
+            if(!command.isEmpty() && (!commands.isEmpty() || commandsFile != null)) {
+                commands.add(command);
             }
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line;
-            while((line = reader.readLine()) != null) {
-                System.out.println(line);
+            if(command.isEmpty() && commands.isEmpty()) {
+                out.println("请提供要执行的命令。");
+                return;
+            }
+            int timeout = options.intOption("--timeout", 0);
+            int parallel = options.intOption("--parallel", Runtime.getRuntime().availableProcessors());
+            if(timeout < 0 || parallel < 1) {
+                out.println("--timeout 不能为负数，--parallel 必须为正整数。");
+                return;
+            }
+            CommandRunner runner = new CommandRunner(parallel, timeout * 1000L, out);
+            runner.setDirectory(WorkingDirectory.current());
+            if(commands.isEmpty()) {
+                int exitCode = runner.runStreaming(command);
+                out.println("退出码：" + exitCode);
+            } else {
+                runner.runAll(commands);
             }
-            int exitCode = process.waitFor();
-            System.out.println("退出码：" + exitCode);
         } catch(Exception e) {
-            System.out.println("执行命令时发生错误: " + e.getMessage());
+            out.println("执行命令时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void listDir(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供目录路径。");
+    private static void listDir(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--max-depth", "--offset", "--limit", "--after");
+        if(cmd.size() < 2) {
+            out.println("请提供目录路径。");
             return;
         }
-        String dirPath = args[1];
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(dirPath))) {
-            for(Path entry : stream) {
-                System.out.println(entry.getFileName().toString());
+        String dirPath = cmd.get(1);
+        try {
+            DirectoryLister lister = new DirectoryLister(WorkingDirectory.resolve(dirPath));
+            lister.setDetails(cmd.flag("--long"));
+            lister.setSorted(cmd.flag("--sort"));
+            if(cmd.flag("--recursive")) {
+                lister.setMaxDepth(cmd.intOption("--max-depth", Integer.MAX_VALUE));
+            }
+            lister.setOffset(cmd.intOption("--offset", 0));
+            int limit = cmd.intOption("--limit", -1);
+            if(limit >= 0) {
+                lister.setLimit(limit);
+            }
+            lister.setAfter(cmd.option("--after", null));
+            long count = lister.list(out);
+            // 下一页的参数只在指定 --next-page 时输出，避免混入目录项
+            if(lister.hasMore() && cmd.flag("--next-page")) {
+                // 未排序时遍历顺序不稳定，只能按偏移量翻页
+                out.println(cmd.flag("--sort") || cmd.option("--after", null) != null
+                        ? "下一页: --after " + shellQuote(lister.last())
+                        : "下一页: --offset " + (cmd.intOption("--offset", 0) + count));
             }
         } catch(Exception e) {
-            System.out.println("列出目录时发生错误: " + e.getMessage());
+            out.println("列出目录时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void grepSearch(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供正则表达式。");
+    private static void grepSearch(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--format");
+        if(cmd.size() < 2) {
+            out.println("请提供正则表达式。");
             return;
         }
-        String regex = args[1];
-        String targetDir = args.length >= 3 ? args[2] : ".";
+        String regex = cmd.get(1);
+        String targetDir = cmd.get(2, ".");
         Pattern pattern = Pattern.compile(regex);
+        SearchOutput.Format format = searchFormat(cmd, out);
+        if(format == null) {
+            return;
+        }
+        if(cmd.flag("--watch") && format != SearchOutput.Format.PLAIN) {
+            out.println("--watch 只支持 plain 格式。");
+            return;
+        }
         try {
-            Files.walk(Paths.get(targetDir))
-                .filter(Files::isRegularFile)
-                .forEach(path -> {
-                    try {
-                        List<String> lines = Files.readAllLines(path);
-                        for (int i = 0; i < lines.size(); i++) {
-                            Matcher matcher = pattern.matcher(lines.get(i));
-                            if(matcher.find()) {
-                                System.out.println("匹配: " + path.toString() + " 行号: " + (i+1));
-                            }
+            Path root = WorkingDirectory.resolve(targetDir);
+            Predicate<Path> candidates = cmd.flag("--no-index") ? null : indexCandidates(root, pattern);
+            RegexPrefilter prefilter = RegexPrefilter.of(pattern);
+            MatchDiff matches = cmd.flag("--watch") ? new MatchDiff() : null;
+            // 监视模式按行内容比较结果，需要保存行内容
+            boolean detailed = matches != null || format.detailed();
+            try(SearchOutput output = new SearchOutput(out, format)) {
+                newWalker(cmd, root).<SearchHit>walkFiles(root, (path, results) -> {
+                    if(candidates != null && !candidates.test(path)) {
+                        return;
+                    }
+                    grepFile(path, pattern, prefilter, detailed, results);
+                }, hits -> {
+                    output.write(hits);
+                    if(matches != null) {
+                        synchronized(matches) {
+                            hits.forEach(matches::add);
                         }
-                    } catch(Exception e) {
-                        // 忽略读取错误
                     }
                 });
+            }
+            if(matches != null) {
+                watchGrep(cmd, root, pattern, prefilter, matches, out);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch(Exception e) {
-            System.out.println("搜索过程中发生错误: " + e.getMessage());
+            out.println("搜索过程中发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void editFile(String[] args) {
-        if(args.length < 4) {
-            System.out.println("用法: editFile <文件路径> <目标字符串> <替换字符串>");
-            return;
+    /**
+     * 用正则逐行扫描文件
+     * @param prefilter 正则的字面量预过滤，为 null 时逐行匹配
+     * @param detailed 是否记录列号、匹配文本和行内容
+     */
+    private static void grepFile(Path path, Pattern pattern, RegexPrefilter prefilter, boolean detailed,
+                                 Consumer<SearchHit> results) throws IOException {
+        Matcher matcher = pattern.matcher("");
+        LineScanner.forCurrentThread().scan(path, region -> {
+            if(prefilter == null) {
+                region.forEachLine((line, start, end) -> grepLine(path, matcher, region, line, start, end, detailed, results));
+                return;
+            }
+            // 只解码包含全部必需字面量的行，不含锚点的区域不会被解码
+            ByteBuffer buf = region.buffer();
+            int from = region.start();
+            int anchor;
+            while((anchor = prefilter.findAnchor(buf, from, region.end())) >= 0) {
+                int start = region.lineStart(anchor);
+                int end = region.lineEnd(anchor);
+                if(prefilter.containsOthers(buf, start, end)) {
+                    grepLine(path, matcher, region, region.lineAt(start), start, end, detailed, results);
+                }
+                from = end + 1;
+            }
+        });
+    }
+
+    private static void grepLine(Path path, Matcher matcher, LineScanner.Region region, long line, int start, int end,
+                                 boolean detailed, Consumer<SearchHit> results) {
+        CharSequence text = region.chars(start, end);
+        if(matcher.reset(text).find()) {
+            results.accept(detailed
+                    ? new SearchHit(path, line, matcher.start() + 1, matcher.group(), text.toString(), null)
+                    : new SearchHit(path, line));
+        }
+    }
+
+    /**
+     * grepSearch --watch：监视目录树，只重新扫描发生变化的文件，输出新增（+）和消失（-）的匹配
+     */
+    private static void watchGrep(CommandArgs cmd, Path root, Pattern pattern, RegexPrefilter prefilter,
+                                  MatchDiff matches, PrintStream out)
+            throws IOException, InterruptedException {
+        UnaryOperator<String> display = WorkingDirectory.displayer();
+        MatchDiff.Changes printer = new MatchDiff.Changes() {
+            @Override
+            public void added(SearchHit match) {
+                out.println("+ 匹配: " + display.apply(match.path.toString()) + " 行号: " + match.line);
+            }
+
+            @Override
+            public void removed(SearchHit match) {
+                out.println("- 匹配: " + display.apply(match.path.toString()) + " 行号: " + match.line);
+            }
+        };
+        try(TreeWatcher watcher = new TreeWatcher()) {
+            watcher.setDirectoryFilter(dir -> !IndexDirectory.isIndexDirectory(dir));
+            watcher.setIgnoreRules(ignoreRules(cmd, root));
+            watcher.register(root);
+            out.println("正在监视 " + watcher.directoryCount() + " 个目录，按 Ctrl+C 结束。");
+            out.flush();
+            watcher.run((changed, overflow) -> {
+                if(overflow) {
+                    MatchDiff fresh = new MatchDiff();
+                    newWalker(cmd, root).walk(root, (path, results) -> grepFile(path, pattern, prefilter, true, results), fresh::add);
+                    matches.replaceAll(fresh, printer);
+                }
+                for(Path path : changed) {
+                    if(Files.isRegularFile(path)) {
+                        List<SearchHit> found = new ArrayList<>();
+                        try {
+                            grepFile(path, pattern, prefilter, true, found::add);
+                        } catch(IOException e) {
+                            // 文件正在被替换，下一次事件时重新扫描
+                            continue;
+                        }
+                        matches.update(path, found, printer);
+                    } else {
+                        matches.remove(path, printer);
+                    }
+                }
+                // 输出端已关闭（如服务模式下客户端断开）时结束监视
+                return !out.checkError();
+            });
         }
-        String filePath = args[1];
-        String target = args[2];
-        String replacement = args[3];
+    }
+
+    /**
+     * 使用三元组索引计算候选文件过滤条件
+     * @return 没有可用索引或正则中没有可用字面量时返回 null，即全量扫描
+     */
+    private static Predicate<Path> indexCandidates(Path root, Pattern pattern) {
         try {
-            Path path = Paths.get(filePath);
-            String content = new String(Files.readAllBytes(path));
-            if(content.contains(target)) {
-                content = content.replace(target, replacement);
-                Files.write(path, content.getBytes());
-                System.out.println("文件编辑成功。");
-            } else {
-                System.out.println("目标字符串未找到。");
+            TrigramIndex.Located index = TrigramIndex.find(root);
+            if(index == null) {
+                return null;
             }
-        } catch(Exception e) {
-            System.out.println("编辑文件时发生错误: " + e.getMessage());
+            RegexLiterals literals = RegexLiterals.analyze(pattern.pattern(), pattern.flags());
+            // 索引不记录跨行的三元组，含换行的字面量不能用于排除文件
+            List<String> required = new ArrayList<>();
+            for(String literal : literals.required()) {
+                if(literal.indexOf('\n') < 0) {
+                    required.add(literal);
+                }
+            }
+            return index.candidateFilter(root, required);
+        } catch(IOException e) {
+            // 索引损坏时退回全量扫描
+            return null;
         }
     }
 
-    private static void fileSearch(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供文件名片段。");
+    private static void index(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads");
+        if(cmd.size() < 3 || !cmd.get(1).equals("build")) {
+            out.println("用法: index build <目录> [--threads N] [--no-ignore]");
             return;
         }
-        String fragment = args[1];
-        String startDir = args.length >= 3 ? args[2] : ".";
         try {
-            Files.walk(Paths.get(startDir))
-                .filter(Files::isRegularFile)
-                .forEach(path -> {
-                    if(path.getFileName().toString().contains(fragment)) {
-                        System.out.println("匹配文件: " + path.toString());
-                    }
-                });
+            Path root = WorkingDirectory.resolve(cmd.get(2));
+            IgnoreRules ignore = ignoreRules(cmd, root);
+            TrigramIndex.BuildStats stats = TrigramIndex.build(root, cmd.threads(), ignore);
+            out.println("三元组索引已更新: 文件 " + stats.files + " 个，重新索引 " + stats.reindexed
+                    + " 个，移除 " + stats.removed + " 个，三元组 " + stats.trigrams + " 个，用时 " + stats.millis + " ms");
+            FileNameIndex.BuildStats names = FileNameIndex.build(root, cmd.threads(), ignore);
+            out.println("文件名索引已更新: 目录 " + names.dirs + " 个，文件 " + names.files
+                    + " 个，重新扫描目录 " + names.rescanned + " 个，用时 " + names.millis + " ms");
         } catch(Exception e) {
-            System.out.println("搜索过程中发生错误: " + e.getMessage());
+            out.println("建立索引时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void deleteFile(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供要删除的文件路径。");
+    private static void editFile(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--charset", "--bulk", "--glob");
+        if(!checkOptions(cmd, out, "--threads", "--charset", "--bulk", "--glob", "--regex", "--dry-run",
+                "--no-index", "--no-ignore", "--ordered")) {
+            return;
+        }
+        String bulkDir = cmd.option("--bulk", null);
+        if(bulkDir != null) {
+            bulkEdit(cmd, WorkingDirectory.resolve(bulkDir), out);
+            return;
+        }
+        if(cmd.size() < 4) {
+            out.println("用法: editFile <文件路径> <目标字符串> <替换字符串> [--regex] [--charset 编码] [--dry-run]");
             return;
         }
-        String filePath = args[1];
         try {
-            boolean deleted = Files.deleteIfExists(Paths.get(filePath));
-            if(deleted) {
-                System.out.println("文件已删除。");
+            StreamingReplacer replacer = new StreamingReplacer(cmd.get(2), cmd.get(3), cmd.flag("--regex"),
+                    Charset.forName(cmd.option("--charset", "UTF-8")));
+            int count = replacer.apply(WorkingDirectory.resolve(cmd.get(1)), cmd.flag("--dry-run"));
+            if(count == 0) {
+                out.println("目标字符串未找到。");
+            } else if(cmd.flag("--dry-run")) {
+                out.println("将替换 " + count + " 处（未修改文件）。");
             } else {
-                System.out.println("文件不存在或未删除。");
+                out.println("文件编辑成功，替换 " + count + " 处。");
             }
         } catch(Exception e) {
-            System.out.println("删除文件时发生错误: " + e.getMessage());
+            out.println("编辑文件时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
     }
 
-    private static void reapply(String[] args) {
-        // 目前未实现 reapply 功能
-        System.out.println("reapply 功能暂未实现。");
+    /**
+     * 对目录下的全部文件并行执行同一个替换，只输出发生替换的文件
+     */
+    private static void bulkEdit(CommandArgs cmd, Path root, PrintStream out) {
+        if(cmd.size() < 3) {
+            out.println("用法: editFile --bulk <目录> <目标字符串> <替换字符串> [--regex] [--glob 模式] [--charset 编码] [--dry-run] [--threads N]");
+            return;
+        }
+        boolean dryRun = cmd.flag("--dry-run");
+        try {
+            Charset charset = Charset.forName(cmd.option("--charset", "UTF-8"));
+            String target = cmd.get(1);
+            StreamingReplacer replacer = new StreamingReplacer(target, cmd.get(2), cmd.flag("--regex"), charset);
+            Pattern pattern = replacer.pattern() != null ? replacer.pattern() : Pattern.compile(Pattern.quote(target));
+            // 索引按 UTF-8 字节记录三元组，其他编码的文件不能用索引排除
+            Predicate<Path> candidates = cmd.flag("--no-index") || !charset.equals(StandardCharsets.UTF_8) ? null
+                    : indexCandidates(root, pattern);
+            byte[] prefilter = prefilterBytes(pattern, charset);
+            boolean wide = isWideCharset(charset);
+            String glob = cmd.option("--glob", null);
+            PathMatcher globMatcher = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+            // 含 '/' 的模式匹配相对于根目录的路径，否则只匹配文件名
+            boolean globPath = glob != null && glob.indexOf('/') >= 0;
+            AtomicInteger files = new AtomicInteger();
+            AtomicLong replacements = new AtomicLong();
+            UnaryOperator<String> display = WorkingDirectory.displayer();
+            newWalker(cmd, root).walk(root, (path, results) -> {
+                if(globMatcher != null && !globMatcher.matches(globPath ? root.relativize(path) : path.getFileName())) {
+                    return;
+                }
+                if(candidates != null && !candidates.test(path)) {
+                    return;
+                }
+                // 先按字节确认文件可能包含目标，避免为不相关的文件创建临时文件。
+                // UTF-16、UTF-32 的文本含有 NUL 字节，不能按二进制文件跳过，也没有可用的字节过滤
+                boolean[] found = {wide};
+                boolean text = wide || LineScanner.forCurrentThread().scan(path, region -> {
+                    if(!found[0] && (prefilter.length == 0
+                            || LineScanner.indexOf(region.buffer(), prefilter, region.start(), region.end()) >= 0)) {
+                        found[0] = true;
+                    }
+                });
+                if(!text || !found[0]) {
+                    return;
+                }
+                try {
+                    int count = replacer.apply(path, dryRun);
+                    if(count > 0) {
+                        files.incrementAndGet();
+                        replacements.addAndGet(count);
+                        results.accept((dryRun ? "将修改: " : "已修改: ") + display.apply(path.toString()) + " 替换: " + count);
+                    }
+                } catch(IOException e) {
+                    results.accept("跳过: " + display.apply(path.toString()) + " 原因: " + display.apply(e.getMessage()));
+                }
+            }, out::println);
+            out.println((dryRun ? "预计修改 " : "共修改 ") + files.get() + " 个文件，替换 " + replacements.get() + " 处。");
+        } catch(Exception e) {
+            out.println("批量编辑时发生错误: " + WorkingDirectory.display(e.getMessage()));
+        }
     }
 
-    private static void checkProject(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供要检查的项目路径。");
-            return;
+    /**
+     * 替换目标中必然出现的字节序列，用于快速跳过不相关的文件；无法确定时返回空数组（不过滤）
+     */
+    private static byte[] prefilterBytes(Pattern pattern, Charset charset) {
+        if(isWideCharset(charset)) {
+            return new byte[0];
         }
-        String projectPath = args[1];
-        boolean verbose = false;
-        if(args.length >= 3 && args[2].equalsIgnoreCase("verbose")) {
-            verbose = true;
+        RegexLiterals literals = RegexLiterals.analyze(pattern.pattern(), pattern.flags());
+        if(literals.caseInsensitive()) {
+            return new byte[0];
         }
-        JavaProjectChecker checker = new JavaProjectChecker(projectPath, verbose);
-        boolean result = checker.runChecks();
-        if(!result) {
-            System.out.println("项目检查发现问题，请进行修复。");
-        } else {
-            System.out.println("项目检查未发现问题。");
+        String best = "";
+        for(String literal : literals.required()) {
+            // 含换行的字面量可能跨越扫描区域，不用于过滤
+            if(literal.length() > best.length() && literal.indexOf('\n') < 0 && literal.indexOf('\r') < 0) {
+                best = literal;
+            }
         }
+        return best.getBytes(charset);
+    }
+
+    /**
+     * 每个字符至少两个字节的编码，文本中的 ASCII 字符也含有 NUL 字节
+     */
+    private static boolean isWideCharset(Charset charset) {
+        return charset.name().startsWith("UTF-16") || charset.name().startsWith("UTF-32");
     }
 
-    private static void checkFrontend(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供要检查的前端项目路径。");
+    private static void fileSearch(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--limit", "--format");
+        if(cmd.size() < 2) {
+            out.println("请提供文件名片段。");
             return;
         }
-        String projectPath = args[1];
-        boolean verbose = false;
-        if(args.length >= 3 && args[2].equalsIgnoreCase("verbose")) {
-            verbose = true;
-        }
-        System.out.println("检查前端项目: " + projectPath);
-        if(Files.exists(Paths.get(projectPath, "package.json"))) {
-            System.out.println("[INFO] package.json 文件已找到。");
-        } else {
-            System.out.println("[WARN] 未找到 package.json 文件。");
+        String fragment = cmd.get(1);
+        String startDir = cmd.get(2, ".");
+        FileNameMatcher.Mode mode = cmd.flag("--fuzzy") ? FileNameMatcher.Mode.FUZZY
+                : cmd.flag("--prefix") ? FileNameMatcher.Mode.PREFIX : FileNameMatcher.Mode.SUBSTRING;
+        FileNameMatcher matcher = new FileNameMatcher(mode, fragment);
+        boolean fuzzy = mode == FileNameMatcher.Mode.FUZZY;
+        SearchOutput.Format format = searchFormat(cmd, out);
+        if(format == null) {
+            return;
         }
-        if(Files.isDirectory(Paths.get(projectPath, "node_modules"))) {
-            System.out.println("[INFO] node_modules 目录已找到。");
-        } else {
-            System.out.println("[WARN] 未找到 node_modules 目录。");
+        try(SearchOutput output = new SearchOutput(out, format)) {
+            Path start = WorkingDirectory.resolve(startDir);
+            // 索引不包含被忽略的文件，--no-ignore 时直接遍历目录
+            List<FileNameIndex.Match> matches = cmd.flag("--no-index") || cmd.flag("--no-ignore") ? null
+                    : fileNameIndexSearch(start, matcher, cmd.threads(), IgnoreRules.load(start));
+            if(matches == null) {
+                matches = new ArrayList<>();
+                List<FileNameIndex.Match> collected = matches;
+                newWalker(cmd, start).<FileNameIndex.Match>walkFiles(start, (path, results) -> {
+                    int score = matcher.score(path.getFileName().toString());
+                    if(score >= 0) {
+                        results.accept(new FileNameIndex.Match(path, score));
+                    }
+                }, found -> {
+                    if(fuzzy) {
+                        synchronized(collected) {
+                            collected.addAll(found);
+                        }
+                    } else {
+                        for(FileNameIndex.Match match : found) {
+                            output.write(SearchHit.file(match.path));
+                        }
+                    }
+                });
+                if(!fuzzy) {
+                    return;
+                }
+            } else if(!fuzzy && cmd.flag("--ordered")) {
+                matches.sort(Comparator.comparing(match -> match.path.toString()));
+            }
+            if(fuzzy) {
+                // 模糊匹配按得分从高到低输出前 N 个
+                matches.sort(Comparator.comparingInt((FileNameIndex.Match match) -> -match.score)
+                        .thenComparing(match -> match.path.toString()));
+                int limit = cmd.intOption("--limit", 20);
+                if(matches.size() > limit) {
+                    matches = matches.subList(0, limit);
+                }
+            }
+            for(FileNameIndex.Match match : matches) {
+                output.write(SearchHit.file(match.path));
+            }
+        } catch(Exception e) {
+            out.println("搜索过程中发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
-        if(Files.exists(Paths.get(projectPath, "index.html"))) {
-            System.out.println("[INFO] index.html 文件已找到。");
-        } else if(Files.exists(Paths.get(projectPath, "public", "index.html"))) {
-            System.out.println("[INFO] public/index.html 文件已找到。");
-        } else {
-            System.out.println("[WARN] 未找到 index.html 文件。");
+    }
+
+    /**
+     * 使用文件名索引查询
+     * @return 没有可用索引时返回 null，即遍历目录
+     */
+    private static List<FileNameIndex.Match> fileNameIndexSearch(Path start, FileNameMatcher matcher, int threads,
+                                                                 IgnoreRules ignore) {
+        try {
+            FileNameIndex.Located index = FileNameIndex.find(start);
+            return index == null ? null : index.search(start, matcher, threads, ignore);
+        } catch(IOException e) {
+            // 索引损坏时退回目录遍历
+            return null;
         }
-        System.out.println("前端项目检查完成。");
     }
 
-    private static void checkPython(String[] args) {
-        if(args.length < 2) {
-            System.out.println("请提供要检查的 Python 项目路径。");
+    private static void deleteFile(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--glob", "--max-depth");
+        if(!checkOptions(cmd, out, "--threads", "--glob", "--max-depth", "--recursive", "--dry-run", "--progress")) {
             return;
         }
-        String projectPath = args[1];
-        boolean verbose = false;
-        if(args.length >= 3 && args[2].equalsIgnoreCase("verbose")) {
-            verbose = true;
-        }
-        System.out.println("检查 Python 项目: " + projectPath);
-        if(Files.exists(Paths.get(projectPath, "requirements.txt"))) {
-            System.out.println("[INFO] requirements.txt 文件已找到。");
-        } else {
-            System.out.println("[WARN] 未找到 requirements.txt 文件。");
-        }
-        if(Files.exists(Paths.get(projectPath, "setup.py"))) {
-            System.out.println("[INFO] setup.py 文件已找到。");
-        } else {
-            System.out.println("[WARN] 未找到 setup.py 文件。");
+        if(cmd.size() < 2) {
+            out.println("请提供要删除的文件路径。");
+            return;
         }
+        String filePath = cmd.get(1);
+        String glob = cmd.option("--glob", null);
+        boolean dryRun = cmd.flag("--dry-run");
         try {
-            boolean foundPy = Files.walk(Paths.get(projectPath))
-                    .filter(Files::isRegularFile)
-                    .anyMatch(path -> path.toString().endsWith(".py"));
-            if(foundPy) {
-                System.out.println("[INFO] 找到了 Python 源代码文件。");
-            } else {
-                System.out.println("[WARN] 未找到任何 Python 源代码文件。");
+            Path path = WorkingDirectory.resolve(filePath);
+            if(glob == null && !cmd.flag("--recursive")) {
+                boolean directory = Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS);
+                if(directory && !isEmptyDirectory(path)) {
+                    out.println("目录不为空，使用 --recursive 删除整个目录。");
+                    return;
+                }
+                if(directory && TreeDeleter.isProtected(path)) {
+                    out.println("拒绝删除根目录、用户主目录或其上级目录: " + WorkingDirectory.display(path));
+                    return;
+                }
+                if(dryRun) {
+                    out.println(Files.exists(path, LinkOption.NOFOLLOW_LINKS)
+                            ? "将删除: " + WorkingDirectory.display(path) : "文件不存在或未删除。");
+                    return;
+                }
+                boolean deleted = Files.deleteIfExists(path);
+                if(deleted) {
+                    out.println("文件已删除。");
+                } else {
+                    out.println("文件不存在或未删除。");
+                }
+                return;
             }
-        } catch(IOException e) {
-            System.out.println("检查 Python 文件时出现错误: " + e.getMessage());
+            if(!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+                out.println("文件不存在或未删除。");
+                return;
+            }
+            TreeDeleter deleter = new TreeDeleter(cmd.threads(), dryRun);
+            if(glob != null) {
+                deleter.setGlob(glob);
+                deleter.setMaxDepth(cmd.intOption("--max-depth", Integer.MAX_VALUE));
+            }
+            if(cmd.flag("--progress")) {
+                deleter.setProgress(out, 1000);
+            }
+            deleter.run(path, out);
+            for(String error : deleter.errors()) {
+                out.println("失败: " + error);
+            }
+            if(glob != null) {
+                out.println("匹配 " + deleter.matched() + " 项。");
+            }
+            out.println(deleter.summary() + "。");
+        } catch(Exception e) {
+            out.println("删除文件时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
-        System.out.println("Python 项目检查完成。");
     }
-}
 
-class JavaProjectChecker {
-    private String projectPath;
-    private boolean verbose;
-    private List<String> issues;
-    private boolean hasMavenPom;
-    private boolean hasGradleBuild;
-    private boolean hasJavaVersion;
-    private boolean hasSourceDir;
-    private boolean hasTestDir;
-    private boolean hasDockerfile;
-    private String javaVersion;
-    
-    public JavaProjectChecker(String projectPath, boolean verbose) {
-        this.projectPath = projectPath;
-        this.verbose = verbose;
-        this.issues = new ArrayList<>();
-        this.hasMavenPom = false;
-        this.hasGradleBuild = false;
-        this.hasJavaVersion = false;
-        this.hasSourceDir = false;
-        this.hasTestDir = false;
-        this.hasDockerfile = false;
-        this.javaVersion = null;
-    }
-    
-    private void log(String message) {
-        if (verbose) {
-            System.out.println("[INFO] " + message);
+    /**
+     * 拒绝命令不支持的选项，避免拼写错误的选项被忽略后执行了修改；--stats 对所有命令有效
+     * @return 全部选项都支持时返回 true，否则输出错误并返回 false
+     */
+    private static boolean checkOptions(CommandArgs cmd, PrintStream out, String... known) {
+        List<String> supported = new ArrayList<>(Arrays.asList(known));
+        supported.add("--stats");
+        String unknown = cmd.unknownOption(supported.toArray(new String[0]));
+        if(unknown != null) {
+            out.println("不支持的选项: " + unknown);
+            return false;
         }
+        return true;
     }
-    
-    public boolean runChecks() {
-        System.out.println("检查Java项目: " + projectPath);
-        log("开始检查Java项目: " + projectPath);
-        
-        checkBuildTools();
-        checkJavaVersion();
-        checkProjectStructure();
-        checkDockerSupport();
-        
-        if (!issues.isEmpty()) {
-            System.out.println("\n不符合规范的问题:");
-            for (int i = 0; i < issues.size(); i++) {
-                System.out.println((i + 1) + ". " + issues.get(i));
-            }
-            return false;
-        } else {
-            System.out.println("恭喜！项目符合规范要求。");
-            return true;
+
+    private static boolean isEmptyDirectory(Path dir) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            return !stream.iterator().hasNext();
         }
     }
-    
-    private void checkBuildTools() {
-        // 检查Maven配置
-        File pomFile = new File(projectPath, "pom.xml");
-        if (pomFile.exists()) {
-            hasMavenPom = true;
-            log("找到Maven配置文件: pom.xml");
+
+    private static void reapply(String[] args, PrintStream out) {
+        // 目前未实现 reapply 功能
+        out.println("reapply 功能暂未实现。");
+    }
+
+    private static void checkProject(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--paths-file", "--discover", "--format", "--max-depth");
+        List<String> projects = new ArrayList<>();
+        boolean verbose = false;
+        for(String arg : cmd.positional().subList(1, cmd.size())) {
+            if(arg.equalsIgnoreCase("verbose")) {
+                verbose = true;
+            } else {
+                projects.add(arg);
+            }
         }
-        
-        // 检查Gradle配置
-        File gradleFile = new File(projectPath, "build.gradle");
-        File gradleKtsFile = new File(projectPath, "build.gradle.kts");
-        if (gradleFile.exists() || gradleKtsFile.exists()) {
-            hasGradleBuild = true;
-            log("找到Gradle配置文件: " + (gradleFile.exists() ? "build.gradle" : "build.gradle.kts"));
+        String format = cmd.option("--format", "text");
+        if(!format.equals("text") && !format.equals("ndjson") && !format.equals("json")) {
+            out.println("不支持的输出格式: " + format);
+            return;
         }
-        
-        if (!hasMavenPom && !hasGradleBuild) {
-            issues.add("没有找到Maven或Gradle构建配置文件");
+        if(cmd.flag("--watch") && !format.equals("text")) {
+            out.println("--watch 只支持文本格式。");
+            return;
         }
-    }
-    
-    private void checkJavaVersion() {
-        // 检查.sdkmanrc文件
-        File sdkmanRcFile = new File(projectPath, ".sdkmanrc");
-        if (sdkmanRcFile.exists()) {
-            try {
-                String content = Files.readString(sdkmanRcFile.toPath());
-                if (content.contains("JAVA_VERSION")) {
-                    hasJavaVersion = true;
-                    // 提取Java版本
-                    String[] lines = content.split("\\r?\\n");
-                    for (String line : lines) {
-                        if (line.trim().startsWith("JAVA_VERSION")) {
-                            javaVersion = line.split("=")[1].trim();
-                            log("找到Java版本配置: " + javaVersion);
-                            break;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log("读取.sdkmanrc文件时出错: " + e.getMessage());
+        try {
+            String pathsFile = cmd.option("--paths-file", null);
+            if(pathsFile != null) {
+                projects.addAll(ProjectCheckRunner.readPaths(WorkingDirectory.resolveString(pathsFile)));
             }
-        }
-        
-        // 检查Maven中的Java版本
-        if (hasMavenPom) {
-            try {
-                Path pomPath = Paths.get(projectPath, "pom.xml");
-                String content = Files.readString(pomPath);
-                if (content.contains("<maven.compiler.source>") || content.contains("<java.version>")) {
-                    hasJavaVersion = true;
-                    log("在pom.xml中找到Java版本配置");
-                }
-            } catch (Exception e) {
-                log("读取pom.xml文件时出错: " + e.getMessage());
+            for(String root : cmd.options("--discover")) {
+                projects.addAll(ProjectCheckRunner.discover(WorkingDirectory.resolve(root),
+                        cmd.intOption("--max-depth", 4)));
             }
-        }
-        
-        // 检查Gradle中的Java版本
-        if (hasGradleBuild) {
-            try {
-                Path gradlePath = Paths.get(projectPath, "build.gradle");
-                if (!Files.exists(gradlePath)) {
-                    gradlePath = Paths.get(projectPath, "build.gradle.kts");
-                }
-                
-                if (Files.exists(gradlePath)) {
-                    String content = Files.readString(gradlePath);
-                    if (content.contains("sourceCompatibility") || content.contains("targetCompatibility")) {
-                        hasJavaVersion = true;
-                        log("在Gradle文件中找到Java版本配置");
-                    }
-                }
-            } catch (Exception e) {
-                log("读取Gradle文件时出错: " + e.getMessage());
+            if(projects.isEmpty()) {
+                out.println("请提供要检查的项目路径。");
+                return;
             }
-        }
-        
-        if (!hasJavaVersion) {
-            issues.add("未明确指定Java版本");
-        }
-    }
-    
-    private void checkProjectStructure() {
-        // 检查源代码目录
-        String[] sourceDirs = {
-            "src/main/java",
-            "src/main/kotlin",
-            "src/main/scala",
-            "src"
-        };
-        
-        for (String dir : sourceDirs) {
-            File sourceDir = new File(projectPath, dir);
-            if (sourceDir.exists() && sourceDir.isDirectory()) {
-                hasSourceDir = true;
-                log("找到源代码目录: " + dir);
-                break;
+            projects.replaceAll(WorkingDirectory::resolveString);
+            ProjectCheckRunner runner = new ProjectCheckRunner(cmd.threads(), format, verbose, out);
+            if(!cmd.flag("--no-cache")) {
+                runner.setCache(CheckResultCache.openDefault());
             }
-        }
-        
-        if (!hasSourceDir) {
-            issues.add("缺少标准的源代码目录");
-        }
-        
-        // 检查测试目录
-        String[] testDirs = {
-            "src/test/java",
-            "src/test/kotlin",
-            "src/test/scala",
-            "test"
-        };
-        
-        for (String dir : testDirs) {
-            File testDir = new File(projectPath, dir);
-            if (testDir.exists() && testDir.isDirectory()) {
-                hasTestDir = true;
-                log("找到测试目录: " + dir);
-                break;
+            runner.setModules(cmd.flag("--modules"));
+            int passed = runner.run(projects);
+            if(format.equals("text") && cmd.flag("--modules")) {
+                out.println("共检查 " + runner.checkedCount() + " 个项目或模块，" + passed + " 个未发现问题。");
+            } else if(format.equals("text") && projects.size() > 1) {
+                out.println("共检查 " + projects.size() + " 个项目，" + passed + " 个未发现问题。");
+            }
+            if(cmd.flag("--watch")) {
+                runner.watch();
             }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(IOException | RuntimeException e) {
+            out.println("检查项目时发生错误: " + WorkingDirectory.display(e.getMessage()));
         }
-        
-        if (!hasTestDir) {
-            issues.add("缺少测试目录");
+    }
+
+    private static void checkFrontend(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads");
+        if(cmd.size() < 2) {
+            out.println("请提供要检查的前端项目路径。");
+            return;
         }
-        
-        // 检查README文件
-        File[] readmeFiles = new File(projectPath).listFiles((dir, name) -> 
-            name.toLowerCase().startsWith("readme"));
-            
-        if (readmeFiles == null || readmeFiles.length == 0) {
-            issues.add("缺少README文件");
-        } else {
-            log("找到README文件: " + readmeFiles[0].getName());
+        String projectPath = cmd.get(1);
+        boolean verbose = cmd.get(2, "").equalsIgnoreCase("verbose");
+        out.println("检查前端项目: " + projectPath);
+        CheckResultCache cache = null;
+        try {
+            FrontendChecker checker = new FrontendChecker(WorkingDirectory.resolve(projectPath), cmd.threads(), verbose);
+            if(!cmd.flag("--no-cache")) {
+                cache = FrontendChecker.openDefaultCache();
+                checker.setCache(cache);
+            }
+            for(String line : checker.run()) {
+                out.println(WorkingDirectory.display(line));
+            }
+            if(verbose && checker.isCached()) {
+                out.println("[INFO] 依赖未变化，结果来自缓存。");
+            }
+        } catch(IOException | RuntimeException e) {
+            out.println("检查前端项目时发生错误: " + WorkingDirectory.display(e.getMessage()));
+        } finally {
+            if(cache != null) {
+                try {
+                    cache.evict();
+                } catch(IOException e) {
+                    // 淘汰失败不影响检查结果
+                }
+            }
         }
+        out.println("前端项目检查完成。");
     }
-    
-    private void checkDockerSupport() {
-        // 检查Dockerfile
-        File dockerfile = new File(projectPath, "Dockerfile");
-        if (dockerfile.exists()) {
-            hasDockerfile = true;
-            log("找到Dockerfile");
-        } else {
-            log("未找到Dockerfile");
-        }
-        
-        // 检查docker-compose.yml
-        File dockerCompose = new File(projectPath, "docker-compose.yml");
-        File dockerComposeYaml = new File(projectPath, "docker-compose.yaml");
-        
-        if (dockerCompose.exists() || dockerComposeYaml.exists()) {
-            log("找到docker-compose文件");
-        } else {
-            log("未找到docker-compose文件");
+
+    private static void checkPython(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--venv");
+        if(cmd.size() < 2) {
+            out.println("请提供要检查的 Python 项目路径。");
+            return;
         }
-        
-        if (!hasDockerfile) {
-            issues.add("未找到Docker支持文件（推荐添加Dockerfile）");
+        String projectPath = cmd.get(1);
+        boolean verbose = cmd.get(2, "").equalsIgnoreCase("verbose");
+        out.println("检查 Python 项目: " + projectPath);
+        try {
+            PythonChecker checker = new PythonChecker(WorkingDirectory.resolve(projectPath), cmd.threads(), verbose);
+            checker.setUseIgnoreFiles(!cmd.flag("--no-ignore"));
+            String venv = cmd.option("--venv", null);
+            if(venv != null) {
+                checker.setVenv(WorkingDirectory.resolve(venv));
+            }
+            for(String line : checker.run()) {
+                out.println(WorkingDirectory.display(line));
+            }
+        } catch(IOException | RuntimeException e) {
+            out.println("检查 Python 项目时出现错误: " + WorkingDirectory.display(e.getMessage()));
         }
-    }
-    
-    // Getters
-    public String getProjectPath() {
-        return projectPath;
-    }
-    
-    public List<String> getIssues() {
-        return issues;
-    }
-    
-    public boolean hasMavenPom() {
-        return hasMavenPom;
-    }
-    
-    public boolean hasGradleBuild() {
-        return hasGradleBuild;
-    }
-    
-    public boolean hasJavaVersion() {
-        return hasJavaVersion;
-    }
-    
-    public boolean hasSourceDir() {
-        return hasSourceDir;
-    }
-    
-    public boolean hasTestDir() {
-        return hasTestDir;
-    }
-    
-    public boolean hasDockerfile() {
-        return hasDockerfile;
+        out.println("Python 项目检查完成。");
     }
 }
 
@@ -0,0 +1,154 @@
+package com.tool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 命令参数解析
+ * 将 "--选项 值"、"--选项=值" 和 "--开关" 从参数中分离出来，其余参数按原顺序作为位置参数；
+ * 单独的 "--" 之后的参数一律视为位置参数
+ */
+public class CommandArgs {
+    /** 当前线程执行的命令最多可以使用的线程数，未设置时不限制 */
+    private static final ThreadLocal<Integer> THREAD_LIMIT = new ThreadLocal<>();
+
+    private final List<String> positional = new ArrayList<>();
+    private final Map<String, List<String>> options = new HashMap<>();
+    private final Set<String> flags = new HashSet<>();
+    /** 按出现顺序记录的选项和开关名 */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * 解析参数
+     * @param args 原始参数（包含命令名）
+     * @param valueOptions 需要携带值的选项名，例如 "--threads"
+     * @return 解析结果
+     */
+    public static CommandArgs parse(String[] args, String... valueOptions) {
+        Set<String> withValue = new HashSet<>(Arrays.asList(valueOptions));
+        CommandArgs result = new CommandArgs();
+        boolean optionsEnded = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (optionsEnded || !arg.startsWith("--")) {
+                result.positional.add(arg);
+                continue;
+            }
+            if (arg.equals("--")) {
+                optionsEnded = true;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                result.addOption(arg.substring(0, eq), arg.substring(eq + 1));
+            } else if (withValue.contains(arg) && i + 1 < args.length) {
+                result.addOption(arg, args[++i]);
+            } else {
+                result.flags.add(arg);
+                result.names.add(arg);
+            }
+        }
+        return result;
+    }
+
+    private void addOption(String name, String value) {
+        options.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        names.add(name);
+    }
+
+    /**
+     * 位置参数个数（包含命令名）
+     */
+    public int size() {
+        return positional.size();
+    }
+
+    public String get(int index) {
+        return positional.get(index);
+    }
+
+    public String get(int index, String defaultValue) {
+        return index < positional.size() ? positional.get(index) : defaultValue;
+    }
+
+    public List<String> positional() {
+        return Collections.unmodifiableList(positional);
+    }
+
+    public boolean flag(String name) {
+        return flags.contains(name);
+    }
+
+    public String option(String name, String defaultValue) {
+        List<String> values = options.get(name);
+        return values == null ? defaultValue : values.get(values.size() - 1);
+    }
+
+    /**
+     * 可重复出现的选项的全部取值
+     */
+    public List<String> options(String name) {
+        List<String> values = options.get(name);
+        return values == null ? Collections.emptyList() : Collections.unmodifiableList(values);
+    }
+
+    /**
+     * 查找不在给定列表中的选项或开关，用于拒绝拼写错误的选项（例如 --dryrun）
+     * @param known 命令支持的全部选项和开关
+     * @return 第一个未知的名称，全部已知时返回 null
+     */
+    public String unknownOption(String... known) {
+        List<String> supported = Arrays.asList(known);
+        for (String name : names) {
+            if (!supported.contains(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    public int intOption(String name, int defaultValue) {
+        String value = option(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("选项 " + name + " 需要整数值: " + value);
+        }
+    }
+
+    /**
+     * 解析 --threads 选项，未指定时使用可用处理器数；不超过当前线程的线程数上限
+     */
+    public int threads() {
+        int threads = intOption("--threads", Runtime.getRuntime().availableProcessors());
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads 必须为正整数: " + threads);
+        }
+        Integer limit = THREAD_LIMIT.get();
+        return limit == null ? threads : Math.min(threads, limit);
+    }
+
+    /**
+     * 限制当前线程执行的命令使用的线程数，批处理中并行执行的请求借此共享 batch 的 --threads
+     * @param limit 线程数上限，为 null 时不限制
+     * @return 之前的上限，处理完成后应重新设置
+     */
+    public static Integer limitThreads(Integer limit) {
+        Integer previous = THREAD_LIMIT.get();
+        if (limit == null) {
+            THREAD_LIMIT.remove();
+        } else {
+            THREAD_LIMIT.set(limit);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,593 @@
+package com.tool;
+
+import com.tool.checkers.BuildToolCheck;
+import com.tool.checkers.CheckResultCache;
+import com.tool.checkers.GradleScripts;
+import com.tool.checkers.GradleSettings;
+import com.tool.checkers.JavaProjectChecker;
+import com.tool.checkers.JavaVersionCheck;
+import com.tool.checkers.MavenReactor;
+import com.tool.checkers.ProjectCheck;
+import com.tool.checkers.ProjectSnapshot;
+import com.tool.checkers.ProjectStructureCheck;
+import com.tool.metrics.CommandStats;
+import com.tool.watch.TreeWatcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 多项目检查
+ * 在固定大小的线程池中并发执行 JavaProjectChecker，结果可以输出为原有的文本格式、
+ * 按完成顺序流式输出的 NDJSON，或按输入顺序排列的 JSON 数组
+ */
+class ProjectCheckRunner {
+    /** 查找项目时不进入的目录 */
+    private static final Set<String> SKIPPED_DIRS = new HashSet<>(Arrays.asList(
+            "node_modules", "target", "build", "out", "dist", "vendor"));
+    /** 监视模式下会触发重新展开模块的文件 */
+    private static final Set<String> BUILD_FILES = new HashSet<>(Arrays.asList(
+            "pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts"));
+
+    private final int threads;
+    private final String format;
+    private final boolean verbose;
+    private final PrintStream out;
+    private CheckResultCache cache;
+    private boolean modules;
+    private int checkedCount;
+    private Result[] results;
+    /** 构造时绑定的命令统计，检查线程执行期间同样绑定 */
+    private final CommandStats stats = CommandStats.current();
+    /** 检查对象的路径已按请求的工作目录解析，输出时还原成用户给出的形式 */
+    private final UnaryOperator<String> display = WorkingDirectory.displayer();
+
+    /**
+     * 检查对象：一个项目，或多模块项目中的一个模块
+     */
+    static final class Target {
+        final String path;
+        final String project;
+        final String module;
+        final List<ProjectCheck> checks;
+
+        Target(String path, String project, String module, List<ProjectCheck> checks) {
+            this.path = path;
+            this.project = project;
+            this.module = module;
+            this.checks = checks;
+        }
+    }
+
+    /**
+     * 单个项目的检查结果
+     */
+    static final class Result {
+        final int order;
+        final Target target;
+        final String path;
+        final boolean passed;
+        /** 检查抛出异常时为 null */
+        final JavaProjectChecker checker;
+        final String text;
+        final long nanos;
+        /** 检查抛出异常时的错误信息，正常完成时为 null */
+        final String error;
+
+        Result(int order, Target target, boolean passed, JavaProjectChecker checker, String text, long nanos) {
+            this.order = order;
+            this.target = target;
+            this.path = target.path;
+            this.passed = passed;
+            this.checker = checker;
+            this.text = text;
+            this.nanos = nanos;
+            this.error = null;
+        }
+
+        /**
+         * 检查过程中抛出异常的结果，计为未通过
+         */
+        Result(int order, Target target, String error) {
+            this.order = order;
+            this.target = target;
+            this.path = target.path;
+            this.passed = false;
+            this.checker = null;
+            this.error = error;
+            this.text = error + System.lineSeparator();
+            this.nanos = 0;
+        }
+
+        /**
+         * 发现的问题；检查出错时只有错误信息一项
+         */
+        List<String> issues() {
+            return checker != null ? checker.getIssues() : Collections.singletonList(error);
+        }
+    }
+
+    /**
+     * 构造函数
+     * @param threads 并发检查的项目数
+     * @param format 输出格式: text、ndjson 或 json
+     * @param verbose 文本格式下是否输出详细信息
+     * @param out 输出流
+     */
+    ProjectCheckRunner(int threads, String format, boolean verbose, PrintStream out) {
+        this.threads = threads;
+        this.format = format;
+        this.verbose = verbose;
+        this.out = out;
+    }
+
+    /**
+     * 设置检查结果缓存
+     * @param cache 结果缓存，为 null 时不使用缓存
+     */
+    void setCache(CheckResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 设置是否展开 Maven 多模块项目，逐个检查其中的模块
+     */
+    void setModules(boolean modules) {
+        this.modules = modules;
+    }
+
+    /**
+     * 检查全部项目
+     * @return 没有发现问题的项目（或模块）数
+     */
+    int run(List<String> projects) {
+        List<Target> targets = new ArrayList<>();
+        for (String project : projects) {
+            targets.addAll(expand(project));
+        }
+        checkedCount = targets.size();
+        results = new Result[targets.size()];
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, targets.size())));
+        try {
+            CompletionService<Result> completion = new ExecutorCompletionService<>(pool);
+            List<Future<Result>> futures = new ArrayList<>();
+            Map<Future<Result>, Integer> orders = new HashMap<>();
+            for (int i = 0; i < targets.size(); i++) {
+                int order = i;
+                Target target = targets.get(i);
+                Future<Result> future = completion.submit(() -> check(order, target));
+                futures.add(future);
+                orders.put(future, order);
+            }
+            int passed = 0;
+            if (format.equals("ndjson")) {
+                // 按完成顺序输出，长时间运行的项目不会阻塞其他结果
+                for (int i = 0; i < futures.size(); i++) {
+                    Future<Result> future = completion.take();
+                    int order = orders.get(future);
+                    Result result = take(future, order, targets.get(order));
+                    results[result.order] = result;
+                    passed += result.passed ? 1 : 0;
+                    out.println(display.apply(toJson(result)));
+                    out.flush();
+                }
+                return passed;
+            }
+            if (format.equals("json")) {
+                out.println("[");
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Result result = take(futures.get(i), i, targets.get(i));
+                results[i] = result;
+                passed += result.passed ? 1 : 0;
+                if (format.equals("json")) {
+                    out.println("  " + display.apply(toJson(result)) + (i + 1 < futures.size() ? "," : ""));
+                } else {
+                    out.print(display.apply(result.text));
+                }
+            }
+            if (format.equals("json")) {
+                out.println("]");
+            }
+            return passed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.println("检查被中断。");
+            return 0;
+        } finally {
+            pool.shutdownNow();
+            evictCache();
+        }
+    }
+
+    private void evictCache() {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.evict();
+        } catch (IOException e) {
+            // 淘汰失败不影响检查结果，下次运行时再处理
+        }
+    }
+
+    /**
+     * 上一次 run 检查的项目和模块总数
+     */
+    int checkedCount() {
+        return checkedCount;
+    }
+
+    /**
+     * 在 run 之后监视各项目目录，直到线程被中断或输出端关闭。
+     * 文件变化后只重新检查受影响的项目或模块（变化位于其快照深度之内），启用模块检查时
+     * 构建文件的变化会重新展开所在项目的模块。只输出新增和已解决的问题；监视期间不使用结果缓存
+     */
+    void watch() throws IOException, InterruptedException {
+        cache = null;
+        Map<String, List<Target>> projects = new LinkedHashMap<>();
+        Map<String, List<String>> issues = new HashMap<>();
+        for (Result result : results) {
+            projects.computeIfAbsent(projectOf(result.target), k -> new ArrayList<>()).add(result.target);
+            issues.put(result.path, result.issues());
+        }
+        try (TreeWatcher watcher = new TreeWatcher()) {
+            watcher.setDirectoryFilter(dir -> !ProjectSnapshot.isSkippedDirectory(dir.getFileName().toString()));
+            for (String project : projects.keySet()) {
+                if (Files.isDirectory(Paths.get(project))) {
+                    watcher.register(Paths.get(project));
+                }
+            }
+            out.println("正在监视 " + watcher.directoryCount() + " 个目录，按 Ctrl+C 结束。");
+            out.flush();
+            watcher.run((changed, overflow) -> {
+                long start = System.nanoTime();
+                List<Target> affected = new ArrayList<>();
+                List<Target> removed = new ArrayList<>();
+                for (Map.Entry<String, List<Target>> entry : projects.entrySet()) {
+                    String project = entry.getKey();
+                    if (modules && (overflow || changed.stream().anyMatch(
+                            path -> isBuildFile(path) && depthUnder(project, path) >= 0))) {
+                        List<Target> expanded = expand(project);
+                        Set<String> paths = new HashSet<>();
+                        expanded.forEach(target -> paths.add(target.path));
+                        for (Target target : entry.getValue()) {
+                            if (!paths.contains(target.path)) {
+                                removed.add(target);
+                            }
+                        }
+                        entry.setValue(expanded);
+                        affected.addAll(expanded);
+                        continue;
+                    }
+                    for (Target target : entry.getValue()) {
+                        if (overflow || changed.stream().anyMatch(path -> {
+                            int depth = depthUnder(target.path, path);
+                            return depth >= 0 && depth <= ProjectSnapshot.DEFAULT_DEPTH;
+                        })) {
+                            affected.add(target);
+                        }
+                    }
+                }
+                int differences = 0;
+                for (Target target : removed) {
+                    differences += printDiff(target, issues.remove(target.path), Collections.emptyList());
+                }
+                try {
+                    for (Result result : recheck(affected)) {
+                        List<String> after = result.issues();
+                        differences += printDiff(result.target, issues.put(result.path, after), after);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (differences > 0) {
+                    int total = 0;
+                    for (List<String> list : issues.values()) {
+                        total += list.size();
+                    }
+                    out.println("当前共有 " + total + " 个问题。");
+                }
+                if (verbose) {
+                    out.println("重新检查 " + affected.size() + " 个项目或模块，用时 "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                }
+                out.flush();
+                // 输出端已关闭（如服务模式下客户端断开）时结束监视
+                return !out.checkError();
+            });
+        }
+    }
+
+    private static String projectOf(Target target) {
+        return target.project != null ? target.project : target.path;
+    }
+
+    /**
+     * 变化的路径相对于目录的深度；快照深度之内的变化才可能影响检查结果
+     * @return 不在该目录下时返回 -1
+     */
+    private static int depthUnder(String dir, Path path) {
+        Path root = Paths.get(dir).toAbsolutePath().normalize();
+        Path changed = path.toAbsolutePath().normalize();
+        return changed.startsWith(root) ? root.relativize(changed).getNameCount() : -1;
+    }
+
+    /**
+     * 可能改变模块划分的构建文件
+     */
+    private static boolean isBuildFile(Path path) {
+        Path name = path.getFileName();
+        return name != null && BUILD_FILES.contains(name.toString());
+    }
+
+    private List<Result> recheck(List<Target> targets) throws InterruptedException {
+        List<Result> checked = new ArrayList<>();
+        if (targets.isEmpty()) {
+            return checked;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, targets.size()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int i = 0; i < targets.size(); i++) {
+                int order = i;
+                Target target = targets.get(i);
+                futures.add(pool.submit(() -> check(order, target)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                checked.add(take(futures.get(i), i, targets.get(i)));
+            }
+            return checked;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 输出检查对象新增和已解决的问题，内容相同的问题按出现次数对应
+     * @return 变化的问题数
+     */
+    private int printDiff(Target target, List<String> before, List<String> after) {
+        String label = target.module != null ? target.project + " 模块 " + target.module : target.path;
+        List<String> remaining = new ArrayList<>(after);
+        int differences = 0;
+        for (String issue : before == null ? Collections.<String>emptyList() : before) {
+            if (!remaining.remove(issue)) {
+                out.println(display.apply("已解决 [" + label + "]: " + issue));
+                differences++;
+            }
+        }
+        for (String issue : remaining) {
+            out.println(display.apply("新增问题 [" + label + "]: " + issue));
+            differences++;
+        }
+        return differences;
+    }
+
+    /**
+     * 展开多模块项目：Maven 按 modules 展开，Gradle 按 settings 文件中的 include 展开。
+     * 未启用模块检查、不是多模块项目或根配置无法解析时作为单个项目检查
+     */
+    private List<Target> expand(String project) {
+        if (!modules) {
+            return Collections.singletonList(new Target(project, null, null, null));
+        }
+        Path root = Paths.get(project);
+        try {
+            if (Files.isRegularFile(root.resolve("pom.xml"))) {
+                List<Target> targets = new ArrayList<>();
+                for (MavenReactor.Module module : MavenReactor.load(root, threads).modules()) {
+                    targets.add(new Target(module.dir().toString(), project, module.relativePath(), module.checks()));
+                }
+                return targets;
+            }
+            GradleSettings settings = GradleSettings.load(root);
+            if (settings != null) {
+                return gradleTargets(project, root, settings);
+            }
+        } catch (IOException e) {
+            // 退回单项目检查
+        }
+        return Collections.singletonList(new Target(project, null, null, null));
+    }
+
+    /**
+     * Gradle 多项目：根项目使用默认检查项，子项目继承根构建脚本中声明的 Java 版本，
+     * 不要求自己的构建文件和 README、Dockerfile
+     */
+    private static List<Target> gradleTargets(String project, Path root, GradleSettings settings) throws IOException {
+        Map<String, String> inherited = new HashMap<>();
+        for (String name : new String[]{"build.gradle", "build.gradle.kts"}) {
+            Path script = root.resolve(name);
+            if (Files.isRegularFile(script)) {
+                String version = GradleScripts.javaVersion(
+                        GradleScripts.stripComments(Files.readString(script, StandardCharsets.UTF_8)));
+                if (version != null) {
+                    inherited.put("java.version", version);
+                }
+                break;
+            }
+        }
+        List<Target> targets = new ArrayList<>();
+        targets.add(new Target(project, project, ":", null));
+        for (Map.Entry<String, Path> subproject : settings.existingSubprojects()) {
+            targets.add(new Target(subproject.getValue().toString(), project, subproject.getKey(), Arrays.asList(
+                    new BuildToolCheck(false), new JavaVersionCheck(inherited), new ProjectStructureCheck(false))));
+        }
+        return targets;
+    }
+
+    private Result check(int order, Target target) {
+        CommandStats previous = CommandStats.bind(stats);
+        try {
+            return runCheck(order, target);
+        } finally {
+            CommandStats.bind(previous);
+        }
+    }
+
+    private Result runCheck(int order, Target target) {
+        String path = target.path;
+        long start = System.nanoTime();
+        boolean text = format.equals("text");
+        ByteArrayOutputStream buffer = text ? new ByteArrayOutputStream() : null;
+        PrintStream checkerOut = text ? new PrintStream(buffer, false, StandardCharsets.UTF_8)
+                : new PrintStream(OutputStream.nullOutputStream());
+        JavaProjectChecker checker = target.checks == null
+                ? new JavaProjectChecker(path, verbose && text, checkerOut)
+                : new JavaProjectChecker(path, verbose && text, checkerOut, target.checks);
+        checker.setCache(cache);
+        boolean passed = checker.runChecks();
+        if (text) {
+            checkerOut.println(passed ? "项目检查未发现问题。" : "项目检查发现问题，请进行修复。");
+            checkerOut.flush();
+        }
+        return new Result(order, target, passed, checker,
+                text ? buffer.toString(StandardCharsets.UTF_8) : null, System.nanoTime() - start);
+    }
+
+    /**
+     * 取得检查结果。单个项目的检查抛出异常时记为该项目的错误，不影响其他项目
+     */
+    private static Result take(Future<Result> future, int order, Target target) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            String label = target.module != null ? target.project + " 模块 " + target.module : target.path;
+            String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+            return new Result(order, target, "检查项目时发生错误: " + label + ": " + message);
+        }
+    }
+
+    static String toJson(Result result) {
+        JavaProjectChecker checker = result.checker;
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"path\":").append(Json.quote(result.path));
+        if (result.target.module != null) {
+            sb.append(",\"project\":").append(Json.quote(result.target.project));
+            sb.append(",\"module\":").append(Json.quote(result.target.module));
+        }
+        sb.append(",\"passed\":").append(result.passed);
+        if (result.error != null) {
+            return sb.append(",\"error\":").append(Json.quote(result.error)).append('}').toString();
+        }
+        sb.append(",\"cached\":").append(checker.isCached());
+        sb.append(",\"issues\":[");
+        List<String> issues = checker.getIssues();
+        for (int i = 0; i < issues.size(); i++) {
+            sb.append(i > 0 ? "," : "").append(Json.quote(issues.get(i)));
+        }
+        sb.append("],\"detected\":{");
+        sb.append("\"mavenPom\":").append(checker.hasMavenPom());
+        sb.append(",\"gradleBuild\":").append(checker.hasGradleBuild());
+        sb.append(",\"javaVersion\":").append(checker.hasJavaVersion());
+        sb.append(",\"sourceDir\":").append(checker.hasSourceDir());
+        sb.append(",\"testDir\":").append(checker.hasTestDir());
+        sb.append(",\"dockerfile\":").append(checker.hasDockerfile());
+        sb.append("},\"javaVersion\":")
+                .append(checker.getJavaVersion() == null ? "null" : Json.quote(checker.getJavaVersion()));
+        sb.append(",\"timingsMicros\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : checker.getCheckNanos().entrySet()) {
+            sb.append(first ? "" : ",").append(Json.quote(entry.getKey())).append(':').append(entry.getValue() / 1000);
+            first = false;
+        }
+        sb.append("},\"totalMicros\":").append(result.nanos / 1000).append('}');
+        return sb.toString();
+    }
+
+    /**
+     * 在目录下查找项目：包含 pom.xml、build.gradle(.kts) 或 settings.gradle(.kts) 的目录。
+     * 找到项目后不再进入其子目录（子模块属于该项目），隐藏目录和常见的构建输出目录会被跳过
+     * @param root 根目录
+     * @param maxDepth 最大查找深度
+     * @return 按路径排序的项目目录
+     */
+    static List<String> discover(Path root, int maxDepth) throws IOException {
+        List<String> projects = new ArrayList<>();
+        Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && isSkipped(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (isProject(dir)) {
+                    projects.add(dir.toString());
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                // 位于最大深度的目录不会进入，作为文件交给 visitFile
+                if (attrs.isDirectory() && !isSkipped(file) && isProject(file)) {
+                    projects.add(file.toString());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        projects.sort(null);
+        return projects;
+    }
+
+    private static boolean isSkipped(Path dir) {
+        String name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+        return name.startsWith(".") || SKIPPED_DIRS.contains(name);
+    }
+
+    private static boolean isProject(Path dir) {
+        return Files.exists(dir.resolve("pom.xml")) || Files.exists(dir.resolve("build.gradle"))
+                || Files.exists(dir.resolve("build.gradle.kts")) || Files.exists(dir.resolve("settings.gradle"))
+                || Files.exists(dir.resolve("settings.gradle.kts"));
+    }
+
+    /**
+     * 读取路径列表文件，每行一个路径，忽略空行和 # 开头的行
+     */
+    static List<String> readPaths(String file) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                paths.add(trimmed);
+            }
+        }
+        return paths;
+    }
+}
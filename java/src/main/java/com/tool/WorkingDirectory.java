@@ -0,0 +1,154 @@
+package com.tool;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 命令的工作目录
+ * 常驻服务在同一个进程中执行来自不同目录的请求，进程自身的当前目录对请求没有意义。
+ * 服务执行请求期间把客户端的工作目录绑定到执行线程，各命令通过 {@link #resolve(String)}
+ * 解析命令行中的路径，只用于访问文件；输出路径前通过 {@link #display(Path)} 还原成用户给出的形式，
+ * 使服务模式的输出与直接运行一致。未绑定时（直接运行）路径保持原样，按进程的当前目录解析，输出不变
+ */
+public final class WorkingDirectory {
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    private WorkingDirectory() {
+    }
+
+    /**
+     * 当前线程绑定的工作目录
+     * @return 未绑定时返回 null
+     */
+    public static Path current() {
+        Context context = CURRENT.get();
+        return context == null ? null : context.base;
+    }
+
+    /**
+     * 将工作目录绑定到当前线程
+     * @param dir 绝对路径，为 null 时解除绑定
+     * @return 之前绑定的目录，处理完成后应重新绑定
+     */
+    public static Path bind(Path dir) {
+        Path previous = current();
+        if (dir == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(new Context(dir));
+        }
+        return previous;
+    }
+
+    /**
+     * 按当前线程的工作目录解析路径，绝对路径不变
+     */
+    public static Path resolve(String path) {
+        Context context = CURRENT.get();
+        if (context == null) {
+            return Paths.get(path);
+        }
+        Path relative = Paths.get(path);
+        Path resolved = context.base.resolve(relative);
+        if (!relative.isAbsolute()) {
+            context.roots.add(resolved.toString());
+        }
+        return resolved;
+    }
+
+    /**
+     * 解析路径并以字符串形式返回，用于以字符串传递路径的检查器
+     */
+    public static String resolveString(String path) {
+        return CURRENT.get() == null ? path : resolve(path).toString();
+    }
+
+    /**
+     * 把解析过的路径还原成用户给出的形式，用于输出
+     */
+    public static String display(Path path) {
+        return display(path.toString());
+    }
+
+    /**
+     * 把以解析过的路径开头的文本（如文件异常的消息）还原成用户给出的形式
+     */
+    public static String display(String text) {
+        Context context = CURRENT.get();
+        return context == null || text == null ? text : context.display(text);
+    }
+
+    /**
+     * 返回绑定到当前请求的还原函数（同 {@link #display(String)}），供扫描线程、输出线程等未绑定工作目录的线程使用
+     */
+    public static UnaryOperator<String> displayer() {
+        Context context = CURRENT.get();
+        if (context == null) {
+            return UnaryOperator.identity();
+        }
+        return text -> text == null ? null : context.display(text);
+    }
+
+    /**
+     * 一次请求的工作目录和其中按相对路径解析过的路径
+     */
+    private static final class Context {
+        private final Path base;
+        private final String prefix;
+        private final Set<String> roots = ConcurrentHashMap.newKeySet();
+
+        Context(Path base) {
+            this.base = base;
+            String text = base.toString();
+            this.prefix = text.endsWith(File.separator) ? text : text + File.separator;
+        }
+
+        /**
+         * 去掉文本中以相对路径解析出的路径前面的工作目录，其他路径（包括用户给出的绝对路径）不变
+         */
+        String display(String text) {
+            String dir = base.toString();
+            int from = text.indexOf(dir);
+            if (from < 0 || roots.isEmpty()) {
+                return text;
+            }
+            StringBuilder sb = new StringBuilder(text.length());
+            int copied = 0;
+            while (from >= 0) {
+                int end = from + dir.length();
+                if ((from == 0 || !isPathChar(text.charAt(from - 1))) && isRelativeRoot(text, from)) {
+                    sb.append(text, copied, from);
+                    // 工作目录本身显示为空，其下的路径去掉工作目录和分隔符
+                    copied = end < text.length() && text.startsWith(prefix, from) ? from + prefix.length() : end;
+                    from = text.indexOf(dir, copied);
+                } else {
+                    from = text.indexOf(dir, end);
+                }
+            }
+            return sb.append(text, copied, text.length()).toString();
+        }
+
+        private boolean isRelativeRoot(String text, int from) {
+            for (String root : roots) {
+                int end = from + root.length();
+                if (text.startsWith(root, from) && (end == text.length() || !isPathChar(text.charAt(end))
+                        || text.charAt(end) == File.separatorChar)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 可能属于同一个路径的字符，路径之前和之后的字符不能是这些字符
+         */
+        private static boolean isPathChar(char c) {
+            return !Character.isWhitespace(c) && c != ':' && c != '"' && c != '\'' && c != '[' && c != ']'
+                    && c != '(' && c != ')';
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.tool.batch;
+
+import com.tool.Json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批处理中的单条命令
+ * 普通行按 shell 规则拆分参数（支持单引号、双引号和反斜杠转义）；
+ * 以 '[' 开头的行为参数数组，以 '{' 开头的行为 {"id": ..., "args": [...]} 对象
+ */
+final class BatchRequest {
+    final String id;
+    final String[] args;
+
+    private BatchRequest(String id, String[] args) {
+        this.id = id;
+        this.args = args;
+    }
+
+    /**
+     * 解析一行输入
+     * @param line 输入行
+     * @param lineNumber 行号，没有指定 id 时作为 id
+     * @return 空行和以 # 开头的注释行返回 null
+     * @throws IllegalArgumentException 格式错误时抛出
+     */
+    static BatchRequest parse(String line, long lineNumber) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        String defaultId = String.valueOf(lineNumber);
+        if (trimmed.startsWith("[")) {
+            return new BatchRequest(defaultId, toArgs(Json.parse(trimmed)));
+        }
+        if (trimmed.startsWith("{")) {
+            Object parsed = Json.parse(trimmed);
+            Map<?, ?> object = (Map<?, ?>) parsed;
+            Object id = object.get("id");
+            String requestId = id == null ? defaultId
+                    : id instanceof Number && ((Number) id).doubleValue() == ((Number) id).longValue()
+                    ? String.valueOf(((Number) id).longValue()) : id.toString();
+            return new BatchRequest(requestId, toArgs(object.get("args")));
+        }
+        return new BatchRequest(defaultId, split(trimmed));
+    }
+
+    private static String[] toArgs(Object value) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("args 必须是字符串数组");
+        }
+        List<String> args = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            if (item == null || item instanceof Map || item instanceof List) {
+                throw new IllegalArgumentException("args 必须是字符串数组");
+            }
+            args.add(item instanceof Number && ((Number) item).doubleValue() == ((Number) item).longValue()
+                    ? String.valueOf(((Number) item).longValue()) : item.toString());
+        }
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * 按 shell 规则拆分命令行
+     */
+    static String[] split(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote == '\'') {
+                if (c == '\'') {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (quote == '"') {
+                if (c == '"') {
+                    quote = 0;
+                } else if (c == '\\' && i + 1 < line.length() && "\"\\$`".indexOf(line.charAt(i + 1)) >= 0) {
+                    current.append(line.charAt(++i));
+                } else {
+                    current.append(c);
+                }
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                inToken = true;
+                if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '\\' && i + 1 < line.length()) {
+                    current.append(line.charAt(++i));
+                } else {
+                    current.append(c);
+                }
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("引号未闭合");
+        }
+        if (inToken) {
+            args.add(current.toString());
+        }
+        return args.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,203 @@
+package com.tool.batch;
+
+import com.tool.App;
+import com.tool.CommandArgs;
+import com.tool.Json;
+import com.tool.WorkingDirectory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 批处理执行
+ * 在同一个进程中依次读取并执行多条命令。只读命令并行执行，会修改文件或执行外部命令的请求
+ * 作为屏障：等待之前的请求全部完成后单独执行，保证脚本中先写后读的顺序。
+ * 结果按输入顺序输出，并标注请求 id
+ */
+public class BatchRunner {
+    /** 可以与其他请求并行执行的命令 */
+    private static final Set<String> READ_ONLY = new HashSet<>(Arrays.asList(
+            "codebaseSearch", "grepSearch", "fileSearch", "readFile", "listDir",
+            "checkProject", "checkFrontend", "checkPython"));
+    /** 批处理中不允许执行的命令 */
+    private static final Set<String> UNSUPPORTED = new HashSet<>(Arrays.asList("batch", "serve"));
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final int maxPending;
+    private final boolean ndjson;
+    private final PrintStream out;
+    private final Deque<Pending> pending = new ArrayDeque<>();
+    /** 服务模式下请求的工作目录，需要传递给执行只读命令的线程 */
+    private final Path directory = WorkingDirectory.current();
+
+    private static final class Pending {
+        final BatchRequest request;
+        final Future<String> output;
+
+        Pending(BatchRequest request, Future<String> output) {
+            this.request = request;
+            this.output = output;
+        }
+    }
+
+    /**
+     * 构造函数
+     * @param pool 执行只读命令的线程池
+     * @param threads 线程数，用于限制尚未输出的结果数量
+     * @param ndjson 是否以 NDJSON 格式输出
+     * @param out 输出流
+     */
+    BatchRunner(ExecutorService pool, int threads, boolean ndjson, PrintStream out) {
+        this.pool = pool;
+        this.threads = threads;
+        this.maxPending = threads * 4;
+        this.ndjson = ndjson;
+        this.out = out;
+    }
+
+    /**
+     * batch 命令入口
+     */
+    public static void batch(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--threads", "--format");
+        String source = cmd.get(1, "-");
+        String format = cmd.option("--format", "text");
+        if (!format.equals("text") && !format.equals("ndjson")) {
+            out.println("不支持的输出格式: " + format);
+            return;
+        }
+        if (source.equals("-") && WorkingDirectory.current() != null) {
+            // 服务模式下标准输入属于服务进程，不是客户端
+            out.println("服务模式下不能从标准输入读取命令，请提供命令文件。");
+            return;
+        }
+        ExecutorService pool = null;
+        try (BufferedReader reader = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(WorkingDirectory.resolve(source), StandardCharsets.UTF_8)) {
+            int threads = cmd.threads();
+            pool = Executors.newFixedThreadPool(threads);
+            new BatchRunner(pool, threads, format.equals("ndjson"), out).run(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            out.println("执行批处理时发生错误: " + WorkingDirectory.display(e.getMessage()));
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    void run(BufferedReader reader) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            BatchRequest request;
+            try {
+                request = BatchRequest.parse(line, lineNumber);
+            } catch (RuntimeException e) {
+                drain();
+                print(String.valueOf(lineNumber), line, "无法解析请求: " + e.getMessage() + "\n");
+                continue;
+            }
+            if (request == null) {
+                continue;
+            }
+            submit(request);
+        }
+        drain();
+    }
+
+    private void submit(BatchRequest request) {
+        String command = request.args.length == 0 ? "" : request.args[0];
+        if (UNSUPPORTED.contains(command)) {
+            drain();
+            print(request, "批处理中不支持命令: " + command + "\n");
+        } else if (Arrays.asList(request.args).contains("--watch")) {
+            drain();
+            print(request, "批处理中不支持 --watch\n");
+        } else if (READ_ONLY.contains(command)) {
+            // 线程池中最多同时执行 threads 个请求，每个请求只使用一个线程，总数不超过 --threads
+            pending.add(new Pending(request, pool.submit(() -> execute(request.args, 1))));
+            // 按顺序输出已完成的结果，同时限制缓存的结果数量
+            while (!pending.isEmpty() && (pending.peek().output.isDone() || pending.size() > maxPending)) {
+                printHead();
+            }
+        } else {
+            drain();
+            print(request, execute(request.args, threads));
+        }
+    }
+
+    /**
+     * 执行一条请求并返回其输出
+     * @param threadLimit 请求中的命令最多可以使用的线程数
+     */
+    private String execute(String[] args, int threadLimit) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream capture = new PrintStream(buffer, false, StandardCharsets.UTF_8);
+        Path previous = WorkingDirectory.bind(directory);
+        Integer previousLimit = CommandArgs.limitThreads(threadLimit);
+        try {
+            App.run(args, capture);
+        } catch (RuntimeException e) {
+            capture.println("执行命令时发生错误: " + e.getMessage());
+        } finally {
+            CommandArgs.limitThreads(previousLimit);
+            WorkingDirectory.bind(previous);
+        }
+        capture.flush();
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            printHead();
+        }
+    }
+
+    private void printHead() {
+        Pending head = pending.poll();
+        String output;
+        try {
+            output = head.output.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            output = "执行被中断\n";
+        } catch (ExecutionException e) {
+            output = "执行命令时发生错误: " + e.getCause().getMessage() + "\n";
+        }
+        print(head.request, output);
+    }
+
+    private void print(BatchRequest request, String output) {
+        print(request.id, String.join(" ", request.args), output);
+    }
+
+    private void print(String id, String command, String output) {
+        if (ndjson) {
+            out.println("{\"id\":" + Json.quote(id) + ",\"command\":" + Json.quote(command)
+                    + ",\"output\":" + Json.quote(output) + "}");
+        } else {
+            out.println("=== [" + id + "] " + command);
+            out.print(output);
+        }
+        out.flush();
+    }
+}
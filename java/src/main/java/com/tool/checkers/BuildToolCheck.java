@@ -0,0 +1,57 @@
+package com.tool.checkers;
+
+/**
+ * 构建工具检查：项目根目录中需要有 Maven 或 Gradle 构建配置文件
+ */
+public class BuildToolCheck implements ProjectCheck {
+    public static final String MAVEN_POM = "mavenPom";
+    public static final String GRADLE_BUILD = "gradleBuild";
+    /** 找到的 Gradle 构建文件名 */
+    public static final String GRADLE_FILE = "gradleFile";
+
+    private final boolean required;
+
+    public BuildToolCheck() {
+        this(true);
+    }
+
+    /**
+     * 构造函数
+     * @param required 是否要求构建文件，Gradle 子项目可以由根项目统一配置，不要求自己的构建文件
+     */
+    public BuildToolCheck(boolean required) {
+        this.required = required;
+    }
+
+    @Override
+    public String name() {
+        return "buildTools";
+    }
+
+    @Override
+    public String cacheKey() {
+        return required ? name() : name() + ":optional";
+    }
+
+    @Override
+    public void run(ProjectSnapshot project, CheckReport report) {
+        // 检查Maven配置
+        if (project.exists("pom.xml")) {
+            report.setFlag(MAVEN_POM, true);
+            report.log("找到Maven配置文件: pom.xml");
+        }
+
+        // 检查Gradle配置
+        String gradleFile = project.exists("build.gradle") ? "build.gradle"
+                : project.exists("build.gradle.kts") ? "build.gradle.kts" : null;
+        if (gradleFile != null) {
+            report.setFlag(GRADLE_BUILD, true);
+            report.setValue(GRADLE_FILE, gradleFile);
+            report.log("找到Gradle配置文件: " + gradleFile);
+        }
+
+        if (required && !report.flag(MAVEN_POM) && !report.flag(GRADLE_BUILD)) {
+            report.addIssue("没有找到Maven或Gradle构建配置文件");
+        }
+    }
+}
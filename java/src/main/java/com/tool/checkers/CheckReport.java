@@ -0,0 +1,72 @@
+package com.tool.checkers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 检查结果
+ * 记录问题列表和各检查项检测到的标记与取值，后执行的检查项可以读取前面的结果
+ */
+public class CheckReport {
+    private final List<String> issues = new ArrayList<>();
+    private final Map<String, Boolean> flags = new HashMap<>();
+    private final Map<String, String> values = new HashMap<>();
+    private final Consumer<String> logger;
+
+    /**
+     * 构造函数
+     * @param logger 详细日志输出
+     */
+    public CheckReport(Consumer<String> logger) {
+        this.logger = logger;
+    }
+
+    public void addIssue(String issue) {
+        issues.add(issue);
+    }
+
+    public List<String> issues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+    public void log(String message) {
+        logger.accept(message);
+    }
+
+    public void setFlag(String name, boolean value) {
+        flags.put(name, value);
+    }
+
+    public boolean flag(String name) {
+        return Boolean.TRUE.equals(flags.get(name));
+    }
+
+    public void setValue(String name, String value) {
+        values.put(name, value);
+    }
+
+    public String value(String name) {
+        return values.get(name);
+    }
+
+    public Map<String, Boolean> flags() {
+        return Collections.unmodifiableMap(flags);
+    }
+
+    public Map<String, String> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * 恢复缓存的检查结果
+     */
+    void restore(CheckResultCache.Entry entry) {
+        issues.addAll(entry.issues);
+        flags.putAll(entry.flags);
+        values.putAll(entry.values);
+    }
+}
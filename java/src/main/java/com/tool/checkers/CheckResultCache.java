@@ -0,0 +1,278 @@
+package com.tool.checkers;
+
+import com.tool.index.CacheDirectory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目检查结果缓存
+ * 以项目路径为键，保存问题列表、检测标记和取值。指纹由检查依赖的文件（构建文件、.sdkmanrc、
+ * Dockerfile 等）的大小和修改时间、根目录及 src 等目录的修改时间组成，指纹不变时直接返回缓存结果。
+ * 每个项目一个缓存文件，写入时先写临时文件再原子替换，多个进程可以同时读写；
+ * 总大小超过上限时按最近访问时间淘汰，淘汰过程持有文件锁
+ */
+public class CheckResultCache {
+    private static final int MAGIC = 0x43524331;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".result";
+    private static final String LOCK_FILE = ".lock";
+    /** 参与指纹计算的文件 */
+    private static final String[] INPUT_FILES = {
+        "pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts", ".sdkmanrc",
+        "Dockerfile", "docker-compose.yml", "docker-compose.yaml"
+    };
+    /** 参与指纹计算的目录，目录中增删条目会改变其修改时间 */
+    private static final String[] INPUT_DIRS = {
+        "", "src", "src/main", "src/test", "test"
+    };
+
+    private final Path dir;
+    private final long maxBytes;
+
+    /**
+     * 缓存的检查结果
+     */
+    public static final class Entry {
+        public final List<String> issues;
+        public final Map<String, Boolean> flags;
+        public final Map<String, String> values;
+
+        public Entry(List<String> issues, Map<String, Boolean> flags, Map<String, String> values) {
+            this.issues = issues;
+            this.flags = flags;
+            this.values = values;
+        }
+    }
+
+    /**
+     * 构造函数
+     * @param dir 缓存目录
+     * @param maxBytes 缓存总大小上限
+     */
+    public CheckResultCache(Path dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * 使用默认缓存目录（缓存目录下的 check-results）和 32MB 上限
+     */
+    public static CheckResultCache openDefault() throws IOException {
+        return new CheckResultCache(CacheDirectory.resolve("check-results"), 32L << 20);
+    }
+
+    /**
+     * 计算项目的指纹
+     * @param project 项目目录
+     * @param checks 检查项名称，检查项变化时缓存失效
+     */
+    public static String fingerprint(Path project, List<String> checks) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.join(",", checks)).append('\n');
+        for (String name : INPUT_FILES) {
+            appendAttributes(sb, project.resolve(name), name);
+        }
+        for (String name : INPUT_DIRS) {
+            appendAttributes(sb, name.isEmpty() ? project : project.resolve(name), name + "/");
+        }
+        return sb.toString();
+    }
+
+    private static void appendAttributes(StringBuilder sb, Path path, String name) {
+        sb.append(name).append('=');
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            sb.append(attrs.isDirectory() ? 'd' : 'f').append(attrs.size()).append('@')
+                    .append(attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        } catch (IOException e) {
+            sb.append('-');
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * 查找缓存结果
+     * @return 没有缓存或指纹不一致时返回 null
+     */
+    public Entry get(Path project, String fingerprint) {
+        Path file = entryFile(project);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || !in.readUTF().equals(key(project)) || !readString(in).equals(fingerprint)) {
+                return null;
+            }
+            List<String> issues = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                issues.add(in.readUTF());
+            }
+            Map<String, Boolean> flags = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                flags.put(in.readUTF(), in.readBoolean());
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                values.put(in.readUTF(), in.readUTF());
+            }
+            touch(file);
+            return new Entry(issues, flags, values);
+        } catch (IOException | RuntimeException e) {
+            // 缓存文件不存在或已损坏
+            return null;
+        }
+    }
+
+    /**
+     * 保存检查结果
+     */
+    public void put(Path project, String fingerprint, Entry entry) throws IOException {
+        Path temp = Files.createTempFile(dir, "entry", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key(project));
+                writeString(out, fingerprint);
+                out.writeInt(entry.issues.size());
+                for (String issue : entry.issues) {
+                    out.writeUTF(issue);
+                }
+                out.writeInt(entry.flags.size());
+                for (Map.Entry<String, Boolean> flag : entry.flags.entrySet()) {
+                    out.writeUTF(flag.getKey());
+                    out.writeBoolean(flag.getValue());
+                }
+                out.writeInt(entry.values.size());
+                for (Map.Entry<String, String> value : entry.values.entrySet()) {
+                    out.writeUTF(value.getKey());
+                    out.writeUTF(value.getValue());
+                }
+            }
+            Files.move(temp, entryFile(project), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 总大小超过上限时，按最近访问时间从旧到新删除缓存文件，直到总大小降到上限的 80%
+     * @return 删除的文件数
+     */
+    public int evict() throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return evictLocked();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * 在持有锁文件的情况下淘汰缓存文件，同时只有一个进程执行
+     */
+    private int evictLocked() throws IOException {
+        List<Path> files = new ArrayList<>();
+        List<BasicFileAttributes> attributes = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    files.add(file);
+                    attributes.add(attrs);
+                    total += attrs.size();
+                } catch (IOException e) {
+                    // 已被其他进程删除
+                }
+            }
+        }
+        if (total <= maxBytes) {
+            return 0;
+        }
+        Integer[] order = new Integer[files.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> attributes.get(a).lastModifiedTime()
+                .compareTo(attributes.get(b).lastModifiedTime()));
+        long target = maxBytes / 5 * 4;
+        int removed = 0;
+        for (int i = 0; i < order.length && total > target; i++) {
+            if (Files.deleteIfExists(files.get(order[i]))) {
+                removed++;
+            }
+            total -= attributes.get(order[i]).size();
+        }
+        return removed;
+    }
+
+    /**
+     * 用修改时间记录最近访问时间
+     */
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // 忽略，最多影响淘汰顺序
+        }
+    }
+
+    private Path entryFile(Path project) {
+        return dir.resolve(hash(key(project)) + SUFFIX);
+    }
+
+    private static String key(Path project) {
+        return project.toAbsolutePath().normalize().toString();
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
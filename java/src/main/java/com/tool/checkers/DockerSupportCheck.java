@@ -0,0 +1,32 @@
+package com.tool.checkers;
+
+/**
+ * Docker 支持检查：推荐在项目根目录中提供 Dockerfile
+ */
+public class DockerSupportCheck implements ProjectCheck {
+    public static final String DOCKERFILE = "dockerfile";
+
+    @Override
+    public String name() {
+        return "dockerSupport";
+    }
+
+    @Override
+    public void run(ProjectSnapshot project, CheckReport report) {
+        // 检查Dockerfile
+        boolean dockerfile = project.exists("Dockerfile");
+        report.setFlag(DOCKERFILE, dockerfile);
+        report.log(dockerfile ? "找到Dockerfile" : "未找到Dockerfile");
+
+        // 检查docker-compose.yml
+        if (project.exists("docker-compose.yml") || project.exists("docker-compose.yaml")) {
+            report.log("找到docker-compose文件");
+        } else {
+            report.log("未找到docker-compose文件");
+        }
+
+        if (!dockerfile) {
+            report.addIssue("未找到Docker支持文件（推荐添加Dockerfile）");
+        }
+    }
+}
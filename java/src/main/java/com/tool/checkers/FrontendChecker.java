@@ -0,0 +1,387 @@
+package com.tool.checkers;
+
+import com.tool.Json;
+import com.tool.index.CacheDirectory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 前端项目检查
+ * 读取 package.json 和锁文件，并行读取 node_modules 中各依赖的 package.json，比较声明的版本范围、
+ * 锁定版本和已安装版本；同时并行遍历 node_modules，统计文件数、占用空间和重复安装的包。
+ * 检查结果以 package.json 和锁文件内容的哈希、node_modules 安装标记的修改时间为指纹缓存，
+ * 依赖没有变化时不再遍历 node_modules
+ */
+public class FrontendChecker {
+    /** 包管理器安装完成后会更新的文件，用于判断 node_modules 是否变化 */
+    private static final String[] INSTALL_MARKERS = {
+        "node_modules", "node_modules/.package-lock.json", "node_modules/.yarn-integrity",
+        "node_modules/.yarn-state.yml", "node_modules/.modules.yaml"
+    };
+    private static final String[] DEPENDENCY_FIELDS = {"dependencies", "devDependencies", "optionalDependencies"};
+    /** 详细模式下列出的重复包个数 */
+    private static final int DUPLICATES_SHOWN = 10;
+
+    private final Path project;
+    private final int threads;
+    private final boolean verbose;
+    private CheckResultCache cache;
+    private boolean cached;
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    /** 包名到各个安装副本的版本 */
+    private final Map<String, List<String>> installed = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     * @param project 项目目录
+     * @param threads 读取 node_modules 的并行线程数
+     * @param verbose 是否输出每个依赖的检查结果和重复包明细
+     */
+    public FrontendChecker(Path project, int threads, boolean verbose) {
+        this.project = project;
+        this.threads = Math.max(1, threads);
+        this.verbose = verbose;
+    }
+
+    /**
+     * 使用默认缓存目录（缓存目录下的 frontend-results）和 32MB 上限
+     */
+    public static CheckResultCache openDefaultCache() throws IOException {
+        return new CheckResultCache(CacheDirectory.resolve("frontend-results"), 32L << 20);
+    }
+
+    /**
+     * 设置结果缓存，为 null 时每次都重新检查
+     */
+    public void setCache(CheckResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 上一次 run 的结果是否来自缓存
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * 执行检查
+     * @return 以 [INFO] 或 [WARN] 开头的检查结果
+     */
+    public List<String> run() throws IOException {
+        cached = false;
+        String fingerprint = cache == null ? null : fingerprint();
+        if (cache != null) {
+            CheckResultCache.Entry entry = cache.get(project, fingerprint);
+            if (entry != null) {
+                cached = true;
+                return entry.issues;
+            }
+        }
+        List<String> lines = check();
+        if (cache != null) {
+            cache.put(project, fingerprint, new CheckResultCache.Entry(lines,
+                    Collections.emptyMap(), Collections.emptyMap()));
+        }
+        return lines;
+    }
+
+    private List<String> check() throws IOException {
+        List<String> lines = new ArrayList<>();
+        Map<String, String> declared = new TreeMap<>();
+        Path packageJson = project.resolve("package.json");
+        if (Files.isRegularFile(packageJson)) {
+            Map<String, Object> manifest = readManifest(packageJson);
+            String name = manifest == null ? null : string(manifest.get("name"));
+            String version = manifest == null ? null : string(manifest.get("version"));
+            lines.add("[INFO] package.json 文件已找到。" + (name == null ? "" : " 包名: " + name
+                    + (version == null ? "" : "@" + version)));
+            if (manifest == null) {
+                lines.add("[WARN] package.json 不是有效的 JSON。");
+            } else {
+                collectDependencies(manifest, declared);
+            }
+        } else {
+            lines.add("[WARN] 未找到 package.json 文件。");
+        }
+
+        NodeLockfile lockfile = null;
+        try {
+            lockfile = NodeLockfile.load(project);
+        } catch (IOException | RuntimeException e) {
+            lines.add("[WARN] 无法读取锁文件: " + e.getMessage());
+        }
+        if (lockfile != null) {
+            lines.add("[INFO] 锁文件: " + lockfile.fileName());
+        } else if (!declared.isEmpty()) {
+            lines.add("[WARN] 未找到锁文件（package-lock.json、yarn.lock 或 pnpm-lock.yaml）。");
+        }
+
+        Path nodeModules = project.resolve("node_modules");
+        if (Files.isDirectory(nodeModules)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Map<String, String> versions = new ConcurrentHashMap<>();
+                ForkJoinTask<?> scan = pool.submit(new ScanTask(nodeModules));
+                pool.submit(() -> declared.keySet().parallelStream().forEach(dep -> {
+                    String version = installedVersion(nodeModules.resolve(dep));
+                    if (version != null) {
+                        versions.put(dep, version);
+                    }
+                })).join();
+                scan.join();
+                lines.add("[INFO] node_modules 目录已找到: " + files.sum() + " 个文件，"
+                        + formatBytes(bytes.sum()) + "，" + installed.size() + " 个包。");
+                compare(declared, versions, lockfile, lines);
+                reportDuplicates(lines);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            lines.add("[WARN] 未找到 node_modules 目录。" + (declared.isEmpty() ? "" : "请先安装依赖。"));
+        }
+
+        if (Files.exists(project.resolve("index.html"))) {
+            lines.add("[INFO] index.html 文件已找到。");
+        } else if (Files.exists(project.resolve("public").resolve("index.html"))) {
+            lines.add("[INFO] public/index.html 文件已找到。");
+        } else {
+            lines.add("[WARN] 未找到 index.html 文件。");
+        }
+        return lines;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readManifest(Path file) {
+        try {
+            Object root = Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+            return root instanceof Map ? (Map<String, Object>) root : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectDependencies(Map<String, Object> manifest, Map<String, String> declared) {
+        for (String field : DEPENDENCY_FIELDS) {
+            Object dependencies = manifest.get(field);
+            if (dependencies instanceof Map) {
+                for (Map.Entry<String, Object> entry : ((Map<String, Object>) dependencies).entrySet()) {
+                    if (entry.getValue() instanceof String) {
+                        declared.putIfAbsent(entry.getKey(), (String) entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private static String installedVersion(Path packageDir) {
+        Map<String, Object> manifest = readManifest(packageDir.resolve("package.json"));
+        return manifest == null ? null : string(manifest.get("version"));
+    }
+
+    private void compare(Map<String, String> declared, Map<String, String> versions,
+                         NodeLockfile lockfile, List<String> lines) {
+        int ok = 0;
+        for (Map.Entry<String, String> dep : declared.entrySet()) {
+            String name = dep.getKey();
+            String range = dep.getValue();
+            String version = versions.get(name);
+            if (version == null) {
+                lines.add("[WARN] 依赖 " + name + " 未安装。");
+                continue;
+            }
+            String locked = lockfile == null ? null : lockfile.lockedVersion(name, range);
+            SemverRange semver = SemverRange.parse(range);
+            if (locked != null && SemverRange.parseVersion(locked) != null && !locked.equals(version)) {
+                lines.add("[WARN] 依赖 " + name + " 已安装版本 " + version + " 与锁文件版本 " + locked + " 不一致。");
+            } else if (semver != null && !semver.matches(version)) {
+                lines.add("[WARN] 依赖 " + name + " 已安装版本 " + version + " 不满足声明的版本范围 " + range + "。");
+            } else {
+                ok++;
+                if (verbose) {
+                    lines.add("[INFO] 依赖 " + name + " " + range + " 已安装 " + version + "。");
+                }
+            }
+        }
+        if (!declared.isEmpty()) {
+            lines.add("[INFO] 声明依赖 " + declared.size() + " 个，已安装 " + versions.size() + " 个，版本符合 " + ok + " 个。");
+        }
+    }
+
+    private void reportDuplicates(List<String> lines) {
+        List<Map.Entry<String, List<String>>> duplicates = new ArrayList<>();
+        long copies = 0;
+        for (Map.Entry<String, List<String>> entry : installed.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                duplicates.add(entry);
+                copies += entry.getValue().size();
+            }
+        }
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        lines.add("[WARN] " + duplicates.size() + " 个包被重复安装，共 " + copies + " 个副本。");
+        if (!verbose) {
+            return;
+        }
+        duplicates.sort((a, b) -> b.getValue().size() != a.getValue().size()
+                ? Integer.compare(b.getValue().size(), a.getValue().size()) : a.getKey().compareTo(b.getKey()));
+        for (Map.Entry<String, List<String>> entry : duplicates.subList(0, Math.min(DUPLICATES_SHOWN, duplicates.size()))) {
+            List<String> versions = new ArrayList<>(entry.getValue());
+            Collections.sort(versions);
+            lines.add("[INFO]   " + entry.getKey() + ": " + versions.size() + " 个副本 " + versions);
+        }
+    }
+
+    private String fingerprint() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("verbose=").append(verbose).append('\n');
+        sb.append("package.json=").append(hash(project.resolve("package.json"))).append('\n');
+        for (String name : NodeLockfile.FILE_NAMES) {
+            sb.append(name).append('=').append(hash(project.resolve(name))).append('\n');
+        }
+        for (String name : INSTALL_MARKERS) {
+            sb.append(name).append('=');
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(project.resolve(name), BasicFileAttributes.class);
+                sb.append(attrs.size()).append('@').append(attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+            } catch (IOException e) {
+                sb.append('-');
+            }
+            sb.append('\n');
+        }
+        sb.append("index.html=").append(Files.exists(project.resolve("index.html")))
+                .append(Files.exists(project.resolve("public").resolve("index.html"))).append('\n');
+        return sb.toString();
+    }
+
+    private static String hash(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return "-";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String string(Object value) {
+        return value instanceof String ? (String) value : null;
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+
+    /**
+     * 遍历 node_modules 中的一个目录：统计文件大小，node_modules（或其中 @scope 目录）的直接子目录
+     * 作为包读取其 package.json。符号链接不跟随，pnpm 的顶层链接只计一次（位于 .pnpm 中的实际目录）
+     */
+    private final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+
+        ScanTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            List<ScanTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (attrs.isDirectory()) {
+                        if (isPackageDir(entry)) {
+                            recordPackage(entry);
+                        }
+                        subtasks.add(new ScanTask(entry));
+                    } else if (attrs.isRegularFile()) {
+                        files.increment();
+                        bytes.add(attrs.size());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // 无法读取的目录直接跳过
+            }
+            invokeAll(subtasks);
+        }
+
+        private boolean isPackageDir(Path entry) {
+            String name = entry.getFileName().toString();
+            if (name.startsWith(".") || name.startsWith("@")) {
+                return false;
+            }
+            Path parent = entry.getParent();
+            String parentName = parent.getFileName().toString();
+            if (parentName.equals("node_modules")) {
+                return true;
+            }
+            return parentName.startsWith("@") && parent.getParent() != null
+                    && parent.getParent().getFileName().toString().equals("node_modules");
+        }
+
+        private void recordPackage(Path packageDir) {
+            Map<String, Object> manifest = readManifest(packageDir.resolve("package.json"));
+            if (manifest == null) {
+                return;
+            }
+            String name = string(manifest.get("name"));
+            String version = string(manifest.get("version"));
+            if (name != null) {
+                installed.computeIfAbsent(name, k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(version == null ? "?" : version);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.tool.checkers;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gradle 构建脚本的文本分析
+ * 不执行脚本，只在去掉注释后的文本中查找常见写法，Groovy 和 Kotlin DSL 通用
+ */
+public final class GradleScripts {
+    private static final Pattern TOOLCHAIN = Pattern.compile(
+            "languageVersion\\s*(?:\\.set\\s*\\(|=)?\\s*JavaLanguageVersion\\s*\\.\\s*of\\s*\\(\\s*['\"]?(\\d+)");
+    private static final Pattern JVM_TOOLCHAIN = Pattern.compile("\\bjvmToolchain\\s*\\(\\s*(\\d+)");
+    private static final Pattern RELEASE = Pattern.compile(
+            "\\brelease\\s*(?:\\.set\\s*\\(|=)\\s*(\\d+)");
+    private static final Pattern COMPATIBILITY = Pattern.compile(
+            "\\b(?:source|target)Compatibility\\s*(?:\\.set\\s*\\(|=)?\\s*(?:JavaVersion\\s*\\.\\s*VERSION_|['\"])?(\\d+(?:[._]\\d+)?)");
+    /** languageVersion 只在 JavaLanguageVersion.of 或 toolchain 中才算，Kotlin 的 kotlinOptions.languageVersion 不算 */
+    private static final Pattern DECLARATION = Pattern.compile(
+            "\\b(?:source|target)Compatibility\\b|\\bjvmToolchain\\b"
+                    + "|\\bJavaLanguageVersion\\s*\\.\\s*of\\b|\\btoolchain\\s*(?:\\{[^}]*?|\\.\\s*)\\blanguageVersion\\b"
+                    + "|\\boptions\\s*\\.\\s*release\\b|\\brelease\\s*\\.\\s*set\\s*\\(");
+
+    private GradleScripts() {
+    }
+
+    /**
+     * 去掉行注释和块注释，保留字符串内容和换行
+     */
+    public static String stripComments(String script) {
+        StringBuilder sb = new StringBuilder(script.length());
+        int i = 0;
+        int n = script.length();
+        while (i < n) {
+            char c = script.charAt(i);
+            if (c == '"' || c == '\'') {
+                int end = i + 1;
+                while (end < n && script.charAt(end) != c && script.charAt(end) != '\n') {
+                    end += script.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, n);
+                sb.append(script, i, end);
+                i = end;
+            } else if (c == '/' && i + 1 < n && script.charAt(i + 1) == '/') {
+                while (i < n && script.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < n && script.charAt(i + 1) == '*') {
+                int end = script.indexOf("*/", i + 2);
+                end = end < 0 ? n : end + 2;
+                for (int j = i; j < end; j++) {
+                    if (script.charAt(j) == '\n') {
+                        sb.append('\n');
+                    }
+                }
+                i = end;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 判断脚本是否声明了 Java 版本（sourceCompatibility、targetCompatibility、toolchain、options.release）
+     * @param script 去掉注释后的脚本
+     */
+    public static boolean declaresJavaVersion(String script) {
+        return DECLARATION.matcher(script).find();
+    }
+
+    /**
+     * 从脚本中提取 Java 版本，toolchain 优先，其次是 release 和 sourceCompatibility
+     * @param script 去掉注释后的脚本
+     * @return 未声明或版本不是字面量时返回 null
+     */
+    public static String javaVersion(String script) {
+        for (Pattern pattern : new Pattern[]{TOOLCHAIN, JVM_TOOLCHAIN, RELEASE, COMPATIBILITY}) {
+            Matcher matcher = pattern.matcher(script);
+            if (matcher.find()) {
+                return matcher.group(1).replace('_', '.');
+            }
+        }
+        return null;
+    }
+}
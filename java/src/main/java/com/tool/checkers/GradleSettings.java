@@ -0,0 +1,117 @@
+package com.tool.checkers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * settings.gradle(.kts) 的文本分析
+ * 不执行 Gradle，从 include/includeFlat 语句和 project(...).projectDir 赋值中得到子项目及其目录。
+ * 解析结果按根目录缓存，settings 文件的大小和修改时间不变时直接复用
+ */
+public final class GradleSettings {
+    private static final String[] FILE_NAMES = {"settings.gradle", "settings.gradle.kts"};
+    private static final Pattern INCLUDE = Pattern.compile(
+            "\\b(include|includeFlat)(?![A-Za-z])\\s*\\(?((?:\\s*['\"][^'\"]+['\"]\\s*,?)+)\\)?");
+    private static final Pattern QUOTED = Pattern.compile("['\"]([^'\"]+)['\"]");
+    private static final Pattern PROJECT_DIR = Pattern.compile(
+            "project\\s*\\(\\s*['\"](:[^'\"]*)['\"]\\s*\\)\\s*\\.\\s*projectDir\\s*=\\s*"
+                    + "(?:file\\s*\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)|new\\s+File\\s*\\(\\s*(?:rootDir|settingsDir)\\s*,\\s*['\"]([^'\"]+)['\"]\\s*\\))");
+    private static final Map<Path, GradleSettings> CACHE = new ConcurrentHashMap<>();
+
+    private final String fingerprint;
+    private final Map<String, Path> subprojects;
+
+    private GradleSettings(String fingerprint, Map<String, Path> subprojects) {
+        this.fingerprint = fingerprint;
+        this.subprojects = subprojects;
+    }
+
+    /**
+     * 读取项目根目录中的 settings 文件
+     * @param root 根目录
+     * @return 没有 settings 文件时返回 null
+     * @throws IOException 读取失败时抛出
+     */
+    public static GradleSettings load(Path root) throws IOException {
+        Path normalized = root.toAbsolutePath().normalize();
+        Path file = null;
+        BasicFileAttributes attrs = null;
+        for (String name : FILE_NAMES) {
+            Path candidate = normalized.resolve(name);
+            if (Files.isRegularFile(candidate)) {
+                file = candidate;
+                attrs = Files.readAttributes(candidate, BasicFileAttributes.class);
+                break;
+            }
+        }
+        if (file == null) {
+            CACHE.remove(normalized);
+            return null;
+        }
+        String fingerprint = file.getFileName() + ":" + attrs.size() + "@" + attrs.lastModifiedTime().toMillis();
+        GradleSettings cached = CACHE.get(normalized);
+        if (cached != null && cached.fingerprint.equals(fingerprint)) {
+            return cached;
+        }
+        String script = GradleScripts.stripComments(Files.readString(file, StandardCharsets.UTF_8));
+        GradleSettings settings = new GradleSettings(fingerprint, parse(normalized, script));
+        CACHE.put(normalized, settings);
+        return settings;
+    }
+
+    private static Map<String, Path> parse(Path root, String script) {
+        Map<String, Path> subprojects = new LinkedHashMap<>();
+        Matcher include = INCLUDE.matcher(script);
+        while (include.find()) {
+            boolean flat = include.group(1).equals("includeFlat");
+            Matcher quoted = QUOTED.matcher(include.group(2));
+            while (quoted.find()) {
+                String path = quoted.group(1);
+                String projectPath = path.startsWith(":") ? path : ":" + path;
+                Path dir = flat ? root.resolveSibling(projectPath.substring(1))
+                        : root.resolve(projectPath.substring(1).replace(':', '/'));
+                subprojects.put(projectPath, dir.normalize());
+            }
+        }
+        Map<String, Path> overrides = new HashMap<>();
+        Matcher projectDir = PROJECT_DIR.matcher(script);
+        while (projectDir.find()) {
+            String dir = projectDir.group(2) != null ? projectDir.group(2) : projectDir.group(3);
+            overrides.put(projectDir.group(1), root.resolve(dir).normalize());
+        }
+        subprojects.replaceAll((path, dir) -> overrides.getOrDefault(path, dir));
+        return subprojects;
+    }
+
+    /**
+     * 子项目路径（如 ":app"）到目录的映射，按声明顺序排列
+     */
+    public Map<String, Path> subprojects() {
+        return Collections.unmodifiableMap(subprojects);
+    }
+
+    /**
+     * 子项目目录中实际存在的部分
+     */
+    public List<Map.Entry<String, Path>> existingSubprojects() {
+        List<Map.Entry<String, Path>> existing = new ArrayList<>();
+        for (Map.Entry<String, Path> entry : subprojects.entrySet()) {
+            if (Files.isDirectory(entry.getValue())) {
+                existing.add(entry);
+            }
+        }
+        return existing;
+    }
+}
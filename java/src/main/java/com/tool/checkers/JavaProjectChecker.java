@@ -0,0 +1,198 @@
+package com.tool.checkers;
+
+import com.tool.metrics.CheckEvent;
+import com.tool.metrics.CommandStats;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java项目检查器
+ * 先对项目目录建立一次快照，再依次执行各检查项。默认包含构建工具、Java版本、
+ * 项目结构和 Docker 支持检查，可以通过 addCheck 追加其他检查项（如 TestDirectoryChecker）
+ */
+public class JavaProjectChecker {
+    private String projectPath;
+    private boolean verbose;
+    private PrintStream out;
+    private List<ProjectCheck> checks;
+    private CheckReport report;
+    private Map<String, Long> checkNanos;
+    private CheckResultCache cache;
+    private boolean cached;
+    
+    public JavaProjectChecker(String projectPath, boolean verbose) {
+        this(projectPath, verbose, System.out);
+    }
+    
+    public JavaProjectChecker(String projectPath, boolean verbose, PrintStream out) {
+        this(projectPath, verbose, out, Arrays.asList(
+                new BuildToolCheck(),
+                new JavaVersionCheck(),
+                new ProjectStructureCheck(),
+                new DockerSupportCheck()));
+    }
+    
+    /**
+     * 构造函数
+     * @param projectPath 项目路径
+     * @param verbose 是否输出详细信息
+     * @param out 输出流
+     * @param checks 要执行的检查项，替代默认检查项
+     */
+    public JavaProjectChecker(String projectPath, boolean verbose, PrintStream out, List<ProjectCheck> checks) {
+        this.projectPath = projectPath;
+        this.out = out;
+        this.verbose = verbose;
+        this.checks = new ArrayList<>(checks);
+        this.report = new CheckReport(this::log);
+        this.checkNanos = new LinkedHashMap<>();
+    }
+    
+    /**
+     * 追加检查项，在默认检查项之后执行
+     * @param check 检查项
+     */
+    public void addCheck(ProjectCheck check) {
+        checks.add(check);
+    }
+    
+    /**
+     * 设置结果缓存，指纹不变时跳过检查直接使用缓存结果
+     * @param cache 结果缓存，为 null 时不使用缓存
+     */
+    public void setCache(CheckResultCache cache) {
+        this.cache = cache;
+    }
+    
+    private void log(String message) {
+        if (verbose) {
+            out.println("[INFO] " + message);
+        }
+    }
+    
+    public boolean runChecks() {
+        out.println("检查Java项目: " + projectPath);
+        log("开始检查Java项目: " + projectPath);
+        
+        Path root = Paths.get(projectPath);
+        long start = System.nanoTime();
+        String fingerprint = null;
+        if (cache != null) {
+            List<String> names = new ArrayList<>();
+            for (ProjectCheck check : checks) {
+                names.add(check.cacheKey());
+            }
+            fingerprint = CheckResultCache.fingerprint(root, names);
+            CheckResultCache.Entry entry = cache.get(root, fingerprint);
+            checkNanos.put("cache", System.nanoTime() - start);
+            if (entry != null) {
+                cached = true;
+                report.restore(entry);
+                log("项目未发生变化，使用缓存的检查结果");
+            }
+        }
+        if (!cached) {
+            start = System.nanoTime();
+            ProjectSnapshot snapshot = ProjectSnapshot.scan(root);
+            checkNanos.put("snapshot", System.nanoTime() - start);
+            for (ProjectCheck check : checks) {
+                CheckEvent event = new CheckEvent();
+                int before = report.issues().size();
+                event.begin();
+                start = System.nanoTime();
+                check.run(snapshot, report);
+                checkNanos.put(check.name(), System.nanoTime() - start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.project = projectPath;
+                    event.check = check.name();
+                    event.issues = report.issues().size() - before;
+                    event.commit();
+                }
+            }
+            if (cache != null) {
+                try {
+                    cache.put(root, fingerprint, new CheckResultCache.Entry(report.issues(), report.flags(), report.values()));
+                } catch (IOException e) {
+                    log("保存检查结果缓存时出错: " + e.getMessage());
+                }
+            }
+        }
+        
+        CommandStats stats = CommandStats.current();
+        if (stats != null) {
+            checkNanos.forEach(stats::addCheck);
+        }
+
+        List<String> issues = report.issues();
+        if (!issues.isEmpty()) {
+            out.println("\n不符合规范的问题:");
+            for (int i = 0; i < issues.size(); i++) {
+                out.println((i + 1) + ". " + issues.get(i));
+            }
+            return false;
+        } else {
+            out.println("恭喜！项目符合规范要求。");
+            return true;
+        }
+    }
+    
+    /**
+     * 本次结果是否来自缓存
+     */
+    public boolean isCached() {
+        return cached;
+    }
+    
+    // Getters
+    public String getProjectPath() {
+        return projectPath;
+    }
+    
+    public List<String> getIssues() {
+        return report.issues();
+    }
+    
+    public boolean hasMavenPom() {
+        return report.flag(BuildToolCheck.MAVEN_POM);
+    }
+    
+    public boolean hasGradleBuild() {
+        return report.flag(BuildToolCheck.GRADLE_BUILD);
+    }
+    
+    public boolean hasJavaVersion() {
+        return report.flag(JavaVersionCheck.JAVA_VERSION);
+    }
+    
+    public boolean hasSourceDir() {
+        return report.flag(ProjectStructureCheck.SOURCE_DIR);
+    }
+    
+    public boolean hasTestDir() {
+        return report.flag(ProjectStructureCheck.TEST_DIR);
+    }
+    
+    public boolean hasDockerfile() {
+        return report.flag(DockerSupportCheck.DOCKERFILE);
+    }
+    
+    public String getJavaVersion() {
+        return report.value(JavaVersionCheck.JAVA_VERSION);
+    }
+    
+    /**
+     * 各项检查的耗时（纳秒），按执行顺序排列，snapshot 为建立目录快照的耗时
+     */
+    public Map<String, Long> getCheckNanos() {
+        return checkNanos;
+    }
+}
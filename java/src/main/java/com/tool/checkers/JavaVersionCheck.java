@@ -0,0 +1,116 @@
+package com.tool.checkers;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Java 版本检查：.sdkmanrc、pom.xml 或 Gradle 构建文件中需要明确指定 Java 版本。
+ * pom.xml 通过 PomInfo 解析，多模块项目中的子模块可以从父模块继承版本配置。
+ * 依赖 BuildToolCheck 的结果，需要在其后执行
+ */
+public class JavaVersionCheck implements ProjectCheck {
+    public static final String JAVA_VERSION = "javaVersion";
+
+    private final Map<String, String> inherited;
+
+    public JavaVersionCheck() {
+        this(Collections.emptyMap());
+    }
+
+    /**
+     * 构造函数
+     * @param inherited 从父模块继承的属性和编译插件配置
+     */
+    public JavaVersionCheck(Map<String, String> inherited) {
+        this.inherited = inherited;
+    }
+
+    @Override
+    public String cacheKey() {
+        return inherited.isEmpty() ? name() : name() + new TreeMap<>(inherited);
+    }
+
+    @Override
+    public String name() {
+        return "javaVersion";
+    }
+
+    @Override
+    public void run(ProjectSnapshot project, CheckReport report) {
+        boolean found = false;
+
+        // 检查.sdkmanrc文件
+        String sdkmanrc = project.read(".sdkmanrc");
+        if (sdkmanrc != null && sdkmanrc.contains("JAVA_VERSION")) {
+            found = true;
+            // 提取Java版本
+            for (String line : sdkmanrc.split("\\r?\\n")) {
+                if (line.trim().startsWith("JAVA_VERSION")) {
+                    String[] parts = line.split("=");
+                    if (parts.length > 1) {
+                        report.setValue(JAVA_VERSION, parts[1].trim());
+                        report.log("找到Java版本配置: " + parts[1].trim());
+                    }
+                    break;
+                }
+            }
+        } else if (sdkmanrc == null && project.exists(".sdkmanrc")) {
+            report.log("读取.sdkmanrc文件时出错");
+        }
+
+        // 检查Maven中的Java版本
+        if (report.flag(BuildToolCheck.MAVEN_POM)) {
+            PomInfo pom = project.pom();
+            if (pom == null) {
+                report.log("读取pom.xml文件时出错");
+            } else {
+                Map<String, String> properties = new HashMap<>(inherited);
+                properties.putAll(pom.properties());
+                String version = PomInfo.javaVersion(properties);
+                if (PomInfo.javaVersion(pom.properties()) != null) {
+                    found = true;
+                    report.log("在pom.xml中找到Java版本配置: " + version);
+                }
+                if (version != null && report.value(JAVA_VERSION) == null) {
+                    report.setValue(JAVA_VERSION, version);
+                }
+            }
+        }
+
+        // 检查Gradle中的Java版本（sourceCompatibility、targetCompatibility 或 toolchain）
+        String gradleFile = report.value(BuildToolCheck.GRADLE_FILE);
+        if (report.flag(BuildToolCheck.GRADLE_BUILD) && gradleFile != null) {
+            String gradle = project.read(gradleFile);
+            if (gradle == null) {
+                report.log("读取Gradle文件时出错");
+            } else {
+                String script = GradleScripts.stripComments(gradle);
+                if (GradleScripts.declaresJavaVersion(script)) {
+                    found = true;
+                    String version = GradleScripts.javaVersion(script);
+                    report.log("在Gradle文件中找到Java版本配置" + (version == null ? "" : ": " + version));
+                    if (version != null && report.value(JAVA_VERSION) == null) {
+                        report.setValue(JAVA_VERSION, version);
+                    }
+                }
+            }
+        }
+
+        // 子模块和子项目可以继承父项目的配置
+        String inheritedVersion = PomInfo.javaVersion(inherited);
+        if (!found && inheritedVersion != null) {
+            found = true;
+            report.log("从父模块继承Java版本配置: " + inheritedVersion);
+            if (report.value(JAVA_VERSION) == null) {
+                report.setValue(JAVA_VERSION, inheritedVersion);
+            }
+        }
+
+        report.setFlag(JAVA_VERSION, found);
+        if (!found) {
+            report.addIssue("未明确指定Java版本");
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.tool.checkers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Maven 多模块项目
+ * 从根目录的 pom.xml 开始，按 modules 声明递归读取各模块的 pom，各模块的解析在 ForkJoinPool 中并行进行。
+ * 每个模块的继承属性取自其 parent（能在本项目中找到时）或所在的聚合模块
+ */
+public class MavenReactor {
+    private final List<Module> modules;
+
+    /**
+     * 单个模块
+     */
+    public static final class Module {
+        private final Path dir;
+        private final String relativePath;
+        private final PomInfo pom;
+        private final Module aggregator;
+        private Map<String, String> inherited = Collections.emptyMap();
+        private Map<String, String> effective = Collections.emptyMap();
+
+        Module(Path dir, String relativePath, PomInfo pom, Module aggregator) {
+            this.dir = dir;
+            this.relativePath = relativePath;
+            this.pom = pom;
+            this.aggregator = aggregator;
+        }
+
+        public Path dir() {
+            return dir;
+        }
+
+        /**
+         * 相对于根项目的路径，根项目为 "."
+         */
+        public String relativePath() {
+            return relativePath;
+        }
+
+        public PomInfo pom() {
+            return pom;
+        }
+
+        public boolean isRoot() {
+            return aggregator == null;
+        }
+
+        /**
+         * 从父模块继承的属性和编译插件配置
+         */
+        public Map<String, String> inherited() {
+            return inherited;
+        }
+
+        /**
+         * 该模块的检查项：根项目使用全部默认检查项；子模块不检查 README 和 Docker 支持
+         */
+        public List<ProjectCheck> checks() {
+            if (isRoot()) {
+                return Arrays.asList(new BuildToolCheck(), new JavaVersionCheck(inherited),
+                        new ProjectStructureCheck(), new DockerSupportCheck());
+            }
+            return Arrays.asList(new BuildToolCheck(), new JavaVersionCheck(inherited),
+                    new ProjectStructureCheck(false));
+        }
+    }
+
+    private MavenReactor(List<Module> modules) {
+        this.modules = modules;
+    }
+
+    /**
+     * 读取多模块项目
+     * @param root 根目录
+     * @param threads 并行解析的线程数
+     * @throws IOException 根目录的 pom.xml 无法读取时抛出；子模块读取失败时跳过该模块
+     */
+    public static MavenReactor load(Path root, int threads) throws IOException {
+        Path normalized = root.toAbsolutePath().normalize();
+        PomInfo rootPom = PomInfo.parse(normalized.resolve("pom.xml"));
+        Module rootModule = new Module(normalized, ".", rootPom, null);
+        Set<Path> visited = ConcurrentHashMap.newKeySet();
+        visited.add(normalized);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        List<Module> modules;
+        try {
+            modules = pool.invoke(new ModuleTask(rootModule, normalized, visited));
+        } finally {
+            pool.shutdown();
+        }
+        resolveInheritance(modules);
+        return new MavenReactor(modules);
+    }
+
+    /**
+     * 全部模块，按声明顺序深度优先排列，第一个为根项目
+     */
+    public List<Module> modules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * 按声明顺序计算各模块的继承属性，聚合模块总是在其子模块之前；
+     * parent 在本项目中但排在后面时退回使用聚合模块的属性
+     */
+    private static void resolveInheritance(List<Module> modules) {
+        Map<String, Module> byKey = new HashMap<>();
+        for (Module module : modules) {
+            if (module.pom.artifactId() != null) {
+                byKey.put(module.pom.groupId() + ":" + module.pom.artifactId(), module);
+            }
+        }
+        Set<Module> resolved = Collections.newSetFromMap(new HashMap<>());
+        for (Module module : modules) {
+            Module parent = module.pom.parentKey() == null ? null : byKey.get(module.pom.parentKey());
+            if (parent == null || !resolved.contains(parent)) {
+                parent = module.aggregator;
+            }
+            if (parent != null) {
+                module.inherited = parent.effective;
+            }
+            Map<String, String> effective = new HashMap<>(module.inherited);
+            effective.putAll(module.pom.properties());
+            module.effective = effective;
+            resolved.add(module);
+        }
+    }
+
+    /**
+     * 解析一个模块的全部子模块，返回以该模块开头、深度优先排列的模块列表
+     */
+    private static final class ModuleTask extends RecursiveTask<List<Module>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Module module;
+        private final Path root;
+        private final Set<Path> visited;
+
+        ModuleTask(Module module, Path root, Set<Path> visited) {
+            this.module = module;
+            this.root = root;
+            this.visited = visited;
+        }
+
+        @Override
+        protected List<Module> compute() {
+            List<ModuleTask> subtasks = new ArrayList<>();
+            for (String name : module.pom.modules()) {
+                Path target = module.dir.resolve(name).normalize();
+                Path pomFile = Files.isDirectory(target) ? target.resolve("pom.xml") : target;
+                Path dir = pomFile.getParent();
+                // 防止模块之间的循环引用
+                if (dir == null || !visited.add(dir)) {
+                    continue;
+                }
+                try {
+                    PomInfo pom = PomInfo.parse(pomFile);
+                    String relative = root.relativize(dir).toString().replace('\\', '/');
+                    ModuleTask task = new ModuleTask(new Module(dir, relative.isEmpty() ? "." : relative, pom, module),
+                            root, visited);
+                    task.fork();
+                    subtasks.add(task);
+                } catch (IOException e) {
+                    // 无法读取的子模块跳过
+                }
+            }
+            List<Module> result = new ArrayList<>();
+            result.add(module);
+            for (ModuleTask task : subtasks) {
+                result.addAll(task.join());
+            }
+            return result;
+        }
+    }
+}
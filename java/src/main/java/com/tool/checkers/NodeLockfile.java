@@ -0,0 +1,226 @@
+package com.tool.checkers;
+
+import com.tool.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 前端项目的锁文件
+ * 支持 package-lock.json（npm-shrinkwrap.json）、yarn.lock（classic 和 berry）和 pnpm-lock.yaml，
+ * 只提取锁定的版本号。yarn.lock 和 pnpm-lock.yaml 逐行读取，不载入整个文件
+ */
+public final class NodeLockfile {
+    /** 按优先顺序查找的锁文件 */
+    public static final String[] FILE_NAMES = {
+        "package-lock.json", "npm-shrinkwrap.json", "yarn.lock", "pnpm-lock.yaml"
+    };
+
+    private final String fileName;
+    /** 包名到锁定版本（项目直接依赖所用的版本） */
+    private final Map<String, String> byName = new HashMap<>();
+    /** yarn.lock 中 "包名@范围" 到锁定版本 */
+    private final Map<String, String> byDescriptor = new HashMap<>();
+
+    private NodeLockfile(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * 读取项目的锁文件
+     * @return 没有锁文件时返回 null
+     */
+    public static NodeLockfile load(Path project) throws IOException {
+        for (String name : FILE_NAMES) {
+            Path file = project.resolve(name);
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            NodeLockfile lockfile = new NodeLockfile(name);
+            if (name.endsWith(".json")) {
+                lockfile.parseNpm(file);
+            } else if (name.equals("yarn.lock")) {
+                lockfile.parseYarn(file);
+            } else {
+                lockfile.parsePnpm(file);
+            }
+            return lockfile;
+        }
+        return null;
+    }
+
+    public String fileName() {
+        return fileName;
+    }
+
+    /**
+     * 查找依赖锁定的版本
+     * @param name 包名
+     * @param range package.json 中声明的版本范围
+     * @return 锁文件中没有该依赖时返回 null
+     */
+    public String lockedVersion(String name, String range) {
+        String version = byDescriptor.get(name + "@" + range);
+        if (version == null) {
+            version = byDescriptor.get(name + "@npm:" + range);
+        }
+        return version != null ? version : byName.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseNpm(Path file) throws IOException {
+        Object root = Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+        if (!(root instanceof Map)) {
+            return;
+        }
+        Map<String, Object> lock = (Map<String, Object>) root;
+        Object packages = lock.get("packages");
+        if (packages instanceof Map) {
+            // lockfileVersion 2、3：键为安装路径，只取顶层 node_modules 下的包
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) packages).entrySet()) {
+                String key = entry.getKey();
+                if (!key.startsWith("node_modules/") || key.indexOf("/node_modules/") >= 0) {
+                    continue;
+                }
+                String version = versionOf(entry.getValue());
+                if (version != null) {
+                    byName.put(key.substring("node_modules/".length()), version);
+                }
+            }
+            return;
+        }
+        Object dependencies = lock.get("dependencies");
+        if (dependencies instanceof Map) {
+            // lockfileVersion 1
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) dependencies).entrySet()) {
+                String version = versionOf(entry.getValue());
+                if (version != null) {
+                    byName.put(entry.getKey(), version);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String versionOf(Object node) {
+        if (node instanceof Map) {
+            Object version = ((Map<String, Object>) node).get("version");
+            return version instanceof String ? (String) version : null;
+        }
+        return null;
+    }
+
+    private void parseYarn(Path file) throws IOException {
+        String[] descriptors = null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (!Character.isWhitespace(line.charAt(0))) {
+                    // 条目头: "a@^1.0.0", a@^1.1.0:
+                    descriptors = line.endsWith(":") ? line.substring(0, line.length() - 1).split(",") : null;
+                    continue;
+                }
+                String trimmed = line.trim();
+                if (descriptors == null || !trimmed.startsWith("version")) {
+                    continue;
+                }
+                String version = unquote(trimmed.substring("version".length()).replaceFirst("^:?\\s*", ""));
+                for (String descriptor : descriptors) {
+                    String key = unquote(descriptor.trim());
+                    byDescriptor.put(key, version);
+                    int at = key.indexOf('@', 1);
+                    if (at > 0) {
+                        byName.putIfAbsent(key.substring(0, at), version);
+                    }
+                }
+                descriptors = null;
+            }
+        }
+    }
+
+    /**
+     * 读取根项目的 dependencies、devDependencies 和 optionalDependencies：
+     * 旧格式为 "名称: 版本"，新格式为 "名称:" 下的 "version: 版本"；
+     * 使用 workspace 时位于 importers 下的 "." 中
+     */
+    private void parsePnpm(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            boolean inImporters = false;
+            boolean rootImporter = false;
+            int sectionIndent = -1;
+            String current = null;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                int indent = line.length() - line.stripLeading().length();
+                if (sectionIndent >= 0 && indent <= sectionIndent) {
+                    sectionIndent = -1;
+                    current = null;
+                }
+                if (indent == 0) {
+                    inImporters = trimmed.equals("importers:");
+                    rootImporter = false;
+                } else if (inImporters && indent == 2) {
+                    rootImporter = unquote(trimmed.substring(0, trimmed.length() - 1)).equals(".");
+                }
+                if (sectionIndent < 0) {
+                    boolean section = trimmed.equals("dependencies:") || trimmed.equals("devDependencies:")
+                            || trimmed.equals("optionalDependencies:");
+                    if (section && (indent == 0 && !inImporters || indent == 4 && rootImporter)) {
+                        sectionIndent = indent;
+                    }
+                    continue;
+                }
+                int colon = trimmed.indexOf(':', trimmed.startsWith("'") || trimmed.startsWith("\"") ? 1 : 0);
+                if (colon < 0) {
+                    continue;
+                }
+                String key = unquote(trimmed.substring(0, colon).trim());
+                String value = trimmed.substring(colon + 1).trim();
+                if (indent == sectionIndent + 2) {
+                    current = key;
+                    if (!value.isEmpty()) {
+                        byName.put(key, pnpmVersion(value));
+                    }
+                } else if (current != null && key.equals("version") && !value.isEmpty()) {
+                    byName.put(current, pnpmVersion(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * 去掉 pnpm 版本号中的 peer 依赖后缀，例如 1.2.3(react@18.2.0) 或 1.2.3_react@18.2.0
+     */
+    private static String pnpmVersion(String value) {
+        String version = unquote(value);
+        int cut = version.length();
+        for (char c : new char[]{'(', '_'}) {
+            int index = version.indexOf(c);
+            if (index > 0 && index < cut) {
+                cut = index;
+            }
+        }
+        return version.substring(0, cut);
+    }
+
+    private static String unquote(String value) {
+        String text = value.trim();
+        if (text.length() >= 2 && (text.startsWith("\"") && text.endsWith("\"")
+                || text.startsWith("'") && text.endsWith("'"))) {
+            return text.substring(1, text.length() - 1);
+        }
+        return text;
+    }
+}
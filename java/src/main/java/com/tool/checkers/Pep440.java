@@ -0,0 +1,221 @@
+package com.tool.checkers;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Python 包版本号和版本约束
+ * 版本号按 PEP 440 比较（epoch、发布号、a/b/rc、post、dev）；约束支持 ==、!=、>=、<=、>、<、~=、===
+ * 和 ==1.2.* 通配，以逗号分隔表示同时满足。另外支持 Poetry 的 ^、~ 和 * 写法
+ */
+final class Pep440 {
+    private static final Pattern VERSION = Pattern.compile(
+            "v?(?:(\\d+)!)?(\\d+(?:\\.\\d+)*)"
+            + "(?:[-_.]?(a|alpha|b|beta|c|rc|pre|preview)[-_.]?(\\d*))?"
+            + "(?:-(\\d+)|[-_.]?(?:post|rev|r)[-_.]?(\\d*))?"
+            + "(?:[-_.]?dev[-_.]?(\\d*))?"
+            + "(?:\\+[a-z0-9.]+)?");
+    private static final Pattern CLAUSE = Pattern.compile("(===|==|!=|~=|>=|<=|>|<|\\^|~)?\\s*(\\S+)");
+
+    private Pep440() {
+    }
+
+    /**
+     * 解析后的版本号
+     */
+    static final class Version implements Comparable<Version> {
+        final long epoch;
+        final long[] release;
+        /** 预发布阶段：a=-3、b=-2、rc=-1，正式版为 0；只有 dev 的版本为 -4 */
+        final int prePhase;
+        final long preNumber;
+        final long post;
+        final long dev;
+
+        private Version(long epoch, long[] release, int prePhase, long preNumber, long post, long dev) {
+            this.epoch = epoch;
+            this.release = release;
+            this.prePhase = prePhase;
+            this.preNumber = preNumber;
+            this.post = post;
+            this.dev = dev;
+        }
+
+        boolean isPrerelease() {
+            return prePhase != 0 || dev != Long.MAX_VALUE;
+        }
+
+        @Override
+        public int compareTo(Version other) {
+            int c = Long.compare(epoch, other.epoch);
+            if (c != 0) {
+                return c;
+            }
+            c = compareRelease(release, other.release, Math.max(release.length, other.release.length));
+            if (c != 0) {
+                return c;
+            }
+            c = Integer.compare(prePhase, other.prePhase);
+            if (c != 0) {
+                return c;
+            }
+            c = Long.compare(preNumber, other.preNumber);
+            if (c != 0) {
+                return c;
+            }
+            c = Long.compare(post, other.post);
+            return c != 0 ? c : Long.compare(dev, other.dev);
+        }
+    }
+
+    /**
+     * 解析版本号
+     * @return 不符合 PEP 440 时返回 null
+     */
+    static Version parse(String text) {
+        Matcher m = VERSION.matcher(text.trim().toLowerCase(Locale.ROOT));
+        if (!m.matches()) {
+            return null;
+        }
+        long epoch = m.group(1) == null ? 0 : Long.parseLong(m.group(1));
+        String[] parts = m.group(2).split("\\.");
+        long[] release = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            release[i] = Long.parseLong(parts[i]);
+        }
+        int prePhase = 0;
+        long preNumber = 0;
+        if (m.group(3) != null) {
+            String phase = m.group(3);
+            prePhase = phase.startsWith("a") ? -3 : phase.startsWith("b") ? -2 : -1;
+            preNumber = number(m.group(4));
+        }
+        long post = -1;
+        if (m.group(5) != null) {
+            post = Long.parseLong(m.group(5));
+        } else if (m.group(6) != null) {
+            post = number(m.group(6));
+        }
+        long dev = m.group(7) == null ? Long.MAX_VALUE : number(m.group(7));
+        if (dev != Long.MAX_VALUE && prePhase == 0 && post < 0) {
+            prePhase = -4;
+        }
+        return new Version(epoch, release, prePhase, preNumber, post, dev);
+    }
+
+    /**
+     * 判断版本是否满足约束
+     * @param specifier 约束，空串表示任意版本
+     * @return 约束或版本无法解析时返回 null
+     */
+    static Boolean matches(String specifier, String version) {
+        Version candidate = parse(version);
+        if (candidate == null) {
+            return null;
+        }
+        String spec = specifier.trim();
+        if (spec.isEmpty() || spec.equals("*")) {
+            return true;
+        }
+        for (String clause : spec.split(",")) {
+            Matcher m = CLAUSE.matcher(clause.trim());
+            if (!m.matches()) {
+                return null;
+            }
+            String op = m.group(1) == null ? "==" : m.group(1);
+            Boolean result = test(op, m.group(2), version.trim(), candidate);
+            if (result == null) {
+                return null;
+            }
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Boolean test(String op, String operand, String raw, Version candidate) {
+        if (op.equals("===")) {
+            return operand.equalsIgnoreCase(raw);
+        }
+        if (operand.endsWith(".*")) {
+            Version prefix = parse(operand.substring(0, operand.length() - 2));
+            if (prefix == null || !op.equals("==") && !op.equals("!=")) {
+                return null;
+            }
+            boolean match = candidate.epoch == prefix.epoch
+                    && compareRelease(candidate.release, prefix.release, prefix.release.length) == 0;
+            return op.equals("==") == match;
+        }
+        Version target = parse(operand);
+        if (target == null) {
+            return null;
+        }
+        int c = candidate.compareTo(target);
+        switch (op) {
+            case "==":
+                return c == 0;
+            case "!=":
+                return c != 0;
+            case ">=":
+                return c >= 0;
+            case "<=":
+                return c <= 0;
+            case ">":
+                return c > 0;
+            case "<":
+                return c < 0;
+            case "~=":
+                if (target.release.length < 2) {
+                    return null;
+                }
+                return c >= 0 && compareRelease(candidate.release, target.release, target.release.length - 1) == 0;
+            case "^":
+                return c >= 0 && candidate.compareTo(caretCeiling(target)) < 0;
+            default:
+                // Poetry 的 ~1.2 等价于 >=1.2,<1.3；~1 等价于 >=1,<2
+                return c >= 0 && candidate.compareTo(bump(target, target.release.length >= 2 ? 1 : 0)) < 0;
+        }
+    }
+
+    private static Version caretCeiling(Version version) {
+        int index = 0;
+        while (index < version.release.length - 1 && version.release[index] == 0) {
+            index++;
+        }
+        return bump(version, index);
+    }
+
+    /**
+     * 发布号第 index 段加 1、其后各段清零，并取该版本的最早预发布版本作为上界
+     */
+    private static Version bump(Version version, int index) {
+        long[] release = new long[index + 1];
+        System.arraycopy(version.release, 0, release, 0, Math.min(version.release.length, index + 1));
+        release[index]++;
+        return new Version(version.epoch, release, -4, 0, -1, 0);
+    }
+
+    private static int compareRelease(long[] a, long[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            long x = i < a.length ? a[i] : 0;
+            long y = i < b.length ? b[i] : 0;
+            if (x != y) {
+                return Long.compare(x, y);
+            }
+        }
+        return 0;
+    }
+
+    private static long number(String digits) {
+        return digits == null || digits.isEmpty() ? 0 : Long.parseLong(digits);
+    }
+
+    /**
+     * 按 PEP 503 规范化包名：小写，连续的 -、_、. 替换为单个 -
+     */
+    static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("[-_.]+", "-");
+    }
+}
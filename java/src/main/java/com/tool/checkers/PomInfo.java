@@ -0,0 +1,270 @@
+package com.tool.checkers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * pom.xml 中与检查相关的信息
+ * 使用 StAX 流式解析，只保留坐标、parent、properties、modules 和 maven-compiler-plugin 的
+ * source/target/release 配置，注释中的内容不会被误认为配置
+ */
+public final class PomInfo {
+    /** maven-compiler-plugin 配置在属性表中使用的键前缀 */
+    public static final String COMPILER_PLUGIN_PREFIX = "plugin:maven-compiler-plugin:";
+    private static final String[] VERSION_KEYS = {
+        COMPILER_PLUGIN_PREFIX + "release",
+        COMPILER_PLUGIN_PREFIX + "source",
+        "maven.compiler.release",
+        "maven.compiler.source",
+        "java.version"
+    };
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private String groupId;
+    private String artifactId;
+    private String packaging = "jar";
+    private String parentGroupId;
+    private String parentArtifactId;
+    private String parentRelativePath;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private final List<String> modules = new ArrayList<>();
+
+    private PomInfo() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * 解析 pom 文件
+     * @throws IOException 文件无法读取或不是有效的 XML 时抛出
+     */
+    public static PomInfo parse(Path pom) throws IOException {
+        try (InputStream in = Files.newInputStream(pom)) {
+            return parse(in);
+        }
+    }
+
+    /**
+     * 从输入流解析 pom
+     * @throws IOException 不是有效的 XML 时抛出
+     */
+    public static PomInfo parse(InputStream in) throws IOException {
+        PomInfo info = new PomInfo();
+        XMLStreamReader reader = null;
+        try {
+            synchronized (FACTORY) {
+                reader = FACTORY.createXMLStreamReader(in);
+            }
+            Deque<String> path = new ArrayDeque<>();
+            StringBuilder text = new StringBuilder();
+            // 当前 plugin 元素中的 artifactId 和 configuration 配置
+            String pluginArtifact = null;
+            Map<String, String> pluginConfig = new HashMap<>();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    path.addLast(reader.getLocalName());
+                    text.setLength(0);
+                    if (isPlugin(path)) {
+                        pluginArtifact = null;
+                        pluginConfig.clear();
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String value = text.toString().trim();
+                    int depth = path.size();
+                    String name = path.peekLast();
+                    String parentName = parentOf(path);
+                    if (depth == 2) {
+                        info.topLevel(name, value);
+                    } else if (depth == 3 && "parent".equals(parentName)) {
+                        info.parentElement(name, value);
+                    } else if (depth == 3 && "properties".equals(parentName)) {
+                        info.properties.put(name, value);
+                    } else if (depth == 3 && "modules".equals(parentName) && "module".equals(name)) {
+                        info.modules.add(value);
+                    } else if ("artifactId".equals(name) && isPlugin(withoutLast(path))) {
+                        pluginArtifact = value;
+                    } else if ("configuration".equals(parentName) && isPlugin(withoutLast(withoutLast(path)))) {
+                        pluginConfig.put(name, value);
+                    }
+                    if (isPlugin(path) && "maven-compiler-plugin".equals(pluginArtifact)) {
+                        for (Map.Entry<String, String> entry : pluginConfig.entrySet()) {
+                            info.properties.put(COMPILER_PLUGIN_PREFIX + entry.getKey(), entry.getValue());
+                        }
+                    }
+                    path.removeLast();
+                    text.setLength(0);
+                }
+            }
+            return info;
+        } catch (XMLStreamException e) {
+            throw new IOException("pom.xml 格式错误: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // 忽略
+                }
+            }
+        }
+    }
+
+    /**
+     * 判断路径是否为 project/build/plugins/plugin 或 project/build/pluginManagement/plugins/plugin
+     */
+    private static boolean isPlugin(Deque<String> path) {
+        if (path.size() < 4 || !"plugin".equals(path.peekLast())) {
+            return false;
+        }
+        List<String> names = new ArrayList<>(path);
+        return names.get(0).equals("project") && names.get(1).equals("build")
+                && (names.size() == 4 && names.get(2).equals("plugins")
+                || names.size() == 5 && names.get(2).equals("pluginManagement") && names.get(3).equals("plugins"));
+    }
+
+    private static Deque<String> withoutLast(Deque<String> path) {
+        Deque<String> copy = new ArrayDeque<>(path);
+        if (!copy.isEmpty()) {
+            copy.removeLast();
+        }
+        return copy;
+    }
+
+    private static String parentOf(Deque<String> path) {
+        if (path.size() < 2) {
+            return null;
+        }
+        String last = path.removeLast();
+        String parent = path.peekLast();
+        path.addLast(last);
+        return parent;
+    }
+
+    private void topLevel(String name, String value) {
+        switch (name) {
+            case "groupId":
+                groupId = value;
+                break;
+            case "artifactId":
+                artifactId = value;
+                break;
+            case "packaging":
+                packaging = value;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void parentElement(String name, String value) {
+        switch (name) {
+            case "groupId":
+                parentGroupId = value;
+                break;
+            case "artifactId":
+                parentArtifactId = value;
+                break;
+            case "relativePath":
+                parentRelativePath = value;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * groupId，未声明时使用 parent 的 groupId
+     */
+    public String groupId() {
+        return groupId != null ? groupId : parentGroupId;
+    }
+
+    public String artifactId() {
+        return artifactId;
+    }
+
+    public String packaging() {
+        return packaging;
+    }
+
+    /**
+     * parent 的 groupId:artifactId，没有 parent 时返回 null
+     */
+    public String parentKey() {
+        return parentArtifactId == null ? null : parentGroupId + ":" + parentArtifactId;
+    }
+
+    /**
+     * parent 的 relativePath，未声明时为 null（Maven 默认 ../pom.xml）
+     */
+    public String parentRelativePath() {
+        return parentRelativePath;
+    }
+
+    /**
+     * 本文件中的 properties 和编译插件配置
+     */
+    public Map<String, String> properties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    public List<String> modules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * 从属性表中取得 Java 版本：依次查找编译插件的 release、source，
+     * maven.compiler.release、maven.compiler.source 和 java.version，并展开 ${...} 引用
+     * @param properties 属性表，通常为 parent 的属性叠加本文件的属性
+     * @return 未声明时返回 null
+     */
+    public static String javaVersion(Map<String, String> properties) {
+        for (String key : VERSION_KEYS) {
+            String value = properties.get(key);
+            if (value != null && !value.isEmpty()) {
+                return resolve(value, properties);
+            }
+        }
+        return null;
+    }
+
+    private static String resolve(String value, Map<String, String> properties) {
+        String result = value;
+        for (int round = 0; round < 5 && result.contains("${"); round++) {
+            int start = result.indexOf("${");
+            int end = result.indexOf('}', start);
+            if (end < 0) {
+                break;
+            }
+            String replacement = properties.get(result.substring(start + 2, end));
+            if (replacement == null) {
+                break;
+            }
+            result = result.substring(0, start) + replacement + result.substring(end + 1);
+        }
+        return result;
+    }
+}
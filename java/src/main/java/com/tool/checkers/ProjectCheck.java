@@ -0,0 +1,26 @@
+package com.tool.checkers;
+
+/**
+ * 项目检查项
+ * 每个检查项基于同一个 ProjectSnapshot 执行，把发现的问题和检测结果写入 CheckReport
+ */
+public interface ProjectCheck {
+    /**
+     * 检查项名称，用于统计耗时
+     */
+    String name();
+
+    /**
+     * 参与结果缓存指纹计算的标识，检查项的配置会影响结果时需要包含在其中
+     */
+    default String cacheKey() {
+        return name();
+    }
+
+    /**
+     * 执行检查
+     * @param project 项目快照
+     * @param report 检查结果
+     */
+    void run(ProjectSnapshot project, CheckReport report);
+}
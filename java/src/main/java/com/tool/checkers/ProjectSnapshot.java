@@ -0,0 +1,203 @@
+package com.tool.checkers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 项目目录快照
+ * 一次有限深度的遍历记录项目中的文件和目录，各项检查基于快照判断文件是否存在，
+ * 不再各自访问文件系统。符号链接按其指向的目标记录，文件内容在首次读取时加载并缓存。
+ * 路径使用相对于项目根目录、以 '/' 分隔的字符串，根目录为 ""
+ */
+public final class ProjectSnapshot {
+    /** 默认遍历深度，足以判断 src/test/java 等目录是否为空 */
+    public static final int DEFAULT_DEPTH = 4;
+    /** 不进入的目录，其本身仍会被记录 */
+    private static final Set<String> SKIPPED_DIRS = new HashSet<>(Arrays.asList(
+            ".git", ".svn", ".idea", ".gradle", "node_modules", "target", "build", "out"));
+
+    private final Path root;
+    private final int depth;
+    private final Map<String, Boolean> entries;
+    private final Map<String, List<String>> children;
+    private final Map<String, Optional<String>> contents = new ConcurrentHashMap<>();
+    private volatile Optional<PomInfo> pom;
+
+    private ProjectSnapshot(Path root, int depth, Map<String, Boolean> entries, Map<String, List<String>> children) {
+        this.root = root;
+        this.depth = depth;
+        this.entries = entries;
+        this.children = children;
+    }
+
+    /**
+     * 遍历项目目录建立快照
+     * @param root 项目根目录，不存在时返回空快照
+     * @param depth 遍历深度，深度为 depth 的条目会被记录，但不会列出其子项
+     */
+    public static ProjectSnapshot scan(Path root, int depth) {
+        Map<String, Boolean> entries = new HashMap<>();
+        Map<String, List<String>> children = new HashMap<>();
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    String rel = relative(root, dir);
+                    entries.put(rel, Boolean.TRUE);
+                    children.computeIfAbsent(rel, k -> new ArrayList<>());
+                    if (!rel.isEmpty()) {
+                        addChild(children, rel);
+                        if (SKIPPED_DIRS.contains(dir.getFileName().toString())) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    // 达到最大深度的目录也会以文件的形式回调，通过 attrs 区分
+                    String rel = relative(root, file);
+                    entries.put(rel, attrs.isDirectory());
+                    addChild(children, rel);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    if (e instanceof FileSystemLoopException) {
+                        // 指向上级目录的符号链接，记录为目录但不再进入
+                        String rel = relative(root, file);
+                        entries.put(rel, Boolean.TRUE);
+                        addChild(children, rel);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // 根目录不可访问时返回空快照
+        }
+        return new ProjectSnapshot(root, depth, entries, children);
+    }
+
+    /**
+     * 使用默认深度建立快照
+     */
+    public static ProjectSnapshot scan(Path root) {
+        return scan(root, DEFAULT_DEPTH);
+    }
+
+    /**
+     * 快照是否跳过该名称的目录（目录本身仍会被记录，但不会进入）
+     */
+    public static boolean isSkippedDirectory(String name) {
+        return SKIPPED_DIRS.contains(name);
+    }
+
+    private static String relative(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static void addChild(Map<String, List<String>> children, String rel) {
+        int slash = rel.lastIndexOf('/');
+        String parent = slash < 0 ? "" : rel.substring(0, slash);
+        children.computeIfAbsent(parent, k -> new ArrayList<>()).add(rel.substring(slash + 1));
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * 获取条目的绝对路径
+     */
+    public Path resolve(String rel) {
+        return rel.isEmpty() ? root : root.resolve(rel);
+    }
+
+    public boolean exists(String rel) {
+        return entries.containsKey(rel);
+    }
+
+    public boolean isDirectory(String rel) {
+        return Boolean.TRUE.equals(entries.get(rel));
+    }
+
+    public boolean isFile(String rel) {
+        return Boolean.FALSE.equals(entries.get(rel));
+    }
+
+    /**
+     * 目录中的条目名称。深度小于遍历深度的目录结果是完整的，
+     * 跳过的目录（如 node_modules）和更深的目录返回空列表
+     */
+    public List<String> list(String rel) {
+        List<String> names = children.get(rel);
+        return names == null ? Collections.emptyList() : Collections.unmodifiableList(names);
+    }
+
+    /**
+     * 判断目录的子项是否已完整记录
+     */
+    public boolean isListed(String rel) {
+        int level = rel.isEmpty() ? 0 : rel.split("/").length;
+        return isDirectory(rel) && level < depth && children.containsKey(rel)
+                && !SKIPPED_DIRS.contains(rel.substring(rel.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * 读取文件内容（UTF-8），结果会被缓存
+     * @return 文件不存在或无法读取时返回 null
+     */
+    public String read(String rel) {
+        if (!isFile(rel)) {
+            return null;
+        }
+        return contents.computeIfAbsent(rel, k -> {
+            try {
+                return Optional.of(Files.readString(resolve(k), StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * 解析根目录中的 pom.xml，结果会被缓存
+     * @return 没有 pom.xml 或解析失败时返回 null
+     */
+    public PomInfo pom() {
+        Optional<PomInfo> result = pom;
+        if (result == null) {
+            PomInfo info = null;
+            if (isFile("pom.xml")) {
+                try {
+                    info = PomInfo.parse(resolve("pom.xml"));
+                } catch (IOException e) {
+                    // 格式错误的 pom 视为无法解析
+                }
+            }
+            result = Optional.ofNullable(info);
+            pom = result;
+        }
+        return result.orElse(null);
+    }
+}
@@ -0,0 +1,120 @@
+package com.tool.checkers;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * 项目结构检查：需要有源代码目录、测试目录和 README 文件。
+ * packaging 为 pom 的聚合项目，以及没有自身源代码的 Gradle 多项目根目录，不检查源代码和测试目录
+ */
+public class ProjectStructureCheck implements ProjectCheck {
+    public static final String SOURCE_DIR = "sourceDir";
+    public static final String TEST_DIR = "testDir";
+
+    private static final String[] SOURCE_DIRS = {
+        "src/main/java",
+        "src/main/kotlin",
+        "src/main/scala",
+        "src"
+    };
+    private static final String[] TEST_DIRS = {
+        "src/test/java",
+        "src/test/kotlin",
+        "src/test/scala",
+        "test"
+    };
+
+    private final boolean requireReadme;
+
+    public ProjectStructureCheck() {
+        this(true);
+    }
+
+    /**
+     * 构造函数
+     * @param requireReadme 是否要求 README 文件，多模块项目的子模块不要求
+     */
+    public ProjectStructureCheck(boolean requireReadme) {
+        this.requireReadme = requireReadme;
+    }
+
+    @Override
+    public String name() {
+        return "projectStructure";
+    }
+
+    @Override
+    public String cacheKey() {
+        return requireReadme ? name() : name() + ":noReadme";
+    }
+
+    @Override
+    public void run(ProjectSnapshot project, CheckReport report) {
+        PomInfo pom = project.pom();
+        if (pom != null && "pom".equals(pom.packaging())) {
+            report.log("聚合项目（packaging 为 pom），跳过源代码和测试目录检查");
+        } else if (firstDirectory(project, SOURCE_DIRS) == null && hasGradleSubprojects(project)) {
+            report.log("Gradle 多项目根目录，跳过源代码和测试目录检查");
+        } else {
+            checkSourceDirectories(project, report);
+        }
+
+        // 检查README文件
+        if (!requireReadme) {
+            return;
+        }
+        String readme = null;
+        for (String name : project.list("")) {
+            if (name.toLowerCase(Locale.ROOT).startsWith("readme")) {
+                readme = name;
+                break;
+            }
+        }
+        if (readme == null) {
+            report.addIssue("缺少README文件");
+        } else {
+            report.log("找到README文件: " + readme);
+        }
+    }
+
+    private void checkSourceDirectories(ProjectSnapshot project, CheckReport report) {
+        // 检查源代码目录
+        String sourceDir = firstDirectory(project, SOURCE_DIRS);
+        report.setFlag(SOURCE_DIR, sourceDir != null);
+        if (sourceDir != null) {
+            report.log("找到源代码目录: " + sourceDir);
+        } else {
+            report.addIssue("缺少标准的源代码目录");
+        }
+
+        // 检查测试目录
+        String testDir = firstDirectory(project, TEST_DIRS);
+        report.setFlag(TEST_DIR, testDir != null);
+        if (testDir != null) {
+            report.log("找到测试目录: " + testDir);
+        } else {
+            report.addIssue("缺少测试目录");
+        }
+    }
+
+    private static boolean hasGradleSubprojects(ProjectSnapshot project) {
+        if (!project.isFile("settings.gradle") && !project.isFile("settings.gradle.kts")) {
+            return false;
+        }
+        try {
+            GradleSettings settings = GradleSettings.load(project.root());
+            return settings != null && !settings.subprojects().isEmpty();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String firstDirectory(ProjectSnapshot project, String[] candidates) {
+        for (String dir : candidates) {
+            if (project.isDirectory(dir)) {
+                return dir;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,281 @@
+package com.tool.checkers;
+
+import com.tool.search.IgnoreRules;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Python 项目检查
+ * 查找源代码时跳过虚拟环境、.git、node_modules 等目录，找到第一个 .py 文件即停止；
+ * 读取 requirements.txt、pyproject.toml、setup.cfg 中声明的依赖，与项目虚拟环境 site-packages 中
+ * *.dist-info（或 *.egg-info）的元数据比较，元数据并行读取，每个包只读取头部的 Name 和 Version
+ */
+public class PythonChecker {
+    /** 查找源代码时不进入的目录 */
+    private static final Set<String> SKIPPED_DIRS = Set.of(
+            ".git", ".hg", ".svn", ".venv", "venv", "env", ".env", ".tox", ".nox", "node_modules",
+            "__pycache__", ".mypy_cache", ".pytest_cache", ".ruff_cache", ".eggs", "build", "dist",
+            "site-packages", ".idea", ".vscode");
+    /** 按顺序查找的虚拟环境目录 */
+    private static final String[] VENV_DIRS = {".venv", "venv", "env", ".env"};
+
+    private final Path project;
+    private final int threads;
+    private final boolean verbose;
+    private Path venv;
+    private boolean useIgnoreFiles = true;
+
+    /**
+     * 构造函数
+     * @param project 项目目录
+     * @param threads 读取包元数据的并行线程数
+     * @param verbose 是否输出每个依赖的检查结果
+     */
+    public PythonChecker(Path project, int threads, boolean verbose) {
+        this.project = project;
+        this.threads = Math.max(1, threads);
+        this.verbose = verbose;
+    }
+
+    /**
+     * 指定虚拟环境目录，默认在项目下查找 .venv、venv、env、.env
+     */
+    public void setVenv(Path venv) {
+        this.venv = venv;
+    }
+
+    /**
+     * 查找源代码时是否遵循 .gitignore 和 .ignore 规则，默认遵循
+     */
+    public void setUseIgnoreFiles(boolean useIgnoreFiles) {
+        this.useIgnoreFiles = useIgnoreFiles;
+    }
+
+    /**
+     * 执行检查
+     * @return 以 [INFO] 或 [WARN] 开头的检查结果
+     */
+    public List<String> run() throws IOException {
+        List<String> lines = new ArrayList<>();
+        PythonRequirements requirements = PythonRequirements.load(project);
+        for (String source : requirements.sources()) {
+            lines.add("[INFO] " + source + " 文件已找到。");
+        }
+        if (Files.exists(project.resolve("setup.py"))) {
+            lines.add("[INFO] setup.py 文件已找到。");
+        } else if (requirements.sources().isEmpty()) {
+            lines.add("[WARN] 未找到 requirements.txt、pyproject.toml、setup.cfg 或 setup.py 文件。");
+        }
+
+        Path found = findSource();
+        if (found != null) {
+            lines.add("[INFO] 找到了 Python 源代码文件。" + (verbose ? " " + project.relativize(found) : ""));
+        } else {
+            lines.add("[WARN] 未找到任何 Python 源代码文件。");
+        }
+
+        List<PythonRequirements.Requirement> declared = requirements.requirements();
+        Path venvDir = venv != null ? venv : findVenv();
+        List<Path> sitePackages = venvDir == null ? List.of() : sitePackages(venvDir);
+        if (sitePackages.isEmpty()) {
+            if (!declared.isEmpty()) {
+                lines.add("[WARN] 未找到虚拟环境的 site-packages，跳过已安装依赖的检查。");
+            }
+            return lines;
+        }
+        Map<String, String> installed = readInstalled(sitePackages);
+        lines.add("[INFO] 虚拟环境: " + venvDir + pythonVersion(venvDir) + "，已安装 " + installed.size() + " 个包。");
+        compare(declared, installed, lines);
+        return lines;
+    }
+
+    /**
+     * 查找第一个 .py 文件，跳过虚拟环境、工具目录和被忽略的目录
+     */
+    private Path findSource() throws IOException {
+        Path[] found = new Path[1];
+        IgnoreRules ignore = useIgnoreFiles ? IgnoreRules.load(project) : null;
+        Files.walkFileTree(project, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(project) && (SKIPPED_DIRS.contains(dir.getFileName().toString())
+                        || Files.exists(dir.resolve("pyvenv.cfg")) || ignore != null && ignore.isIgnored(dir, true))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".py")
+                        && (ignore == null || !ignore.isIgnored(file, false))) {
+                    found[0] = file;
+                    return FileVisitResult.TERMINATE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return found[0];
+    }
+
+    private Path findVenv() {
+        for (String name : VENV_DIRS) {
+            Path dir = project.resolve(name);
+            if (Files.isRegularFile(dir.resolve("pyvenv.cfg"))) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 虚拟环境中的 site-packages：lib/python3.x/site-packages（lib64 同理）或 Windows 的 Lib/site-packages
+     */
+    private static List<Path> sitePackages(Path venvDir) throws IOException {
+        List<Path> result = new ArrayList<>();
+        for (String lib : new String[]{"lib", "lib64"}) {
+            Path libDir = venvDir.resolve(lib);
+            if (!Files.isDirectory(libDir)) {
+                continue;
+            }
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(libDir, "python*")) {
+                for (Path pythonDir : stream) {
+                    Path candidate = pythonDir.resolve("site-packages");
+                    if (Files.isDirectory(candidate) && !containsSame(result, candidate)) {
+                        result.add(candidate);
+                    }
+                }
+            }
+        }
+        Path windows = venvDir.resolve("Lib").resolve("site-packages");
+        if (Files.isDirectory(windows) && !containsSame(result, windows)) {
+            result.add(windows);
+        }
+        return result;
+    }
+
+    /**
+     * lib64 通常是 lib 的符号链接
+     */
+    private static boolean containsSame(List<Path> paths, Path candidate) throws IOException {
+        for (Path path : paths) {
+            if (Files.isSameFile(path, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String pythonVersion(Path venvDir) {
+        try (BufferedReader reader = Files.newBufferedReader(venvDir.resolve("pyvenv.cfg"), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int eq = line.indexOf('=');
+                String key = eq < 0 ? "" : line.substring(0, eq).trim();
+                if (key.equals("version") || key.equals("version_info")) {
+                    return " (Python " + line.substring(eq + 1).trim() + ")";
+                }
+            }
+        } catch (IOException e) {
+            // 没有 pyvenv.cfg 时不显示版本
+        }
+        return "";
+    }
+
+    /**
+     * 并行读取 site-packages 中各包的元数据
+     * @return 规范化包名到版本
+     */
+    private Map<String, String> readInstalled(List<Path> sitePackages) throws IOException {
+        List<Path> metadata = new ArrayList<>();
+        for (Path dir : sitePackages) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.{dist-info,egg-info}")) {
+                for (Path entry : stream) {
+                    metadata.add(entry.getFileName().toString().endsWith(".dist-info")
+                            ? entry.resolve("METADATA") : entry.resolve("PKG-INFO"));
+                }
+            }
+        }
+        Map<String, String> installed = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> metadata.parallelStream().forEach(file -> {
+                String[] nameVersion = readNameVersion(file);
+                if (nameVersion != null) {
+                    installed.put(Pep440.normalizeName(nameVersion[0]), nameVersion[1]);
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+        return installed;
+    }
+
+    /**
+     * 读取元数据头部的 Name 和 Version，遇到空行（正文开始）即停止
+     */
+    private static String[] readNameVersion(Path file) {
+        String name = null;
+        String version = null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty() && (name == null || version == null)) {
+                if (line.startsWith("Name:")) {
+                    name = line.substring(5).trim();
+                } else if (line.startsWith("Version:")) {
+                    version = line.substring(8).trim();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+        return name == null || version == null ? null : new String[]{name, version};
+    }
+
+    private void compare(List<PythonRequirements.Requirement> declared, Map<String, String> installed,
+                         List<String> lines) {
+        int ok = 0;
+        int missing = 0;
+        for (PythonRequirements.Requirement requirement : declared) {
+            String version = installed.get(Pep440.normalizeName(requirement.name));
+            if (version == null) {
+                missing++;
+                lines.add("[WARN] 依赖 " + requirement.name + " 未安装（" + requirement.source + "）。");
+                continue;
+            }
+            Boolean matches = Pep440.matches(requirement.specifier, version);
+            if (Boolean.FALSE.equals(matches)) {
+                lines.add("[WARN] 依赖 " + requirement.name + " 已安装版本 " + version + " 不满足 "
+                        + requirement.specifier + "（" + requirement.source + "）。");
+                continue;
+            }
+            ok++;
+            if (verbose) {
+                lines.add("[INFO] 依赖 " + requirement.name + " " + requirement.specifier + " 已安装 " + version
+                        + (matches == null ? "（版本约束无法解析，未比较）" : "") + "。");
+            }
+        }
+        if (!declared.isEmpty()) {
+            lines.add("[INFO] 声明依赖 " + declared.size() + " 个，未安装 " + missing + " 个，版本符合 " + ok + " 个。");
+        }
+    }
+}
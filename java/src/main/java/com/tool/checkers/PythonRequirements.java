@@ -0,0 +1,263 @@
+package com.tool.checkers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Python 项目声明的依赖
+ * 读取 requirements.txt（跟随 -r 引用）、pyproject.toml 的 [project] dependencies 和
+ * [tool.poetry.dependencies]、setup.cfg 的 [options] install_requires。
+ * 只做逐行解析，足够处理这些文件的常见写法，不是完整的 TOML/INI 解析器
+ */
+final class PythonRequirements {
+    /** PEP 508 依赖：名称、可选的 extras、版本约束，分号后为环境标记 */
+    private static final Pattern REQUIREMENT = Pattern.compile(
+            "([A-Za-z0-9][A-Za-z0-9._-]*)\\s*(?:\\[[^\\]]*\\])?\\s*\\(?([^;()]*)\\)?\\s*(?:;.*)?");
+    private static final Pattern QUOTED = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"|'([^']*)'");
+    /** requirements.txt 中每条依赖的选项，例如 --hash=sha256:...，不影响版本约束 */
+    private static final Pattern PER_REQUIREMENT_OPTION = Pattern.compile(
+            "\\s+--(?:hash|global-option|config-settings)(?:=|\\s+)\\S+");
+
+    /** 规范化包名到依赖 */
+    private final Map<String, Requirement> requirements = new LinkedHashMap<>();
+    private final List<String> sources = new ArrayList<>();
+
+    /**
+     * 一条依赖声明
+     */
+    static final class Requirement {
+        final String name;
+        final String specifier;
+        final String source;
+
+        Requirement(String name, String specifier, String source) {
+            this.name = name;
+            this.specifier = specifier;
+            this.source = source;
+        }
+    }
+
+    /**
+     * 读取项目中的全部依赖声明，同名依赖以先读到的为准
+     */
+    static PythonRequirements load(Path project) throws IOException {
+        PythonRequirements result = new PythonRequirements();
+        Path requirements = project.resolve("requirements.txt");
+        if (Files.isRegularFile(requirements)) {
+            result.sources.add("requirements.txt");
+            result.readRequirementsFile(project, requirements, new HashSet<>());
+        }
+        Path pyproject = project.resolve("pyproject.toml");
+        if (Files.isRegularFile(pyproject)) {
+            result.sources.add("pyproject.toml");
+            result.readPyproject(pyproject);
+        }
+        Path setupCfg = project.resolve("setup.cfg");
+        if (Files.isRegularFile(setupCfg)) {
+            result.sources.add("setup.cfg");
+            result.readSetupCfg(setupCfg);
+        }
+        return result;
+    }
+
+    List<Requirement> requirements() {
+        return new ArrayList<>(requirements.values());
+    }
+
+    /**
+     * 读到的依赖声明文件
+     */
+    List<String> sources() {
+        return sources;
+    }
+
+    private void add(String line, String source) {
+        Matcher m = REQUIREMENT.matcher(line.trim());
+        if (!m.matches()) {
+            return;
+        }
+        String name = m.group(1);
+        String key = Pep440.normalizeName(name);
+        requirements.putIfAbsent(key, new Requirement(name, m.group(2).trim(), source));
+    }
+
+    private void readRequirementsFile(Path project, Path file, Set<Path> visited) throws IOException {
+        if (!visited.add(file.toAbsolutePath().normalize())) {
+            return;
+        }
+        String source = project.relativize(file).toString();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = readLogicalLine(reader)) != null) {
+                int comment = line.indexOf(" #");
+                String text = (line.startsWith("#") ? "" : comment >= 0 ? line.substring(0, comment) : line).trim();
+                text = PER_REQUIREMENT_OPTION.matcher(text).replaceAll("").trim();
+                if (text.startsWith("-r ") || text.startsWith("--requirement ")) {
+                    Path included = file.resolveSibling(text.substring(text.indexOf(' ') + 1).trim());
+                    if (Files.isRegularFile(included)) {
+                        readRequirementsFile(project, included, visited);
+                    }
+                } else if (!text.isEmpty() && !text.startsWith("-") && !text.contains("://")) {
+                    add(text, source);
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取一行，与 pip 一样把以反斜杠结尾的行与下一行拼接（注释行除外），
+     * 例如 "pkg==1.0 \" 后跟 "    --hash=sha256:..."
+     * @return 文件结束时返回 null
+     */
+    private static String readLogicalLine(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null || line.startsWith("#")) {
+            return line;
+        }
+        StringBuilder joined = new StringBuilder(line);
+        while (joined.length() > 0 && joined.charAt(joined.length() - 1) == '\\') {
+            joined.setLength(joined.length() - 1);
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            joined.append(' ').append(next);
+        }
+        return joined.toString();
+    }
+
+    private void readPyproject(Path file) throws IOException {
+        String table = "";
+        boolean inArray = false;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String text = stripTomlComment(line).trim();
+                if (text.isEmpty()) {
+                    continue;
+                }
+                if (inArray) {
+                    addQuoted(text);
+                    inArray = !closesArray(text);
+                    continue;
+                }
+                if (text.startsWith("[")) {
+                    table = text.replaceAll("[\\[\\]\\s]", "");
+                    continue;
+                }
+                int eq = text.indexOf('=');
+                if (eq < 0) {
+                    continue;
+                }
+                String key = text.substring(0, eq).trim().replace("\"", "");
+                String value = text.substring(eq + 1).trim();
+                if (table.equals("project") && key.equals("dependencies")) {
+                    addQuoted(value);
+                    inArray = value.startsWith("[") && !closesArray(value.substring(1));
+                } else if (table.equals("tool.poetry.dependencies") && !key.equalsIgnoreCase("python")) {
+                    addPoetry(key, value);
+                }
+            }
+        }
+    }
+
+    private void addQuoted(String text) {
+        Matcher m = QUOTED.matcher(text);
+        while (m.find()) {
+            add(m.group(1) != null ? m.group(1) : m.group(2), "pyproject.toml");
+        }
+    }
+
+    /**
+     * Poetry 依赖：name = "^1.2" 或 name = { version = "^1.2", ... }，git、path 依赖不检查版本
+     */
+    private void addPoetry(String name, String value) {
+        String specifier = "";
+        if (value.startsWith("{")) {
+            Matcher m = Pattern.compile("version\\s*=\\s*[\"']([^\"']*)[\"']").matcher(value);
+            if (m.find()) {
+                specifier = m.group(1);
+            }
+        } else {
+            Matcher m = QUOTED.matcher(value);
+            if (m.find()) {
+                specifier = m.group(1) != null ? m.group(1) : m.group(2);
+            }
+        }
+        requirements.putIfAbsent(Pep440.normalizeName(name), new Requirement(name, specifier, "pyproject.toml"));
+    }
+
+    /**
+     * 是否包含引号外的 ]，引号内的 ] 属于 extras，例如 "pkg[extra]>=1"
+     */
+    private static boolean closesArray(String text) {
+        return unquotedIndex(text, ']') >= 0;
+    }
+
+    private static String stripTomlComment(String line) {
+        int hash = unquotedIndex(line, '#');
+        return hash < 0 ? line : line.substring(0, hash);
+    }
+
+    private static int unquotedIndex(String line, char target) {
+        boolean quoted = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == quote) {
+                    quoted = false;
+                }
+            } else if (c == '"' || c == '\'') {
+                quoted = true;
+                quote = c;
+            } else if (c == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void readSetupCfg(Path file) throws IOException {
+        String section = "";
+        boolean inRequires = false;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String text = line.trim();
+                if (text.isEmpty() || text.startsWith("#") || text.startsWith(";")) {
+                    continue;
+                }
+                boolean continuation = Character.isWhitespace(line.charAt(0));
+                if (inRequires && continuation) {
+                    add(text, "setup.cfg");
+                    continue;
+                }
+                inRequires = false;
+                if (text.startsWith("[")) {
+                    section = text;
+                    continue;
+                }
+                int eq = text.indexOf('=');
+                if (section.equals("[options]") && eq > 0 && text.substring(0, eq).trim().equals("install_requires")) {
+                    String value = text.substring(eq + 1).trim();
+                    if (!value.isEmpty()) {
+                        add(value, "setup.cfg");
+                    }
+                    inRequires = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.tool.checkers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * npm 风格的语义化版本范围
+ * 支持精确版本、x 范围（1.x、1.2.*、*）、^、~、比较运算符、连字符范围和 ||，
+ * 足够判断已安装版本是否满足 package.json 中常见的声明；预发布版本按普通版本比较
+ */
+final class SemverRange {
+    private final List<List<Comparator>> sets;
+
+    private SemverRange(List<List<Comparator>> sets) {
+        this.sets = sets;
+    }
+
+    /**
+     * 解析版本范围
+     * @return 不是版本范围（标签、git 地址、本地路径等）时返回 null
+     */
+    static SemverRange parse(String range) {
+        String text = range.trim();
+        if (text.startsWith("npm:")) {
+            // 别名 npm:包名@范围
+            int at = text.lastIndexOf('@');
+            if (at <= 4) {
+                return null;
+            }
+            text = text.substring(at + 1);
+        }
+        List<List<Comparator>> sets = new ArrayList<>();
+        for (String part : text.split("\\|\\|", -1)) {
+            List<Comparator> set = parseSet(part.trim());
+            if (set == null) {
+                return null;
+            }
+            sets.add(set);
+        }
+        return new SemverRange(sets);
+    }
+
+    /**
+     * 判断版本是否在范围内
+     * @return 版本号无法解析时返回 false
+     */
+    boolean matches(String version) {
+        long[] parsed = parseVersion(version.trim());
+        if (parsed == null) {
+            return false;
+        }
+        for (List<Comparator> set : sets) {
+            boolean all = true;
+            for (Comparator comparator : set) {
+                if (!comparator.test(parsed)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Comparator> parseSet(String text) {
+        List<Comparator> set = new ArrayList<>();
+        if (text.isEmpty() || text.equals("*") || text.equalsIgnoreCase("x")) {
+            return set;
+        }
+        String[] hyphen = text.split("\\s+-\\s+");
+        if (hyphen.length == 2) {
+            Partial low = Partial.parse(hyphen[0]);
+            Partial high = Partial.parse(hyphen[1]);
+            if (low == null || high == null) {
+                return null;
+            }
+            set.add(new Comparator(Op.GE, low.floor()));
+            addUpper(set, high);
+            return set;
+        }
+        // 运算符与版本号之间允许有空格，例如 ">= 1.2.3"
+        for (String token : text.replaceAll("(>=|<=|>|<|=|\\^|~)\\s+", "$1").split("\\s+")) {
+            if (!addToken(set, token)) {
+                return null;
+            }
+        }
+        return set;
+    }
+
+    private static boolean addToken(List<Comparator> set, String token) {
+        String op = "";
+        for (String candidate : new String[]{">=", "<=", ">", "<", "=", "^", "~"}) {
+            if (token.startsWith(candidate)) {
+                op = candidate;
+                break;
+            }
+        }
+        String rest = token.substring(op.length());
+        if (rest.startsWith(">")) {
+            // ~> 与 ~ 相同
+            rest = rest.substring(1);
+        }
+        Partial version = Partial.parse(rest);
+        if (version == null) {
+            return false;
+        }
+        switch (op) {
+            case "^":
+                set.add(new Comparator(Op.GE, version.floor()));
+                if (version.parts > 0) {
+                    set.add(new Comparator(Op.LT, version.caretCeiling()));
+                }
+                return true;
+            case "~":
+                set.add(new Comparator(Op.GE, version.floor()));
+                if (version.parts > 0) {
+                    set.add(new Comparator(Op.LT, version.parts == 1
+                            ? new long[]{version.major + 1, 0, 0, 0}
+                            : new long[]{version.major, version.minor + 1, 0, 0}));
+                }
+                return true;
+            case ">=":
+                set.add(new Comparator(Op.GE, version.floor()));
+                return true;
+            case ">":
+                if (version.parts == 3) {
+                    set.add(new Comparator(Op.GT, version.floor()));
+                } else if (version.parts > 0) {
+                    set.add(new Comparator(Op.GE, version.next()));
+                } else {
+                    set.add(new Comparator(Op.LT, new long[]{0, 0, 0, 0}));
+                }
+                return true;
+            case "<":
+                set.add(new Comparator(Op.LT, version.floor()));
+                return true;
+            case "<=":
+                addUpper(set, version);
+                return true;
+            default:
+                if (version.parts == 3) {
+                    set.add(new Comparator(Op.EQ, version.floor()));
+                } else if (version.parts > 0) {
+                    set.add(new Comparator(Op.GE, version.floor()));
+                    set.add(new Comparator(Op.LT, version.next()));
+                }
+                return true;
+        }
+    }
+
+    private static void addUpper(List<Comparator> set, Partial version) {
+        if (version.parts == 3) {
+            set.add(new Comparator(Op.LE, version.floor()));
+        } else if (version.parts > 0) {
+            set.add(new Comparator(Op.LT, version.next()));
+        }
+    }
+
+    /**
+     * 解析完整版本号，结果为 major、minor、patch 和预发布标记（有预发布标记时为 0，否则为 1）
+     */
+    static long[] parseVersion(String text) {
+        Partial partial = Partial.parse(text);
+        if (partial == null || partial.parts != 3) {
+            return null;
+        }
+        return partial.floor();
+    }
+
+    private static int compare(long[] a, long[] b) {
+        for (int i = 0; i < 4; i++) {
+            int c = Long.compare(a[i], b[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private enum Op {
+        EQ, GT, GE, LT, LE
+    }
+
+    private static final class Comparator {
+        final Op op;
+        final long[] version;
+
+        Comparator(Op op, long[] version) {
+            this.op = op;
+            this.version = version;
+        }
+
+        boolean test(long[] candidate) {
+            int c = compare(candidate, version);
+            switch (op) {
+                case EQ:
+                    return c == 0;
+                case GT:
+                    return c > 0;
+                case GE:
+                    return c >= 0;
+                case LT:
+                    return c < 0;
+                default:
+                    return c <= 0;
+            }
+        }
+    }
+
+    /**
+     * 可能省略了部分字段的版本号，parts 为给出的数字字段个数
+     */
+    private static final class Partial {
+        final long major;
+        final long minor;
+        final long patch;
+        final int parts;
+        final boolean prerelease;
+
+        private Partial(long major, long minor, long patch, int parts, boolean prerelease) {
+            this.major = major;
+            this.minor = minor;
+            this.patch = patch;
+            this.parts = parts;
+            this.prerelease = prerelease;
+        }
+
+        static Partial parse(String text) {
+            String version = text.trim();
+            if (version.startsWith("v") || version.startsWith("=")) {
+                version = version.substring(1);
+            }
+            int plus = version.indexOf('+');
+            if (plus >= 0) {
+                version = version.substring(0, plus);
+            }
+            boolean prerelease = false;
+            int dash = version.indexOf('-');
+            if (dash >= 0) {
+                prerelease = true;
+                version = version.substring(0, dash);
+            }
+            if (version.isEmpty()) {
+                return null;
+            }
+            String[] fields = version.split("\\.", -1);
+            if (fields.length > 3) {
+                return null;
+            }
+            long[] numbers = new long[3];
+            int parts = 0;
+            for (String field : fields) {
+                String lower = field.toLowerCase(Locale.ROOT);
+                if (lower.equals("x") || lower.equals("*")) {
+                    break;
+                }
+                try {
+                    numbers[parts] = Long.parseLong(field);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                parts++;
+            }
+            return new Partial(numbers[0], numbers[1], numbers[2], parts, prerelease && parts == 3);
+        }
+
+        long[] floor() {
+            return new long[]{major, minor, patch, prerelease ? 0 : 1};
+        }
+
+        /**
+         * 下一个不在该部分版本范围内的版本，例如 1.2 的下一个为 1.3.0
+         */
+        long[] next() {
+            return parts == 1 ? new long[]{major + 1, 0, 0, 0} : new long[]{major, minor + 1, 0, 0};
+        }
+
+        long[] caretCeiling() {
+            if (major > 0 || parts == 1) {
+                return new long[]{major + 1, 0, 0, 0};
+            }
+            if (minor > 0 || parts == 2) {
+                return new long[]{0, minor + 1, 0, 0};
+            }
+            return new long[]{0, 0, patch + 1, 0};
+        }
+    }
+}
@@ -8,10 +8,13 @@ import java.util.logging.Logger;
 
 /**
  * 测试目录检查器
- * 验证Java项目是否包含适当的测试目录结构，并在需要时自动创建
+ * 验证Java项目是否包含适当的测试目录结构，并在需要时自动创建。
+ * 可以单独使用，也可以通过 JavaProjectChecker.addCheck 作为检查项执行
  */
-public class TestDirectoryChecker {
+public class TestDirectoryChecker implements ProjectCheck {
     private static final Logger LOGGER = Logger.getLogger(TestDirectoryChecker.class.getName());
+    private static final String TEST_JAVA = "src/test/java";
+    private static final String TEST_RESOURCES = "src/test/resources";
     
     private final String projectPath;
     private final boolean autoFix;
@@ -34,48 +37,58 @@ public class TestDirectoryChecker {
      * @return 检查是否通过
      */
     public boolean check() {
+        CheckReport report = new CheckReport(LOGGER::info);
+        run(ProjectSnapshot.scan(Paths.get(projectPath)), report);
+        return report.issues().isEmpty();
+    }
+    
+    @Override
+    public String name() {
+        return "testDirectory";
+    }
+    
+    /**
+     * 基于项目快照检查测试目录结构，缺少的目录作为问题写入 report
+     * @param project 项目快照
+     * @param report 检查结果
+     */
+    @Override
+    public void run(ProjectSnapshot project, CheckReport report) {
         LOGGER.info("检查测试目录结构...");
         
-        boolean result = true;
-        
         // 检查主测试目录
-        Path testJavaPath = Paths.get(projectPath, "src", "test", "java");
-        if (!Files.exists(testJavaPath)) {
+        Path testJavaPath = project.resolve(TEST_JAVA);
+        if (!project.exists(TEST_JAVA)) {
             LOGGER.warning("未找到测试源码目录: " + testJavaPath);
-            result = false;
+            report.addIssue("未找到测试源码目录: " + TEST_JAVA);
             
             if (autoFix) {
                 createDirectory(testJavaPath);
             }
         } else if (verbose) {
-            LOGGER.info("测试源码目录存在: " + testJavaPath);
+            report.log("测试源码目录存在: " + testJavaPath);
         }
         
         // 检查测试资源目录
-        Path testResourcesPath = Paths.get(projectPath, "src", "test", "resources");
-        if (!Files.exists(testResourcesPath)) {
+        Path testResourcesPath = project.resolve(TEST_RESOURCES);
+        if (!project.exists(TEST_RESOURCES)) {
             LOGGER.warning("未找到测试资源目录: " + testResourcesPath);
-            result = false;
+            report.addIssue("未找到测试资源目录: " + TEST_RESOURCES);
             
             if (autoFix) {
                 createDirectory(testResourcesPath);
             }
         } else if (verbose) {
-            LOGGER.info("测试资源目录存在: " + testResourcesPath);
+            report.log("测试资源目录存在: " + testResourcesPath);
         }
         
         // 检查是否有测试类
-        File testJavaDir = testJavaPath.toFile();
-        if (testJavaDir.exists() && testJavaDir.isDirectory()) {
-            if (isEmpty(testJavaDir)) {
-                LOGGER.warning("测试源码目录为空，建议添加测试类");
-                if (autoFix) {
-                    createSampleTestClass(testJavaPath);
-                }
+        if (project.isListed(TEST_JAVA) && project.list(TEST_JAVA).isEmpty()) {
+            LOGGER.warning("测试源码目录为空，建议添加测试类");
+            if (autoFix) {
+                createSampleTestClass(testJavaPath);
             }
         }
-        
-        return result;
     }
     
     /**
@@ -91,16 +104,6 @@ public class TestDirectoryChecker {
         }
     }
     
-    /**
-     * 检查目录是否为空
-     * @param directory 目录
-     * @return 是否为空
-     */
-    private boolean isEmpty(File directory) {
-        File[] files = directory.listFiles();
-        return files == null || files.length == 0;
-    }
-    
     /**
      * 创建示例测试类
      * @param testDir 测试目录
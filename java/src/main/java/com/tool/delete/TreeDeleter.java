@@ -0,0 +1,359 @@
+package com.tool.delete;
+
+import com.tool.WorkingDirectory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * 并行删除目录树
+ * 基于 ForkJoinPool，每个目录作为一个任务：先并行删除子目录，再删除本目录中的文件，最后删除目录本身。
+ * 符号链接只删除链接，不进入其指向的目录。设置名称匹配规则时只删除名称匹配的目录项（匹配的目录整体删除，
+ * 不再进入其中查找），例如删除根目录下所有的 target 目录。试运行只统计文件数和字节数，不做任何修改
+ */
+public class TreeDeleter {
+    /** 最多保留的错误信息条数 */
+    private static final int MAX_ERRORS = 20;
+
+    private final int threads;
+    private final boolean dryRun;
+    private PathMatcher matcher;
+    /** 匹配规则含 '/' 时匹配相对于根目录的路径，否则只匹配文件名 */
+    private boolean matchPath;
+    /** 不含 "**" 的路径规则只能匹配该深度的目录项，其他规则为 0 */
+    private int globDepth;
+    private int maxDepth = Integer.MAX_VALUE;
+    private PrintStream progress;
+    private long progressIntervalMillis = 1000;
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder directories = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger matched = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+    /** 删除在线程池中进行，输出的路径按创建时所在请求的工作目录还原 */
+    private final UnaryOperator<String> display = WorkingDirectory.displayer();
+
+    /**
+     * 构造函数
+     * @param threads 并行线程数
+     * @param dryRun 是否只统计不删除
+     */
+    public TreeDeleter(int threads, boolean dryRun) {
+        this.threads = Math.max(1, threads);
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * 设置 glob 匹配规则，只删除根目录下匹配的目录项。
+     * 不含 '/' 的规则匹配文件名，含 '/' 的规则匹配相对于根目录的路径
+     * @throws IllegalArgumentException 规则格式错误或不可能匹配任何目录项时抛出
+     */
+    public void setGlob(String glob) {
+        if (glob.isEmpty()) {
+            throw new IllegalArgumentException("匹配规则为空");
+        }
+        if (glob.startsWith("/")) {
+            throw new IllegalArgumentException("匹配规则是相对于目录的路径，不能以 '/' 开头: " + glob);
+        }
+        if (glob.endsWith("/")) {
+            throw new IllegalArgumentException("匹配规则不能以 '/' 结尾: " + glob);
+        }
+        this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        this.matchPath = glob.indexOf('/') >= 0;
+        this.globDepth = matchPath && !glob.contains("**") ? glob.split("/", -1).length : 0;
+    }
+
+    /**
+     * 设置查找匹配项时的最大深度，根目录的直接子项深度为 1
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    /**
+     * 设置进度输出，删除期间每隔一段时间输出一次已处理的数量
+     * @param progress 输出流，为 null 时不输出进度
+     * @param intervalMillis 输出间隔
+     */
+    public void setProgress(PrintStream progress, long intervalMillis) {
+        this.progress = progress;
+        this.progressIntervalMillis = Math.max(100, intervalMillis);
+    }
+
+    /**
+     * 删除目录树
+     * @param root 要删除的路径；设置了匹配规则时为查找匹配项的根目录，其本身不会被删除
+     * @param out 匹配项的输出，只在设置了匹配规则时使用
+     * @throws IOException 根路径不可访问时抛出
+     */
+    public void run(Path root, PrintStream out) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(root, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (root.toAbsolutePath().normalize().getParent() == null) {
+            throw new IOException("拒绝删除根目录: " + display.apply(root.toString()));
+        }
+        if (matcher == null && attrs.isDirectory() && isProtected(root)) {
+            throw new IOException("拒绝删除用户主目录或其上级目录: " + display.apply(root.toString()));
+        }
+        if (matcher != null && globDepth > maxDepth) {
+            throw new IOException("匹配规则只能匹配深度为 " + globDepth + " 的目录项，超过了最大深度 " + maxDepth);
+        }
+        ScheduledExecutorService reporter = null;
+        if (progress != null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "delete-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> progress.println("进度: " + summary()),
+                    progressIntervalMillis, progressIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            if (matcher != null) {
+                if (attrs.isDirectory()) {
+                    pool.invoke(new SearchTask(root, root, 1, out));
+                }
+            } else if (attrs.isDirectory()) {
+                pool.invoke(new DeleteTask(root));
+                deleteEntry(root, 0, false);
+            } else {
+                deleteEntry(root, attrs.size(), true);
+            }
+        } finally {
+            pool.shutdown();
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 判断路径是否不允许整体删除：文件系统根目录、用户主目录以及主目录的上级目录。
+     * 同时比较规范化后的路径和解析符号链接后的真实路径
+     */
+    public static boolean isProtected(Path path) {
+        Path home = Paths.get(System.getProperty("user.home")).toAbsolutePath().normalize();
+        Path target = path.toAbsolutePath().normalize();
+        if (target.getParent() == null || home.startsWith(target)) {
+            return true;
+        }
+        try {
+            Path realHome = home.toRealPath();
+            Path realTarget = target.toRealPath();
+            return realTarget.getParent() == null || realHome.startsWith(realTarget);
+        } catch (IOException e) {
+            // 不存在的路径不会被删除
+            return false;
+        }
+    }
+
+    public long files() {
+        return files.sum();
+    }
+
+    public long directories() {
+        return directories.sum();
+    }
+
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * 匹配到的目录项数
+     */
+    public int matched() {
+        return matched.get();
+    }
+
+    /**
+     * 最多 MAX_ERRORS 条错误信息
+     */
+    public List<String> errors() {
+        return new ArrayList<>(errors);
+    }
+
+    /**
+     * 当前统计结果
+     */
+    public String summary() {
+        return (dryRun ? "将删除 " : "已删除 ") + files() + " 个文件，" + directories() + " 个目录，共 "
+                + formatBytes(bytes()) + (failures() > 0 ? "，失败 " + failures() + " 项" : "");
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+
+    private void deleteEntry(Path path, long size, boolean file) {
+        try {
+            if (!dryRun) {
+                Files.delete(path);
+            }
+            (file ? files : directories).increment();
+            bytes.add(size);
+        } catch (IOException | RuntimeException e) {
+            fail(path, e);
+        }
+    }
+
+    private void fail(Path path, Exception e) {
+        failures.increment();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(display.apply(path.toString()) + ": " + display.apply(e.getMessage()));
+        }
+    }
+
+    private static List<Path> entries(Path dir) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 删除一个目录的全部内容（不包括目录本身）
+     */
+    private final class DeleteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+
+        DeleteTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            List<Path> entries;
+            try {
+                entries = entries(dir);
+            } catch (IOException | RuntimeException e) {
+                fail(dir, e);
+                return;
+            }
+            List<DeleteTask> subtasks = new ArrayList<>();
+            List<Path> subdirs = new ArrayList<>();
+            for (Path entry : entries) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    fail(entry, e);
+                    continue;
+                }
+                if (attrs.isDirectory()) {
+                    DeleteTask task = new DeleteTask(entry);
+                    task.fork();
+                    subtasks.add(task);
+                    subdirs.add(entry);
+                } else {
+                    deleteEntry(entry, attrs.size(), true);
+                }
+            }
+            for (int i = 0; i < subtasks.size(); i++) {
+                subtasks.get(i).join();
+                deleteEntry(subdirs.get(i), 0, false);
+            }
+        }
+    }
+
+    /**
+     * 在目录中查找名称匹配的目录项并删除，不匹配的子目录继续查找
+     */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path root;
+        private final Path dir;
+        private final int depth;
+        private final PrintStream out;
+
+        SearchTask(Path root, Path dir, int depth, PrintStream out) {
+            this.root = root;
+            this.dir = dir;
+            this.depth = depth;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            List<Path> entries;
+            try {
+                entries = entries(dir);
+            } catch (IOException | RuntimeException e) {
+                fail(dir, e);
+                return;
+            }
+            List<RecursiveAction> subtasks = new ArrayList<>();
+            for (Path entry : entries) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    fail(entry, e);
+                    continue;
+                }
+                if ((globDepth == 0 || depth == globDepth)
+                        && matcher.matches(matchPath ? root.relativize(entry) : entry.getFileName())) {
+                    matched.incrementAndGet();
+                    synchronized (out) {
+                        out.println((dryRun ? "将删除: " : "删除: ") + display.apply(entry.toString()));
+                    }
+                    if (attrs.isDirectory()) {
+                        subtasks.add(new RecursiveAction() {
+                            @Override
+                            protected void compute() {
+                                new DeleteTask(entry).invoke();
+                                deleteEntry(entry, 0, false);
+                            }
+                        });
+                    } else {
+                        deleteEntry(entry, attrs.size(), true);
+                    }
+                } else if (attrs.isDirectory() && depth < maxDepth && (globDepth == 0 || depth < globDepth)) {
+                    subtasks.add(new SearchTask(root, entry, depth + 1, out));
+                }
+            }
+            invokeAll(subtasks);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.tool.edit;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 流式文本替换
+ * 通过固定大小的缓冲区读取文件，替换结果写入同目录下的临时文件，完成后原子替换原文件；
+ * 没有发生替换时原文件保持不变。中途失败只会留下（并清理）临时文件，原文件不会被破坏。
+ * 字面量替换在 UTF-8 和单字节编码下直接按字节进行，其他编码先解码再替换；两种方式都会校验
+ * 文件内容，不符合指定编码的文件不会被修改；
+ * 正则替换逐行进行（匹配不跨行），替换串支持 $1 等分组引用
+ */
+public class StreamingReplacer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String target;
+    private final String replacement;
+    private final Pattern pattern;
+    private final Charset charset;
+    private final boolean byteLevel;
+    private final byte[] targetBytes;
+    private final byte[] replacementBytes;
+
+    /**
+     * 构造函数
+     * @param target 目标字符串或正则表达式
+     * @param replacement 替换字符串
+     * @param regex 是否按正则表达式替换
+     * @param charset 文件编码
+     * @throws IllegalArgumentException 目标为空或正则表达式无效时抛出
+     */
+    public StreamingReplacer(String target, String replacement, boolean regex, Charset charset) {
+        if (target.isEmpty()) {
+            throw new IllegalArgumentException("目标字符串不能为空");
+        }
+        if (!charset.newEncoder().canEncode(target) || !charset.newEncoder().canEncode(replacement)) {
+            throw new IllegalArgumentException("目标或替换字符串无法用 " + charset.name() + " 编码表示");
+        }
+        this.target = target;
+        this.replacement = replacement;
+        this.pattern = regex ? Pattern.compile(target) : null;
+        this.charset = charset;
+        this.byteLevel = !regex && isByteCompatible(charset);
+        this.targetBytes = byteLevel ? target.getBytes(charset) : null;
+        this.replacementBytes = byteLevel ? replacement.getBytes(charset) : null;
+    }
+
+    /**
+     * 按字节匹配不会把多字节字符拆开的编码：UTF-8 和单字节编码
+     */
+    private static boolean isByteCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.newEncoder().maxBytesPerChar() == 1.0f;
+    }
+
+    /**
+     * 正则表达式，字面量模式下返回 null
+     */
+    public Pattern pattern() {
+        return pattern;
+    }
+
+    /**
+     * 对文件执行替换
+     * @param file 文件路径，符号链接会替换其指向的文件
+     * @param dryRun 只统计替换次数，不修改文件
+     * @return 替换次数
+     * @throws IOException 读写失败或文件内容不符合指定编码时抛出，原文件保持不变
+     */
+    public int apply(Path file, boolean dryRun) throws IOException {
+        Path real = file.toRealPath();
+        if (dryRun) {
+            return replace(real, OutputStream.nullOutputStream());
+        }
+        Path temp = Files.createTempFile(real.getParent(), "." + real.getFileName(), ".tmp");
+        try {
+            int count;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+                count = replace(real, out);
+            }
+            if (count > 0) {
+                copyPermissions(real, temp);
+                Files.move(temp, real, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private int replace(Path file, OutputStream out) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            if (byteLevel) {
+                return replaceBytes(new ValidatingInputStream(in, charset), out);
+            }
+            Reader reader = Channels.newReader(Channels.newChannel(in), charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT), BUFFER_SIZE);
+            Writer writer = Channels.newWriter(Channels.newChannel(out), charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT), BUFFER_SIZE);
+            int count = pattern != null ? replaceLines(reader, writer) : replaceChars(reader, writer);
+            writer.flush();
+            return count;
+        } catch (CharacterCodingException e) {
+            throw new IOException("文件内容不是有效的 " + charset.name() + " 编码", e);
+        }
+    }
+
+    /**
+     * 按字节替换，缓冲区末尾保留 target.length - 1 个字节，保证跨缓冲区的匹配不会遗漏
+     */
+    private int replaceBytes(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[Math.max(BUFFER_SIZE, targetBytes.length * 2)];
+        int len = 0;
+        int count = 0;
+        boolean eof = false;
+        while (!eof) {
+            int read = in.read(buf, len, buf.length - len);
+            if (read < 0) {
+                eof = true;
+            } else {
+                len += read;
+                if (len < buf.length) {
+                    continue;
+                }
+            }
+            int pos = 0;
+            int match;
+            while ((match = indexOf(buf, targetBytes, pos, len)) >= 0) {
+                out.write(buf, pos, match - pos);
+                out.write(replacementBytes);
+                pos = match + targetBytes.length;
+                count++;
+            }
+            int keep = eof ? 0 : Math.min(len - pos, targetBytes.length - 1);
+            out.write(buf, pos, len - pos - keep);
+            System.arraycopy(buf, len - keep, buf, 0, keep);
+            len = keep;
+        }
+        return count;
+    }
+
+    private static int indexOf(byte[] buf, byte[] needle, int from, int to) {
+        byte first = needle[0];
+        int last = to - needle.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (buf[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < needle.length; j++) {
+                if (buf[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 按字符替换字面量，与 replaceBytes 相同的缓冲区策略
+     */
+    private int replaceChars(Reader reader, Writer writer) throws IOException {
+        StringBuilder buf = new StringBuilder(BUFFER_SIZE + target.length());
+        char[] chunk = new char[BUFFER_SIZE];
+        int count = 0;
+        int read;
+        boolean eof = false;
+        while (!eof) {
+            read = reader.read(chunk);
+            if (read < 0) {
+                eof = true;
+            } else {
+                buf.append(chunk, 0, read);
+            }
+            int pos = 0;
+            int match;
+            while ((match = buf.indexOf(target, pos)) >= 0) {
+                writer.append(buf, pos, match).append(replacement);
+                pos = match + target.length();
+                count++;
+            }
+            int keep = eof ? 0 : Math.min(buf.length() - pos, target.length() - 1);
+            writer.append(buf, pos, buf.length() - keep);
+            buf.delete(0, buf.length() - keep);
+        }
+        return count;
+    }
+
+    /**
+     * 逐行应用正则表达式，行尾换行符不参与匹配并原样保留
+     */
+    private int replaceLines(Reader reader, Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder();
+        char[] chunk = new char[BUFFER_SIZE];
+        int[] count = new int[1];
+        int read;
+        while ((read = reader.read(chunk)) >= 0) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (chunk[i] == '\n') {
+                    line.append(chunk, start, i - start);
+                    replaceLine(line, writer, count);
+                    writer.write('\n');
+                    line.setLength(0);
+                    start = i + 1;
+                }
+            }
+            line.append(chunk, start, read - start);
+        }
+        if (line.length() > 0) {
+            replaceLine(line, writer, count);
+        }
+        return count[0];
+    }
+
+    private void replaceLine(StringBuilder line, Writer writer, int[] count) throws IOException {
+        boolean cr = line.length() > 0 && line.charAt(line.length() - 1) == '\r';
+        CharSequence content = cr ? line.subSequence(0, line.length() - 1) : line;
+        Matcher matcher = pattern.matcher(content);
+        if (!matcher.find()) {
+            writer.append(line);
+            return;
+        }
+        StringBuilder result = new StringBuilder(line.length() + 16);
+        do {
+            matcher.appendReplacement(result, replacement);
+            count[0]++;
+        } while (matcher.find());
+        matcher.appendTail(result);
+        writer.append(result);
+        if (cr) {
+            writer.write('\r');
+        }
+    }
+
+    /**
+     * 按字节替换时校验读取的内容是否符合编码，与解码替换对无效内容的处理一致。
+     * 跨越两次读取的多字节字符保留到下一次读取时校验
+     */
+    private static final class ValidatingInputStream extends FilterInputStream {
+        private final CharsetDecoder decoder;
+        private final CharBuffer scratch = CharBuffer.allocate(1024);
+        private byte[] carry = new byte[0];
+
+        ValidatingInputStream(InputStream in, Charset charset) {
+            super(in);
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read < 0) {
+                check(ByteBuffer.wrap(carry), true);
+            } else if (carry.length == 0) {
+                check(ByteBuffer.wrap(b, off, read), false);
+            } else {
+                ByteBuffer input = ByteBuffer.allocate(carry.length + read);
+                input.put(carry).put(b, off, read).flip();
+                check(input, false);
+            }
+            return read;
+        }
+
+        private void check(ByteBuffer input, boolean endOfInput) throws CharacterCodingException {
+            CoderResult result;
+            do {
+                scratch.clear();
+                result = decoder.decode(input, scratch, endOfInput);
+                if (result.isError()) {
+                    result.throwException();
+                }
+            } while (result.isOverflow());
+            carry = new byte[input.remaining()];
+            input.get(carry);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) {
+        PosixFileAttributeView source = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        PosixFileAttributeView target = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (source == null || target == null) {
+            return;
+        }
+        try {
+            target.setPermissions(source.readAttributes().permissions());
+        } catch (IOException | UnsupportedOperationException e) {
+            // 无法保留权限时使用临时文件的默认权限
+        }
+    }
+}
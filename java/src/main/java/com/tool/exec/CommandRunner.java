@@ -0,0 +1,296 @@
+package com.tool.exec;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 外部命令执行
+ * 多条命令在固定大小的线程池中并发执行，每条命令的 stdout 和 stderr 分别按原始字节实时输出，
+ * 不做编码转换和分行，每段输出前标明来自哪条命令的哪个流；超时的命令连同其子进程一起被强制结束。
+ * 每条命令结束时输出其退出码和用时，最后输出汇总
+ */
+public class CommandRunner {
+    private final int parallel;
+    private final long timeoutMillis;
+    private final PrintStream out;
+    private File directory;
+    /** 上一段输出的来源和最后一个字节，只在持有 out 的锁时访问 */
+    private String lastSource;
+    private byte lastByte = '\n';
+
+    /**
+     * 单条命令的执行结果
+     */
+    static final class Outcome {
+        final int index;
+        final String command;
+        final int exitCode;
+        final boolean timedOut;
+        final long millis;
+        final String error;
+
+        Outcome(int index, String command, int exitCode, boolean timedOut, long millis, String error) {
+            this.index = index;
+            this.command = command;
+            this.exitCode = exitCode;
+            this.timedOut = timedOut;
+            this.millis = millis;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 构造函数
+     * @param parallel 同时执行的命令数
+     * @param timeoutMillis 单条命令的超时时间，0 表示不限制
+     * @param out 输出流
+     */
+    public CommandRunner(int parallel, long timeoutMillis, PrintStream out) {
+        this.parallel = Math.max(1, parallel);
+        this.timeoutMillis = timeoutMillis;
+        this.out = out;
+    }
+
+    /**
+     * 设置命令的工作目录
+     * @param directory 为 null 时使用当前进程的工作目录
+     */
+    public void setDirectory(Path directory) {
+        this.directory = directory == null ? null : directory.toFile();
+    }
+
+    /**
+     * 根据操作系统构造执行命令字符串的进程
+     */
+    public static ProcessBuilder shell(String command) {
+        ProcessBuilder pb = new ProcessBuilder();
+        if (System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("windows")) {
+            pb.command("cmd.exe", "/c", command);
+        } else {
+            pb.command("bash", "-c", command);
+        }
+        return pb;
+    }
+
+    /**
+     * 执行单条命令，stdout 和 stderr 合并后实时输出
+     * @return 退出码；超时返回 -1
+     */
+    public int runStreaming(String command) throws IOException, InterruptedException {
+        ProcessBuilder pb = shell(command).directory(directory);
+        pb.redirectErrorStream(true);
+        Process process = pb.start();
+        process.getOutputStream().close();
+        Thread pump = new Thread(() -> copy(process.getInputStream()), "command-output");
+        pump.setDaemon(true);
+        pump.start();
+        if (!waitFor(process)) {
+            kill(process);
+            pump.join(1000);
+            out.println("命令执行超时，已终止。");
+            return -1;
+        }
+        pump.join();
+        out.flush();
+        return process.exitValue();
+    }
+
+    private void copy(InputStream in) {
+        byte[] buf = new byte[8192];
+        int read;
+        try {
+            while ((read = in.read(buf)) > 0) {
+                synchronized (out) {
+                    out.write(buf, 0, read);
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // 进程被终止时管道关闭
+        }
+    }
+
+    /**
+     * 并发执行多条命令，按完成顺序输出各命令的结果，最后输出汇总
+     * @return 退出码不为 0 或超时的命令数
+     */
+    public int runAll(List<String> commands) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallel, Math.max(1, commands.size())));
+        try {
+            CompletionService<Outcome> completion = new ExecutorCompletionService<>(pool);
+            Map<Future<Outcome>, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < commands.size(); i++) {
+                int index = i + 1;
+                String command = commands.get(i);
+                indexes.put(completion.submit(() -> runCaptured(index, command)), index);
+            }
+            List<Outcome> outcomes = new ArrayList<>();
+            for (int i = 0; i < commands.size(); i++) {
+                Future<Outcome> future = completion.take();
+                try {
+                    outcomes.add(future.get());
+                } catch (ExecutionException e) {
+                    // 执行过程中的意外错误，计为失败的命令
+                    int index = indexes.get(future);
+                    String error = String.valueOf(e.getCause().getMessage());
+                    out.println("执行命令时发生错误: " + error);
+                    outcomes.add(new Outcome(index, commands.get(index - 1), -1, false, 0, error));
+                }
+            }
+            outcomes.sort((a, b) -> Integer.compare(a.index, b.index));
+            return printSummary(outcomes);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Outcome runCaptured(int index, String command) {
+        long start = System.nanoTime();
+        ProcessBuilder pb = shell(command).directory(directory);
+        pb.redirectInput(ProcessBuilder.Redirect.from(nullFile()));
+        int exitCode = -1;
+        boolean timedOut = false;
+        String error = null;
+        Process process = null;
+        List<Thread> pumps = new ArrayList<>();
+        try {
+            process = pb.start();
+            pumps.add(pump(process.getInputStream(), index, "stdout"));
+            pumps.add(pump(process.getErrorStream(), index, "stderr"));
+            if (waitFor(process)) {
+                exitCode = process.exitValue();
+            } else {
+                timedOut = true;
+                kill(process);
+            }
+            for (Thread pump : pumps) {
+                pump.join(timedOut ? 1000 : 0);
+            }
+        } catch (IOException e) {
+            error = e.getMessage();
+        } catch (InterruptedException e) {
+            // 被中断时不再等待，结束进程后再恢复中断状态，否则 kill 中的等待会立即返回
+            kill(process);
+            Thread.currentThread().interrupt();
+            error = "执行被中断";
+        }
+        Outcome outcome = new Outcome(index, command, exitCode, timedOut,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), error);
+        synchronized (out) {
+            endLine();
+            out.println("=== [" + index + "] " + command + " (" + status(outcome) + ", " + outcome.millis + " ms)");
+            lastSource = null;
+            out.flush();
+        }
+        return outcome;
+    }
+
+    /**
+     * 启动线程将子进程的一个输出流实时转发到 out
+     */
+    private Thread pump(InputStream in, int index, String name) {
+        Thread pump = new Thread(() -> copy(in, "[" + index + "] " + name), "command-" + index + "-" + name);
+        pump.setDaemon(true);
+        pump.start();
+        return pump;
+    }
+
+    /**
+     * 按原始字节转发输出。多条命令并发时输出交错，来源与上一段不同时先输出 "--- [序号] stdout|stderr" 标题
+     */
+    private void copy(InputStream in, String source) {
+        byte[] buf = new byte[8192];
+        int read;
+        try (InputStream stream = in) {
+            while ((read = stream.read(buf)) > 0) {
+                synchronized (out) {
+                    if (!source.equals(lastSource)) {
+                        endLine();
+                        out.println("--- " + source);
+                        lastSource = source;
+                    }
+                    out.write(buf, 0, read);
+                    lastByte = buf[read - 1];
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // 进程被终止时管道关闭
+        }
+    }
+
+    /**
+     * 上一段输出不以换行结尾时补一个换行，避免与下一个标题相连。需持有 out 的锁
+     */
+    private void endLine() {
+        if (lastSource != null && lastByte != '\n') {
+            out.println();
+        }
+        lastByte = '\n';
+    }
+
+    private int printSummary(List<Outcome> outcomes) {
+        int failed = 0;
+        int timedOut = 0;
+        out.println("=== 汇总");
+        for (Outcome outcome : outcomes) {
+            out.println("[" + outcome.index + "] " + status(outcome) + " 用时: " + outcome.millis + " ms 命令: " + outcome.command);
+            if (outcome.timedOut) {
+                timedOut++;
+            } else if (outcome.exitCode != 0) {
+                failed++;
+            }
+        }
+        out.println("共 " + outcomes.size() + " 条命令，成功 " + (outcomes.size() - failed - timedOut)
+                + " 条，失败 " + failed + " 条，超时 " + timedOut + " 条。");
+        return failed + timedOut;
+    }
+
+    private static String status(Outcome outcome) {
+        if (outcome.error != null) {
+            return "无法执行: " + outcome.error;
+        }
+        return outcome.timedOut ? "超时" : "退出码: " + outcome.exitCode;
+    }
+
+    private boolean waitFor(Process process) throws InterruptedException {
+        if (timeoutMillis <= 0) {
+            process.waitFor();
+            return true;
+        }
+        return process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 强制结束进程及其全部子进程
+     */
+    private static void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        try {
+            process.waitFor(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static File nullFile() {
+        return new File(System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("windows")
+                ? "NUL" : "/dev/null");
+    }
+}
@@ -0,0 +1,39 @@
+package com.tool.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 本地缓存目录
+ * 默认为 $XDG_CACHE_HOME/env-tool 或 ~/.cache/env-tool，可以通过系统属性 tool.cache.dir 指定
+ */
+public final class CacheDirectory {
+    private CacheDirectory() {
+    }
+
+    /**
+     * 获取缓存子目录，不存在时自动创建
+     * @param name 子目录名
+     * @return 子目录路径
+     * @throws IOException 创建目录失败时抛出
+     */
+    public static Path resolve(String name) throws IOException {
+        Path dir = base().resolve(name);
+        Files.createDirectories(dir);
+        return dir;
+    }
+
+    private static Path base() {
+        String configured = System.getProperty("tool.cache.dir");
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        String xdg = System.getenv("XDG_CACHE_HOME");
+        if (xdg != null && !xdg.isEmpty()) {
+            return Paths.get(xdg, "env-tool");
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "env-tool");
+    }
+}
@@ -0,0 +1,729 @@
+package com.tool.index;
+
+import com.tool.search.FileNameMatcher;
+import com.tool.search.IgnoreRules;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 文件名索引
+ * 按目录先序排列的目录表和文件表、按小写文件名排序的文件编号表，以及文件名（小写）的三元组倒排表，
+ * 全部是定长记录，查询时直接在内存映射的文件上进行，不需要反序列化。
+ * 每个目录记录其修改时间：查询时修改时间发生变化的目录改为实时列出，
+ * 再次执行 index build 时修改时间未变的目录直接沿用旧记录，不再读取目录内容
+ */
+public class FileNameIndex {
+    static final String FILE_NAME = "files.idx";
+    private static final int MAGIC = 0x464E4931;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 44;
+    private static final int DIR_ENTRY_SIZE = 32;
+    private static final int FILE_ENTRY_SIZE = 12;
+    private static final int TRIGRAM_ENTRY_SIZE = 12;
+
+    private final ByteBuffer data;
+    private final int dirCount;
+    private final int fileCount;
+    private final int trigramCount;
+    private final int dirsOffset;
+    private final int filesOffset;
+    private final int sortedOffset;
+    private final int trigramsOffset;
+    private final int postingsOffset;
+    private final int stringsOffset;
+
+    private FileNameIndex(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("索引文件格式不兼容");
+        }
+        dirCount = data.getInt(8);
+        fileCount = data.getInt(12);
+        trigramCount = data.getInt(16);
+        dirsOffset = data.getInt(20);
+        filesOffset = data.getInt(24);
+        sortedOffset = data.getInt(28);
+        trigramsOffset = data.getInt(32);
+        postingsOffset = data.getInt(36);
+        stringsOffset = data.getInt(40);
+    }
+
+    /**
+     * 加载根目录下的文件名索引
+     * @return 索引不存在时返回 null
+     * @throws IOException 索引损坏或读取失败时抛出
+     */
+    public static FileNameIndex load(Path root) throws IOException {
+        Path file = IndexDirectory.of(root).resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new FileNameIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (RuntimeException e) {
+            throw new IOException("索引文件已损坏: " + file, e);
+        }
+    }
+
+    /**
+     * 从目录开始向上查找最近的文件名索引
+     * @return 未找到或搜索目录不在索引中时返回 null
+     * @throws IOException 索引损坏或读取失败时抛出
+     */
+    public static Located find(Path dir) throws IOException {
+        Path absolute = dir.toAbsolutePath().normalize();
+        for (Path root = absolute; root != null; root = root.getParent()) {
+            FileNameIndex index = load(root);
+            if (index != null) {
+                int base = index.findDir(IndexDirectory.relativize(root, absolute));
+                return base < 0 ? null : new Located(index, base);
+            }
+        }
+        return null;
+    }
+
+    // ---- 记录访问 ----
+
+    private int dirEntry(int dir) {
+        return dirsOffset + dir * DIR_ENTRY_SIZE;
+    }
+
+    String dirPath(int dir) {
+        int entry = dirEntry(dir);
+        return string(data.getInt(entry), data.getInt(entry + 4));
+    }
+
+    private int dirParent(int dir) {
+        return data.getInt(dirEntry(dir) + 8);
+    }
+
+    private int subtreeEnd(int dir) {
+        return data.getInt(dirEntry(dir) + 12);
+    }
+
+    private int firstFile(int dir) {
+        return dir < dirCount ? data.getInt(dirEntry(dir) + 16) : fileCount;
+    }
+
+    private int dirFileCount(int dir) {
+        return data.getInt(dirEntry(dir) + 20);
+    }
+
+    private long dirMtime(int dir) {
+        return data.getLong(dirEntry(dir) + 24);
+    }
+
+    private int fileDir(int file) {
+        return data.getInt(filesOffset + file * FILE_ENTRY_SIZE);
+    }
+
+    String fileName(int file) {
+        int entry = filesOffset + file * FILE_ENTRY_SIZE;
+        return string(data.getInt(entry + 4), data.getInt(entry + 8));
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = data.duplicate();
+        slice.position(stringsOffset + offset);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int findDir(String relative) {
+        for (int dir = 0; dir < dirCount; dir++) {
+            if (dirPath(dir).equals(relative)) {
+                return dir;
+            }
+        }
+        return -1;
+    }
+
+    private int findTrigram(int key) {
+        int lo = 0;
+        int hi = trigramCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int value = data.getInt(trigramsOffset + mid * TRIGRAM_ENTRY_SIZE);
+            if (value < key) {
+                lo = mid + 1;
+            } else if (value > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] trigrams(String name) {
+        byte[] bytes = lower(name).getBytes(StandardCharsets.UTF_8);
+        TreeSet<Integer> keys = new TreeSet<>();
+        for (int i = 2; i < bytes.length; i++) {
+            keys.add((bytes[i - 2] & 0xff) << 16 | (bytes[i - 1] & 0xff) << 8 | bytes[i] & 0xff);
+        }
+        return keys.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // ---- 查询 ----
+
+    /**
+     * 已定位的索引及搜索目录在目录表中的位置
+     */
+    public static final class Located {
+        private final FileNameIndex index;
+        private final int base;
+
+        Located(FileNameIndex index, int base) {
+            this.index = index;
+            this.base = base;
+        }
+
+        /**
+         * 在搜索目录下查找文件
+         * @param searchDir 搜索目录，结果路径以其为前缀
+         * @param matcher 文件名匹配规则
+         * @param threads 校验目录修改时间使用的线程数
+         * @return 匹配结果，未排序
+         * @throws IOException 查询失败时抛出
+         */
+        public List<Match> search(Path searchDir, FileNameMatcher matcher, int threads) throws IOException {
+            return search(searchDir, matcher, threads, null);
+        }
+
+        /**
+         * 在搜索目录下查找文件，实时列出已变化的目录时跳过被忽略的文件和目录
+         * @param ignore 以 searchDir 为根目录加载的忽略规则，为 null 时不过滤
+         */
+        public List<Match> search(Path searchDir, FileNameMatcher matcher, int threads, IgnoreRules ignore)
+                throws IOException {
+            FileNameIndex idx = index;
+            int end = idx.subtreeEnd(base);
+            String prefix = idx.dirPath(base);
+            boolean[] dirty = verifyDirectories(searchDir, prefix, end, threads);
+
+            List<Match> matches = new ArrayList<>();
+            for (int file : candidates(matcher, end)) {
+                int dir = idx.fileDir(file);
+                if (dir < base || dir >= end || dirty[dir - base]) {
+                    continue;
+                }
+                String name = idx.fileName(file);
+                int score = matcher.score(name);
+                if (score >= 0) {
+                    matches.add(new Match(resolve(searchDir, prefix, idx.dirPath(dir)).resolve(name), score));
+                }
+            }
+
+            Map<String, Integer> known = null;
+            for (int dir = base; dir < end; dir++) {
+                if (!dirty[dir - base]) {
+                    continue;
+                }
+                if (known == null) {
+                    known = new HashMap<>();
+                    for (int d = base; d < end; d++) {
+                        known.put(idx.dirPath(d), d);
+                    }
+                }
+                listLive(resolve(searchDir, prefix, idx.dirPath(dir)), idx.dirPath(dir), known, matcher, ignore, matches);
+            }
+            return matches;
+        }
+
+        /**
+         * 并行检查子树中每个目录的修改时间
+         * @return 下标为 dir - base，修改时间变化或已删除的目录为 true
+         */
+        private boolean[] verifyDirectories(Path searchDir, String prefix, int end, int threads) throws IOException {
+            boolean[] dirty = new boolean[end - base];
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+            try {
+                pool.submit(() -> IntStream.range(base, end).parallel().forEach(dir -> {
+                    Path path = resolve(searchDir, prefix, index.dirPath(dir));
+                    try {
+                        long mtime = Files.getLastModifiedTime(path, LinkOption.NOFOLLOW_LINKS).to(TimeUnit.NANOSECONDS);
+                        dirty[dir - base] = mtime != index.dirMtime(dir);
+                    } catch (IOException e) {
+                        dirty[dir - base] = true;
+                    }
+                })).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("校验索引时被中断", e);
+            } catch (ExecutionException e) {
+                throw new IOException("校验索引失败: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+            return dirty;
+        }
+
+        /**
+         * 根据匹配方式确定需要检查的文件编号
+         */
+        private int[] candidates(FileNameMatcher matcher, int end) {
+            FileNameIndex idx = index;
+            if (matcher.mode() == FileNameMatcher.Mode.PREFIX) {
+                String lowerPrefix = lower(matcher.fragment());
+                int lo = lowerBound(lowerPrefix);
+                List<Integer> result = new ArrayList<>();
+                for (int i = lo; i < idx.fileCount; i++) {
+                    int file = idx.data.getInt(idx.sortedOffset + i * 4);
+                    if (!lower(idx.fileName(file)).startsWith(lowerPrefix)) {
+                        break;
+                    }
+                    result.add(file);
+                }
+                return result.stream().mapToInt(Integer::intValue).toArray();
+            }
+            if (matcher.mode() == FileNameMatcher.Mode.SUBSTRING) {
+                int[] keys = trigrams(matcher.fragment());
+                if (keys.length > 0) {
+                    return intersect(keys);
+                }
+            }
+            return IntStream.range(idx.firstFile(base), idx.firstFile(end)).toArray();
+        }
+
+        private int lowerBound(String lowerPrefix) {
+            int lo = 0;
+            int hi = index.fileCount;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int file = index.data.getInt(index.sortedOffset + mid * 4);
+                if (lower(index.fileName(file)).compareTo(lowerPrefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private int[] intersect(int[] keys) {
+            int[] result = null;
+            for (int key : keys) {
+                int slot = index.findTrigram(key);
+                if (slot < 0) {
+                    return new int[0];
+                }
+                int entry = index.trigramsOffset + slot * TRIGRAM_ENTRY_SIZE;
+                int offset = index.data.getInt(entry + 4);
+                int count = index.data.getInt(entry + 8);
+                if (result == null) {
+                    result = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        result[i] = index.data.getInt(index.postingsOffset + (offset + i) * 4);
+                    }
+                    continue;
+                }
+                int[] merged = new int[Math.min(result.length, count)];
+                int n = 0;
+                int i = 0;
+                int j = 0;
+                while (i < result.length && j < count) {
+                    int value = index.data.getInt(index.postingsOffset + (offset + j) * 4);
+                    if (result[i] < value) {
+                        i++;
+                    } else if (result[i] > value) {
+                        j++;
+                    } else {
+                        merged[n++] = value;
+                        i++;
+                        j++;
+                    }
+                }
+                result = Arrays.copyOf(merged, n);
+            }
+            return result;
+        }
+    }
+
+    private static Path resolve(Path searchDir, String prefix, String dirPath) {
+        String relative = prefix.isEmpty() ? dirPath
+                : dirPath.length() == prefix.length() ? "" : dirPath.substring(prefix.length() + 1);
+        return relative.isEmpty() ? searchDir : searchDir.resolve(relative);
+    }
+
+    /**
+     * 实时列出已变化的目录；不在索引中的子目录（新建的目录）递归列出，已在索引中的子目录由其自身记录负责
+     */
+    private static void listLive(Path dir, String relative, Map<String, Integer> known,
+                                 FileNameMatcher matcher, IgnoreRules ignore, List<Match> matches) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) {
+                BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                String name = entry.getFileName().toString();
+                if (ignore != null && ignore.isIgnored(entry, attrs.isDirectory())) {
+                    continue;
+                }
+                if (attrs.isDirectory()) {
+                    String childRelative = relative.isEmpty() ? name : relative + "/" + name;
+                    if (known != null && known.containsKey(childRelative) || IndexDirectory.isIndexDirectory(entry)) {
+                        continue;
+                    }
+                    listLive(entry, childRelative, null, matcher, ignore, matches);
+                } else if (attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(entry)) {
+                    int score = matcher.score(name);
+                    if (score >= 0) {
+                        matches.add(new Match(entry, score));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 已删除或无法读取的目录直接跳过
+        }
+    }
+
+    /**
+     * 查询结果
+     */
+    public static final class Match {
+        public final Path path;
+        public final int score;
+
+        public Match(Path path, int score) {
+            this.path = path;
+            this.score = score;
+        }
+    }
+
+    // ---- 构建 ----
+
+    /**
+     * 建立或增量刷新文件名索引
+     * @param root 根目录
+     * @param threads 并行线程数
+     * @return 构建统计
+     * @throws IOException 写入索引失败时抛出
+     */
+    public static BuildStats build(Path root, int threads) throws IOException {
+        return build(root, threads, null);
+    }
+
+    /**
+     * 建立或增量刷新文件名索引，被忽略的文件和目录不进入索引
+     * @param ignore 以 root 为根目录加载的忽略规则，为 null 时不过滤
+     */
+    public static BuildStats build(Path root, int threads, IgnoreRules ignore) throws IOException {
+        long startTime = System.currentTimeMillis();
+        FileNameIndex old;
+        try {
+            old = load(root);
+        } catch (IOException e) {
+            old = null;
+        }
+        Map<String, Integer> oldDirs = new HashMap<>();
+        Map<Integer, List<Integer>> oldChildren = new HashMap<>();
+        if (old != null) {
+            for (int dir = 0; dir < old.dirCount; dir++) {
+                oldDirs.put(old.dirPath(dir), dir);
+                oldChildren.computeIfAbsent(old.dirParent(dir), k -> new ArrayList<>()).add(dir);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        DirNode tree;
+        try {
+            tree = pool.invoke(new ScanTask(root, "", old, oldDirs, oldChildren, ignore));
+        } finally {
+            pool.shutdown();
+        }
+        if (tree == null) {
+            throw new IOException("无法读取目录: " + root);
+        }
+
+        List<DirNode> dirs = new ArrayList<>();
+        flatten(tree, -1, dirs);
+        int files = 0;
+        int rescanned = 0;
+        for (DirNode dir : dirs) {
+            files += dir.files.size();
+            if (!dir.reused) {
+                rescanned++;
+            }
+        }
+        write(root, dirs, files);
+        return new BuildStats(dirs.size(), files, rescanned, System.currentTimeMillis() - startTime);
+    }
+
+    private static void flatten(DirNode node, int parent, List<DirNode> dirs) {
+        node.parent = parent;
+        int id = dirs.size();
+        dirs.add(node);
+        for (DirNode child : node.children) {
+            flatten(child, id, dirs);
+        }
+        node.subtreeEnd = dirs.size();
+    }
+
+    private static void write(Path root, List<DirNode> dirs, int fileCount) throws IOException {
+        // 字符串区
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        int[] dirPathOffsets = new int[dirs.size()];
+        int[] dirPathLengths = new int[dirs.size()];
+        int[] fileDirs = new int[fileCount];
+        int[] nameOffsets = new int[fileCount];
+        int[] nameLengths = new int[fileCount];
+        String[] lowerNames = new String[fileCount];
+        Map<Integer, IntList> postings = new HashMap<>();
+        int file = 0;
+        for (int d = 0; d < dirs.size(); d++) {
+            DirNode dir = dirs.get(d);
+            byte[] path = dir.relative.getBytes(StandardCharsets.UTF_8);
+            dirPathOffsets[d] = strings.size();
+            dirPathLengths[d] = path.length;
+            strings.write(path, 0, path.length);
+            dir.firstFile = file;
+            for (String name : dir.files) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                fileDirs[file] = d;
+                nameOffsets[file] = strings.size();
+                nameLengths[file] = bytes.length;
+                lowerNames[file] = lower(name);
+                strings.write(bytes, 0, bytes.length);
+                for (int key : trigrams(name)) {
+                    postings.computeIfAbsent(key, k -> new IntList()).add(file);
+                }
+                file++;
+            }
+        }
+        Integer[] sorted = new Integer[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> lowerNames[a].compareTo(lowerNames[b]));
+        int[] keys = postings.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int postingCount = 0;
+        for (int key : keys) {
+            postingCount += postings.get(key).size();
+        }
+
+        long dirsOffset = HEADER_SIZE;
+        long filesOffset = dirsOffset + (long) dirs.size() * DIR_ENTRY_SIZE;
+        long sortedOffset = filesOffset + (long) fileCount * FILE_ENTRY_SIZE;
+        long trigramsOffset = sortedOffset + (long) fileCount * 4;
+        long postingsOffset = trigramsOffset + (long) keys.length * TRIGRAM_ENTRY_SIZE;
+        long stringsOffset = postingsOffset + (long) postingCount * 4;
+        if (stringsOffset + strings.size() > Integer.MAX_VALUE) {
+            throw new IOException("文件名索引超过 2GB，无法写入");
+        }
+
+        Path indexDir = IndexDirectory.of(root);
+        Files.createDirectories(indexDir);
+        Path temp = Files.createTempFile(indexDir, FILE_NAME, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dirs.size());
+                out.writeInt(fileCount);
+                out.writeInt(keys.length);
+                out.writeInt((int) dirsOffset);
+                out.writeInt((int) filesOffset);
+                out.writeInt((int) sortedOffset);
+                out.writeInt((int) trigramsOffset);
+                out.writeInt((int) postingsOffset);
+                out.writeInt((int) stringsOffset);
+                for (int d = 0; d < dirs.size(); d++) {
+                    DirNode dir = dirs.get(d);
+                    out.writeInt(dirPathOffsets[d]);
+                    out.writeInt(dirPathLengths[d]);
+                    out.writeInt(dir.parent);
+                    out.writeInt(dir.subtreeEnd);
+                    out.writeInt(dir.firstFile);
+                    out.writeInt(dir.files.size());
+                    out.writeLong(dir.mtime);
+                }
+                for (int i = 0; i < fileCount; i++) {
+                    out.writeInt(fileDirs[i]);
+                    out.writeInt(nameOffsets[i]);
+                    out.writeInt(nameLengths[i]);
+                }
+                for (Integer id : sorted) {
+                    out.writeInt(id);
+                }
+                int offset = 0;
+                for (int key : keys) {
+                    IntList list = postings.get(key);
+                    out.writeInt(key);
+                    out.writeInt(offset);
+                    out.writeInt(list.size());
+                    offset += list.size();
+                }
+                for (int key : keys) {
+                    IntList list = postings.get(key);
+                    for (int i = 0; i < list.size(); i++) {
+                        out.writeInt(list.get(i));
+                    }
+                }
+                strings.writeTo(out);
+            }
+            Files.move(temp, indexDir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 构建过程中的目录节点
+     */
+    private static final class DirNode {
+        final String relative;
+        final long mtime;
+        final List<String> files;
+        final List<DirNode> children = new ArrayList<>();
+        final boolean reused;
+        int parent;
+        int subtreeEnd;
+        int firstFile;
+
+        DirNode(String relative, long mtime, List<String> files, boolean reused) {
+            this.relative = relative;
+            this.mtime = mtime;
+            this.files = files;
+            this.reused = reused;
+        }
+    }
+
+    /**
+     * 扫描单个目录的任务。修改时间与旧索引一致的目录沿用旧的文件列表和子目录列表
+     */
+    private static final class ScanTask extends RecursiveTask<DirNode> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final String relative;
+        private final FileNameIndex old;
+        private final Map<String, Integer> oldDirs;
+        private final Map<Integer, List<Integer>> oldChildren;
+        private final IgnoreRules ignore;
+
+        ScanTask(Path dir, String relative, FileNameIndex old,
+                 Map<String, Integer> oldDirs, Map<Integer, List<Integer>> oldChildren, IgnoreRules ignore) {
+            this.dir = dir;
+            this.relative = relative;
+            this.old = old;
+            this.oldDirs = oldDirs;
+            this.oldChildren = oldChildren;
+            this.ignore = ignore;
+        }
+
+        @Override
+        protected DirNode compute() {
+            long mtime;
+            try {
+                mtime = Files.getLastModifiedTime(dir, LinkOption.NOFOLLOW_LINKS).to(TimeUnit.NANOSECONDS);
+            } catch (IOException e) {
+                return null;
+            }
+            List<String> files = new ArrayList<>();
+            List<String> subdirs = new ArrayList<>();
+            Integer oldId = oldDirs.get(relative);
+            boolean reused = oldId != null && old.dirMtime(oldId) == mtime;
+            if (reused) {
+                int first = old.firstFile(oldId);
+                // 沿用的条目同样按忽略规则过滤，规则变化后重建索引即可生效
+                for (int i = 0; i < old.dirFileCount(oldId); i++) {
+                    String name = old.fileName(first + i);
+                    if (ignore == null || !ignore.isIgnored(dir.resolve(name), false)) {
+                        files.add(name);
+                    }
+                }
+                for (int child : oldChildren.getOrDefault(oldId, Collections.emptyList())) {
+                    String path = old.dirPath(child);
+                    String name = path.substring(path.lastIndexOf('/') + 1);
+                    if (ignore == null || !ignore.isIgnored(dir.resolve(name), true)) {
+                        subdirs.add(name);
+                    }
+                }
+            } else {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                    for (Path entry : stream) {
+                        BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        String name = entry.getFileName().toString();
+                        if (ignore != null && ignore.isIgnored(entry, attrs.isDirectory())) {
+                            continue;
+                        }
+                        if (attrs.isDirectory()) {
+                            if (!IndexDirectory.isIndexDirectory(entry)) {
+                                subdirs.add(name);
+                            }
+                        } else if (attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(entry)) {
+                            files.add(name);
+                        }
+                    }
+                } catch (IOException e) {
+                    // 无法读取的目录按空目录记录
+                }
+                Collections.sort(files);
+                Collections.sort(subdirs);
+            }
+
+            DirNode node = new DirNode(relative, mtime, files, reused);
+            List<ScanTask> tasks = new ArrayList<>();
+            for (String name : subdirs) {
+                ScanTask task = new ScanTask(dir.resolve(name), relative.isEmpty() ? name : relative + "/" + name,
+                        old, oldDirs, oldChildren, ignore);
+                task.fork();
+                tasks.add(task);
+            }
+            for (ScanTask task : tasks) {
+                DirNode child = task.join();
+                if (child != null) {
+                    node.children.add(child);
+                }
+            }
+            return node;
+        }
+    }
+
+    /**
+     * 索引构建统计
+     */
+    public static final class BuildStats {
+        public final int dirs;
+        public final int files;
+        public final int rescanned;
+        public final long millis;
+
+        BuildStats(int dirs, int files, int rescanned, long millis) {
+            this.dirs = dirs;
+            this.files = files;
+            this.rescanned = rescanned;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.tool.index;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * 索引目录约定
+ * 索引文件保存在被索引目录下的 .tool-index 目录中，目录遍历时应跳过该目录
+ */
+public final class IndexDirectory {
+    public static final String NAME = ".tool-index";
+
+    private IndexDirectory() {
+    }
+
+    /**
+     * 获取根目录对应的索引目录
+     */
+    public static Path of(Path root) {
+        return root.resolve(NAME);
+    }
+
+    /**
+     * 是否为索引目录
+     */
+    public static boolean isIndexDirectory(Path dir) {
+        Path name = dir.getFileName();
+        return name != null && NAME.equals(name.toString());
+    }
+
+    /**
+     * 计算索引中使用的相对路径，统一使用 '/' 分隔
+     */
+    public static String relativize(Path root, Path file) {
+        String relative = root.relativize(file).toString();
+        return File.separatorChar == '/' ? relative : relative.replace(File.separatorChar, '/');
+    }
+}
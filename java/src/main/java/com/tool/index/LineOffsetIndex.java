@@ -0,0 +1,316 @@
+package com.tool.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 稀疏行偏移索引
+ * 每 STRIDE 行记录一次行首的字节偏移，按范围读取时从最近的记录点开始流式读取，
+ * 内存占用与文件大小无关。较大文件的索引保存在缓存目录中的旁路文件里，
+ * 文件大小和修改时间不变时直接复用。换行规则与 BufferedReader.readLine 一致（\n、\r、\r\n）
+ */
+public class LineOffsetIndex {
+    static final int STRIDE = 1024;
+    /** 小于该大小的文件不保存旁路索引，直接从头读取 */
+    static final long MIN_INDEXED_SIZE = 4L << 20;
+    private static final int MAGIC = 0x4C494458;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 28;
+
+    private final Path sidecar;
+    private final long[] checkpoints;
+    private final long lineCount;
+
+    /**
+     * 行处理逻辑
+     */
+    @FunctionalInterface
+    public interface LineVisitor {
+        void visit(long lineNumber, String line);
+    }
+
+    private LineOffsetIndex(Path sidecar, long[] checkpoints, long lineCount) {
+        this.sidecar = sidecar;
+        this.checkpoints = checkpoints;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * 文件总行数
+     */
+    public long lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * 读取 [start, end] 范围内的行（行号从1开始，end 超出总行数时读到文件末尾）
+     * @param file 文件路径
+     * @param start 起始行
+     * @param end 结束行
+     * @param visitor 行处理逻辑
+     * @throws IOException 读取失败时抛出
+     */
+    public static void read(Path file, long start, long end, LineVisitor visitor) throws IOException {
+        if (start < 1) {
+            throw new IllegalArgumentException("起始行必须大于0: " + start);
+        }
+        if (start == 1 || Files.size(file) < MIN_INDEXED_SIZE) {
+            streamLines(file, 0, 1, start, end, visitor);
+            return;
+        }
+        open(file).readRange(file, start, end, visitor);
+    }
+
+    /**
+     * 读取最后 count 行
+     */
+    public static void tail(Path file, long count, LineVisitor visitor) throws IOException {
+        LineOffsetIndex index = open(file);
+        long start = Math.max(1, index.lineCount - count + 1);
+        if (count > 0) {
+            index.readRange(file, start, index.lineCount, visitor);
+        }
+    }
+
+    /**
+     * 获取文件的行偏移索引，旁路索引失效时重新建立
+     */
+    public static LineOffsetIndex open(Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attrs.size() < MIN_INDEXED_SIZE) {
+            return build(file, null, attrs);
+        }
+        Path sidecar = CacheDirectory.resolve("line-index").resolve(key(file) + ".lidx");
+        LineOffsetIndex index = loadSidecar(sidecar, attrs);
+        if (index == null) {
+            // 记录建立前的属性，建立期间文件被修改时下次访问会重新建立
+            index = build(file, sidecar, attrs);
+        }
+        return index;
+    }
+
+    private void readRange(Path file, long start, long end, LineVisitor visitor) throws IOException {
+        if (start > lineCount) {
+            return;
+        }
+        int slot = (int) ((start - 1) / STRIDE);
+        streamLines(file, checkpoint(slot), (long) slot * STRIDE + 1, start, end, visitor);
+    }
+
+    private long checkpoint(int slot) throws IOException {
+        if (checkpoints != null) {
+            return checkpoints[slot];
+        }
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(8);
+            long position = HEADER_SIZE + (long) slot * 8;
+            while (buf.hasRemaining() && channel.read(buf, position + buf.position()) > 0) {
+                // 读满8字节
+            }
+            return buf.getLong(0);
+        }
+    }
+
+    /**
+     * 从指定偏移开始逐行读取，该偏移必须是 firstLine 的行首
+     */
+    private static void streamLines(Path file, long offset, long firstLine, long start, long end,
+                                    LineVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(offset);
+            byte[] chunk = new byte[1 << 16];
+            ByteBuffer buf = ByteBuffer.wrap(chunk);
+            byte[] line = new byte[256];
+            int length = 0;
+            long lineNumber = firstLine;
+            boolean pending = false;
+            boolean skipLf = false;
+            int read;
+            while (lineNumber <= end && (read = channel.read(buf.clear())) > 0) {
+                for (int i = 0; i < read && lineNumber <= end; i++) {
+                    byte b = chunk[i];
+                    if (skipLf) {
+                        skipLf = false;
+                        if (b == '\n') {
+                            continue;
+                        }
+                    }
+                    if (b == '\n' || b == '\r') {
+                        if (lineNumber >= start) {
+                            visitor.visit(lineNumber, new String(line, 0, length, StandardCharsets.UTF_8));
+                        }
+                        lineNumber++;
+                        length = 0;
+                        pending = false;
+                        skipLf = b == '\r';
+                        continue;
+                    }
+                    pending = true;
+                    if (lineNumber < start) {
+                        continue;
+                    }
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = b;
+                }
+            }
+            if (pending && lineNumber >= start && lineNumber <= end) {
+                visitor.visit(lineNumber, new String(line, 0, length, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * 扫描文件建立索引
+     * @param sidecar 旁路文件；为 null 时只在内存中保存记录点
+     */
+    private static LineOffsetIndex build(Path file, Path sidecar, BasicFileAttributes attrs) throws IOException {
+        LongSink sink = new LongSink(sidecar, attrs);
+        long lines = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16);
+            long position = 0;
+            boolean atLineStart = true;
+            boolean expectLf = false;
+            while (channel.read(buf) > 0) {
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    byte b = buf.get();
+                    long pos = position++;
+                    if (expectLf) {
+                        expectLf = false;
+                        if (b == '\n') {
+                            continue;
+                        }
+                    }
+                    if (atLineStart) {
+                        if (lines % STRIDE == 0) {
+                            sink.add(pos);
+                        }
+                        lines++;
+                        atLineStart = false;
+                    }
+                    if (b == '\n') {
+                        atLineStart = true;
+                    } else if (b == '\r') {
+                        atLineStart = true;
+                        expectLf = true;
+                    }
+                }
+                buf.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            sink.abort();
+            throw e;
+        }
+        return new LineOffsetIndex(sidecar, sink.finish(lines), lines);
+    }
+
+    private static LineOffsetIndex loadSidecar(Path sidecar, BasicFileAttributes attrs) {
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // 读满头部
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getLong() != attrs.size() || header.getLong() != attrs.lastModifiedTime().toMillis()
+                    || header.getInt() != STRIDE) {
+                return null;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(8);
+            channel.read(trailer, channel.size() - 8);
+            return new LineOffsetIndex(sidecar, null, trailer.getLong(0));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String key(Path file) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(file.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 记录点输出：写入旁路文件（先写临时文件，完成后原子替换）或保存在内存中
+     */
+    private static final class LongSink {
+        private final Path target;
+        private final BasicFileAttributes attrs;
+        private Path temp;
+        private DataOutputStream out;
+        private long[] values = new long[16];
+        private int size;
+
+        LongSink(Path target, BasicFileAttributes attrs) throws IOException {
+            this.target = target;
+            this.attrs = attrs;
+            if (target != null) {
+                temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+                // 头部在建立完成后写入，先占位，未完成的文件不会被当作有效索引
+                out.write(new byte[HEADER_SIZE]);
+            }
+        }
+
+        void add(long value) throws IOException {
+            if (out != null) {
+                out.writeLong(value);
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] finish(long lineCount) throws IOException {
+            if (out == null) {
+                return Arrays.copyOf(values, size);
+            }
+            try {
+                out.writeLong(lineCount);
+                out.close();
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    header.putInt(MAGIC).putInt(VERSION).putLong(attrs.size())
+                            .putLong(attrs.lastModifiedTime().toMillis()).putInt(STRIDE).flip();
+                    channel.write(header, 0);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return null;
+        }
+
+        void abort() throws IOException {
+            if (out != null) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.tool.index;
+
+import com.tool.search.IgnoreRules;
+import com.tool.search.LineScanner;
+import com.tool.search.ParallelTreeWalker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * 三元组倒排索引
+ * 记录每个文件中出现过的所有三字节序列（ASCII 字母统一小写，不跨行），
+ * 查询时用正则中必然出现的字面量的三元组求交集，得到可能匹配的候选文件。
+ *
+ * 文件格式（大端）：
+ * 头部 magic、版本、文件数；文件表（路径、大小、修改时间、标志）；
+ * 三元组表（三元组、倒排表偏移、文件数），按三元组升序；倒排表（文件编号差值的变长编码）
+ */
+public class TrigramIndex {
+    static final String FILE_NAME = "trigrams.idx";
+    private static final int MAGIC = 0x54474931;
+    private static final int VERSION = 1;
+    private static final int TABLE_ENTRY_SIZE = 16;
+    /** 超过该大小的文件不提取三元组，查询时总是作为候选 */
+    static final long MAX_INDEXED_SIZE = 64L << 20;
+
+    static final byte FLAG_INDEXED = 0;
+    static final byte FLAG_UNINDEXED = 1;
+    static final byte FLAG_BINARY = 2;
+
+    private static final ThreadLocal<TrigramSet> TRIGRAM_SETS = ThreadLocal.withInitial(TrigramSet::new);
+
+    private final String[] paths;
+    private final long[] sizes;
+    private final long[] mtimes;
+    private final byte[] flags;
+    private final Map<String, Integer> ids;
+    private final ByteBuffer data;
+    private final int tableOffset;
+    private final int trigramCount;
+    private final int postingsOffset;
+
+    private TrigramIndex(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+            throw new IOException("索引文件格式不兼容");
+        }
+        int fileCount = data.getInt();
+        paths = new String[fileCount];
+        sizes = new long[fileCount];
+        mtimes = new long[fileCount];
+        flags = new byte[fileCount];
+        ids = new HashMap<>(fileCount * 2);
+        for (int i = 0; i < fileCount; i++) {
+            byte[] name = new byte[data.getInt()];
+            data.get(name);
+            paths[i] = new String(name, StandardCharsets.UTF_8);
+            sizes[i] = data.getLong();
+            mtimes[i] = data.getLong();
+            flags[i] = data.get();
+            ids.put(paths[i], i);
+        }
+        trigramCount = data.getInt();
+        tableOffset = data.position();
+        postingsOffset = tableOffset + trigramCount * TABLE_ENTRY_SIZE;
+    }
+
+    /**
+     * 加载根目录下的索引
+     * @return 索引不存在时返回 null
+     * @throws IOException 索引损坏或读取失败时抛出
+     */
+    public static TrigramIndex load(Path root) throws IOException {
+        Path file = IndexDirectory.of(root).resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TrigramIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (RuntimeException e) {
+            throw new IOException("索引文件已损坏: " + file, e);
+        }
+    }
+
+    /**
+     * 索引中的文件数
+     */
+    public int fileCount() {
+        return paths.length;
+    }
+
+    /**
+     * 查找文件编号
+     * @param relativePath 相对根目录的路径
+     * @return 不在索引中时返回 -1
+     */
+    public int id(String relativePath) {
+        Integer id = ids.get(relativePath);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 文件自建立索引以来是否未发生变化
+     */
+    public boolean isUpToDate(int id, BasicFileAttributes attrs) {
+        return sizes[id] == attrs.size() && mtimes[id] == attrs.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * 计算可能同时包含所有字面量的文件
+     * @param literals 必然出现的字面量
+     * @return 候选文件编号集合；字面量都短于三个字节时返回 null，表示无法缩小范围
+     */
+    public BitSet candidates(Collection<String> literals) {
+        TreeSet<Integer> keys = new TreeSet<>();
+        for (String literal : literals) {
+            byte[] bytes = literal.getBytes(StandardCharsets.UTF_8);
+            int key = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                key = ((key << 8) | fold(bytes[i])) & 0xFFFFFF;
+                if (i >= 2) {
+                    keys.add(key);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+        BitSet result = null;
+        for (int key : keys) {
+            BitSet files = postings(key);
+            if (result == null) {
+                result = files;
+            } else {
+                result.and(files);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] == FLAG_UNINDEXED) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从目录开始向上查找最近的索引
+     * @param dir 搜索目录
+     * @return 未找到时返回 null
+     * @throws IOException 索引损坏或读取失败时抛出
+     */
+    public static Located find(Path dir) throws IOException {
+        Path absolute = dir.toAbsolutePath().normalize();
+        for (Path root = absolute; root != null; root = root.getParent()) {
+            TrigramIndex index = load(root);
+            if (index != null) {
+                String prefix = IndexDirectory.relativize(root, absolute);
+                return new Located(index, prefix.isEmpty() ? "" : prefix + "/");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 已定位的索引及搜索目录相对索引根目录的前缀
+     */
+    public static final class Located {
+        private final TrigramIndex index;
+        private final String prefix;
+
+        Located(TrigramIndex index, String prefix) {
+            this.index = index;
+            this.prefix = prefix;
+        }
+
+        /**
+         * 创建候选文件过滤条件。索引中已记录且未发生变化、但不在候选集中的文件被排除，
+         * 其余文件（包括新增和已修改的文件）都需要扫描
+         * @param searchDir 遍历使用的搜索目录
+         * @param literals 必然出现的字面量
+         * @return 无法缩小范围时返回 null
+         */
+        public Predicate<Path> candidateFilter(Path searchDir, Collection<String> literals) {
+            BitSet candidates = index.candidates(literals);
+            if (candidates == null) {
+                return null;
+            }
+            return path -> {
+                int id = index.id(prefix + IndexDirectory.relativize(searchDir, path));
+                if (id < 0 || candidates.get(id)) {
+                    return true;
+                }
+                try {
+                    return !index.isUpToDate(id, Files.readAttributes(path, BasicFileAttributes.class));
+                } catch (IOException e) {
+                    return true;
+                }
+            };
+        }
+    }
+
+    private BitSet postings(int key) {
+        BitSet files = new BitSet(paths.length);
+        int slot = findTrigram(key);
+        if (slot >= 0) {
+            decodePostings(slot, files::set);
+        }
+        return files;
+    }
+
+    private int findTrigram(int key) {
+        int lo = 0;
+        int hi = trigramCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int value = data.getInt(tableOffset + mid * TABLE_ENTRY_SIZE);
+            if (value < key) {
+                lo = mid + 1;
+            } else if (value > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private void decodePostings(int slot, IntConsumer consumer) {
+        int entry = tableOffset + slot * TABLE_ENTRY_SIZE;
+        long offset = data.getLong(entry + 4);
+        int count = data.getInt(entry + 12);
+        int pos = (int) (postingsOffset + offset);
+        int id = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(pos++);
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += delta;
+            consumer.accept(id);
+        }
+    }
+
+    private static int fold(byte b) {
+        int u = b & 0xff;
+        return u >= 'A' && u <= 'Z' ? u + 32 : u;
+    }
+
+    /**
+     * 建立或增量刷新索引。大小和修改时间未变化的文件沿用旧索引中的三元组
+     * @param root 根目录
+     * @param threads 并行线程数
+     * @return 构建统计
+     * @throws IOException 写入索引失败时抛出
+     */
+    public static BuildStats build(Path root, int threads) throws IOException {
+        return build(root, threads, null);
+    }
+
+    /**
+     * 建立或增量刷新索引，被忽略的文件和目录不进入索引
+     * @param ignore 以 root 为根目录加载的忽略规则，为 null 时不过滤
+     */
+    public static BuildStats build(Path root, int threads, IgnoreRules ignore) throws IOException {
+        long startTime = System.currentTimeMillis();
+        TrigramIndex old;
+        try {
+            old = load(root);
+        } catch (IOException e) {
+            // 旧索引不可用时完整重建
+            old = null;
+        }
+        TrigramIndex previous = old;
+
+        List<FileRecord> retained = new ArrayList<>();
+        List<FileRecord> fresh = new ArrayList<>();
+        ParallelTreeWalker walker = new ParallelTreeWalker(threads, false);
+        walker.setDirectoryFilter(dir -> !IndexDirectory.isIndexDirectory(dir));
+        walker.setIgnoreRules(ignore);
+        walker.<FileRecord>walk(root, (path, results) -> {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            String relative = IndexDirectory.relativize(root, path);
+            int oldId = previous == null ? -1 : previous.id(relative);
+            if (oldId >= 0 && previous.isUpToDate(oldId, attrs)) {
+                results.accept(new FileRecord(relative, attrs, previous.flags[oldId], null, oldId));
+            } else {
+                results.accept(extract(path, relative, attrs));
+            }
+        }, record -> (record.oldId >= 0 ? retained : fresh).add(record));
+
+        // 沿用的文件保持旧编号的相对顺序，新文件按路径排序追加在后面，倒排表因此天然有序
+        retained.sort(Comparator.comparingInt(r -> r.oldId));
+        fresh.sort(Comparator.comparing(r -> r.path));
+        List<FileRecord> records = new ArrayList<>(retained);
+        records.addAll(fresh);
+
+        Map<Integer, IntList> postings = new HashMap<>();
+        if (previous != null && !retained.isEmpty()) {
+            int[] remap = new int[previous.fileCount()];
+            Arrays.fill(remap, -1);
+            for (int i = 0; i < retained.size(); i++) {
+                remap[retained.get(i).oldId] = i;
+            }
+            for (int slot = 0; slot < previous.trigramCount; slot++) {
+                int key = previous.data.getInt(previous.tableOffset + slot * TABLE_ENTRY_SIZE);
+                IntList list = new IntList();
+                previous.decodePostings(slot, oldId -> {
+                    if (remap[oldId] >= 0) {
+                        list.add(remap[oldId]);
+                    }
+                });
+                if (list.size() > 0) {
+                    postings.put(key, list);
+                }
+            }
+        }
+        for (int i = retained.size(); i < records.size(); i++) {
+            int[] trigrams = records.get(i).trigrams;
+            if (trigrams == null) {
+                continue;
+            }
+            for (int key : trigrams) {
+                postings.computeIfAbsent(key, k -> new IntList()).add(i);
+            }
+        }
+
+        write(root, records, postings);
+        int removed = 0;
+        if (previous != null) {
+            removed = previous.fileCount() - retained.size();
+            for (FileRecord record : fresh) {
+                if (previous.id(record.path) >= 0) {
+                    removed--;
+                }
+            }
+        }
+        return new BuildStats(records.size(), fresh.size(), removed, postings.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    private static FileRecord extract(Path path, String relative, BasicFileAttributes attrs) throws IOException {
+        if (attrs.size() > MAX_INDEXED_SIZE) {
+            return new FileRecord(relative, attrs, FLAG_UNINDEXED, null, -1);
+        }
+        TrigramSet set = TRIGRAM_SETS.get();
+        set.clear();
+        boolean text = LineScanner.forCurrentThread().scan(path, region -> {
+            ByteBuffer buf = region.buffer();
+            int key = 0;
+            int run = 0;
+            for (int i = region.start(); i < region.end(); i++) {
+                byte b = buf.get(i);
+                if (b == '\n') {
+                    run = 0;
+                    continue;
+                }
+                key = ((key << 8) | fold(b)) & 0xFFFFFF;
+                if (++run >= 3) {
+                    set.add(key);
+                }
+            }
+        });
+        if (!text) {
+            return new FileRecord(relative, attrs, FLAG_BINARY, null, -1);
+        }
+        return new FileRecord(relative, attrs, FLAG_INDEXED, set.toArray(), -1);
+    }
+
+    private static void write(Path root, List<FileRecord> records, Map<Integer, IntList> postings) throws IOException {
+        Path dir = IndexDirectory.of(root);
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, FILE_NAME, ".tmp");
+        try {
+            int[] keys = postings.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(records.size());
+                for (FileRecord record : records) {
+                    byte[] name = record.path.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(name.length);
+                    out.write(name);
+                    out.writeLong(record.size);
+                    out.writeLong(record.mtime);
+                    out.writeByte(record.flag);
+                }
+                out.writeInt(keys.length);
+                long offset = 0;
+                for (int key : keys) {
+                    IntList list = postings.get(key);
+                    out.writeInt(key);
+                    out.writeLong(offset);
+                    out.writeInt(list.size());
+                    offset += encodedLength(list);
+                }
+                for (int key : keys) {
+                    IntList list = postings.get(key);
+                    int previous = 0;
+                    for (int i = 0; i < list.size(); i++) {
+                        int delta = list.get(i) - previous;
+                        previous = list.get(i);
+                        while ((delta & ~0x7F) != 0) {
+                            out.writeByte((delta & 0x7F) | 0x80);
+                            delta >>>= 7;
+                        }
+                        out.writeByte(delta);
+                    }
+                }
+            }
+            Files.move(temp, dir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static long encodedLength(IntList list) {
+        long length = 0;
+        int previous = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int delta = list.get(i) - previous;
+            previous = list.get(i);
+            length += delta < (1 << 7) ? 1 : delta < (1 << 14) ? 2 : delta < (1 << 21) ? 3 : delta < (1 << 28) ? 4 : 5;
+        }
+        return length;
+    }
+
+    /**
+     * 索引构建统计
+     */
+    public static final class BuildStats {
+        public final int files;
+        public final int reindexed;
+        public final int removed;
+        public final int trigrams;
+        public final long millis;
+
+        BuildStats(int files, int reindexed, int removed, int trigrams, long millis) {
+            this.files = files;
+            this.reindexed = reindexed;
+            this.removed = removed;
+            this.trigrams = trigrams;
+            this.millis = millis;
+        }
+    }
+
+    private static final class FileRecord {
+        final String path;
+        final long size;
+        final long mtime;
+        final byte flag;
+        final int[] trigrams;
+        final int oldId;
+
+        FileRecord(String path, BasicFileAttributes attrs, byte flag, int[] trigrams, int oldId) {
+            this.path = path;
+            this.size = attrs.size();
+            this.mtime = attrs.lastModifiedTime().toMillis();
+            this.flag = flag;
+            this.trigrams = trigrams;
+            this.oldId = oldId;
+        }
+    }
+
+    /**
+     * 线程内复用的三元组去重集合，使用 2^24 位的位图
+     */
+    private static final class TrigramSet {
+        private final long[] bits = new long[1 << 18];
+        private final IntList keys = new IntList(1024);
+        private int size;
+
+        void add(int key) {
+            long mask = 1L << key;
+            int word = key >>> 6;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                if (size < keys.size()) {
+                    keys.set(size, key);
+                } else {
+                    keys.add(key);
+                }
+                size++;
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                bits[keys.get(i) >>> 6] = 0;
+            }
+            size = 0;
+        }
+
+        int[] toArray() {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = keys.get(i);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.tool.list;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 目录项：相对路径和一次读取得到的类型、大小、修改时间
+ */
+final class DirectoryEntry implements Comparable<DirectoryEntry> {
+    final String path;
+    final char type;
+    final long size;
+    final long modified;
+
+    DirectoryEntry(String path, char type, long size, long modified) {
+        this.path = path;
+        this.type = type;
+        this.size = size;
+        this.modified = modified;
+    }
+
+    static DirectoryEntry of(String path, BasicFileAttributes attrs) {
+        char type = attrs.isDirectory() ? 'd' : attrs.isSymbolicLink() ? 'l' : attrs.isRegularFile() ? 'f' : 'o';
+        return new DirectoryEntry(path, type, attrs.size(), attrs.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * 只有名称、未读取属性的目录项
+     */
+    static DirectoryEntry of(String path) {
+        return new DirectoryEntry(path, 'o', 0, 0);
+    }
+
+    /**
+     * 输出格式：只有路径，或以制表符分隔的 类型、大小、修改时间、路径
+     */
+    String format(boolean details) {
+        if (!details) {
+            return path;
+        }
+        return type + "\t" + size + "\t" + Instant.ofEpochMilli(modified).truncatedTo(ChronoUnit.SECONDS) + "\t" + path;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeUTF(path);
+        out.writeChar(type);
+        out.writeLong(size);
+        out.writeLong(modified);
+    }
+
+    static DirectoryEntry readFrom(DataInputStream in) throws IOException {
+        return new DirectoryEntry(in.readUTF(), in.readChar(), in.readLong(), in.readLong());
+    }
+
+    @Override
+    public int compareTo(DirectoryEntry other) {
+        return path.compareTo(other.path);
+    }
+}
@@ -0,0 +1,201 @@
+package com.tool.list;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+
+/**
+ * 目录列表
+ * 只列出名称时用 DirectoryStream 读取当前目录，不读取文件属性；输出详细信息或递归时
+ * 基于 Files.walkFileTree 流式遍历，每个目录项的属性只读取一次（不跟随符号链接）。
+ * 未排序时边遍历边输出，不在内存中保存目录项；排序时使用外部排序，内存占用有上限。
+ * 分页支持偏移量和游标两种方式：游标是上一页最后一项的路径，按路径排序后从其后开始输出，
+ * 在两次请求之间增删目录项也不会导致重复或遗漏
+ */
+public class DirectoryLister {
+    private final Path root;
+    private int maxDepth = 1;
+    private boolean details;
+    private boolean sorted;
+    private long offset;
+    private long limit = Long.MAX_VALUE;
+    private String after;
+    private int chunkSize = ExternalSorter.DEFAULT_CHUNK_SIZE;
+
+    private long skipped;
+    private long emitted;
+    private String last;
+    private boolean hasMore;
+
+    public DirectoryLister(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * 设置遍历深度，1 表示只列出当前目录
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    /**
+     * 是否输出类型、大小和修改时间
+     */
+    public void setDetails(boolean details) {
+        this.details = details;
+    }
+
+    /**
+     * 是否按路径排序输出
+     */
+    public void setSorted(boolean sorted) {
+        this.sorted = sorted;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = Math.max(0, offset);
+    }
+
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * 设置分页游标，只输出路径大于该值的目录项，需要排序
+     */
+    public void setAfter(String after) {
+        this.after = after;
+        if (after != null) {
+            this.sorted = true;
+        }
+    }
+
+    /**
+     * 外部排序时内存中保留的目录项数
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 最后输出的目录项路径，可作为下一页的游标
+     */
+    public String last() {
+        return last;
+    }
+
+    /**
+     * 本页之后是否还有目录项
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * 列出目录
+     * @param out 输出流
+     * @return 输出的目录项数
+     * @throws IOException 根目录不可访问时抛出
+     */
+    public long list(PrintStream out) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IOException("不是目录: " + root);
+        }
+        if (!sorted) {
+            walk(entry -> accept(entry, out));
+            return emitted;
+        }
+        try (ExternalSorter sorter = new ExternalSorter(chunkSize)) {
+            walk(entry -> {
+                if (after == null || entry.path.compareTo(after) > 0) {
+                    sorter.add(entry);
+                }
+                return true;
+            });
+            sorter.drain(entry -> accept(entry, out));
+        }
+        return emitted;
+    }
+
+    /**
+     * 处理一个目录项
+     * @return 是否继续遍历
+     */
+    private boolean accept(DirectoryEntry entry, PrintStream out) {
+        if (skipped < offset) {
+            skipped++;
+            return true;
+        }
+        if (emitted >= limit) {
+            hasMore = true;
+            return false;
+        }
+        out.println(entry.format(details));
+        emitted++;
+        last = entry.path;
+        return true;
+    }
+
+    private void walk(ExternalSorter.Visitor visitor) throws IOException {
+        if (maxDepth == 1 && !details) {
+            list(visitor);
+            return;
+        }
+        Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.equals(root)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                return visitor.visit(DirectoryEntry.of(relative(dir), attrs))
+                        ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                return visitor.visit(DirectoryEntry.of(relative(file), attrs))
+                        ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // 无法读取的目录项直接跳过
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 只读取当前目录的名称
+     */
+    private void list(ExternalSorter.Visitor visitor) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path path : stream) {
+                if (!visitor.visit(DirectoryEntry.of(path.getFileName().toString()))) {
+                    return;
+                }
+            }
+        } catch (DirectoryIteratorException e) {
+            throw e.getCause();
+        }
+    }
+
+    private String relative(Path path) {
+        String relative = root.relativize(path).toString();
+        return File.separatorChar == '/' ? relative : relative.replace(File.separatorChar, '/');
+    }
+}
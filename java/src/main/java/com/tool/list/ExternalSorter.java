@@ -0,0 +1,132 @@
+package com.tool.list;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * 目录项的外部排序
+ * 内存中最多保留 chunkSize 个目录项，超出时排序后写入临时文件，最后多路归并输出，
+ * 内存占用与目录项总数无关。条目总数不超过 chunkSize 时不产生临时文件
+ */
+final class ExternalSorter implements AutoCloseable {
+    static final int DEFAULT_CHUNK_SIZE = 100_000;
+
+    private final int chunkSize;
+    private final List<DirectoryEntry> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+
+    ExternalSorter(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    void add(DirectoryEntry entry) throws IOException {
+        buffer.add(entry);
+        if (buffer.size() >= chunkSize) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        Collections.sort(buffer);
+        Path run = Files.createTempFile("tool-list-", ".run");
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (DirectoryEntry entry : buffer) {
+                entry.writeTo(out);
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 按路径顺序输出全部目录项，consumer 返回 false 时提前结束
+     */
+    void drain(Visitor visitor) throws IOException {
+        if (runs.isEmpty()) {
+            Collections.sort(buffer);
+            for (DirectoryEntry entry : buffer) {
+                if (!visitor.visit(entry)) {
+                    return;
+                }
+            }
+            return;
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        List<DataInputStream> inputs = new ArrayList<>();
+        try {
+            PriorityQueue<Head> heads = new PriorityQueue<>();
+            for (Path run : runs) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+                inputs.add(in);
+                advance(in, heads::add);
+            }
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                if (!visitor.visit(head.entry)) {
+                    return;
+                }
+                advance(head.in, heads::add);
+            }
+        } finally {
+            for (DataInputStream in : inputs) {
+                in.close();
+            }
+        }
+    }
+
+    private static void advance(DataInputStream in, Consumer<Head> sink) throws IOException {
+        try {
+            sink.accept(new Head(DirectoryEntry.readFrom(in), in));
+        } catch (EOFException e) {
+            // 该临时文件已读完
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    /**
+     * 排序结果的处理逻辑
+     */
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * @return 是否继续输出
+         */
+        boolean visit(DirectoryEntry entry) throws IOException;
+    }
+
+    private static final class Head implements Comparable<Head> {
+        final DirectoryEntry entry;
+        final DataInputStream in;
+
+        Head(DirectoryEntry entry, DataInputStream in) {
+            this.entry = entry;
+            this.in = in;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return entry.compareTo(other.entry);
+        }
+    }
+}
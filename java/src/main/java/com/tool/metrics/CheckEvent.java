@@ -0,0 +1,24 @@
+package com.tool.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 单项项目检查的 JFR 事件
+ */
+@Name("com.tool.Check")
+@Label("项目检查项")
+@Category({"Tool", "Check"})
+@Description("JavaProjectChecker 执行一个检查项")
+public class CheckEvent extends jdk.jfr.Event {
+    @Label("项目")
+    public String project;
+
+    @Label("检查项")
+    public String check;
+
+    @Label("发现问题数")
+    public int issues;
+}
@@ -0,0 +1,200 @@
+package com.tool.metrics;
+
+import com.tool.Json;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条命令的运行统计
+ * 计数器和耗时使用 LongAdder，可以被多个工作线程同时更新；阶段耗时是各线程的累计值，可能大于命令总耗时。
+ * App.run 在指定 --stats 时创建实例并绑定到执行命令的线程，遍历器和检查线程池在工作线程中处理任务期间
+ * 绑定同一实例，LineScanner 等底层组件通过 {@link #current()} 获取，不需要逐层传递。
+ * 未指定 --stats 时 current() 返回 null，各处的统计代码都会跳过
+ */
+public final class CommandStats {
+    /**
+     * 计数器
+     */
+    public enum Counter {
+        DIRS_VISITED("dirsVisited", "访问目录"),
+        DIRS_SKIPPED("dirsSkipped", "跳过目录"),
+        FILES_VISITED("filesVisited", "访问文件"),
+        FILES_SKIPPED("filesSkipped", "跳过文件"),
+        BYTES_READ("bytesRead", "读取字节"),
+        LINES_SCANNED("linesScanned", "扫描行"),
+        MATCHES("matches", "匹配结果");
+
+        final String key;
+        final String label;
+
+        Counter(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    /**
+     * 计时阶段
+     */
+    public enum Phase {
+        WALK("walk", "遍历"),
+        READ("read", "读取"),
+        MATCH("match", "匹配"),
+        OUTPUT("output", "输出");
+
+        final String key;
+        final String label;
+
+        Phase(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    private static final ThreadLocal<CommandStats> CURRENT = new ThreadLocal<>();
+
+    private final String command;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder[] counters = newAdders(Counter.values().length);
+    private final LongAdder[] phases = newAdders(Phase.values().length);
+    private final Map<String, LongAdder> checks = new LinkedHashMap<>();
+
+    public CommandStats(String command) {
+        this.command = command;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 当前线程绑定的统计
+     * @return 未启用统计时返回 null
+     */
+    public static CommandStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 将统计绑定到当前线程
+     * @param stats 要绑定的统计，为 null 时解除绑定
+     * @return 之前绑定的统计，处理完成后应重新绑定
+     */
+    public static CommandStats bind(CommandStats stats) {
+        CommandStats previous = CURRENT.get();
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+        return previous;
+    }
+
+    public void add(Counter counter, long value) {
+        counters[counter.ordinal()].add(value);
+    }
+
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public void addTime(Phase phase, long nanos) {
+        phases[phase.ordinal()].add(nanos);
+    }
+
+    /**
+     * 累计单项检查的耗时
+     * @param name 检查项名称
+     */
+    public void addCheck(String name, long nanos) {
+        LongAdder adder;
+        synchronized (checks) {
+            adder = checks.computeIfAbsent(name, k -> new LongAdder());
+        }
+        adder.add(nanos);
+    }
+
+    public long get(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    public long nanos(Phase phase) {
+        return phases[phase.ordinal()].sum();
+    }
+
+    /**
+     * 输出统计
+     * @param json 为 true 时输出单行 JSON，否则输出以 [统计] 开头的文本
+     */
+    public void print(PrintStream out, boolean json) {
+        long total = System.nanoTime() - startNanos;
+        Map<String, Long> checkNanos = new LinkedHashMap<>();
+        synchronized (checks) {
+            checks.forEach((name, adder) -> checkNanos.put(name, adder.sum()));
+        }
+        if (json) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"command\":").append(Json.quote(command));
+            sb.append(",\"totalMicros\":").append(total / 1000);
+            sb.append(",\"counters\":{");
+            for (Counter counter : Counter.values()) {
+                sb.append(counter.ordinal() > 0 ? "," : "").append('"').append(counter.key).append("\":")
+                        .append(get(counter));
+            }
+            sb.append("},\"phasesMicros\":{");
+            for (Phase phase : Phase.values()) {
+                sb.append(phase.ordinal() > 0 ? "," : "").append('"').append(phase.key).append("\":")
+                        .append(nanos(phase) / 1000);
+            }
+            sb.append("},\"checksMicros\":{");
+            boolean first = true;
+            for (Map.Entry<String, Long> entry : checkNanos.entrySet()) {
+                sb.append(first ? "" : ",").append(Json.quote(entry.getKey())).append(':').append(entry.getValue() / 1000);
+                first = false;
+            }
+            sb.append("}}");
+            out.println(sb);
+            return;
+        }
+        out.println("[统计] " + command + " 用时 " + millis(total));
+        // 没有遍历或扫描文件的命令不输出全为零的计数和阶段
+        List<String> parts = new ArrayList<>();
+        long sum = 0;
+        for (Counter counter : Counter.values()) {
+            parts.add(counter.label + " " + get(counter));
+            sum += get(counter);
+        }
+        if (sum > 0) {
+            out.println("[统计] " + String.join("，", parts));
+        }
+        parts.clear();
+        sum = 0;
+        for (Phase phase : Phase.values()) {
+            parts.add(phase.label + " " + millis(nanos(phase)));
+            sum += nanos(phase);
+        }
+        if (sum > 0) {
+            out.println("[统计] 阶段耗时（各线程累计）: " + String.join("，", parts));
+        }
+        if (!checkNanos.isEmpty()) {
+            parts.clear();
+            checkNanos.forEach((name, nanos) -> parts.add(name + " " + millis(nanos)));
+            out.println("[统计] 检查耗时: " + String.join("，", parts));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,30 @@
+package com.tool.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 单个文件扫描的 JFR 事件，持续时间包含读取和匹配。
+ * 未开启 JFR 记录时 begin/commit 不做任何事，可以随扫描常驻
+ */
+@Name("com.tool.FileScan")
+@Label("文件扫描")
+@Category({"Tool", "Search"})
+@Description("LineScanner 扫描一个文件")
+public class FileScanEvent extends jdk.jfr.Event {
+    @Label("路径")
+    public String path;
+
+    @Label("大小")
+    @DataAmount
+    public long size;
+
+    @Label("扫描行数")
+    public long lines;
+
+    @Label("二进制文件")
+    public boolean binary;
+}
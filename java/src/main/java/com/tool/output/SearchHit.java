@@ -0,0 +1,45 @@
+package com.tool.output;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 一条搜索结果：文件中的一个匹配行，或 fileSearch 匹配的文件。
+ * 列号、匹配文本和行内容只在输出格式需要时填充（见 {@link SearchOutput.Format#detailed()}）
+ */
+public final class SearchHit {
+    public final Path path;
+    /** 行号，从1开始；文件级结果为 0 */
+    public final long line;
+    /** 列号（按字符计），从1开始；未计算时为 0 */
+    public final int column;
+    /** 匹配的文本，未计算时为 null */
+    public final String match;
+    /** 匹配行的内容（不含换行符），未计算时为 null */
+    public final String text;
+    /** 多模式搜索中该行命中的模式，其他搜索为 null */
+    public final List<String> patterns;
+
+    public SearchHit(Path path, long line, int column, String match, String text, List<String> patterns) {
+        this.path = path;
+        this.line = line;
+        this.column = column;
+        this.match = match;
+        this.text = text;
+        this.patterns = patterns;
+    }
+
+    /**
+     * 只有位置的匹配行
+     */
+    public SearchHit(Path path, long line) {
+        this(path, line, 0, null, null, null);
+    }
+
+    /**
+     * 文件级结果
+     */
+    public static SearchHit file(Path path) {
+        return new SearchHit(path, 0);
+    }
+}
@@ -0,0 +1,239 @@
+package com.tool.output;
+
+import com.tool.Json;
+import com.tool.WorkingDirectory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * 搜索结果的异步输出
+ * 各扫描线程把结果格式化到自己的缓冲区，不需要加锁；缓冲区积累到 CHUNK_SIZE，或距上次交出超过
+ * FLUSH_MILLIS 时，在批次边界处整体交给有界队列，由唯一的写线程依次写出，因此不同文件的结果不会交错。
+ * 结果很多的文件由 ParallelTreeWalker 分批交给 write，期间只有该线程写入，文件结束时的空批次使缓冲区立即交出。
+ * 队列满时扫描线程阻塞等待写线程（背压），内存占用有上限；写出很慢时扫描随之变慢，但不会持有任何锁。
+ * 结果通过输出流自身的编码写出，与同一流中的其他输出一致。
+ * close 时交出全部线程的剩余内容并等待写线程结束，此后才能向同一输出流写其他内容
+ */
+public final class SearchOutput implements Closeable {
+    static final int CHUNK_SIZE = 64 * 1024;
+    /** 队列中最多等待写出的块数 */
+    static final int QUEUE_CHUNKS = 64;
+    static final long FLUSH_MILLIS = 50;
+    /** 结束标记，按引用比较 */
+    private static final String END = new String();
+
+    /**
+     * 输出格式
+     */
+    public enum Format {
+        /** 原有的文本格式 */
+        PLAIN,
+        /** 每行一个 JSON 对象：path、line、column、match、text（多模式搜索另有 patterns） */
+        NDJSON,
+        /** 文件:行:列:行内容，可以直接被编辑器的 quickfix 读取 */
+        VIMGREP;
+
+        /**
+         * 解析 --format 选项
+         * @return 不支持的格式返回 null
+         */
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.name().toLowerCase(Locale.ROOT).equals(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 是否需要列号、匹配文本和行内容，PLAIN 只需要位置
+         */
+        public boolean detailed() {
+            return this != PLAIN;
+        }
+    }
+
+    /**
+     * 单个线程的格式化缓冲区
+     */
+    private static final class Buffer {
+        final StringBuilder text = new StringBuilder(CHUNK_SIZE + 1024);
+        long lastHandoff = System.nanoTime();
+    }
+
+    private final PrintStream out;
+    private final Format format;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffer> local = ThreadLocal.withInitial(() -> {
+        Buffer buffer = new Buffer();
+        buffers.add(buffer);
+        return buffer;
+    });
+    private final Thread writer;
+    /** 在调用构造函数的请求线程中取得，结果由扫描线程写入 */
+    private final UnaryOperator<String> display;
+
+    /**
+     * 构造函数，启动写线程
+     * @param out 输出流，在 close 之前只能由写线程写入
+     * @param format 输出格式
+     */
+    public SearchOutput(PrintStream out, Format format) {
+        this.out = out;
+        this.format = format;
+        this.display = WorkingDirectory.displayer();
+        this.writer = new Thread(this::drain, "search-output");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    /**
+     * 输出一个文件的一批结果，这些结果连续写出。可以被多个线程同时调用；
+     * 空批次表示分批输出的文件结束，缓冲区中的内容立即交出
+     */
+    public void write(List<SearchHit> hits) {
+        Buffer buffer = local.get();
+        for (SearchHit hit : hits) {
+            append(buffer.text, hit);
+        }
+        long now = System.nanoTime();
+        if (hits.isEmpty() || buffer.text.length() >= CHUNK_SIZE
+                || now - buffer.lastHandoff > TimeUnit.MILLISECONDS.toNanos(FLUSH_MILLIS)) {
+            handoff(buffer);
+            buffer.lastHandoff = now;
+        }
+    }
+
+    public void write(SearchHit hit) {
+        write(List.of(hit));
+    }
+
+    private void handoff(Buffer buffer) {
+        if (buffer.text.length() == 0) {
+            return;
+        }
+        String chunk = buffer.text.toString();
+        buffer.text.setLength(0);
+        put(chunk);
+    }
+
+    private void put(String chunk) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(chunk);
+                break;
+            } catch (InterruptedException e) {
+                // 结果不能丢失，稍后恢复中断状态
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(StringBuilder sb, SearchHit hit) {
+        String path = display.apply(hit.path.toString());
+        switch (format) {
+            case NDJSON:
+                sb.append("{\"path\":").append(Json.quote(path));
+                if (hit.line > 0) {
+                    sb.append(",\"line\":").append(hit.line).append(",\"column\":").append(hit.column);
+                    if (hit.match != null) {
+                        sb.append(",\"match\":").append(Json.quote(hit.match));
+                    }
+                    if (hit.text != null) {
+                        sb.append(",\"text\":").append(Json.quote(hit.text));
+                    }
+                }
+                if (hit.patterns != null) {
+                    sb.append(",\"patterns\":[");
+                    for (int i = 0; i < hit.patterns.size(); i++) {
+                        sb.append(i > 0 ? "," : "").append(Json.quote(hit.patterns.get(i)));
+                    }
+                    sb.append(']');
+                }
+                sb.append('}');
+                break;
+            case VIMGREP:
+                sb.append(path);
+                if (hit.line > 0) {
+                    sb.append(':').append(hit.line).append(':').append(hit.column).append(':');
+                    if (hit.text != null) {
+                        sb.append(hit.text);
+                    }
+                }
+                break;
+            default:
+                if (hit.line == 0) {
+                    sb.append("匹配文件: ").append(path);
+                    break;
+                }
+                sb.append("匹配: ").append(path).append(" 行号: ").append(hit.line);
+                if (hit.patterns != null) {
+                    sb.append(" 模式: ").append(String.join(", ", hit.patterns));
+                }
+                break;
+        }
+        sb.append(System.lineSeparator());
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                String chunk = queue.take();
+                if (chunk == END) {
+                    break;
+                }
+                // PrintStream 不抛出写出错误，失败后继续取出队列中的内容，扫描线程不会一直阻塞
+                out.print(chunk);
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 交出全部线程缓冲区中的剩余内容，等待写线程写完。必须在所有扫描线程结束后调用
+     * @throws IOException 写出失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        for (Buffer buffer : buffers) {
+            handoff(buffer);
+        }
+        put(END);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (out.checkError()) {
+            throw new IOException("写出搜索结果失败");
+        }
+    }
+}
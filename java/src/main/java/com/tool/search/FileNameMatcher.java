@@ -0,0 +1,103 @@
+package com.tool.search;
+
+/**
+ * 文件名匹配规则
+ * 子串和前缀匹配区分大小写，与原有 fileSearch 行为一致；模糊匹配忽略大小写，
+ * 按子序列匹配并打分，连续字符和单词起始处的命中得分更高
+ */
+public class FileNameMatcher {
+    /**
+     * 匹配方式
+     */
+    public enum Mode {
+        SUBSTRING,
+        PREFIX,
+        FUZZY
+    }
+
+    private final Mode mode;
+    private final String fragment;
+    private final String lowerFragment;
+
+    public FileNameMatcher(Mode mode, String fragment) {
+        this.mode = mode;
+        this.fragment = fragment;
+        this.lowerFragment = fold(fragment);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public String fragment() {
+        return fragment;
+    }
+
+    /**
+     * 计算文件名的匹配得分
+     * @return 不匹配时返回 -1；子串和前缀匹配命中时返回 0
+     */
+    public int score(String name) {
+        switch (mode) {
+            case PREFIX:
+                return name.startsWith(fragment) ? 0 : -1;
+            case FUZZY:
+                return fuzzyScore(name);
+            default:
+                return name.contains(fragment) ? 0 : -1;
+        }
+    }
+
+    private int fuzzyScore(String name) {
+        int score = 0;
+        int pos = 0;
+        int previous = -2;
+        for (int i = 0; i < lowerFragment.length(); i++) {
+            int found = indexOfFolded(name, lowerFragment.charAt(i), pos);
+            if (found < 0) {
+                return -1;
+            }
+            score += 1;
+            if (found == previous + 1) {
+                score += 5;
+            }
+            if (found == 0 || isBoundary(name, found)) {
+                score += 8;
+            }
+            previous = found;
+            pos = found + 1;
+        }
+        // 名称越短，匹配越精确
+        return Math.max(1, score * 4 - (name.length() - lowerFragment.length()) / 4);
+    }
+
+    /**
+     * 逐个字符转换为小写。String.toLowerCase 可能改变长度（如 'İ'），转换后的下标与原名称不再对应
+     */
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 忽略大小写查找字符，返回原名称中的下标
+     */
+    private static int indexOfFolded(String name, char lower, int from) {
+        for (int i = from; i < name.length(); i++) {
+            if (Character.toLowerCase(name.charAt(i)) == lower) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBoundary(String name, int index) {
+        char before = name.charAt(index - 1);
+        char current = name.charAt(index);
+        return before == '.' || before == '_' || before == '-' || before == ' '
+                || Character.isLowerCase(before) && Character.isUpperCase(current);
+    }
+}
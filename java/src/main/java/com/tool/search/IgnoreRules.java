@@ -0,0 +1,533 @@
+package com.tool.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * .gitignore / .ignore 忽略规则
+ * 每个目录的规则文件只读取一次并编译：不含通配符的名称和 "*.扩展名" 规则放入哈希表，其余规则预先编译为
+ * 按路径段匹配的通配符序列，匹配时不使用正则表达式。规则按 git 的优先级生效：深层目录的规则优先于上层目录，
+ * 同一目录中后出现的规则优先，.ignore 优先于 .gitignore，仓库的 .git/info/exclude 优先级最低。
+ * 遍历器在进入子目录之前判断，被忽略的目录整体跳过；.git 目录始终被忽略。可以在多个线程中同时使用
+ */
+public final class IgnoreRules {
+    /** 每个目录中读取的规则文件，后读取的优先 */
+    private static final String[] RULE_FILES = {".gitignore", ".ignore"};
+
+    private final Path root;
+    /** 根目录之上（仓库内）各层目录的规则，由浅到深 */
+    private final List<Level> ancestors;
+    /** 目录到其生效规则链（由深到浅）的缓存 */
+    private final Map<Path, Level[]> chains = new ConcurrentHashMap<>();
+
+    private IgnoreRules(Path root, List<Level> ancestors) {
+        this.root = root;
+        this.ancestors = ancestors;
+    }
+
+    /**
+     * 加载遍历根目录的忽略规则。根目录位于 git 仓库中时，仓库顶层到根目录之间各层的规则也会生效
+     * @param root 遍历根目录，之后判断的路径必须位于其下（以 root.resolve 得到）
+     */
+    public static IgnoreRules load(Path root) {
+        Path absolute = root.toAbsolutePath().normalize();
+        Path top = null;
+        for (Path dir = absolute; dir != null; dir = dir.getParent()) {
+            if (Files.exists(dir.resolve(".git"))) {
+                top = dir;
+                break;
+            }
+        }
+        List<Level> ancestors = new ArrayList<>();
+        if (top != null) {
+            RuleSet exclude = RuleSet.read(new Path[]{top.resolve(".git").resolve("info").resolve("exclude")});
+            if (exclude != null) {
+                ancestors.add(new Level(exclude, 0, between(top, absolute)));
+            }
+            for (Path dir = top; !dir.equals(absolute); dir = dir.resolve(absolute.getName(dir.getNameCount()))) {
+                RuleSet rules = RuleSet.forDirectory(dir);
+                if (rules != null) {
+                    ancestors.add(new Level(rules, 0, between(dir, absolute)));
+                }
+            }
+        }
+        return new IgnoreRules(root, ancestors);
+    }
+
+    /**
+     * 从祖先目录到根目录之间的路径段
+     */
+    private static String[] between(Path ancestor, Path root) {
+        String[] segments = new String[root.getNameCount() - ancestor.getNameCount()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = root.getName(ancestor.getNameCount() + i).toString();
+        }
+        return segments;
+    }
+
+    /**
+     * 判断路径是否被忽略
+     * @param path 根目录下的路径
+     * @param directory 是否为目录
+     */
+    public boolean isIgnored(Path path, boolean directory) {
+        Path parent = path.getParent();
+        String name = path.getFileName().toString();
+        if (name.equals(".git")) {
+            return true;
+        }
+        if (parent == null || !path.startsWith(root) || path.equals(root)) {
+            return false;
+        }
+        Level[] chain = chain(parent);
+        if (chain.length == 0) {
+            return false;
+        }
+        // 只有含 / 的规则需要完整路径，其余规则只比较名称
+        String[] segments = null;
+        for (Level level : chain) {
+            String[] relative = null;
+            if (level.rules.anchored) {
+                if (segments == null) {
+                    segments = segments(path);
+                }
+                relative = level.relative(segments);
+            }
+            int decision = level.rules.match(relative, name, directory);
+            if (decision != 0) {
+                return decision > 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 相对根目录的路径段
+     */
+    private String[] segments(Path path) {
+        int from = root.getNameCount();
+        String[] segments = new String[path.getNameCount() - from];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = path.getName(from + i).toString();
+        }
+        return segments;
+    }
+
+    /**
+     * 目录的生效规则链：自身的规则在前，随后是各层父目录的规则
+     */
+    private Level[] chain(Path dir) {
+        Level[] cached = chains.get(dir);
+        if (cached != null) {
+            return cached;
+        }
+        Level[] inherited;
+        int depth;
+        if (dir.equals(root) || !dir.startsWith(root)) {
+            inherited = new Level[ancestors.size()];
+            for (int i = 0; i < inherited.length; i++) {
+                inherited[i] = ancestors.get(ancestors.size() - 1 - i);
+            }
+            depth = 0;
+        } else {
+            inherited = chain(dir.getParent());
+            depth = dir.getNameCount() - root.getNameCount();
+        }
+        RuleSet own = RuleSet.forDirectory(dir);
+        Level[] result = inherited;
+        if (own != null) {
+            result = new Level[inherited.length + 1];
+            result[0] = new Level(own, depth, null);
+            System.arraycopy(inherited, 0, result, 1, inherited.length);
+        }
+        chains.putIfAbsent(dir, result);
+        return result;
+    }
+
+    /**
+     * 一层规则：根目录之下的规则记录所在目录相对根目录的深度，根目录之上的规则记录其到根目录之间的路径段
+     */
+    private static final class Level {
+        final RuleSet rules;
+        final int depth;
+        final String[] prefix;
+
+        Level(RuleSet rules, int depth, String[] prefix) {
+            this.rules = rules;
+            this.depth = depth;
+            this.prefix = prefix;
+        }
+
+        /**
+         * 路径相对规则所在目录的路径段
+         */
+        String[] relative(String[] segments) {
+            if (prefix != null) {
+                String[] result = Arrays.copyOf(prefix, prefix.length + segments.length);
+                System.arraycopy(segments, 0, result, prefix.length, segments.length);
+                return result;
+            }
+            return depth == 0 ? segments : Arrays.copyOfRange(segments, depth, segments.length);
+        }
+    }
+
+    /**
+     * 一个目录中的全部规则
+     */
+    static final class RuleSet {
+        private final Rule[] rules;
+        private final boolean hasNegation;
+        /** 是否含有需要完整路径的规则 */
+        final boolean anchored;
+        /** 没有否定规则时使用的快速路径：不区分类型/仅目录的名称，以及扩展名 */
+        private final Set<String> names = new HashSet<>();
+        private final Set<String> dirNames = new HashSet<>();
+        private final Set<String> extensions = new HashSet<>();
+        private final List<Rule> general = new ArrayList<>();
+
+        private RuleSet(List<Rule> rules) {
+            this.rules = rules.toArray(new Rule[0]);
+            boolean negation = false;
+            boolean anchored = false;
+            for (Rule rule : rules) {
+                negation |= rule.negated;
+                anchored |= rule.anchored;
+            }
+            this.hasNegation = negation;
+            this.anchored = anchored;
+            if (!negation) {
+                for (Rule rule : rules) {
+                    if (!rule.anchored && rule.segments[0].literal != null) {
+                        (rule.dirOnly ? dirNames : names).add(rule.segments[0].literal);
+                    } else if (!rule.anchored && !rule.dirOnly && rule.segments[0].extension != null) {
+                        extensions.add(rule.segments[0].extension);
+                    } else {
+                        general.add(rule);
+                    }
+                }
+            }
+        }
+
+        static RuleSet forDirectory(Path dir) {
+            Path[] files = new Path[RULE_FILES.length];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = dir.resolve(RULE_FILES[i]);
+            }
+            return read(files);
+        }
+
+        /**
+         * 读取规则文件
+         * @return 没有任何规则时返回 null
+         */
+        static RuleSet read(Path[] files) {
+            List<Rule> rules = new ArrayList<>();
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Rule rule = Rule.parse(line);
+                        if (rule != null) {
+                            rules.add(rule);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // 无法读取的规则文件按空文件处理
+                }
+            }
+            return rules.isEmpty() ? null : new RuleSet(rules);
+        }
+
+        /**
+         * @param segments 路径相对规则所在目录的路径段，没有含 / 的规则时为 null
+         * @return 1 表示忽略，-1 表示被否定规则重新包含，0 表示没有规则匹配
+         */
+        int match(String[] segments, String name, boolean directory) {
+            if (!hasNegation) {
+                if (names.contains(name) || directory && dirNames.contains(name)) {
+                    return 1;
+                }
+                int dot = name.lastIndexOf('.');
+                if (dot >= 0 && !extensions.isEmpty() && extensions.contains(name.substring(dot + 1))) {
+                    return 1;
+                }
+                for (Rule rule : general) {
+                    if (rule.matches(segments, name, directory)) {
+                        return 1;
+                    }
+                }
+                return 0;
+            }
+            for (int i = rules.length - 1; i >= 0; i--) {
+                if (rules[i].matches(segments, name, directory)) {
+                    return rules[i].negated ? -1 : 1;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 一条规则，编译为路径段序列
+     */
+    static final class Rule {
+        final boolean negated;
+        final boolean dirOnly;
+        /** 含有 / 的规则相对规则文件所在目录匹配，否则匹配任意层级的名称 */
+        final boolean anchored;
+        final Segment[] segments;
+
+        private Rule(boolean negated, boolean dirOnly, boolean anchored, Segment[] segments) {
+            this.negated = negated;
+            this.dirOnly = dirOnly;
+            this.anchored = anchored;
+            this.segments = segments;
+        }
+
+        static Rule parse(String line) {
+            String text = trimTrailingSpaces(line);
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            boolean negated = false;
+            if (text.startsWith("!")) {
+                negated = true;
+                text = text.substring(1);
+            } else if (text.startsWith("\\!") || text.startsWith("\\#")) {
+                text = text.substring(1);
+            }
+            boolean dirOnly = false;
+            if (text.endsWith("/")) {
+                dirOnly = true;
+                text = text.substring(0, text.length() - 1);
+            }
+            boolean anchored = text.contains("/");
+            if (text.startsWith("/")) {
+                text = text.substring(1);
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            String[] parts = text.split("/+");
+            Segment[] segments = new Segment[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                segments[i] = Segment.compile(parts[i]);
+            }
+            if (anchored && segments.length == 2 && segments[0].doubleStar) {
+                // **/name 等价于不带 / 的 name
+                return new Rule(negated, dirOnly, false, new Segment[]{segments[1]});
+            }
+            return new Rule(negated, dirOnly, anchored, segments);
+        }
+
+        private static String trimTrailingSpaces(String line) {
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            return line.substring(0, end);
+        }
+
+        boolean matches(String[] path, String name, boolean directory) {
+            if (dirOnly && !directory) {
+                return false;
+            }
+            if (!anchored) {
+                return segments[0].matches(name);
+            }
+            return matchFrom(0, path, 0);
+        }
+
+        private boolean matchFrom(int si, String[] path, int pi) {
+            while (si < segments.length) {
+                Segment segment = segments[si];
+                if (segment.doubleStar) {
+                    if (si == segments.length - 1) {
+                        // 末尾的 ** 匹配其下的全部内容，至少一段
+                        return pi < path.length;
+                    }
+                    for (int k = pi; k <= path.length; k++) {
+                        if (matchFrom(si + 1, path, k)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                if (pi >= path.length || !segment.matches(path[pi])) {
+                    return false;
+                }
+                si++;
+                pi++;
+            }
+            return pi == path.length;
+        }
+    }
+
+    /**
+     * 一个路径段的通配符模式：*、?、[...]（支持范围和 ! 或 ^ 取反）以及 \ 转义
+     */
+    static final class Segment {
+        private static final char STAR = 0;
+        private static final char ANY = 1;
+        private static final char CLASS = 2;
+        private static final char LITERAL = 3;
+
+        final boolean doubleStar;
+        /** 不含通配符时的字面量 */
+        final String literal;
+        /** 形如 *.ext 时的扩展名 */
+        final String extension;
+        private final char[] types;
+        private final char[] chars;
+        private final char[][] classes;
+        private final boolean[] negatedClasses;
+
+        private Segment(boolean doubleStar, String literal, String extension, char[] types, char[] chars,
+                        char[][] classes, boolean[] negatedClasses) {
+            this.doubleStar = doubleStar;
+            this.literal = literal;
+            this.extension = extension;
+            this.types = types;
+            this.chars = chars;
+            this.classes = classes;
+            this.negatedClasses = negatedClasses;
+        }
+
+        static Segment compile(String pattern) {
+            if (pattern.equals("**")) {
+                return new Segment(true, null, null, null, null, null, null);
+            }
+            int n = pattern.length();
+            char[] types = new char[n];
+            char[] chars = new char[n];
+            char[][] classes = new char[n][];
+            boolean[] negatedClasses = new boolean[n];
+            int count = 0;
+            boolean wildcard = false;
+            StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                char c = pattern.charAt(i);
+                if (c == '\\' && i + 1 < n) {
+                    types[count] = LITERAL;
+                    chars[count++] = pattern.charAt(++i);
+                    literal.append(pattern.charAt(i));
+                } else if (c == '*') {
+                    wildcard = true;
+                    if (count == 0 || types[count - 1] != STAR) {
+                        types[count++] = STAR;
+                    }
+                } else if (c == '?') {
+                    wildcard = true;
+                    types[count++] = ANY;
+                } else if (c == '[' && pattern.indexOf(']', i + 2) > 0) {
+                    wildcard = true;
+                    int end = pattern.indexOf(']', i + 2);
+                    String body = pattern.substring(i + 1, end);
+                    boolean negated = body.startsWith("!") || body.startsWith("^");
+                    if (negated) {
+                        body = body.substring(1);
+                    }
+                    types[count] = CLASS;
+                    classes[count] = expandClass(body);
+                    negatedClasses[count++] = negated;
+                    i = end;
+                } else {
+                    types[count] = LITERAL;
+                    chars[count++] = c;
+                    literal.append(c);
+                }
+            }
+            String extension = null;
+            if (count > 1 && types[0] == STAR) {
+                boolean rest = true;
+                for (int i = 1; i < count; i++) {
+                    rest &= types[i] == LITERAL;
+                }
+                String suffix = new String(chars, 1, count - 1);
+                if (rest && suffix.startsWith(".") && suffix.indexOf('.', 1) < 0 && suffix.length() > 1) {
+                    extension = suffix.substring(1);
+                }
+            }
+            return new Segment(false, wildcard ? null : literal.toString(), extension,
+                    Arrays.copyOf(types, count), Arrays.copyOf(chars, count),
+                    Arrays.copyOf(classes, count), Arrays.copyOf(negatedClasses, count));
+        }
+
+        private static char[] expandClass(String body) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < body.length(); i++) {
+                char c = body.charAt(i);
+                if (i + 2 < body.length() && body.charAt(i + 1) == '-') {
+                    for (char x = c; x <= body.charAt(i + 2); x++) {
+                        sb.append(x);
+                    }
+                    i += 2;
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString().toCharArray();
+        }
+
+        boolean matches(String name) {
+            if (literal != null) {
+                return literal.equals(name);
+            }
+            // 贪婪匹配，失败时回退到最近一个 * 多吞一个字符
+            int p = 0;
+            int s = 0;
+            int starP = -1;
+            int starS = 0;
+            int n = types.length;
+            while (s < name.length()) {
+                if (p < n && types[p] != STAR && matchOne(p, name.charAt(s))) {
+                    p++;
+                    s++;
+                } else if (p < n && types[p] == STAR) {
+                    starP = p++;
+                    starS = s;
+                } else if (starP >= 0) {
+                    p = starP + 1;
+                    s = ++starS;
+                } else {
+                    return false;
+                }
+            }
+            while (p < n && types[p] == STAR) {
+                p++;
+            }
+            return p == n;
+        }
+
+        private boolean matchOne(int p, char c) {
+            switch (types[p]) {
+                case ANY:
+                    return true;
+                case CLASS:
+                    boolean found = false;
+                    for (char x : classes[p]) {
+                        if (x == c) {
+                            found = true;
+                            break;
+                        }
+                    }
+                    return found != negatedClasses[p];
+                default:
+                    return chars[p] == c;
+            }
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.tool.search;
+
+import com.tool.metrics.CommandStats;
+import com.tool.metrics.FileScanEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 字节级行扫描器
+ * 小文件读入线程内复用的直接缓冲区，大文件使用内存映射；换行和字面量匹配都在字节上完成，
+ * 只有需要输出或正则匹配的行才会被解码。非 UTF-8 文件按替换字符解码，不会被跳过。
+ * 实例不是线程安全的，通过 {@link #forCurrentThread()} 获取当前线程的实例
+ */
+public class LineScanner {
+    /** 超过该大小的文件使用内存映射 */
+    static final int MAP_THRESHOLD = 1 << 20;
+    /** 单次映射的最大区域，超大文件按行边界分段映射 */
+    static final int MAP_REGION = 1 << 28;
+    /** 用于判断二进制文件的前缀长度 */
+    static final int SNIFF_LENGTH = 8000;
+
+    private static final ThreadLocal<LineScanner> SCANNERS = ThreadLocal.withInitial(LineScanner::new);
+
+    private ByteBuffer pooled = ByteBuffer.allocateDirect(64 * 1024);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer chars = CharBuffer.allocate(1024);
+    private final Region region = new Region();
+    /** 单次映射的最大区域 */
+    private final int mapRegion;
+    /** 当前扫描的统计，只在 scan 期间有效 */
+    private boolean timed;
+    /** 是否需要统计行数；统计和事件都未启用时不为计数单独遍历小文件 */
+    private boolean countLines;
+    private long readNanos;
+    private long matchNanos;
+    private long lines;
+    private boolean binary;
+
+    /**
+     * 扫描区域的处理逻辑
+     */
+    @FunctionalInterface
+    public interface RegionVisitor {
+        void visit(Region region);
+    }
+
+    /**
+     * 行处理逻辑
+     */
+    @FunctionalInterface
+    public interface LineVisitor {
+        /**
+         * @param lineNumber 行号，从1开始
+         * @param start 行首偏移
+         * @param end 行尾偏移（不含换行符）
+         */
+        void visit(long lineNumber, int start, int end);
+    }
+
+    private LineScanner() {
+        this(MAP_REGION);
+    }
+
+    /**
+     * 指定单次映射区域大小的扫描器，用于测试分段映射
+     * @param mapRegion 单次映射的最大区域
+     */
+    LineScanner(int mapRegion) {
+        this.mapRegion = mapRegion;
+    }
+
+    /**
+     * 获取当前线程的扫描器
+     */
+    public static LineScanner forCurrentThread() {
+        return SCANNERS.get();
+    }
+
+    /**
+     * 扫描文件。文件按完整的行切分为一个或多个区域依次交给 visitor
+     * @param file 文件路径
+     * @param visitor 区域处理逻辑，区域内容只在回调期间有效
+     * @return 文件被识别为二进制文件而跳过时返回 false
+     * @throws IOException 读取失败时抛出
+     */
+    public boolean scan(Path file, RegionVisitor visitor) throws IOException {
+        CommandStats stats = CommandStats.current();
+        FileScanEvent event = new FileScanEvent();
+        event.begin();
+        timed = stats != null;
+        countLines = timed || event.isEnabled();
+        readNanos = 0;
+        matchNanos = 0;
+        lines = 0;
+        binary = false;
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            return scan(channel, size, visitor);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = file.toString();
+                event.size = size;
+                event.lines = lines;
+                event.binary = binary;
+                event.commit();
+            }
+            if (stats != null) {
+                stats.add(binary ? CommandStats.Counter.FILES_SKIPPED : CommandStats.Counter.BYTES_READ,
+                        binary ? 1 : size);
+                stats.add(CommandStats.Counter.LINES_SCANNED, lines);
+                stats.addTime(CommandStats.Phase.READ, readNanos);
+                stats.addTime(CommandStats.Phase.MATCH, matchNanos);
+            }
+        }
+    }
+
+    private boolean scan(FileChannel channel, long size, RegionVisitor visitor) throws IOException {
+        if (size == 0) {
+            return true;
+        }
+        long start = timed ? System.nanoTime() : 0;
+        if (size <= MAP_THRESHOLD) {
+            ByteBuffer buf = readFully(channel, (int) size);
+            if (isBinary(buf, buf.limit())) {
+                binary = true;
+                return false;
+            }
+            region.reset(buf, 0, buf.limit(), 1);
+            visit(visitor, start);
+            if (countLines) {
+                lines += region.lineCount();
+            }
+            return true;
+        }
+
+        long position = 0;
+        long line = 1;
+        boolean first = true;
+        while (position < size) {
+            int length = (int) Math.min(mapRegion, size - position);
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (first && isBinary(buf, length)) {
+                binary = true;
+                return false;
+            }
+            first = false;
+            int end = length;
+            if (position + length < size) {
+                // 截断到最后一个完整行，剩余部分留给下一段
+                int lastNewline = lastIndexOf(buf, (byte) '\n', length);
+                if (lastNewline >= 0) {
+                    end = lastNewline + 1;
+                }
+            }
+            region.reset(buf, 0, end, line);
+            visit(visitor, start);
+            line = region.lineAt(end);
+            // 下一段的起始行号已经统计了本段的换行，行数不需要再次遍历
+            lines += region.lineCount();
+            position += end;
+            start = timed ? System.nanoTime() : 0;
+        }
+        return true;
+    }
+
+    /**
+     * 处理已读入的区域；统计时 readStart 之后的时间计为读取，回调的时间计为匹配
+     */
+    private void visit(RegionVisitor visitor, long readStart) {
+        if (!timed) {
+            visitor.visit(region);
+            return;
+        }
+        long start = System.nanoTime();
+        readNanos += start - readStart;
+        visitor.visit(region);
+        matchNanos += System.nanoTime() - start;
+    }
+
+    private ByteBuffer readFully(FileChannel channel, int size) throws IOException {
+        if (pooled.capacity() < size) {
+            pooled = ByteBuffer.allocateDirect(Integer.highestOneBit(size - 1) << 1);
+        }
+        ByteBuffer buf = pooled;
+        buf.clear().limit(size);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                break;
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * 根据前缀中是否含有 NUL 字节判断是否为二进制文件
+     */
+    static boolean isBinary(ByteBuffer buf, int length) {
+        int limit = Math.min(length, SNIFF_LENGTH);
+        for (int i = 0; i < limit; i++) {
+            if (buf.get(i) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在 [from, to) 范围内查找字节序列
+     * @return 首次出现的偏移，未找到返回 -1
+     */
+    public static int indexOf(ByteBuffer buf, byte[] needle, int from, int to) {
+        if (needle.length == 0) {
+            return from < to ? from : -1;
+        }
+        byte first = needle[0];
+        int last = to - needle.length;
+        for (int i = from; i <= last; i++) {
+            if (buf.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < needle.length && buf.get(i + j) == needle[j]) {
+                j++;
+            }
+            if (j == needle.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 在 [from, to) 范围内按 ASCII 忽略大小写查找字节序列，非 ASCII 字节按原值比较
+     * @param lowerNeedle 已转换为 ASCII 小写的字节序列
+     * @return 首次出现的偏移，未找到返回 -1
+     */
+    public static int indexOfIgnoreCase(ByteBuffer buf, byte[] lowerNeedle, int from, int to) {
+        if (lowerNeedle.length == 0) {
+            return from < to ? from : -1;
+        }
+        byte first = lowerNeedle[0];
+        byte firstUpper = toUpperAscii(first);
+        int last = to - lowerNeedle.length;
+        for (int i = from; i <= last; i++) {
+            byte b = buf.get(i);
+            if (b != first && b != firstUpper) {
+                continue;
+            }
+            int j = 1;
+            while (j < lowerNeedle.length && toLowerAscii(buf.get(i + j)) == lowerNeedle[j]) {
+                j++;
+            }
+            if (j == lowerNeedle.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static byte toUpperAscii(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    /**
+     * 在 [from, to) 范围内查找单个字节
+     */
+    public static int indexOf(ByteBuffer buf, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer buf, byte b, int to) {
+        for (int i = to - 1; i >= 0; i--) {
+            if (buf.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 文件中由完整行组成的一段内容
+     */
+    public final class Region {
+        private ByteBuffer buf;
+        private int start;
+        private int end;
+        private long firstLine;
+        /** 已统计换行的位置及该位置所在的行号 */
+        private int countedPos;
+        private long countedLine;
+
+        void reset(ByteBuffer buf, int start, int end, long firstLine) {
+            this.buf = buf;
+            this.start = start;
+            this.end = end;
+            this.firstLine = firstLine;
+            this.countedPos = start;
+            this.countedLine = firstLine;
+        }
+
+        /**
+         * 区域中的行数，末尾没有换行的最后一行也计入。
+         * 回调已经遍历或统计过的部分不再重复统计
+         */
+        long lineCount() {
+            long counted = lineAt(end) - firstLine;
+            if (end > start && buf.get(end - 1) != '\n') {
+                counted++;
+            }
+            return counted;
+        }
+
+        public ByteBuffer buffer() {
+            return buf;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        /**
+         * 计算偏移所在的行号。偏移需单调递增，换行只统计一次
+         */
+        public long lineAt(int offset) {
+            for (int i = countedPos; i < offset; i++) {
+                if (buf.get(i) == '\n') {
+                    countedLine++;
+                }
+            }
+            countedPos = Math.max(countedPos, offset);
+            return countedLine;
+        }
+
+        /**
+         * 偏移所在行的行首
+         */
+        public int lineStart(int offset) {
+            int i = offset;
+            while (i > start && buf.get(i - 1) != '\n') {
+                i--;
+            }
+            return i;
+        }
+
+        /**
+         * 偏移所在行的行尾（换行符位置或区域末尾）
+         */
+        public int lineEnd(int offset) {
+            int newline = indexOf(buf, (byte) '\n', offset, end);
+            return newline < 0 ? end : newline;
+        }
+
+        /**
+         * 从上次统计的位置开始逐行遍历到区域末尾
+         */
+        public void forEachLine(LineVisitor visitor) {
+            int pos = countedPos;
+            long line = countedLine;
+            while (pos < end) {
+                int lineEnd = lineEnd(pos);
+                visitor.visit(line, pos, lineEnd);
+                pos = lineEnd + 1;
+                line++;
+            }
+            if (end > countedPos) {
+                countedLine = buf.get(end - 1) == '\n' ? line : line - 1;
+                countedPos = end;
+            }
+        }
+
+        /**
+         * 将一段字节解码为字符，去掉行尾的 '\r'。
+         * 返回的缓冲区在下一次调用前有效
+         */
+        public CharSequence chars(int from, int to) {
+            if (to > from && buf.get(to - 1) == '\r') {
+                to--;
+            }
+            int maxChars = to - from;
+            if (chars.capacity() < maxChars) {
+                chars = CharBuffer.allocate(Math.max(maxChars, chars.capacity() * 2));
+            }
+            ByteBuffer slice = buf.duplicate();
+            slice.limit(to).position(from);
+            chars.clear();
+            decoder.reset();
+            decoder.decode(slice, chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            return chars;
+        }
+
+        /**
+         * 将一段字节解码为字符串
+         */
+        public String decode(int from, int to) {
+            return chars(from, to).toString();
+        }
+    }
+}
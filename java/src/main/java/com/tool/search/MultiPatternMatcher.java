@@ -0,0 +1,176 @@
+package com.tool.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * 多模式字面量匹配器（Aho-Corasick）
+ * 将所有模式的 UTF-8 字节构建为一个确定性自动机，一次扫描即可找出所有模式的出现位置。
+ * 只有模式中出现过的字节拥有独立的转移列，其余字节共用一列，以控制转移表大小。
+ * 匹配不跨行：遇到换行时自动机回到初始状态
+ */
+public class MultiPatternMatcher {
+    private final String[] patterns;
+    /** 字节到转移列的映射，0 为模式中未出现的字节 */
+    private final int[] byteClasses = new int[256];
+    private final int width;
+    /** 完整的转移表，下标为 state * width + class */
+    private final int[] delta;
+    /** 每个状态可输出的模式编号（含后缀链上的模式），无输出为 null */
+    private final int[][] outputs;
+
+    /**
+     * 匹配回调
+     */
+    @FunctionalInterface
+    public interface MatchVisitor {
+        /**
+         * @param patterns 在该位置结束的模式编号
+         * @param end 匹配结束偏移（不含）
+         */
+        void match(int[] patterns, int end);
+    }
+
+    /**
+     * 构造函数，空模式和重复模式会被忽略
+     * @param patterns 模式列表
+     */
+    public MultiPatternMatcher(List<String> patterns) {
+        List<String> unique = new ArrayList<>();
+        for (String p : new LinkedHashSet<>(patterns)) {
+            if (!p.isEmpty()) {
+                unique.add(p);
+            }
+        }
+        this.patterns = unique.toArray(new String[0]);
+
+        byte[][] encoded = new byte[this.patterns.length][];
+        int classCount = 1;
+        int maxStates = 1;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = this.patterns[i].getBytes(StandardCharsets.UTF_8);
+            maxStates += encoded[i].length;
+            for (byte b : encoded[i]) {
+                int u = b & 0xff;
+                if (u != '\n' && byteClasses[u] == 0) {
+                    byteClasses[u] = classCount++;
+                }
+            }
+        }
+        this.width = classCount;
+
+        // 构建字典树，-1 表示没有边
+        int[] trie = new int[maxStates * width];
+        Arrays.fill(trie, -1);
+        List<List<Integer>> terminal = new ArrayList<>();
+        terminal.add(null);
+        int states = 1;
+        for (int i = 0; i < encoded.length; i++) {
+            int state = 0;
+            boolean valid = true;
+            for (byte b : encoded[i]) {
+                if (b == '\n') {
+                    // 含换行的模式永远无法在单行内匹配
+                    valid = false;
+                    break;
+                }
+                int slot = state * width + byteClasses[b & 0xff];
+                if (trie[slot] < 0) {
+                    trie[slot] = states++;
+                    terminal.add(null);
+                }
+                state = trie[slot];
+            }
+            if (valid) {
+                if (terminal.get(state) == null) {
+                    terminal.set(state, new ArrayList<>());
+                }
+                terminal.get(state).add(i);
+            }
+        }
+
+        // 广度优先计算失败链接，同时把字典树补全为完整的转移表
+        this.delta = Arrays.copyOf(trie, states * width);
+        this.outputs = new int[states][];
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < width; c++) {
+            int next = delta[c];
+            if (next < 0) {
+                delta[c] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        outputs[0] = null;
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = merge(terminal.get(state), outputs[fail[state]]);
+            for (int c = 0; c < width; c++) {
+                int slot = state * width + c;
+                int next = delta[slot];
+                if (next < 0) {
+                    delta[slot] = delta[fail[state] * width + c];
+                } else {
+                    fail[next] = delta[fail[state] * width + c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        if (own == null) {
+            return inherited;
+        }
+        int[] result = new int[own.size() + (inherited == null ? 0 : inherited.length)];
+        int i = 0;
+        for (int id : own) {
+            result[i++] = id;
+        }
+        if (inherited != null) {
+            System.arraycopy(inherited, 0, result, i, inherited.length);
+        }
+        return result;
+    }
+
+    /**
+     * 有效模式数量
+     */
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * 获取模式原文
+     */
+    public String pattern(int id) {
+        return patterns[id];
+    }
+
+    /**
+     * 扫描 [from, to) 范围内的字节，对每个存在匹配的位置调用 visitor
+     */
+    public void find(ByteBuffer buf, int from, int to, MatchVisitor visitor) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            int b = buf.get(i) & 0xff;
+            if (b == '\n') {
+                state = 0;
+                continue;
+            }
+            state = delta[state * width + byteClasses[b]];
+            int[] out = outputs[state];
+            if (out != null) {
+                visitor.match(out, i + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.tool.search;
+
+import com.tool.metrics.CommandStats;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 并行目录遍历器
+ * 基于 ForkJoinPool，每个目录作为一个任务，空闲线程从其他线程的队列中窃取子目录任务。
+ * 有序模式下按文件名排序遍历，输出与线程数无关；无序模式下每个文件的结果连续输出，不会与其他文件交错。
+ * 无序模式下一个文件的结果超过 BATCH_SIZE 条时分批输出，使输出端的背压在扫描过程中生效，
+ * 单个文件的大量结果不会全部积压在内存中
+ */
+public class ParallelTreeWalker {
+    private static final Comparator<Path> BY_NAME = Comparator.comparing(p -> p.getFileName().toString());
+    /** 无序模式下单个文件每积累多少条结果输出一批 */
+    static final int BATCH_SIZE = 1024;
+
+    private final int threads;
+    private final boolean ordered;
+    private Predicate<Path> directoryFilter = dir -> true;
+    private IgnoreRules ignoreRules;
+    private final CommandStats stats = CommandStats.current();
+    /**
+     * 无序模式下输出批次时持有读锁，多个线程可以同时输出；分批输出一个文件期间持有写锁，
+     * 其他文件的结果等待该文件输出完毕
+     */
+    private final ReentrantReadWriteLock batchLock = new ReentrantReadWriteLock();
+
+    /**
+     * 单个文件的处理逻辑
+     * @param <T> 结果类型
+     */
+    @FunctionalInterface
+    public interface FileHandler<T> {
+        /**
+         * 处理文件
+         * @param file 文件路径
+         * @param results 结果收集器
+         * @throws IOException 读取失败时抛出，该文件会被忽略
+         */
+        void handle(Path file, Consumer<T> results) throws IOException;
+    }
+
+    /**
+     * 构造函数。构造时当前线程绑定了 CommandStats 时，遍历过程计入该统计
+     * @param threads 并行线程数
+     * @param ordered 是否按确定顺序输出结果
+     */
+    public ParallelTreeWalker(int threads, boolean ordered) {
+        this.threads = Math.max(1, threads);
+        this.ordered = ordered;
+    }
+
+    /**
+     * 设置子目录过滤条件，返回 false 的目录不会被进入
+     * @param directoryFilter 过滤条件
+     */
+    public void setDirectoryFilter(Predicate<Path> directoryFilter) {
+        this.directoryFilter = directoryFilter;
+    }
+
+    /**
+     * 设置忽略规则，被忽略的文件不处理，被忽略的目录不进入
+     * @param ignoreRules 忽略规则，为 null 时不过滤
+     */
+    public void setIgnoreRules(IgnoreRules ignoreRules) {
+        this.ignoreRules = ignoreRules;
+    }
+
+    /**
+     * 遍历目录树并处理其中的每个普通文件
+     * @param root 根目录，也可以是单个文件
+     * @param handler 文件处理逻辑
+     * @param sink 结果输出，调用是串行的
+     * @throws IOException 根路径不可访问时抛出
+     */
+    public <T> void walk(Path root, FileHandler<T> handler, Consumer<? super T> sink) throws IOException {
+        walkFiles(root, handler, results -> {
+            synchronized (sink) {
+                results.forEach(sink);
+            }
+        });
+    }
+
+    /**
+     * 遍历目录树，每个文件的结果作为一批交给 batchSink。
+     * 无序模式下 batchSink 会被多个工作线程同时调用，必须是线程安全的；结果超过 BATCH_SIZE 条的文件分为
+     * 连续的多批，最后以一个空批次表示该文件结束，期间没有其他线程调用 batchSink。
+     * 有序模式下全部结果按顺序作为一批交给 batchSink
+     * @param root 根目录，也可以是单个文件
+     * @param handler 文件处理逻辑
+     * @param batchSink 结果输出，只有分批输出的文件结束时会收到空的批次
+     * @throws IOException 根路径不可访问时抛出
+     */
+    public <T> void walkFiles(Path root, FileHandler<T> handler, Consumer<List<T>> batchSink) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!attrs.isDirectory()) {
+            if (attrs.isRegularFile()) {
+                emit(handleFile(root, handler, ordered ? null : batchSink), batchSink);
+            }
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            emit(pool.invoke(new DirectoryTask<>(root, handler, batchSink)), batchSink);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 处理单个文件
+     * @param batchSink 无序模式下的结果输出，结果在处理过程中分批输出；有序模式下为 null
+     * @return 有序模式下返回文件的全部结果，无序模式下返回空列表
+     */
+    private <T> List<T> handleFile(Path file, FileHandler<T> handler, Consumer<List<T>> batchSink) {
+        FileResults<T> results = new FileResults<>(batchSink);
+        CommandStats previous = stats != null ? CommandStats.bind(stats) : null;
+        try {
+            handler.handle(file, results);
+        } catch (IOException | RuntimeException e) {
+            // 忽略文件读取错误，保留已产生的结果
+        } finally {
+            if (stats != null) {
+                CommandStats.bind(previous);
+                stats.increment(CommandStats.Counter.FILES_VISITED);
+                stats.add(CommandStats.Counter.MATCHES, results.total);
+            }
+        }
+        return results.finish();
+    }
+
+    private <T> void emit(List<T> results, Consumer<List<T>> batchSink) {
+        if (results.isEmpty()) {
+            return;
+        }
+        long start = stats != null ? System.nanoTime() : 0;
+        batchSink.accept(results);
+        if (stats != null) {
+            stats.addTime(CommandStats.Phase.OUTPUT, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 单个文件的结果收集器。无序模式下每积累 BATCH_SIZE 条输出一批，首次分批时取得 batchLock 的写锁
+     * 并持有到文件处理结束，保证同一文件的各批次连续
+     */
+    private final class FileResults<T> implements Consumer<T> {
+        private final Consumer<List<T>> batchSink;
+        private List<T> pending = new ArrayList<>();
+        private long total;
+
+        FileResults(Consumer<List<T>> batchSink) {
+            this.batchSink = batchSink;
+        }
+
+        @Override
+        public void accept(T result) {
+            pending.add(result);
+            total++;
+            if (batchSink != null && pending.size() >= BATCH_SIZE) {
+                if (!batchLock.isWriteLockedByCurrentThread()) {
+                    batchLock.writeLock().lock();
+                }
+                flush();
+            }
+        }
+
+        private void flush() {
+            List<T> batch = pending;
+            pending = new ArrayList<>();
+            emit(batch, batchSink);
+        }
+
+        /**
+         * 文件处理结束：无序模式下输出剩余结果并释放 batchLock
+         */
+        List<T> finish() {
+            if (batchSink == null) {
+                return pending;
+            }
+            if (batchLock.isWriteLockedByCurrentThread()) {
+                try {
+                    flush();
+                    batchSink.accept(Collections.emptyList());
+                } finally {
+                    batchLock.writeLock().unlock();
+                }
+            } else if (!pending.isEmpty()) {
+                batchLock.readLock().lock();
+                try {
+                    flush();
+                } finally {
+                    batchLock.readLock().unlock();
+                }
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    private void skipped(boolean directory) {
+        if (stats != null) {
+            stats.increment(directory ? CommandStats.Counter.DIRS_SKIPPED : CommandStats.Counter.FILES_SKIPPED);
+        }
+    }
+
+    /**
+     * 单个目录的遍历任务。
+     * 有序模式下返回该子树按顺序排列的全部结果；无序模式下结果直接写入 batchSink，返回空列表
+     */
+    private final class DirectoryTask<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final FileHandler<T> handler;
+        private final Consumer<List<T>> batchSink;
+
+        DirectoryTask(Path dir, FileHandler<T> handler, Consumer<List<T>> batchSink) {
+            this.dir = dir;
+            this.handler = handler;
+            this.batchSink = batchSink;
+        }
+
+        @Override
+        protected List<T> compute() {
+            long start = stats != null ? System.nanoTime() : 0;
+            List<Path> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    entries.add(entry);
+                }
+            } catch (IOException | RuntimeException e) {
+                // 无法读取的目录直接跳过
+                skipped(true);
+                return Collections.emptyList();
+            }
+            if (stats != null) {
+                stats.increment(CommandStats.Counter.DIRS_VISITED);
+            }
+            if (ordered) {
+                entries.sort(BY_NAME);
+            }
+
+            // 有序模式下 parts 依次保存文件结果(List)或子目录任务，最后按原顺序拼接
+            List<Object> parts = ordered ? new ArrayList<>() : null;
+            List<DirectoryTask<T>> subtasks = new ArrayList<>();
+            // 文件处理和输出的耗时另有统计，从遍历耗时中扣除
+            long fileNanos = 0;
+            for (Path entry : entries) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (ignoreRules != null && ignoreRules.isIgnored(entry, attrs.isDirectory())) {
+                    skipped(attrs.isDirectory());
+                    continue;
+                }
+                if (attrs.isDirectory()) {
+                    if (!directoryFilter.test(entry)) {
+                        skipped(true);
+                        continue;
+                    }
+                    DirectoryTask<T> task = new DirectoryTask<>(entry, handler, batchSink);
+                    task.fork();
+                    subtasks.add(task);
+                    if (ordered) {
+                        parts.add(task);
+                    }
+                } else if (attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(entry)) {
+                    long fileStart = stats != null ? System.nanoTime() : 0;
+                    List<T> results = handleFile(entry, handler, ordered ? null : batchSink);
+                    if (ordered) {
+                        parts.add(results);
+                    }
+                    if (stats != null) {
+                        fileNanos += System.nanoTime() - fileStart;
+                    }
+                }
+            }
+            if (stats != null) {
+                stats.addTime(CommandStats.Phase.WALK, System.nanoTime() - start - fileNanos);
+            }
+
+            if (!ordered) {
+                for (DirectoryTask<T> task : subtasks) {
+                    task.join();
+                }
+                return Collections.emptyList();
+            }
+            List<T> collected = new ArrayList<>();
+            for (Object part : parts) {
+                if (part instanceof DirectoryTask) {
+                    @SuppressWarnings("unchecked")
+                    DirectoryTask<T> task = (DirectoryTask<T>) part;
+                    collected.addAll(task.join());
+                } else {
+                    @SuppressWarnings("unchecked")
+                    List<T> results = (List<T>) part;
+                    collected.addAll(results);
+                }
+            }
+            return collected;
+        }
+    }
+}
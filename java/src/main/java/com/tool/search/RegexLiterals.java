@@ -0,0 +1,291 @@
+package com.tool.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 正则表达式字面量分析
+ * 保守地提取匹配成功时必然出现在同一行中的字面量片段。无法确定时返回空列表，
+ * 调用方应退回到全量扫描。分析不改变匹配结果，只用于缩小候选范围
+ */
+public final class RegexLiterals {
+    private final List<String> required;
+    private final boolean caseInsensitive;
+
+    private RegexLiterals(List<String> required, boolean caseInsensitive) {
+        this.required = required;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * 必然出现的字面量片段
+     */
+    public List<String> required() {
+        return required;
+    }
+
+    /**
+     * 字面量是否需要按 ASCII 忽略大小写比较
+     */
+    public boolean caseInsensitive() {
+        return caseInsensitive;
+    }
+
+    /**
+     * 分析正则表达式
+     * @param regex 正则表达式原文
+     * @param flags 编译时使用的 Pattern 标志
+     * @return 分析结果
+     */
+    public static RegexLiterals analyze(String regex, int flags) {
+        boolean ignoreCase = (flags & Pattern.CASE_INSENSITIVE) != 0;
+        if ((flags & (Pattern.LITERAL | Pattern.COMMENTS | Pattern.UNICODE_CASE
+                | Pattern.UNICODE_CHARACTER_CLASS | Pattern.CANON_EQ)) != 0) {
+            return none(ignoreCase);
+        }
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        int n = regex.length();
+        while (i < n) {
+            // 按码点处理，量词作用于整个增补字符而不是其低位代理
+            int c = regex.codePointAt(i);
+            switch (c) {
+                case '|':
+                    // 顶层分支：任何一个分支都可能匹配，无法确定必然出现的片段
+                    return none(ignoreCase);
+                case '\\': {
+                    if (i + 1 >= n) {
+                        return none(ignoreCase);
+                    }
+                    int next = regex.codePointAt(i + 1);
+                    if (next == 'Q') {
+                        int end = regex.indexOf("\\E", i + 2);
+                        String quoted = end < 0 ? regex.substring(i + 2) : regex.substring(i + 2, end);
+                        i = end < 0 ? n : end + 2;
+                        if (!quoted.isEmpty() && quantifierAt(regex, i)) {
+                            // 量词只作用于引用块的最后一个字符（码点）
+                            int last = quoted.codePointBefore(quoted.length());
+                            current.append(quoted, 0, quoted.length() - Character.charCount(last));
+                            i = applyQuantifier(regex, i, current, literals, last);
+                        } else {
+                            current.append(quoted);
+                        }
+                        continue;
+                    }
+                    i += 1 + Character.charCount(next);
+                    if (Character.isLetterOrDigit(next)) {
+                        // \d、\w、\b、\x41、反向引用等都不作为字面量处理
+                        flush(current, literals);
+                        i = skipQuantifier(regex, skipEscapeArgument(regex, i, next));
+                        continue;
+                    }
+                    i = appendChar(regex, i, next, current, literals);
+                    continue;
+                }
+                case '(': {
+                    int close = findGroupEnd(regex, i);
+                    if (close < 0) {
+                        return none(ignoreCase);
+                    }
+                    String group = regex.substring(i, close + 1);
+                    if (group.matches("\\(\\?[a-zA-Z]*\\)")) {
+                        // 内联标志，例如 (?i)
+                        String letters = group.substring(2, group.length() - 1);
+                        // U 同时启用 Unicode 大小写折叠
+                        if (letters.contains("x") || letters.contains("u") || letters.contains("U")) {
+                            return none(ignoreCase);
+                        }
+                        if (letters.contains("i")) {
+                            if (i != 0) {
+                                // 标志只作用于后续部分，保守起见放弃分析
+                                return none(true);
+                            }
+                            ignoreCase = true;
+                        }
+                        i = close + 1;
+                        continue;
+                    }
+                    flush(current, literals);
+                    i = skipQuantifier(regex, close + 1);
+                    continue;
+                }
+                case '[': {
+                    int close = findClassEnd(regex, i);
+                    if (close < 0) {
+                        return none(ignoreCase);
+                    }
+                    flush(current, literals);
+                    i = skipQuantifier(regex, close + 1);
+                    continue;
+                }
+                case '.':
+                case '^':
+                case '$':
+                    flush(current, literals);
+                    i = skipQuantifier(regex, i + 1);
+                    continue;
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    // 没有作用对象的量词：Pattern 接受开头的 {m,n}，整体跳过，其余情况交给 Pattern 报错
+                    flush(current, literals);
+                    i = Math.max(i + 1, skipQuantifier(regex, i));
+                    continue;
+                default:
+                    i = appendChar(regex, i + Character.charCount(c), c, current, literals);
+            }
+        }
+        flush(current, literals);
+        return new RegexLiterals(Collections.unmodifiableList(literals), ignoreCase);
+    }
+
+    private static RegexLiterals none(boolean caseInsensitive) {
+        return new RegexLiterals(Collections.emptyList(), caseInsensitive);
+    }
+
+    /**
+     * 追加一个字面量字符，并处理紧随其后的量词
+     * @param i 字符之后的位置
+     * @param c 字符的码点
+     */
+    private static int appendChar(String regex, int i, int c, StringBuilder current, List<String> literals) {
+        if (quantifierAt(regex, i)) {
+            return applyQuantifier(regex, i, current, literals, c);
+        }
+        current.appendCodePoint(c);
+        return i;
+    }
+
+    /**
+     * 量词作用于字符 c：最少出现一次时保留该字符，之后的片段不再连续
+     */
+    private static int applyQuantifier(String regex, int i, StringBuilder current, List<String> literals, int c) {
+        char q = regex.charAt(i);
+        boolean required = q == '+' || q == '{' && !regex.startsWith("{0", i);
+        if (required) {
+            current.appendCodePoint(c);
+        }
+        flush(current, literals);
+        return skipQuantifier(regex, i);
+    }
+
+    /**
+     * 跳过转义序列的参数部分，例如 \x{...}、\u0041、\p{L}、\k<name>
+     * @param i 转义字母之后的位置
+     */
+    private static int skipEscapeArgument(String regex, int i, int escape) {
+        int n = regex.length();
+        switch (escape) {
+            case 'x':
+                if (i < n && regex.charAt(i) == '{') {
+                    return closing(regex, i, '}');
+                }
+                return Math.min(n, i + 2);
+            case 'u':
+                return Math.min(n, i + 4);
+            case 'c':
+                return Math.min(n, i + 1);
+            case 'p':
+            case 'P':
+            case 'N':
+                if (i < n && regex.charAt(i) == '{') {
+                    return closing(regex, i, '}');
+                }
+                return Math.min(n, i + 1);
+            case 'k':
+                return closing(regex, i, '>');
+            default:
+                if (Character.isDigit(escape)) {
+                    while (i < n && Character.isDigit(regex.charAt(i))) {
+                        i++;
+                    }
+                }
+                return i;
+        }
+    }
+
+    private static int closing(String regex, int i, char close) {
+        int end = regex.indexOf(close, i);
+        return end < 0 ? regex.length() : end + 1;
+    }
+
+    private static boolean quantifierAt(String regex, int i) {
+        if (i >= regex.length()) {
+            return false;
+        }
+        char c = regex.charAt(i);
+        return c == '*' || c == '+' || c == '?' || c == '{' && regex.indexOf('}', i) > 0;
+    }
+
+    /**
+     * 跳过量词及其懒惰/占有修饰符
+     */
+    private static int skipQuantifier(String regex, int i) {
+        if (!quantifierAt(regex, i)) {
+            return i;
+        }
+        if (regex.charAt(i) == '{') {
+            i = regex.indexOf('}', i) + 1;
+        } else {
+            i++;
+        }
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void flush(StringBuilder current, List<String> literals) {
+        if (current.length() > 0) {
+            literals.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private static int findGroupEnd(String regex, int open) {
+        int depth = 0;
+        for (int i = open; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                int close = findClassEnd(regex, i);
+                if (close < 0) {
+                    return -1;
+                }
+                i = close;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int findClassEnd(String regex, int open) {
+        int depth = 0;
+        for (int i = open; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+                // 紧跟在 '[' 或 '[^' 之后的 ']' 是普通字符
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tool.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 正则表达式的字面量预过滤
+ * 用 {@link RegexLiterals} 提取匹配行中必然出现的字面量，在原始字节上查找其中最长的一个（锚点），
+ * 只有包含锚点、并且同一行中也包含其余字面量的行才需要解码并交给 java.util.regex；
+ * 不含锚点的区域（通常是整个文件）不会被解码。忽略大小写时按 ASCII 折叠比较，
+ * 与未指定 UNICODE_CASE 的 Pattern 语义一致。过滤只排除不可能匹配的行，不改变匹配结果
+ */
+public final class RegexPrefilter {
+    /** 按长度从长到短排列，第一个为锚点 */
+    private final byte[][] literals;
+    private final boolean ignoreCase;
+
+    private RegexPrefilter(byte[][] literals, boolean ignoreCase) {
+        this.literals = literals;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * 为正则表达式创建预过滤
+     * @return 没有可用字面量时返回 null，调用方应逐行匹配
+     */
+    public static RegexPrefilter of(Pattern pattern) {
+        RegexLiterals analysis = RegexLiterals.analyze(pattern.pattern(), pattern.flags());
+        List<byte[]> usable = new ArrayList<>();
+        for (String literal : analysis.required()) {
+            // 逐行匹配时行内容不含换行符；无效字节解码为替换字符，在原始字节中找不到
+            if (literal.indexOf('\n') >= 0 || literal.indexOf('\r') >= 0 || literal.indexOf('\uFFFD') >= 0) {
+                continue;
+            }
+            byte[] bytes = literal.getBytes(StandardCharsets.UTF_8);
+            if (analysis.caseInsensitive()) {
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = LineScanner.toLowerAscii(bytes[i]);
+                }
+            }
+            usable.add(bytes);
+        }
+        if (usable.isEmpty()) {
+            return null;
+        }
+        usable.sort(Comparator.comparingInt((byte[] b) -> b.length).reversed());
+        return new RegexPrefilter(usable.toArray(new byte[0][]), analysis.caseInsensitive());
+    }
+
+    /**
+     * 在 [from, to) 范围内查找锚点字面量
+     * @return 首次出现的偏移，未找到返回 -1
+     */
+    public int findAnchor(ByteBuffer buf, int from, int to) {
+        return find(buf, literals[0], from, to);
+    }
+
+    /**
+     * 判断 [start, end) 范围内的行是否包含锚点以外的全部字面量
+     */
+    public boolean containsOthers(ByteBuffer buf, int start, int end) {
+        for (int i = 1; i < literals.length; i++) {
+            if (find(buf, literals[i], start, end) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int find(ByteBuffer buf, byte[] literal, int from, int to) {
+        return ignoreCase ? LineScanner.indexOfIgnoreCase(buf, literal, from, to)
+                : LineScanner.indexOf(buf, literal, from, to);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tool.server;
+
+import com.tool.App;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 常驻服务的客户端
+ * 把命令行参数转发给服务并原样输出结果；服务不可用时在当前进程中直接执行。
+ * 只依赖少量类，启动开销远小于完整执行一次命令
+ */
+public class CommandClient {
+    public static void main(String[] args) {
+        Path socket = CommandProtocol.defaultSocket();
+        SocketChannel channel;
+        try {
+            // 只连接当前用户创建的服务，其他用户的同名套接字不会收到工作目录和参数
+            CommandProtocol.checkOwner(socket);
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            App.main(args);
+            return;
+        }
+        try {
+            CommandProtocol.checkPeer(channel);
+        } catch (IOException e) {
+            System.err.println("拒绝使用服务: " + e.getMessage());
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 忽略
+            }
+            App.main(args);
+            return;
+        }
+        try (SocketChannel connection = channel) {
+            OutputStream out = Channels.newOutputStream(connection);
+            CommandProtocol.writeRequest(out, Paths.get(""), args);
+            InputStream in = Channels.newInputStream(connection);
+            byte[] buf = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buf)) > 0) {
+                System.out.write(buf, 0, read);
+            }
+            System.out.flush();
+        } catch (IOException e) {
+            System.out.println("与服务通信时发生错误: " + e.getMessage());
+        }
+    }
+}
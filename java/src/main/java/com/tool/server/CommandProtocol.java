@@ -0,0 +1,189 @@
+package com.tool.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+
+/**
+ * 常驻服务的通信协议
+ * 请求：客户端工作目录的绝对路径、参数个数（十进制）和各个参数依次发送，每项以 NUL 结尾，
+ * 参数可以为空字符串，例如 shell 中 {@code printf '%s\0' "$PWD" "$#" "$@"}。
+ * 响应：命令的原始 UTF-8 输出，服务端写完后关闭连接
+ */
+final class CommandProtocol {
+    /** 参数个数的上限，防止格式错误的请求占用大量内存 */
+    private static final int MAX_ARGS = 1 << 16;
+    private static final Set<PosixFilePermission> PRIVATE_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> PRIVATE_SOCKET = PosixFilePermissions.fromString("rw-------");
+
+    private CommandProtocol() {
+    }
+
+    /**
+     * 一条请求
+     */
+    static final class Request {
+        /** 客户端的工作目录，请求中的相对路径按它解析 */
+        final Path directory;
+        final String[] args;
+
+        Request(Path directory, String[] args) {
+            this.directory = directory;
+            this.args = args;
+        }
+    }
+
+    /**
+     * 默认的 Unix 域套接字路径，可以通过环境变量 TOOL_SOCKET 指定。
+     * 未指定时使用 $XDG_RUNTIME_DIR/env-tool.sock，没有该目录时使用临时目录下只有当前用户可以访问的
+     * env-tool-用户名/tool.sock，其他用户无法抢先创建或连接
+     */
+    static Path defaultSocket() {
+        String configured = System.getenv("TOOL_SOCKET");
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        String runtime = System.getenv("XDG_RUNTIME_DIR");
+        if (runtime != null && !runtime.isEmpty() && Files.isDirectory(Paths.get(runtime))) {
+            return Paths.get(runtime, "env-tool.sock");
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "env-tool-" + System.getProperty("user.name"), "tool.sock");
+    }
+
+    /**
+     * 准备套接字所在的目录：不存在时创建为只有当前用户可以访问（0700）
+     * @throws IOException 目录或已有的套接字文件不属于当前用户时抛出
+     */
+    static void prepareDirectory(Path socket) throws IOException {
+        Path dir = socket.toAbsolutePath().getParent();
+        if (!Files.exists(dir)) {
+            try {
+                Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY));
+            } catch (UnsupportedOperationException e) {
+                Files.createDirectories(dir);
+            }
+        }
+        if (socket.equals(defaultSocket()) && System.getenv("TOOL_SOCKET") == null) {
+            checkOwner(dir);
+        }
+        if (Files.exists(socket, LinkOption.NOFOLLOW_LINKS)) {
+            checkOwner(socket);
+        }
+    }
+
+    /**
+     * 将套接字文件设为只有当前用户可以读写（0600）
+     */
+    static void restrict(Path socket) throws IOException {
+        try {
+            Files.setPosixFilePermissions(socket, PRIVATE_SOCKET);
+        } catch (UnsupportedOperationException e) {
+            // 不支持 POSIX 权限的文件系统只依赖目录和对端检查
+        }
+    }
+
+    /**
+     * 检查文件属于当前用户
+     * @throws IOException 属于其他用户时抛出
+     */
+    static void checkOwner(Path path) throws IOException {
+        String owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS).getName();
+        if (!owner.equals(System.getProperty("user.name"))) {
+            throw new IOException("不属于当前用户（" + owner + "），拒绝使用: " + path);
+        }
+    }
+
+    /**
+     * 检查连接另一端的进程属于当前用户
+     * @throws IOException 属于其他用户时抛出；平台不支持获取对端凭据时不检查
+     */
+    static void checkPeer(SocketChannel channel) throws IOException {
+        UnixDomainPrincipal peer;
+        try {
+            peer = channel.getOption(ExtendedSocketOptions.SO_PEERCRED);
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        String user = peer.user().getName();
+        if (!user.equals(System.getProperty("user.name"))) {
+            throw new IOException("连接的另一端属于其他用户: " + user);
+        }
+    }
+
+    static void writeRequest(OutputStream out, Path directory, String[] args) throws IOException {
+        writeField(out, directory.toAbsolutePath().toString());
+        writeField(out, Integer.toString(args.length));
+        for (String arg : args) {
+            writeField(out, arg);
+        }
+        out.flush();
+    }
+
+    private static void writeField(OutputStream out, String value) throws IOException {
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.write(0);
+    }
+
+    /**
+     * 读取请求
+     * @return 连接在请求结束前关闭时返回 null
+     * @throws IOException 工作目录不是绝对路径或参数个数无效时抛出
+     */
+    static Request readRequest(InputStream in) throws IOException {
+        String directory = readField(in);
+        String count = directory == null ? null : readField(in);
+        if (count == null) {
+            return null;
+        }
+        Path dir = Paths.get(directory);
+        if (!dir.isAbsolute()) {
+            throw new IOException("工作目录不是绝对路径: " + directory);
+        }
+        int argc;
+        try {
+            argc = Integer.parseInt(count);
+        } catch (NumberFormatException e) {
+            throw new IOException("无效的参数个数: " + count);
+        }
+        if (argc < 0 || argc > MAX_ARGS) {
+            throw new IOException("无效的参数个数: " + count);
+        }
+        String[] args = new String[argc];
+        for (int i = 0; i < argc; i++) {
+            args[i] = readField(in);
+            if (args[i] == null) {
+                return null;
+            }
+        }
+        return new Request(dir, args);
+    }
+
+    /**
+     * 读取一个以 NUL 结尾的字段
+     * @return 连接在字段结束前关闭时返回 null
+     */
+    private static String readField(InputStream in) throws IOException {
+        ByteArrayOutputStream current = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == 0) {
+                return current.toString(StandardCharsets.UTF_8);
+            }
+            current.write(b);
+        }
+        return null;
+    }
+}
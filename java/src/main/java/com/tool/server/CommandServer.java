@@ -0,0 +1,195 @@
+package com.tool.server;
+
+import com.tool.App;
+import com.tool.CommandArgs;
+import com.tool.WorkingDirectory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * 常驻服务
+ * 在 Unix 域套接字上接收命令，使用与 App 相同的命令名，在线程池中并发执行并把输出写回连接。
+ * 套接字文件只有当前用户可以访问，并且只接受同一用户的进程发来的请求。
+ * 超过空闲时间没有请求时自动退出
+ */
+public class CommandServer {
+    private static final Logger LOGGER = Logger.getLogger(CommandServer.class.getName());
+
+    private final Path socket;
+    private final int threads;
+    private final long idleTimeoutMillis;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile long lastActivity = System.currentTimeMillis();
+    private volatile boolean stopping;
+
+    /**
+     * 构造函数
+     * @param socket 套接字路径
+     * @param threads 同时执行的请求数
+     * @param idleTimeoutMillis 空闲超时，0 表示不超时
+     */
+    public CommandServer(Path socket, int threads, long idleTimeoutMillis) {
+        this.socket = socket;
+        this.threads = Math.max(1, threads);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * serve 命令入口
+     */
+    public static void serve(String[] args, PrintStream out) {
+        CommandArgs cmd = CommandArgs.parse(args, "--socket", "--threads", "--idle-timeout");
+        try {
+            String socketOption = cmd.option("--socket", null);
+            Path socket = socketOption == null ? CommandProtocol.defaultSocket() : Paths.get(socketOption);
+            long idleSeconds = cmd.intOption("--idle-timeout", 600);
+            CommandServer server = new CommandServer(socket, cmd.threads(), TimeUnit.SECONDS.toMillis(idleSeconds));
+            CommandProtocol.prepareDirectory(socket);
+            out.println("服务已启动: " + socket);
+            out.flush();
+            server.run();
+            out.println("服务已停止。");
+        } catch (Exception e) {
+            out.println("启动服务时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 运行服务直到空闲超时或收到 serve stop 请求
+     * @throws IOException 套接字不可用时抛出
+     */
+    public void run() throws IOException {
+        removeStaleSocket();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "command-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             Selector selector = Selector.open()) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            CommandProtocol.restrict(socket);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            while (!stopping) {
+                selector.select(1000);
+                selector.selectedKeys().clear();
+                SocketChannel client;
+                while ((client = server.accept()) != null) {
+                    SocketChannel connection = client;
+                    active.incrementAndGet();
+                    lastActivity = System.currentTimeMillis();
+                    pool.execute(() -> handle(connection));
+                }
+                if (idleTimeoutMillis > 0 && active.get() == 0
+                        && System.currentTimeMillis() - lastActivity > idleTimeoutMillis) {
+                    LOGGER.info("空闲超时，服务退出");
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    private void handle(SocketChannel connection) {
+        try (SocketChannel channel = connection) {
+            channel.configureBlocking(true);
+            try {
+                CommandProtocol.checkPeer(channel);
+            } catch (IOException e) {
+                LOGGER.warning("拒绝请求: " + e.getMessage());
+                return;
+            }
+            PrintStream out = new PrintStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16),
+                    false, StandardCharsets.UTF_8);
+            CommandProtocol.Request request;
+            try {
+                request = CommandProtocol.readRequest(new BufferedInputStream(Channels.newInputStream(channel)));
+            } catch (IOException e) {
+                out.println("无法解析请求: " + e.getMessage());
+                out.flush();
+                return;
+            }
+            if (request == null) {
+                return;
+            }
+            // 请求中的相对路径按客户端的工作目录解析，而不是服务进程的当前目录
+            Path previous = WorkingDirectory.bind(request.directory);
+            try {
+                execute(request.args, out);
+            } catch (RuntimeException e) {
+                out.println("执行命令时发生错误: " + e.getMessage());
+            } finally {
+                WorkingDirectory.bind(previous);
+            }
+            out.flush();
+        } catch (IOException e) {
+            LOGGER.warning("处理请求失败: " + e.getMessage());
+        } finally {
+            lastActivity = System.currentTimeMillis();
+            active.decrementAndGet();
+        }
+    }
+
+    private void execute(String[] args, PrintStream out) {
+        if (args.length > 0 && args[0].equals("serve")) {
+            if (Arrays.asList(args).contains("stop")) {
+                stopping = true;
+                out.println("服务正在停止。");
+            } else {
+                out.println("服务已在运行: " + socket);
+            }
+            return;
+        }
+        App.run(args, out);
+    }
+
+    /**
+     * 删除上次异常退出遗留的套接字文件；已有服务在运行时报错
+     */
+    private void removeStaleSocket() throws IOException {
+        if (!Files.exists(socket, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        CommandProtocol.checkOwner(socket);
+        boolean running;
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(socket)).close();
+            running = true;
+        } catch (IOException e) {
+            running = false;
+        }
+        if (running) {
+            throw new IOException("已有服务在运行: " + socket);
+        }
+        Files.deleteIfExists(socket);
+    }
+}
@@ -0,0 +1,96 @@
+package com.tool.watch;
+
+import com.tool.output.SearchHit;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按文件保存的匹配结果，用于监视模式下的增量比较，结果中必须带有行内容。
+ * 比较时按匹配行的内容对应新旧结果，只是行号移动的匹配不算变化，内容相同的多行按出现顺序一一对应
+ */
+public final class MatchDiff {
+    private final Map<Path, List<SearchHit>> files = new HashMap<>();
+
+    /**
+     * 变化输出
+     */
+    public interface Changes {
+        void added(SearchHit match);
+
+        void removed(SearchHit match);
+    }
+
+    /**
+     * 记录首次搜索的匹配
+     */
+    public void add(SearchHit match) {
+        files.computeIfAbsent(match.path, k -> new ArrayList<>()).add(match);
+    }
+
+    /**
+     * 用重新扫描的结果替换文件原有的匹配，并报告新增和消失的匹配
+     * @param file 文件路径
+     * @param matches 文件当前的全部匹配，按行号排列
+     */
+    public void update(Path file, List<SearchHit> matches, Changes changes) {
+        List<SearchHit> previous = matches.isEmpty() ? files.remove(file) : files.put(file, matches);
+        if (previous == null) {
+            previous = Collections.emptyList();
+        }
+        Map<String, Deque<SearchHit>> unmatched = new HashMap<>();
+        for (SearchHit match : previous) {
+            unmatched.computeIfAbsent(match.text, k -> new ArrayDeque<>()).add(match);
+        }
+        List<SearchHit> added = new ArrayList<>();
+        for (SearchHit match : matches) {
+            Deque<SearchHit> same = unmatched.get(match.text);
+            if (same == null || same.poll() == null) {
+                added.add(match);
+            }
+        }
+        for (SearchHit match : previous) {
+            Deque<SearchHit> same = unmatched.get(match.text);
+            if (same.peek() == match) {
+                same.poll();
+                changes.removed(match);
+            }
+        }
+        added.forEach(changes::added);
+    }
+
+    /**
+     * 移除已删除的文件或目录下的全部匹配
+     */
+    public void remove(Path path, Changes changes) {
+        Iterator<Map.Entry<Path, List<SearchHit>>> it = files.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, List<SearchHit>> entry = it.next();
+            if (entry.getKey().startsWith(path)) {
+                entry.getValue().forEach(changes::removed);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 用全量重新搜索的结果替换全部匹配
+     */
+    public void replaceAll(MatchDiff fresh, Changes changes) {
+        for (Path file : new ArrayList<>(files.keySet())) {
+            if (!fresh.files.containsKey(file)) {
+                update(file, Collections.emptyList(), changes);
+            }
+        }
+        for (Map.Entry<Path, List<SearchHit>> entry : fresh.files.entrySet()) {
+            update(entry.getKey(), entry.getValue(), changes);
+        }
+    }
+}
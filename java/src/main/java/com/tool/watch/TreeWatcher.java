@@ -0,0 +1,239 @@
+package com.tool.watch;
+
+import com.tool.search.IgnoreRules;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 目录树监视器
+ * 把目录树中的每个目录注册到 WatchService。收到第一个事件后继续收集，直到 quietMillis 内没有新事件
+ * （或距第一个事件超过 maxBatchMillis），再把这一批变化的路径一次交给监听器，
+ * 编辑器保存文件时产生的一连串事件只触发一次重新计算。
+ * 新建的目录会被注册，目录本身和其中已有的文件都作为变化报告；事件队列溢出时重新注册整棵树并通知监听器全量重新计算。
+ * 监视期间忽略规则不会重新加载
+ */
+public final class TreeWatcher implements Closeable {
+    /** 默认的静默时间，足以合并一次保存产生的全部事件 */
+    public static final long DEFAULT_QUIET_MILLIS = 20;
+    /** 持续有事件时，一批最多收集的时间 */
+    public static final long DEFAULT_MAX_BATCH_MILLIS = 250;
+
+    private final WatchService service;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final List<Path> roots = new ArrayList<>();
+    private final long quietMillis;
+    private final long maxBatchMillis;
+    private Predicate<Path> directoryFilter = dir -> true;
+    private IgnoreRules ignoreRules;
+    /** 监视单个文件时只报告该文件 */
+    private Path singleFile;
+
+    /**
+     * 变化处理逻辑
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * 处理一批变化
+         * @param changed 新建、修改或删除的文件，以及新建和删除的目录（删除的目录只报告目录本身）
+         * @param overflow 事件队列是否溢出，溢出时部分变化可能丢失，需要全量重新计算
+         * @return 返回 false 时结束监视
+         * @throws IOException 处理失败时抛出，监视随之结束
+         */
+        boolean changed(Set<Path> changed, boolean overflow) throws IOException;
+    }
+
+    public TreeWatcher() throws IOException {
+        this(DEFAULT_QUIET_MILLIS, DEFAULT_MAX_BATCH_MILLIS);
+    }
+
+    /**
+     * 构造函数
+     * @param quietMillis 静默时间，超过该时间没有新事件时处理当前一批变化
+     * @param maxBatchMillis 一批变化最多收集的时间
+     */
+    public TreeWatcher(long quietMillis, long maxBatchMillis) throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.quietMillis = quietMillis;
+        this.maxBatchMillis = maxBatchMillis;
+    }
+
+    /**
+     * 设置子目录过滤条件，返回 false 的目录不会被监视
+     */
+    public void setDirectoryFilter(Predicate<Path> directoryFilter) {
+        this.directoryFilter = directoryFilter;
+    }
+
+    /**
+     * 设置忽略规则，被忽略的目录不监视，被忽略的文件不报告
+     * @param ignoreRules 忽略规则，为 null 时不过滤
+     */
+    public void setIgnoreRules(IgnoreRules ignoreRules) {
+        this.ignoreRules = ignoreRules;
+    }
+
+    /**
+     * 注册目录树；root 是普通文件时监视其所在目录，只报告该文件的变化
+     * @throws IOException 根路径不可访问或超出系统的监视数量限制时抛出
+     */
+    public void register(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            if (!Files.isRegularFile(root)) {
+                throw new IOException("路径不存在: " + root);
+            }
+            singleFile = root;
+            Path parent = root.toAbsolutePath().getParent();
+            keys.put(parent.register(service, kinds()), parent);
+            return;
+        }
+        roots.add(root);
+        registerTree(root, null);
+    }
+
+    /**
+     * 已注册的目录数
+     */
+    public int directoryCount() {
+        return keys.size();
+    }
+
+    /**
+     * 持续处理变化，直到监听器返回 false 或线程被中断
+     */
+    public void run(Listener listener) throws IOException, InterruptedException {
+        while (true) {
+            WatchKey key = service.take();
+            long first = System.nanoTime();
+            Set<Path> changed = new LinkedHashSet<>();
+            boolean overflow = false;
+            while (key != null) {
+                overflow |= drain(key, changed);
+                long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - first);
+                if (waited >= maxBatchMillis) {
+                    break;
+                }
+                key = service.poll(Math.min(quietMillis, maxBatchMillis - waited), TimeUnit.MILLISECONDS);
+            }
+            if (overflow) {
+                for (Path root : roots) {
+                    registerTree(root, null);
+                }
+            }
+            if ((overflow || !changed.isEmpty()) && !listener.changed(changed, overflow)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 取出一个目录的全部事件
+     * @return 是否发生了溢出
+     */
+    private boolean drain(WatchKey key, Set<Path> changed) throws IOException {
+        Path dir = keys.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (dir == null) {
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            if (singleFile != null) {
+                if (child.equals(singleFile.toAbsolutePath())) {
+                    changed.add(singleFile);
+                }
+                continue;
+            }
+            boolean directory = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+            if (ignoreRules != null && ignoreRules.isIgnored(child, directory)) {
+                continue;
+            }
+            if (directory) {
+                // 目录本身的修改时间变化没有意义，只处理新建的目录
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && directoryFilter.test(child)) {
+                    changed.add(child);
+                    registerTree(child, changed);
+                }
+                continue;
+            }
+            changed.add(child);
+        }
+        if (!key.reset()) {
+            // 目录已被删除
+            keys.remove(key);
+        }
+        return overflow;
+    }
+
+    /**
+     * 注册 start 及其下未被过滤的全部目录
+     * @param found 不为 null 时收集其中已有的文件
+     */
+    private void registerTree(Path start, Set<Path> found) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(start) && (!directoryFilter.test(dir)
+                        || ignoreRules != null && ignoreRules.isIgnored(dir, true))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                try {
+                    keys.put(dir.register(service, kinds()), dir);
+                } catch (NoSuchFileException e) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (found != null && attrs.isRegularFile()
+                        && (ignoreRules == null || !ignoreRules.isIgnored(file, false))) {
+                    found.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // 遍历期间被删除或无权访问的条目直接跳过
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static WatchEvent.Kind<?>[] kinds() {
+        return new WatchEvent.Kind<?>[]{StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY};
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkEditTest {
+    private static String run(String... args) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        App.run(args, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void indexedLiteralReplaced(@TempDir Path root) throws IOException {
+        Files.writeString(root.resolve("a.txt"), "one foo two\n");
+        Files.writeString(root.resolve("b.txt"), "nothing here\n");
+        run("index", "build", root.toString());
+        String output = run("editFile", "foo", "bar", "--bulk", root.toString());
+        assertTrue(output.contains("共修改 1 个文件，替换 1 处。"), output);
+        assertEquals("one bar two\n", Files.readString(root.resolve("a.txt")));
+    }
+
+    @Test
+    void literalSpanningLinesIsNotFilteredByIndex(@TempDir Path root) throws IOException {
+        Files.writeString(root.resolve("a.txt"), "foo\nbar\n");
+        run("index", "build", root.toString());
+        String output = run("editFile", "foo\nbar", "baz", "--bulk", root.toString());
+        assertTrue(output.contains("共修改 1 个文件，替换 1 处。"), output);
+        assertEquals("baz\n", Files.readString(root.resolve("a.txt")));
+    }
+
+    @Test
+    void nonUtf8CharsetIsNotFilteredByIndex(@TempDir Path root) throws IOException {
+        Charset gbk = Charset.forName("GBK");
+        Files.write(root.resolve("a.txt"), "名称: 旧值\n".getBytes(gbk));
+        run("index", "build", root.toString());
+        String output = run("editFile", "旧值", "新值", "--bulk", root.toString(), "--charset", "GBK");
+        assertTrue(output.contains("共修改 1 个文件，替换 1 处。"), output);
+        assertEquals("名称: 新值\n", new String(Files.readAllBytes(root.resolve("a.txt")), gbk));
+    }
+
+    @Test
+    void wideCharsetsAreNotTreatedAsBinary(@TempDir Path root) throws IOException {
+        for (String name : new String[]{"UTF-16LE", "UTF-32"}) {
+            Charset charset = Charset.forName(name);
+            Path file = root.resolve(name + ".txt");
+            Files.write(file, "key = old\n".getBytes(charset));
+            String output = run("editFile", "old", "new", "--bulk", root.toString(), "--charset", name, "--glob", name + ".txt");
+            assertTrue(output.contains("共修改 1 个文件，替换 1 处。"), output);
+            assertEquals("key = new\n", new String(Files.readAllBytes(file), charset));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTest {
+    @Test
+    void parsesNestedValuesInKeyOrder() {
+        Object parsed = Json.parse(" {\"b\": [1, 2.5, -3e2, true, false, null], \"a\": {\"c\": \"文本\"}} ");
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("b", Arrays.asList(1L, 2.5, -300.0, true, false, null));
+        expected.put("a", Map.of("c", "文本"));
+        assertEquals(expected, parsed);
+        assertEquals(List.of("b", "a"), List.copyOf(((Map<?, ?>) parsed).keySet()));
+        assertNull(Json.parse("null"));
+    }
+
+    @Test
+    void quoteRoundTripsThroughParse() {
+        String value = "引号\" 反斜杠\\ 换行\n 回车\r 制表\t 控制\u0001 结束";
+        String quoted = Json.quote(value);
+        assertEquals("\"引号\\\" 反斜杠\\\\ 换行\\n 回车\\r 制表\\t 控制\\u0001 结束\"", quoted);
+        assertEquals(value, Json.parse(quoted));
+        assertEquals("é/", Json.parse("\"\\u00e9\\/\""));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String text : List.of("", "{", "[1,]", "{\"a\" 1}", "{a: 1}", "\"open", "[1] 2", "tru", "\"\\u12\"")) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+        }
+    }
+}
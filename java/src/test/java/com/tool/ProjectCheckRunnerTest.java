@@ -0,0 +1,98 @@
+package com.tool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectCheckRunnerTest {
+    private static String run(String... args) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        App.run(args, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Path project(Path dir, boolean complete) throws IOException {
+        Files.createDirectories(dir.resolve("src/main/java"));
+        Files.createDirectories(dir.resolve("src/test/java"));
+        Files.writeString(dir.resolve("pom.xml"),
+                "<project><properties><maven.compiler.release>17</maven.compiler.release></properties></project>");
+        if (complete) {
+            Files.writeString(dir.resolve("README.md"), "# 示例\n");
+            Files.writeString(dir.resolve("Dockerfile"), "FROM eclipse-temurin:17\n");
+        }
+        return dir;
+    }
+
+    @Test
+    void jsonResultsFollowInputOrder(@TempDir Path dir) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            paths.add(project(dir.resolve("p" + i), i % 2 == 0).toString());
+        }
+        List<String> args = new ArrayList<>(List.of("checkProject", "--format", "json", "--threads", "3", "--no-cache"));
+        args.addAll(paths);
+        List<?> results = (List<?>) Json.parse(run(args.toArray(new String[0])));
+        assertEquals(paths.size(), results.size());
+        for (int i = 0; i < paths.size(); i++) {
+            Map<?, ?> result = (Map<?, ?>) results.get(i);
+            assertEquals(paths.get(i), result.get("path"));
+            assertEquals(i % 2 == 0, result.get("passed"), result.toString());
+            assertEquals("17", result.get("javaVersion"));
+        }
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerProject(@TempDir Path dir) throws IOException {
+        String a = project(dir.resolve("a"), true).toString();
+        String b = project(dir.resolve("b"), false).toString();
+        String output = run("checkProject", a, b, "--format", "ndjson", "--threads", "2", "--no-cache");
+        Set<Object> seen = new HashSet<>();
+        for (String line : output.split(System.lineSeparator())) {
+            seen.add(((Map<?, ?>) Json.parse(line)).get("path"));
+        }
+        assertEquals(Set.of(a, b), seen);
+    }
+
+    @Test
+    void textSummaryCountsPassedProjects(@TempDir Path dir) throws IOException {
+        Path list = Files.writeString(dir.resolve("paths.txt"), "# 项目列表\n"
+                + project(dir.resolve("a"), true) + "\n\n" + project(dir.resolve("b"), false) + "\n");
+        String output = run("checkProject", "--paths-file", list.toString(), "--no-cache");
+        assertTrue(output.endsWith("共检查 2 个项目，1 个未发现问题。" + System.lineSeparator()), output);
+    }
+
+    @Test
+    void discoverFindsProjectsUpToMaxDepth(@TempDir Path dir) throws IOException {
+        Files.createDirectories(dir.resolve("a/module"));
+        Files.writeString(dir.resolve("a/pom.xml"), "<project/>");
+        Files.writeString(dir.resolve("a/module/pom.xml"), "<project/>");
+        Files.createDirectories(dir.resolve("group/b"));
+        Files.writeString(dir.resolve("group/b/build.gradle.kts"), "");
+        Files.createDirectories(dir.resolve("group/deep/c"));
+        Files.writeString(dir.resolve("group/deep/c/settings.gradle"), "");
+        Files.createDirectories(dir.resolve("node_modules/x"));
+        Files.writeString(dir.resolve("node_modules/x/pom.xml"), "<project/>");
+        Files.createDirectories(dir.resolve(".hidden"));
+        Files.writeString(dir.resolve(".hidden/pom.xml"), "<project/>");
+
+        assertEquals(List.of(dir.resolve("a").toString()), ProjectCheckRunner.discover(dir, 1));
+        assertEquals(List.of(dir.resolve("a").toString(), dir.resolve("group/b").toString()),
+                ProjectCheckRunner.discover(dir, 2));
+        assertEquals(List.of(dir.resolve("a").toString(), dir.resolve("group/b").toString(),
+                dir.resolve("group/deep/c").toString()), ProjectCheckRunner.discover(dir, 4));
+    }
+}
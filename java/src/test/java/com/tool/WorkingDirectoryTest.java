@@ -0,0 +1,81 @@
+package com.tool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkingDirectoryTest {
+    private static String run(Path dir, String... args) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+        Path previous = WorkingDirectory.bind(dir);
+        try {
+            App.run(args, out);
+        } finally {
+            WorkingDirectory.bind(previous);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void relativeArgumentsResolveAgainstBoundDirectory(@TempDir Path dir) {
+        Path previous = WorkingDirectory.bind(dir);
+        try {
+            assertEquals(dir, WorkingDirectory.current());
+            assertEquals(dir.resolve("a/x.txt"), WorkingDirectory.resolve("a/x.txt"));
+            assertEquals(Path.of("/abs"), WorkingDirectory.resolve("/abs"));
+        } finally {
+            WorkingDirectory.bind(previous);
+        }
+        assertNull(WorkingDirectory.current());
+        assertEquals(Path.of("a"), WorkingDirectory.resolve("a"));
+    }
+
+    @Test
+    void displayRestoresPathsAsGiven(@TempDir Path dir) {
+        Path previous = WorkingDirectory.bind(dir);
+        try {
+            UnaryOperator<String> display = WorkingDirectory.displayer();
+            Path dot = WorkingDirectory.resolve("./a");
+            WorkingDirectory.resolve("b");
+            assertEquals("./a/x.txt", display.apply(dot.resolve("x.txt").toString()));
+            assertEquals("b", WorkingDirectory.display(dir.resolve("b")));
+            assertEquals("检查: b/c 完成", WorkingDirectory.display("检查: " + dir.resolve("b/c") + " 完成"));
+            // 没有作为相对路径给出的路径保持绝对路径
+            assertEquals(dir.resolve("c").toString(), WorkingDirectory.display(dir.resolve("c")));
+            assertEquals(dir.resolve("bc").toString(), WorkingDirectory.display(dir.resolve("bc")));
+            assertNull(WorkingDirectory.display((String) null));
+        } finally {
+            WorkingDirectory.bind(previous);
+        }
+        assertEquals(dir.resolve("b").toString(), WorkingDirectory.display(dir.resolve("b")));
+    }
+
+    @Test
+    void boundOutputMatchesDirectRun(@TempDir Path dir) throws IOException {
+        Files.createDirectories(dir.resolve("a"));
+        Files.writeString(dir.resolve("a/x.txt"), "x\nfoo\n");
+        String output = run(dir, "grepSearch", "foo", "./a");
+        assertEquals("匹配: ./a/x.txt 行号: 2" + System.lineSeparator(), output);
+        String absolute = run(dir, "grepSearch", "foo", dir.resolve("a").toString());
+        assertTrue(absolute.contains(dir.resolve("a/x.txt").toString()), absolute);
+        String missing = run(dir, "readFile", "nope.txt");
+        assertTrue(missing.contains("nope.txt") && !missing.contains(dir.toString()), missing);
+    }
+
+    @Test
+    void batchFromStandardInputIsRejectedWhenBound(@TempDir Path dir) {
+        assertEquals("服务模式下不能从标准输入读取命令，请提供命令文件。" + System.lineSeparator(), run(dir, "batch", "-"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.tool.batch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchRequestTest {
+    @Test
+    void splitsLikeShell() {
+        assertArrayEquals(new String[]{"readFile", "a b.txt", "--lines", "1-2"},
+                BatchRequest.split("readFile 'a b.txt'  --lines 1-2"));
+        assertArrayEquals(new String[]{"it's dir", "x\"y", "$HOME", "a\\b"},
+                BatchRequest.split("'it'\\''s dir' \"x\\\"y\" \"\\$HOME\" \"a\\b\""));
+        assertArrayEquals(new String[]{"a b", ""}, BatchRequest.split("a\\ b ''"));
+        assertThrows(IllegalArgumentException.class, () -> BatchRequest.split("echo 'open"));
+    }
+
+    @Test
+    void parsesArraysObjectsAndComments() {
+        assertNull(BatchRequest.parse("   ", 1));
+        assertNull(BatchRequest.parse("# 注释", 2));
+
+        BatchRequest array = BatchRequest.parse("[\"readFile\", \"x.txt\", 3]", 3);
+        assertEquals("3", array.id);
+        assertArrayEquals(new String[]{"readFile", "x.txt", "3"}, array.args);
+
+        BatchRequest object = BatchRequest.parse("{\"id\": 7, \"args\": [\"listDir\", \".\"]}", 4);
+        assertEquals("7", object.id);
+        assertArrayEquals(new String[]{"listDir", "."}, object.args);
+        assertEquals("q1", BatchRequest.parse("{\"id\": \"q1\", \"args\": []}", 5).id);
+        assertEquals("6", BatchRequest.parse("{\"args\": [\"x\"]}", 6).id);
+    }
+
+    @Test
+    void rejectsNonStringArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BatchRequest.parse("{\"id\": 1}", 1));
+        assertThrows(IllegalArgumentException.class, () -> BatchRequest.parse("[\"a\", [\"b\"]]", 1));
+        assertThrows(IllegalArgumentException.class, () -> BatchRequest.parse("[null]", 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.tool.batch;
+
+import com.tool.App;
+import com.tool.CommandArgs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRunnerTest {
+    private static String batch(Path commands, String... options) {
+        String[] args = new String[2 + options.length];
+        args[0] = "batch";
+        args[1] = commands.toString();
+        System.arraycopy(options, 0, args, 2, options.length);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        App.run(args, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void outputsInInputOrderAndWritesActAsBarriers(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("a.txt");
+        Files.writeString(file, "old\n");
+        Path commands = dir.resolve("commands.txt");
+        String path = file.toString();
+        Files.writeString(commands, "# 注释\n"
+                + "readFile '" + path + "'\n"
+                + "\n"
+                + "[\"editFile\", \"" + path + "\", \"old\", \"new\"]\n"
+                + "{\"id\": \"after\", \"args\": [\"readFile\", \"" + path + "\"]}\n");
+        String output = batch(commands, "--threads", "4");
+        int before = output.indexOf("1: old");
+        int edit = output.indexOf("文件编辑成功，替换 1 处。");
+        int after = output.indexOf("=== [after] readFile");
+        assertTrue(before >= 0 && edit > before && after > edit, output);
+        assertTrue(output.indexOf("1: new") > after, output);
+    }
+
+    @Test
+    void ndjsonWrapsEachRequest(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("a.txt");
+        Files.writeString(file, "x\n");
+        Path commands = dir.resolve("commands.txt");
+        Files.writeString(commands, "{\"id\": \"r1\", \"args\": [\"readFile\", \"" + file + "\"]}\n");
+        assertEquals("{\"id\":\"r1\",\"command\":\"readFile " + file + "\",\"output\":\"1: x\\n\"}"
+                + System.lineSeparator(), batch(commands, "--format", "ndjson"));
+    }
+
+    @Test
+    void threadLimitCapsRequestedThreads() {
+        assertEquals(6, CommandArgs.parse(new String[]{"grepSearch", "--threads", "6"}, "--threads").threads());
+        Integer previous = CommandArgs.limitThreads(2);
+        try {
+            assertNull(previous);
+            assertEquals(2, CommandArgs.parse(new String[]{"grepSearch", "--threads", "6"}, "--threads").threads());
+            assertEquals(1, CommandArgs.parse(new String[]{"grepSearch", "--threads", "1"}, "--threads").threads());
+            assertTrue(CommandArgs.parse(new String[]{"grepSearch"}).threads() <= 2);
+        } finally {
+            CommandArgs.limitThreads(previous);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CheckResultCacheTest {
+    private static final List<String> CHECKS = List.of("buildTools", "javaVersion");
+
+    private static CheckResultCache.Entry entry(String issue) {
+        return new CheckResultCache.Entry(List.of(issue), Map.of("mavenPom", true), Map.of("javaVersion", "17"));
+    }
+
+    private static Set<Path> entryFiles(Path dir) throws IOException {
+        Set<Path> files = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.result")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private static void age(Path path, long millis) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() - millis));
+    }
+
+    @Test
+    void returnsEntryOnlyForMatchingFingerprint(@TempDir Path dir) throws IOException {
+        Path project = Files.createDirectories(dir.resolve("project"));
+        CheckResultCache cache = new CheckResultCache(dir.resolve("cache"), 1 << 20);
+        String fingerprint = CheckResultCache.fingerprint(project, CHECKS);
+        assertNull(cache.get(project, fingerprint));
+
+        cache.put(project, fingerprint, entry("缺少README文件"));
+        CheckResultCache.Entry cached = cache.get(project, fingerprint);
+        assertNotNull(cached);
+        assertEquals(List.of("缺少README文件"), cached.issues);
+        assertEquals(Map.of("mavenPom", true), cached.flags);
+        assertEquals(Map.of("javaVersion", "17"), cached.values);
+        assertNull(cache.get(project, fingerprint + "x"));
+        assertNull(cache.get(dir.resolve("other"), fingerprint));
+
+        // 损坏的缓存文件视为没有缓存
+        for (Path file : entryFiles(dir.resolve("cache"))) {
+            Files.write(file, new byte[]{1, 2, 3});
+        }
+        assertNull(cache.get(project, fingerprint));
+    }
+
+    @Test
+    void fingerprintTracksInputsAndChecks(@TempDir Path project) throws IOException {
+        Files.createDirectories(project.resolve("src/main"));
+        Path pom = Files.writeString(project.resolve("pom.xml"), "<project/>");
+        String initial = CheckResultCache.fingerprint(project, CHECKS);
+        assertEquals(initial, CheckResultCache.fingerprint(project, CHECKS));
+        assertNotEquals(initial, CheckResultCache.fingerprint(project, List.of("buildTools")));
+
+        Files.writeString(pom, "<project></project>");
+        String edited = CheckResultCache.fingerprint(project, CHECKS);
+        assertNotEquals(initial, edited);
+
+        Path main = project.resolve("src/main");
+        Files.createDirectories(main.resolve("java"));
+        age(main, 5000);
+        assertNotEquals(edited, CheckResultCache.fingerprint(project, CHECKS));
+
+        // 不参与指纹的文件不影响结果
+        String before = CheckResultCache.fingerprint(project, CHECKS);
+        Files.writeString(project.resolve("src/main/java/App.java"), "class App {}");
+        assertEquals(before, CheckResultCache.fingerprint(project, CHECKS));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries(@TempDir Path dir) throws IOException {
+        Path cacheDir = dir.resolve("cache");
+        CheckResultCache cache = new CheckResultCache(cacheDir, 1 << 20);
+        List<Path> projects = new ArrayList<>();
+        long size = 0;
+        for (int i = 0; i < 10; i++) {
+            Path project = dir.resolve("p" + i);
+            Set<Path> before = entryFiles(cacheDir);
+            cache.put(project, "fp", entry("问题"));
+            Set<Path> added = entryFiles(cacheDir);
+            added.removeAll(before);
+            Path file = added.iterator().next();
+            // 编号越小越久没有访问
+            age(file, (10 - i) * 60_000L);
+            size = Files.size(file);
+            projects.add(project);
+        }
+        assertEquals(0, cache.evict());
+        // 读取会更新访问时间，p0 变为最近使用
+        assertNotNull(cache.get(projects.get(0), "fp"));
+
+        CheckResultCache small = new CheckResultCache(cacheDir, size * 5);
+        assertEquals(6, small.evict());
+        List<Integer> kept = new ArrayList<>();
+        for (int i = 0; i < projects.size(); i++) {
+            if (small.get(projects.get(i), "fp") != null) {
+                kept.add(i);
+            }
+        }
+        assertEquals(List.of(0, 7, 8, 9), kept);
+        assertEquals(0, small.evict());
+    }
+}
@@ -0,0 +1,69 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradleScriptsTest {
+    @Test
+    void stripCommentsKeepsStringsAndLines() {
+        String script = "a = 1 // note\n/* block\n comment */ b = \"//kept\"\nc = '/*x*/'";
+        assertEquals("a = 1 \n\n b = \"//kept\"\nc = '/*x*/'", GradleScripts.stripComments(script));
+    }
+
+    @Test
+    void declarations() {
+        assertTrue(declares("sourceCompatibility = JavaVersion.VERSION_17"));
+        assertTrue(declares("java { targetCompatibility = '11' }"));
+        assertTrue(declares("kotlin { jvmToolchain(17) }"));
+        assertTrue(declares("java { toolchain { languageVersion = JavaLanguageVersion.of(21) } }"));
+        assertTrue(declares("java { toolchain { languageVersion.set(javaVersion) } }"));
+        assertTrue(declares("java.toolchain.languageVersion = javaLanguage"));
+        assertTrue(declares("tasks.withType(JavaCompile) { options.release = 17 }"));
+        assertTrue(declares("tasks.withType<JavaCompile> { options.release.set(17) }"));
+        assertTrue(declares("javaCompile.options.release = 17"));
+        assertFalse(declares("kotlinOptions { languageVersion = \"1.9\" }"));
+        assertFalse(declares("kotlinOptions.languageVersion = \"1.9\""));
+        assertFalse(declares("// sourceCompatibility = 17\nversion = '1.0'"));
+    }
+
+    @Test
+    void javaVersion() {
+        assertEquals("21", version("java { toolchain { languageVersion.set(JavaLanguageVersion.of(21)) } }"));
+        assertEquals("17", version("kotlin { jvmToolchain(17) }"));
+        assertEquals("17", version("options.release = 17"));
+        assertEquals("1.8", version("sourceCompatibility = JavaVersion.VERSION_1_8"));
+        assertEquals("11", version("sourceCompatibility = '11'"));
+        assertNull(version("sourceCompatibility = javaVersion"));
+    }
+
+    @Test
+    void releaseOnlyBuildIsNotReportedMissing(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("build.gradle"), "plugins { id 'java' }\n"
+                + "tasks.withType(JavaCompile).configureEach { options.release = 17 }\n");
+        JavaProjectChecker checker = new JavaProjectChecker(dir.toString(), false,
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+        checker.runChecks();
+        assertFalse(checker.getIssues().contains("未明确指定Java版本"), checker.getIssues().toString());
+        assertEquals("17", checker.getJavaVersion());
+    }
+
+    private static boolean declares(String script) {
+        return GradleScripts.declaresJavaVersion(GradleScripts.stripComments(script));
+    }
+
+    private static String version(String script) {
+        return GradleScripts.javaVersion(GradleScripts.stripComments(script));
+    }
+}
@@ -0,0 +1,59 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GradleSettingsTest {
+    @Test
+    void includesAndProjectDirOverrides(@TempDir Path root) throws IOException {
+        Files.writeString(root.resolve("settings.gradle"), "rootProject.name = 'demo'\n"
+                + "include 'app', ':lib:core'\n"
+                + "include(\"tools\")\n"
+                + "// include 'commented'\n"
+                + "includeFlat 'sibling'\n"
+                + "project(':tools').projectDir = file('build-tools')\n");
+        Map<String, Path> subprojects = GradleSettings.load(root).subprojects();
+        Path base = root.toAbsolutePath().normalize();
+        assertEquals(List.of(":app", ":lib:core", ":tools", ":sibling"), List.copyOf(subprojects.keySet()));
+        assertEquals(base.resolve("app"), subprojects.get(":app"));
+        assertEquals(base.resolve("lib/core"), subprojects.get(":lib:core"));
+        assertEquals(base.resolve("build-tools"), subprojects.get(":tools"));
+        assertEquals(base.resolveSibling("sibling"), subprojects.get(":sibling"));
+    }
+
+    @Test
+    void kotlinSettingsAndExistingSubprojects(@TempDir Path root) throws IOException {
+        Files.writeString(root.resolve("settings.gradle.kts"), "include(\":app\", \":missing\")\n");
+        Files.createDirectories(root.resolve("app"));
+        List<Map.Entry<String, Path>> existing = GradleSettings.load(root).existingSubprojects();
+        assertEquals(1, existing.size());
+        assertEquals(":app", existing.get(0).getKey());
+    }
+
+    @Test
+    void cachedUntilSettingsChange(@TempDir Path root) throws IOException {
+        Path file = root.resolve("settings.gradle");
+        Files.writeString(file, "include 'a'\n");
+        GradleSettings first = GradleSettings.load(root);
+        assertSame(first, GradleSettings.load(root));
+        Files.writeString(file, "include 'a', 'b'\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertEquals(2, GradleSettings.load(root).subprojects().size());
+    }
+
+    @Test
+    void noSettingsFile(@TempDir Path root) throws IOException {
+        assertNull(GradleSettings.load(root));
+    }
+}
@@ -0,0 +1,90 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NodeLockfileTest {
+    @Test
+    void packageLockV3UsesTopLevelPackages(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("package-lock.json"), "{\"lockfileVersion\": 3, \"packages\": {"
+                + "\"\": {\"name\": \"app\"},"
+                + "\"node_modules/react\": {\"version\": \"18.2.0\"},"
+                + "\"node_modules/@types/node\": {\"version\": \"20.1.0\"},"
+                + "\"node_modules/a/node_modules/react\": {\"version\": \"16.0.0\"}}}");
+        NodeLockfile lockfile = NodeLockfile.load(project);
+        assertEquals("package-lock.json", lockfile.fileName());
+        assertEquals("18.2.0", lockfile.lockedVersion("react", "^18.0.0"));
+        assertEquals("20.1.0", lockfile.lockedVersion("@types/node", "^20"));
+        assertNull(lockfile.lockedVersion("vue", "^3"));
+    }
+
+    @Test
+    void packageLockV1(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("package-lock.json"),
+                "{\"lockfileVersion\": 1, \"dependencies\": {\"lodash\": {\"version\": \"4.17.21\"}}}");
+        assertEquals("4.17.21", NodeLockfile.load(project).lockedVersion("lodash", "^4.0.0"));
+    }
+
+    @Test
+    void yarnLockMatchesTheDeclaredRange(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("yarn.lock"), "# yarn lockfile v1\n\n"
+                + "\"@babel/core@^7.0.0\", \"@babel/core@^7.20.0\":\n"
+                + "  version \"7.22.5\"\n"
+                + "  resolved \"https://registry.yarnpkg.com/...\"\n\n"
+                + "debug@^2.6.9:\n"
+                + "  version \"2.6.9\"\n\n"
+                + "debug@^4.3.4:\n"
+                + "  version \"4.3.4\"\n\n"
+                + "\"left-pad@npm:^1.3.0\":\n"
+                + "  version: 1.3.0\n");
+        NodeLockfile lockfile = NodeLockfile.load(project);
+        assertEquals("7.22.5", lockfile.lockedVersion("@babel/core", "^7.20.0"));
+        assertEquals("4.3.4", lockfile.lockedVersion("debug", "^4.3.4"));
+        assertEquals("2.6.9", lockfile.lockedVersion("debug", "^2.6.9"));
+        assertEquals("1.3.0", lockfile.lockedVersion("left-pad", "^1.3.0"));
+    }
+
+    @Test
+    void pnpmLockRootImporter(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("pnpm-lock.yaml"), "lockfileVersion: '6.0'\n"
+                + "importers:\n"
+                + "  .:\n"
+                + "    dependencies:\n"
+                + "      react-dom:\n"
+                + "        specifier: ^18.2.0\n"
+                + "        version: 18.2.0(react@18.2.0)\n"
+                + "    devDependencies:\n"
+                + "      typescript:\n"
+                + "        specifier: ^5.0.0\n"
+                + "        version: 5.1.6\n"
+                + "  packages/lib:\n"
+                + "    dependencies:\n"
+                + "      lodash:\n"
+                + "        version: 4.17.21\n"
+                + "packages:\n"
+                + "  /react@18.2.0:\n"
+                + "    resolution: {integrity: sha512-x}\n");
+        NodeLockfile lockfile = NodeLockfile.load(project);
+        assertEquals("18.2.0", lockfile.lockedVersion("react-dom", "^18.2.0"));
+        assertEquals("5.1.6", lockfile.lockedVersion("typescript", "^5.0.0"));
+        assertNull(lockfile.lockedVersion("lodash", "^4"));
+    }
+
+    @Test
+    void oldPnpmFormatAndMissingLockfile(@TempDir Path project) throws IOException {
+        assertNull(NodeLockfile.load(project));
+        Files.writeString(project.resolve("pnpm-lock.yaml"), "lockfileVersion: 5.4\n"
+                + "specifiers:\n"
+                + "  vue: ^3.3.0\n"
+                + "dependencies:\n"
+                + "  vue: 3.3.4_typescript@5.1.6\n");
+        assertEquals("3.3.4", NodeLockfile.load(project).lockedVersion("vue", "^3.3.0"));
+    }
+}
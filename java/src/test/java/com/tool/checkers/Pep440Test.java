@@ -0,0 +1,54 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Pep440Test {
+    @Test
+    void ordersPreAndPostReleases() {
+        String[] ordered = {"1.0.dev1", "1.0a1", "1.0b2", "1.0rc1", "1.0", "1.0.post1", "1.1", "1!0.5"};
+        for (int i = 1; i < ordered.length; i++) {
+            assertTrue(Pep440.parse(ordered[i - 1]).compareTo(Pep440.parse(ordered[i])) < 0,
+                    ordered[i - 1] + " < " + ordered[i]);
+        }
+        assertEquals(0, Pep440.parse("1.0").compareTo(Pep440.parse("1.0.0")));
+        assertEquals(0, Pep440.parse("1.0-1").compareTo(Pep440.parse("1.0.post1")));
+        assertNull(Pep440.parse("not-a-version"));
+    }
+
+    @Test
+    void pep440Specifiers() {
+        assertTrue(Pep440.matches(">=1.2,<2", "1.9.3"));
+        assertFalse(Pep440.matches(">=1.2,<2", "2.0"));
+        assertTrue(Pep440.matches("~=1.4.2", "1.4.9"));
+        assertFalse(Pep440.matches("~=1.4.2", "1.5.0"));
+        assertTrue(Pep440.matches("==1.2.*", "1.2.7"));
+        assertTrue(Pep440.matches("!=1.2.*", "1.3"));
+        assertTrue(Pep440.matches("===1.0+local", "1.0+local"));
+        assertTrue(Pep440.matches("", "0.1"));
+        assertNull(Pep440.matches("~=1", "1.0"));
+        assertNull(Pep440.matches(">=1.0", "unknown"));
+    }
+
+    @Test
+    void poetrySpecifiers() {
+        assertTrue(Pep440.matches("^1.2", "1.9"));
+        assertFalse(Pep440.matches("^1.2", "2.0"));
+        assertFalse(Pep440.matches("^1.2", "2.0a1"));
+        assertTrue(Pep440.matches("^0.2.3", "0.2.9"));
+        assertFalse(Pep440.matches("^0.2.3", "0.3.0"));
+        assertTrue(Pep440.matches("~1.2", "1.2.5"));
+        assertFalse(Pep440.matches("~1.2", "1.3"));
+        assertTrue(Pep440.matches("*", "5"));
+    }
+
+    @Test
+    void normalizesNames() {
+        assertEquals("zope-interface", Pep440.normalizeName("Zope.Interface"));
+        assertEquals("typing-extensions", Pep440.normalizeName("typing__extensions"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PomInfoTest {
+    private static PomInfo parse(String xml) throws IOException {
+        return PomInfo.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void coordinatesParentAndModules() throws IOException {
+        PomInfo pom = parse("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+                + "<parent><groupId>org.demo</groupId><artifactId>parent</artifactId>"
+                + "<relativePath>../build/pom.xml</relativePath></parent>"
+                + "<artifactId>app</artifactId><packaging>pom</packaging>"
+                + "<modules><module>core</module><module>web</module></modules>"
+                + "<dependencies><dependency><groupId>x</groupId><artifactId>y</artifactId></dependency></dependencies>"
+                + "</project>");
+        assertEquals("org.demo", pom.groupId());
+        assertEquals("app", pom.artifactId());
+        assertEquals("pom", pom.packaging());
+        assertEquals("org.demo:parent", pom.parentKey());
+        assertEquals("../build/pom.xml", pom.parentRelativePath());
+        assertEquals(List.of("core", "web"), pom.modules());
+    }
+
+    @Test
+    void defaultsWithoutParent() throws IOException {
+        PomInfo pom = parse("<project><groupId>g</groupId><artifactId>a</artifactId></project>");
+        assertEquals("g", pom.groupId());
+        assertEquals("jar", pom.packaging());
+        assertNull(pom.parentKey());
+        assertNull(PomInfo.javaVersion(pom.properties()));
+    }
+
+    @Test
+    void compilerPluginTakesPrecedenceOverProperties() throws IOException {
+        PomInfo pom = parse("<project><artifactId>a</artifactId>"
+                + "<properties><maven.compiler.source>11</maven.compiler.source><jdk>17</jdk></properties>"
+                + "<!-- <properties><java.version>8</java.version></properties> -->"
+                + "<build><plugins>"
+                + "<plugin><artifactId>maven-surefire-plugin</artifactId>"
+                + "<configuration><release>8</release></configuration></plugin>"
+                + "<plugin><artifactId>maven-compiler-plugin</artifactId>"
+                + "<configuration><release>${jdk}</release></configuration></plugin>"
+                + "</plugins></build></project>");
+        assertEquals("${jdk}", pom.properties().get(PomInfo.COMPILER_PLUGIN_PREFIX + "release"));
+        assertNull(pom.properties().get("java.version"));
+        assertEquals("17", PomInfo.javaVersion(pom.properties()));
+    }
+
+    @Test
+    void pluginManagementAndInheritedProperties() throws IOException {
+        PomInfo pom = parse("<project><build><pluginManagement><plugins><plugin>"
+                + "<configuration><source>1.8</source></configuration>"
+                + "<artifactId>maven-compiler-plugin</artifactId>"
+                + "</plugin></plugins></pluginManagement></build></project>");
+        assertEquals("1.8", PomInfo.javaVersion(pom.properties()));
+
+        Map<String, String> inherited = new HashMap<>();
+        inherited.put("java.version", "21");
+        inherited.put("maven.compiler.release", "${java.version}");
+        assertEquals("21", PomInfo.javaVersion(inherited));
+    }
+
+    @Test
+    void invalidXml() {
+        assertThrows(IOException.class, () -> parse("<project><artifactId>a</project>"));
+    }
+}
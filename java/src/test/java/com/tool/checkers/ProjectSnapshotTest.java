@@ -0,0 +1,53 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectSnapshotTest {
+    @Test
+    void recordsFilesDirectoriesAndDepth(@TempDir Path root) throws IOException {
+        Files.createDirectories(root.resolve("src/main/java/com/example"));
+        Files.writeString(root.resolve("pom.xml"), "<project/>");
+        Files.createDirectories(root.resolve("node_modules/pkg"));
+        ProjectSnapshot snapshot = ProjectSnapshot.scan(root);
+        assertTrue(snapshot.isFile("pom.xml"));
+        assertTrue(snapshot.isDirectory("src/main/java"));
+        assertTrue(snapshot.isDirectory("src/main/java/com"));
+        assertFalse(snapshot.isListed("src/main/java/com"));
+        assertTrue(snapshot.isDirectory("node_modules"));
+        assertFalse(snapshot.exists("node_modules/pkg"));
+        assertEquals("<project/>", snapshot.read("pom.xml"));
+    }
+
+    @Test
+    void followsSymlinkedDirectories(@TempDir Path dir) throws IOException {
+        Path root = dir.resolve("project");
+        Path shared = dir.resolve("shared");
+        Files.createDirectories(shared.resolve("main/java"));
+        Files.createDirectories(root);
+        Files.createSymbolicLink(root.resolve("src"), shared);
+        // 指向项目根目录的链接不能导致无限遍历
+        Files.createSymbolicLink(shared.resolve("loop"), root);
+        ProjectSnapshot snapshot = ProjectSnapshot.scan(root);
+        assertTrue(snapshot.isDirectory("src"));
+        assertTrue(snapshot.isDirectory("src/main/java"));
+        assertTrue(snapshot.isDirectory("src/loop"));
+
+        Files.writeString(root.resolve("pom.xml"), "<project><properties>"
+                + "<maven.compiler.source>17</maven.compiler.source></properties></project>");
+        JavaProjectChecker checker = new JavaProjectChecker(root.toString(), false,
+                new PrintStream(OutputStream.nullOutputStream()));
+        checker.runChecks();
+        assertFalse(checker.getIssues().contains("缺少标准的源代码目录"), checker.getIssues().toString());
+    }
+}
@@ -0,0 +1,71 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PythonRequirementsTest {
+    private static Map<String, String> specifiers(Path project) throws IOException {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (PythonRequirements.Requirement requirement : PythonRequirements.load(project).requirements()) {
+            result.put(requirement.name, requirement.specifier);
+        }
+        return result;
+    }
+
+    @Test
+    void requirementsFileWithIncludesAndComments(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("requirements.txt"), "# pinned\n"
+                + "requests>=2.31,<3  # http\n"
+                + "-r dev.txt\n"
+                + "uvicorn[standard]==0.23.2 ; python_version >= \"3.8\"\n"
+                + "-e .\n"
+                + "git+https://example.com/repo.git#egg=tool\n");
+        Files.writeString(project.resolve("dev.txt"), "pytest~=7.4\n-r requirements.txt\n");
+        assertEquals(Map.of("requests", ">=2.31,<3", "pytest", "~=7.4", "uvicorn", "==0.23.2"),
+                specifiers(project));
+    }
+
+    @Test
+    void hashPinnedContinuationLines(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("requirements.txt"), "certifi==2023.7.22 \\\n"
+                + "    --hash=sha256:aaaa \\\n"
+                + "    --hash=sha256:bbbb\n"
+                + "idna==3.4 --hash sha256:cccc\n"
+                + "# comment \\\n"
+                + "six==1.16.0\n");
+        assertEquals(Map.of("certifi", "==2023.7.22", "idna", "==3.4", "six", "==1.16.0"), specifiers(project));
+    }
+
+    @Test
+    void pyprojectAndSetupCfg(@TempDir Path project) throws IOException {
+        Files.writeString(project.resolve("pyproject.toml"), "[project]\n"
+                + "name = \"demo\"\n"
+                + "dependencies = [\n"
+                + "  \"httpx[http2]>=0.24\",  # client\n"
+                + "  'click',\n"
+                + "]\n"
+                + "[tool.poetry.dependencies]\n"
+                + "python = \"^3.10\"\n"
+                + "rich = \"^13.0\"\n"
+                + "pydantic = { version = \"~2.4\", extras = [\"email\"] }\n");
+        Files.writeString(project.resolve("setup.cfg"), "[options]\n"
+                + "install_requires =\n"
+                + "    attrs>=23\n"
+                + "    httpx==0.1\n"
+                + "[metadata]\n"
+                + "name = demo\n");
+        PythonRequirements requirements = PythonRequirements.load(project);
+        assertEquals(List.of("pyproject.toml", "setup.cfg"), requirements.sources());
+        assertEquals(Map.of("httpx", ">=0.24", "click", "", "rich", "^13.0", "pydantic", "~2.4", "attrs", ">=23"),
+                specifiers(project));
+    }
+}
@@ -0,0 +1,61 @@
+package com.tool.checkers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemverRangeTest {
+    private static boolean matches(String range, String version) {
+        return SemverRange.parse(range).matches(version);
+    }
+
+    @Test
+    void caretAndTilde() {
+        assertTrue(matches("^1.2.3", "1.9.0"));
+        assertFalse(matches("^1.2.3", "2.0.0"));
+        assertFalse(matches("^1.2.3", "1.2.2"));
+        assertTrue(matches("^0.2.3", "0.2.9"));
+        assertFalse(matches("^0.2.3", "0.3.0"));
+        assertFalse(matches("^0.0.3", "0.0.4"));
+        assertTrue(matches("~1.2.3", "1.2.9"));
+        assertFalse(matches("~1.2.3", "1.3.0"));
+        assertTrue(matches("~1", "1.9.9"));
+        assertTrue(matches("~>1.2", "1.2.5"));
+    }
+
+    @Test
+    void xRangesComparatorsAndUnions() {
+        assertTrue(matches("*", "3.0.0"));
+        assertTrue(matches("", "0.0.1"));
+        assertTrue(matches("1.x", "1.4.0"));
+        assertFalse(matches("1.2.*", "1.3.0"));
+        assertTrue(matches(">= 1.2.0 <2", "1.5.0"));
+        assertFalse(matches(">=1.2.0 <2", "2.0.0"));
+        assertTrue(matches(">1.2", "1.3.0"));
+        assertFalse(matches(">1.2", "1.2.9"));
+        assertTrue(matches("<=1.2", "1.2.9"));
+        assertTrue(matches("1.2.3 - 2.3", "2.3.4"));
+        assertFalse(matches("1.2.3 - 2.3", "2.4.0"));
+        assertTrue(matches("^1.0.0 || ^3.0.0", "3.1.0"));
+        assertFalse(matches("^1.0.0 || ^3.0.0", "2.1.0"));
+        assertTrue(matches("=1.0.0", "v1.0.0"));
+        assertTrue(matches("npm:other@^2.0.0", "2.1.0"));
+    }
+
+    @Test
+    void prereleasesSortBeforeTheRelease() {
+        assertTrue(matches("<1.0.0", "1.0.0-rc.1"));
+        assertFalse(matches(">=1.0.0", "1.0.0-rc.1"));
+        assertTrue(matches("^1.0.0-beta", "1.0.0"));
+    }
+
+    @Test
+    void nonRangesAreRejected() {
+        assertNull(SemverRange.parse("latest"));
+        assertNull(SemverRange.parse("github:user/repo"));
+        assertNull(SemverRange.parse("file:../lib"));
+        assertFalse(matches("^1.0.0", "not-a-version"));
+    }
+}
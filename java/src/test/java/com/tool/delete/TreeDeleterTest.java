@@ -0,0 +1,98 @@
+package com.tool.delete;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TreeDeleterTest {
+    private static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+
+    private static Path tree(Path root) throws IOException {
+        for (String dir : new String[]{"p1/build", "p2/build", "p2/src/build", "p2/src/main"}) {
+            Files.createDirectories(root.resolve(dir));
+        }
+        Files.writeString(root.resolve("p1/build/a.class"), "x");
+        Files.writeString(root.resolve("p2/src/main/App.java"), "class App {}");
+        return root;
+    }
+
+    @Test
+    void deletesWholeTree(@TempDir Path dir) throws IOException {
+        Path root = tree(dir.resolve("root"));
+        TreeDeleter deleter = new TreeDeleter(4, false);
+        deleter.run(root, NULL_OUT);
+        assertFalse(Files.exists(root));
+        assertEquals(2, deleter.files());
+        assertEquals(8, deleter.directories());
+        assertEquals(0, deleter.failures());
+    }
+
+    @Test
+    void dryRunOnlyCounts(@TempDir Path dir) throws IOException {
+        Path root = tree(dir.resolve("root"));
+        TreeDeleter deleter = new TreeDeleter(2, true);
+        deleter.run(root, NULL_OUT);
+        assertTrue(Files.exists(root.resolve("p1/build/a.class")));
+        assertEquals(2, deleter.files());
+    }
+
+    @Test
+    void globMatchesNamesOrRelativePaths(@TempDir Path root) throws IOException {
+        tree(root);
+        TreeDeleter byName = new TreeDeleter(2, true);
+        byName.setGlob("build");
+        byName.run(root, NULL_OUT);
+        assertEquals(3, byName.matched());
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        TreeDeleter byPath = new TreeDeleter(2, false);
+        byPath.setGlob("*/build");
+        byPath.run(root, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        assertEquals(2, byPath.matched());
+        assertFalse(Files.exists(root.resolve("p1/build")));
+        assertFalse(Files.exists(root.resolve("p2/build")));
+        assertTrue(Files.exists(root.resolve("p2/src/build")));
+        assertTrue(buffer.toString(StandardCharsets.UTF_8).contains("删除: " + root.resolve("p1/build")));
+    }
+
+    @Test
+    void rejectsGlobsThatCannotMatch(@TempDir Path root) throws IOException {
+        TreeDeleter deleter = new TreeDeleter(1, true);
+        assertThrows(IllegalArgumentException.class, () -> deleter.setGlob("/build"));
+        assertThrows(IllegalArgumentException.class, () -> deleter.setGlob("build/"));
+        assertThrows(IllegalArgumentException.class, () -> deleter.setGlob(""));
+        deleter.setGlob("a/b/build");
+        deleter.setMaxDepth(2);
+        assertThrows(IOException.class, () -> deleter.run(root, NULL_OUT));
+    }
+
+    @Test
+    void refusesProtectedPaths(@TempDir Path dir) throws IOException {
+        Path home = Paths.get(System.getProperty("user.home"));
+        assertTrue(TreeDeleter.isProtected(home));
+        assertTrue(TreeDeleter.isProtected(home.getRoot()));
+        if (home.getParent() != null) {
+            assertTrue(TreeDeleter.isProtected(home.getParent()));
+        }
+        Path link = Files.createSymbolicLink(dir.resolve("home"), home);
+        assertTrue(TreeDeleter.isProtected(link.resolve(".")));
+        assertFalse(TreeDeleter.isProtected(dir));
+
+        // 试运行，即使检查失效也不会删除任何内容
+        assertThrows(IOException.class, () -> new TreeDeleter(1, true).run(home, NULL_OUT));
+        assertThrows(IOException.class, () -> new TreeDeleter(1, true).run(home.getRoot(), NULL_OUT));
+    }
+}
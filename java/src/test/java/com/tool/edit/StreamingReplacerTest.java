@@ -0,0 +1,117 @@
+package com.tool.edit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingReplacerTest {
+    /** 与 StreamingReplacer 的读取缓冲区大小一致 */
+    private static final int BUFFER = 1 << 16;
+
+    private static List<String> listing(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void assertReplacesAcrossBoundary(Path dir, String target, Charset charset, int unit)
+            throws IOException {
+        String replacement = charset.newEncoder().canEncode("<新>") ? "<新>" : "<new>";
+        StreamingReplacer replacer = new StreamingReplacer(target, replacement, false, charset);
+        Path file = dir.resolve("boundary.txt");
+        int targetUnits = target.getBytes(charset).length / unit;
+        // 目标从缓冲区末尾之前若干个单位开始，覆盖完全在内、跨越边界和完全在外的情况
+        for (int before = 0; before <= targetUnits + 1; before++) {
+            String content = "x".repeat(BUFFER - before) + target + "y" + "z".repeat(BUFFER) + target;
+            Files.write(file, content.getBytes(charset));
+            assertEquals(2, replacer.apply(file, false), "before=" + before);
+            assertEquals(content.replace(target, replacement), new String(Files.readAllBytes(file), charset));
+        }
+    }
+
+    @Test
+    void byteLevelMatchesAcrossBufferBoundary(@TempDir Path dir) throws IOException {
+        assertReplacesAcrossBoundary(dir, "needle", StandardCharsets.UTF_8, 1);
+        assertReplacesAcrossBoundary(dir, "替换目标", StandardCharsets.UTF_8, 1);
+        assertReplacesAcrossBoundary(dir, "needle", StandardCharsets.ISO_8859_1, 1);
+    }
+
+    @Test
+    void decodedMatchesAcrossBufferBoundary(@TempDir Path dir) throws IOException {
+        assertReplacesAcrossBoundary(dir, "替换目标", StandardCharsets.UTF_16LE, 2);
+    }
+
+    @Test
+    void overlappingCandidatesReplaceLeftToRight(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("a.txt"), "aaaaa");
+        assertEquals(2, new StreamingReplacer("aa", "b", false, StandardCharsets.UTF_8).apply(file, false));
+        assertEquals("bba", Files.readString(file));
+    }
+
+    @Test
+    void regexReplacesPerLineAndKeepsLineEndings(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("r.txt"), "key=1\r\nkey=22\nother\r\nkey=3");
+        StreamingReplacer replacer = new StreamingReplacer("^key=(\\d+)$", "k:$1", true, StandardCharsets.UTF_8);
+        assertEquals(3, replacer.apply(file, false));
+        assertEquals("k:1\r\nk:22\nother\r\nk:3", Files.readString(file));
+    }
+
+    @Test
+    void unchangedAndDryRunLeaveFileUntouched(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("keep.txt"), "hello world\n");
+        FileTime old = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(file, old);
+        assertEquals(0, new StreamingReplacer("absent", "x", false, StandardCharsets.UTF_8).apply(file, false));
+        assertEquals(1, new StreamingReplacer("world", "x", false, StandardCharsets.UTF_8).apply(file, true));
+        assertEquals("hello world\n", Files.readString(file));
+        assertEquals(old, Files.getLastModifiedTime(file));
+        assertEquals(List.of("keep.txt"), listing(dir));
+    }
+
+    @Test
+    void replacesThroughTempFileKeepingPermissionsAndSymlinks(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("run.sh"), "echo old\n");
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-x---"));
+        Path link = Files.createSymbolicLink(dir.resolve("link.sh"), file.getFileName());
+        Object inode = Files.readAttributes(file, "unix:ino").get("ino");
+
+        assertEquals(1, new StreamingReplacer("old", "new", false, StandardCharsets.UTF_8).apply(link, false));
+        assertEquals("echo new\n", Files.readString(file));
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals("rwxr-x---", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        // 内容写入临时文件后改名替换，原文件不会被就地改写
+        assertNotEquals(inode, Files.readAttributes(file, "unix:ino").get("ino"));
+        assertEquals(List.of("link.sh", "run.sh"), listing(dir));
+    }
+
+    @Test
+    void invalidEncodingIsRejectedWithoutChanges(@TempDir Path dir) throws IOException {
+        byte[] content = "替换 target ÿ".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] invalid = new byte[BUFFER + content.length];
+        Arrays.fill(invalid, (byte) 'a');
+        System.arraycopy(content, 0, invalid, BUFFER, content.length);
+        Path file = Files.write(dir.resolve("latin.txt"), invalid);
+        StreamingReplacer replacer = new StreamingReplacer("target", "x", false, StandardCharsets.UTF_8);
+        IOException e = assertThrows(IOException.class, () -> replacer.apply(file, false));
+        assertTrue(e.getMessage().contains("UTF-8"), e.getMessage());
+        assertArrayEquals(invalid, Files.readAllBytes(file));
+        assertEquals(List.of("latin.txt"), listing(dir));
+    }
+}
@@ -0,0 +1,67 @@
+package com.tool.exec;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandRunnerTest {
+    /**
+     * 记录第一次写入的时间
+     */
+    private static final class TimedBuffer extends ByteArrayOutputStream {
+        volatile long firstWrite;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (firstWrite == 0) {
+                firstWrite = System.nanoTime();
+            }
+            super.write(b, off, len);
+        }
+    }
+
+    @Test
+    void separatesStreamsAndSummarizes() throws InterruptedException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CommandRunner runner = new CommandRunner(1, 0, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        int failed = runner.runAll(Arrays.asList("echo out; sleep 0.2; echo err >&2; sleep 0.2; printf tail", "exit 3"));
+        String output = buffer.toString(StandardCharsets.UTF_8);
+        assertEquals(1, failed);
+        assertTrue(output.startsWith("--- [1] stdout\nout\n--- [1] stderr\nerr\n--- [1] stdout\n"), output);
+        // 不以换行结尾的输出在标题前补换行
+        assertTrue(output.contains("tail\n=== [1] "), output);
+        assertTrue(output.contains("=== [2] exit 3 (退出码: 3, "), output);
+        assertTrue(output.contains("共 2 条命令，成功 1 条，失败 1 条，超时 0 条。"), output);
+    }
+
+    @Test
+    void streamsOutputBeforeCommandExits() throws InterruptedException {
+        TimedBuffer buffer = new TimedBuffer();
+        CommandRunner runner = new CommandRunner(1, 0, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        long start = System.nanoTime();
+        runner.runAll(Collections.singletonList("echo early; sleep 2"));
+        long end = System.nanoTime();
+        assertTrue(buffer.firstWrite > 0 && end - buffer.firstWrite > TimeUnit.SECONDS.toNanos(1),
+                "first output " + TimeUnit.NANOSECONDS.toMillis(buffer.firstWrite - start) + " ms after start");
+    }
+
+    @Test
+    void killsCommandsThatTimeOut() throws InterruptedException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CommandRunner runner = new CommandRunner(1, 500, new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        long start = System.nanoTime();
+        assertEquals(1, runner.runAll(Collections.singletonList("echo started; sleep 30")));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        String output = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("started"), output);
+        assertTrue(output.contains("超时 1 条"), output);
+    }
+}
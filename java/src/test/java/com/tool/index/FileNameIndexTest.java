@@ -0,0 +1,62 @@
+package com.tool.index;
+
+import com.tool.search.FileNameMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileNameIndexTest {
+    private static List<String> search(Path dir, String fragment) throws IOException {
+        FileNameMatcher matcher = new FileNameMatcher(FileNameMatcher.Mode.SUBSTRING, fragment);
+        return FileNameIndex.find(dir).search(dir, matcher, 2).stream()
+                .map(m -> dir.relativize(m.path).toString().replace('\\', '/'))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static void touch(Path dir) throws IOException {
+        Files.setLastModifiedTime(dir, FileTime.fromMillis(Files.getLastModifiedTime(dir).toMillis() + 2000));
+    }
+
+    private static void tree(Path root) throws IOException {
+        Files.createDirectories(root.resolve("a/b"));
+        Files.createDirectories(root.resolve("c"));
+        Files.writeString(root.resolve("a/Main.java"), "");
+        Files.writeString(root.resolve("a/b/MainTest.java"), "");
+        Files.writeString(root.resolve("c/main.txt"), "");
+        FileNameIndex.build(root, 2);
+    }
+
+    @Test
+    void searchesFromIndexRootAndSubdirectories(@TempDir Path root) throws IOException {
+        tree(root);
+        assertEquals(List.of("a/Main.java", "a/b/MainTest.java"), search(root, "Main"));
+        assertEquals(List.of("Main.java", "b/MainTest.java"), search(root.resolve("a"), "Main"));
+    }
+
+    @Test
+    void changedDirectoriesAreListedLive(@TempDir Path root) throws IOException {
+        tree(root);
+        Files.writeString(root.resolve("a/b/MainHelper.java"), "");
+        Files.delete(root.resolve("a/Main.java"));
+        touch(root.resolve("a/b"));
+        touch(root.resolve("a"));
+        assertEquals(List.of("a/b/MainHelper.java", "a/b/MainTest.java"), search(root, "Main"));
+    }
+
+    @Test
+    void directoriesAddedAfterBuildAreNotIndexed(@TempDir Path root) throws IOException {
+        tree(root);
+        Files.createDirectories(root.resolve("d"));
+        assertNull(FileNameIndex.find(root.resolve("d")));
+    }
+}
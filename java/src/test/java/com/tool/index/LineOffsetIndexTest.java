@@ -0,0 +1,146 @@
+package com.tool.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineOffsetIndexTest {
+    private static final String[] ENDINGS = {"\n", "\r\n", "\r"};
+
+    @TempDir
+    Path dir;
+    private String previousCacheDir;
+
+    @BeforeEach
+    void useTempCache() {
+        previousCacheDir = System.getProperty("tool.cache.dir");
+        System.setProperty("tool.cache.dir", dir.resolve("cache").toString());
+    }
+
+    @AfterEach
+    void restoreCache() {
+        if (previousCacheDir == null) {
+            System.clearProperty("tool.cache.dir");
+        } else {
+            System.setProperty("tool.cache.dir", previousCacheDir);
+        }
+    }
+
+    /** 按 BufferedReader.readLine 的规则拆分的期望结果 */
+    private static List<String> expected(String text) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> read(Path file, long start, long end) throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineOffsetIndex.read(file, start, end, (n, line) -> lines.add(n + ":" + line));
+        return lines;
+    }
+
+    private static List<String> tail(Path file, long count) throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineOffsetIndex.tail(file, count, (n, line) -> lines.add(n + ":" + line));
+        return lines;
+    }
+
+    private static List<String> numbered(List<String> lines, int from, int to) {
+        List<String> out = new ArrayList<>();
+        for (int i = from; i <= Math.min(to, lines.size()); i++) {
+            out.add(i + ":" + lines.get(i - 1));
+        }
+        return out;
+    }
+
+    private static String mixed(int count, int width) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            sb.append("行").append(i).append(' ').append("y".repeat(i % width)).append(ENDINGS[i % ENDINGS.length]);
+            if (i % 500 == 0) {
+                sb.append(ENDINGS[(i / 500) % ENDINGS.length]);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void mixedLineEndingsInSmallFile() throws IOException {
+        String text = "a\nb\r\nc\rd\r\r\n\ne";
+        Path file = Files.writeString(dir.resolve("small.txt"), text);
+        List<String> lines = expected(text);
+        assertEquals(List.of("a", "b", "c", "d", "", "", "e"), lines);
+        assertEquals(lines.size(), LineOffsetIndex.open(file).lineCount());
+        assertEquals(numbered(lines, 1, 7), read(file, 1, 100));
+        assertEquals(numbered(lines, 3, 5), read(file, 3, 5));
+        assertEquals(numbered(lines, 6, 7), tail(file, 2));
+        assertEquals(List.of(), read(file, 8, 9));
+    }
+
+    @Test
+    void trailingLineEndingDoesNotAddALine() throws IOException {
+        for (String ending : ENDINGS) {
+            Path file = Files.writeString(dir.resolve("end.txt"), "x" + ending + "y" + ending);
+            assertEquals(2, LineOffsetIndex.open(file).lineCount(), ending);
+            assertEquals(List.of("2:y"), tail(file, 1));
+        }
+    }
+
+    @Test
+    void crlfSplitAcrossReadChunks() throws IOException {
+        // 第一行的 \r 恰好是 64KB 读取块的最后一个字节，\n 在下一块
+        String text = "a".repeat((1 << 16) - 1) + "\r\nsecond\rthird";
+        Path file = Files.writeString(dir.resolve("split.txt"), text);
+        assertEquals(3, LineOffsetIndex.open(file).lineCount());
+        assertEquals(List.of("2:second", "3:third"), read(file, 2, 3));
+        assertEquals(List.of("3:third"), tail(file, 1));
+    }
+
+    @Test
+    void largeFileUsesCheckpointsAndSidecar() throws IOException {
+        String text = mixed(90_000, 120);
+        assertTrue(text.getBytes(StandardCharsets.UTF_8).length >= LineOffsetIndex.MIN_INDEXED_SIZE);
+        Path file = Files.writeString(dir.resolve("large.txt"), text);
+        List<String> lines = expected(text);
+
+        assertEquals(lines.size(), LineOffsetIndex.open(file).lineCount());
+        int checkpoint = LineOffsetIndex.STRIDE * 7 + 1;
+        assertEquals(numbered(lines, checkpoint - 2, checkpoint + 2), read(file, checkpoint - 2, checkpoint + 2));
+        assertEquals(numbered(lines, 45_123, 45_130), read(file, 45_123, 45_130));
+        assertEquals(numbered(lines, lines.size() - 2, lines.size()), tail(file, 3));
+        try (Stream<Path> sidecars = Files.list(dir.resolve("cache/line-index"))) {
+            assertEquals(1, sidecars.filter(p -> p.toString().endsWith(".lidx")).count());
+        }
+
+        // 旁路索引复用：再次读取的结果一致
+        assertEquals(numbered(lines, 45_123, 45_130), read(file, 45_123, 45_130));
+
+        // 文件变化后旁路索引失效并重新建立
+        String changed = "前置\r\n" + text;
+        FileTime before = Files.getLastModifiedTime(file);
+        Files.writeString(file, changed);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(before.toMillis() + 2000));
+        List<String> changedLines = expected(changed);
+        assertEquals(changedLines.size(), LineOffsetIndex.open(file).lineCount());
+        assertEquals(numbered(changedLines, 45_123, 45_130), read(file, 45_123, 45_130));
+    }
+}
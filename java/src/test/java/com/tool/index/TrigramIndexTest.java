@@ -0,0 +1,86 @@
+package com.tool.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+    private static Predicate<Path> filter(Path searchDir, String... literals) throws IOException {
+        return TrigramIndex.find(searchDir).candidateFilter(searchDir, List.of(literals));
+    }
+
+    private static Path tree(Path root) throws IOException {
+        Files.createDirectories(root.resolve("src"));
+        Files.writeString(root.resolve("src/hit.txt"), "first line\nconnection Timeout here\n");
+        Files.writeString(root.resolve("src/miss.txt"), "nothing to see\n");
+        Files.writeString(root.resolve("other.txt"), "time\nout\n");
+        TrigramIndex.build(root, 1);
+        return root;
+    }
+
+    @Test
+    void excludesUnchangedFilesWithoutTheLiterals(@TempDir Path root) throws IOException {
+        tree(root);
+        Predicate<Path> filter = filter(root, "timeout");
+        assertTrue(filter.test(root.resolve("src/hit.txt")));
+        assertFalse(filter.test(root.resolve("src/miss.txt")));
+        // 三元组不跨行
+        assertFalse(filter.test(root.resolve("other.txt")));
+    }
+
+    @Test
+    void modifiedAndNewFilesAreAlwaysCandidates(@TempDir Path root) throws IOException {
+        tree(root);
+        Path miss = root.resolve("src/miss.txt");
+        FileTime indexed = Files.getLastModifiedTime(miss);
+        Files.writeString(miss, "now a timeout\n");
+        Files.setLastModifiedTime(miss, FileTime.fromMillis(indexed.toMillis() + 2000));
+        Path added = Files.writeString(root.resolve("src/added.txt"), "timeout\n");
+
+        Predicate<Path> filter = filter(root, "timeout");
+        assertTrue(filter.test(miss));
+        assertTrue(filter.test(added));
+
+        // 只改动修改时间、大小不变也视为已修改
+        Path other = root.resolve("other.txt");
+        Files.setLastModifiedTime(other, FileTime.fromMillis(Files.getLastModifiedTime(other).toMillis() + 2000));
+        assertTrue(filter(root, "timeout").test(other));
+    }
+
+    @Test
+    void rebuildPicksUpChanges(@TempDir Path root) throws IOException {
+        tree(root);
+        Path miss = root.resolve("src/miss.txt");
+        FileTime indexed = Files.getLastModifiedTime(miss);
+        Files.writeString(miss, "no match either\n");
+        Files.setLastModifiedTime(miss, FileTime.fromMillis(indexed.toMillis() + 2000));
+        Files.delete(root.resolve("other.txt"));
+
+        TrigramIndex.BuildStats stats = TrigramIndex.build(root, 1);
+        assertEquals(2, stats.files);
+        assertEquals(1, stats.reindexed);
+        assertEquals(1, stats.removed);
+        assertFalse(filter(root, "timeout").test(miss));
+    }
+
+    @Test
+    void searchBelowIndexRootUsesPrefix(@TempDir Path root) throws IOException {
+        tree(root);
+        Path src = root.resolve("src");
+        Predicate<Path> filter = filter(src, "Timeout");
+        assertTrue(filter.test(src.resolve("hit.txt")));
+        assertFalse(filter.test(src.resolve("miss.txt")));
+        assertNull(filter(src, "ti"));
+    }
+}
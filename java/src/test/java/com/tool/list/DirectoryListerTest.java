@@ -0,0 +1,86 @@
+package com.tool.list;
+
+import com.tool.App;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectoryListerTest {
+    private static List<String> lines(ByteArrayOutputStream buffer) {
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? List.of() : Arrays.asList(text.split(System.lineSeparator()));
+    }
+
+    private static Path tree(Path root) throws IOException {
+        Files.createDirectories(root.resolve("b/inner"));
+        Files.writeString(root.resolve("a.txt"), "a");
+        Files.writeString(root.resolve("b/x.txt"), "x");
+        Files.writeString(root.resolve("c d.txt"), "c");
+        Files.createDirectories(root.resolve("it's dir"));
+        return root;
+    }
+
+    @Test
+    void sortedRecursiveListingUsesExternalChunks(@TempDir Path root) throws IOException {
+        tree(root);
+        DirectoryLister lister = new DirectoryLister(root);
+        lister.setSorted(true);
+        lister.setMaxDepth(Integer.MAX_VALUE);
+        lister.setChunkSize(2);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long count = lister.list(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        List<String> lines = lines(buffer);
+        assertEquals(6, count);
+        assertEquals(6, lines.size());
+        for (int i = 1; i < lines.size(); i++) {
+            assertTrue(lines.get(i - 1).compareTo(lines.get(i)) < 0, lines.toString());
+        }
+        assertFalse(lister.hasMore());
+    }
+
+    @Test
+    void pagesWithLimitAndCursor(@TempDir Path root) throws IOException {
+        tree(root);
+        DirectoryLister first = new DirectoryLister(root);
+        first.setSorted(true);
+        first.setLimit(2);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        assertEquals(2, first.list(new PrintStream(buffer, true, StandardCharsets.UTF_8)));
+        assertTrue(first.hasMore());
+
+        DirectoryLister next = new DirectoryLister(root);
+        next.setSorted(true);
+        next.setAfter(first.last());
+        ByteArrayOutputStream rest = new ByteArrayOutputStream();
+        next.list(new PrintStream(rest, true, StandardCharsets.UTF_8));
+        assertEquals(4, lines(buffer).size() + lines(rest).size());
+        assertFalse(lines(rest).contains(first.last()));
+    }
+
+    @Test
+    void nextPageHintQuotesCursor(@TempDir Path root) throws IOException {
+        tree(root);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        App.run(new String[]{"listDir", root.toString(), "--sort", "--after", "b", "--limit", "1", "--next-page"},
+                new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        assertEquals(List.of("c d.txt", "下一页: --after 'c d.txt'"), lines(buffer));
+
+        buffer.reset();
+        Files.createDirectories(root.resolve("z"));
+        App.run(new String[]{"listDir", root.toString(), "--sort", "--after", "c d.txt", "--limit", "1", "--next-page"},
+                new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        assertEquals(List.of("it's dir", "下一页: --after 'it'\\''s dir'"), lines(buffer));
+    }
+}
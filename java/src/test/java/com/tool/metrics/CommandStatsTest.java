@@ -0,0 +1,53 @@
+package com.tool.metrics;
+
+import com.tool.App;
+import com.tool.search.LineScanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandStatsTest {
+    private static long scannedLines(Path file, LineScanner.RegionVisitor visitor) throws IOException {
+        CommandStats stats = new CommandStats("test");
+        CommandStats previous = CommandStats.bind(stats);
+        try {
+            LineScanner.forCurrentThread().scan(file, visitor);
+        } finally {
+            CommandStats.bind(previous);
+        }
+        return stats.get(CommandStats.Counter.LINES_SCANNED);
+    }
+
+    @Test
+    void countsEveryLineRegardlessOfVisitor(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("a.txt");
+        Files.writeString(file, "a\nfoo\nc\nd\ne");
+        // 只统计到第 2 行的回调不影响扫描行数
+        assertEquals(5, scannedLines(file, region -> region.lineAt(region.start() + 3)));
+        assertEquals(5, scannedLines(file, region -> { }));
+        assertEquals(5, scannedLines(file, region -> region.forEachLine((line, start, end) -> { })));
+        Files.writeString(file, "a\nb\n");
+        assertEquals(2, scannedLines(file, region -> { }));
+    }
+
+    @Test
+    void statsOptionReportsCounters(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("a.txt"), "a\nfoo\nc\nd\ne\n");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        App.run(new String[]{"grepSearch", "foo", dir.toString(), "--stats=json"},
+                new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        String output = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("\"linesScanned\":5"), output);
+        assertTrue(output.contains("\"matches\":1"), output);
+        assertTrue(output.contains("\"filesVisited\":1"), output);
+    }
+}
@@ -0,0 +1,115 @@
+package com.tool.output;
+
+import com.tool.Json;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchOutputTest {
+    private static final Path FILE = Paths.get("src", "a.txt");
+
+    private static List<String> render(SearchOutput.Format format, SearchHit... hits) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (SearchOutput output = new SearchOutput(new PrintStream(buffer, false, StandardCharsets.UTF_8), format)) {
+            output.write(Arrays.asList(hits));
+        }
+        return Arrays.asList(buffer.toString(StandardCharsets.UTF_8).split(System.lineSeparator()));
+    }
+
+    @Test
+    void parsesFormatNames() {
+        assertEquals(SearchOutput.Format.NDJSON, SearchOutput.Format.parse("ndjson"));
+        assertEquals(SearchOutput.Format.VIMGREP, SearchOutput.Format.parse("vimgrep"));
+        assertNull(SearchOutput.Format.parse("NDJSON"));
+        assertNull(SearchOutput.Format.parse("xml"));
+    }
+
+    @Test
+    void formatsEachKindOfHit() throws IOException {
+        SearchHit line = new SearchHit(FILE, 12, 5, "needle", "a \"needle\"\there", List.of("needle", "ne"));
+        SearchHit file = SearchHit.file(FILE);
+
+        assertEquals(List.of("匹配: " + FILE + " 行号: 12 模式: needle, ne", "匹配文件: " + FILE),
+                render(SearchOutput.Format.PLAIN, line, file));
+        assertEquals(List.of(FILE + ":12:5:a \"needle\"\there", FILE.toString()),
+                render(SearchOutput.Format.VIMGREP, line, file));
+
+        List<String> ndjson = render(SearchOutput.Format.NDJSON, line, file);
+        Map<?, ?> parsed = (Map<?, ?>) Json.parse(ndjson.get(0));
+        assertEquals(FILE.toString(), parsed.get("path"));
+        assertEquals(12L, parsed.get("line"));
+        assertEquals(5L, parsed.get("column"));
+        assertEquals("needle", parsed.get("match"));
+        assertEquals("a \"needle\"\there", parsed.get("text"));
+        assertEquals(List.of("needle", "ne"), parsed.get("patterns"));
+        assertEquals(Map.of("path", FILE.toString()), Json.parse(ndjson.get(1)));
+    }
+
+    @Test
+    void batchesFromManyThreadsStayContiguous() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        SearchOutput output = new SearchOutput(new PrintStream(buffer, false, StandardCharsets.UTF_8),
+                SearchOutput.Format.VIMGREP);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            tasks.add(pool.submit(() -> {
+                for (int f = 0; f < 50; f++) {
+                    Path file = Paths.get("t" + thread + "-f" + f);
+                    List<SearchHit> hits = new ArrayList<>();
+                    for (int line = 1; line <= 200; line++) {
+                        hits.add(new SearchHit(file, line, 1, "x", "x".repeat(line % 40), null));
+                    }
+                    output.write(hits);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        output.close();
+
+        String[] lines = buffer.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(4 * 50 * 200, lines.length);
+        for (int i = 0; i < lines.length; i += 200) {
+            String file = lines[i].substring(0, lines[i].indexOf(':'));
+            for (int line = 1; line <= 200; line++) {
+                assertEquals(file + ":" + line + ":1:" + "x".repeat(line % 40), lines[i + line - 1]);
+            }
+        }
+    }
+
+    @Test
+    void closeReportsWriteFailure() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("磁盘已满");
+            }
+        };
+        SearchOutput output = new SearchOutput(new PrintStream(failing, false, StandardCharsets.UTF_8),
+                SearchOutput.Format.PLAIN);
+        output.write(new SearchHit(FILE, 1));
+        IOException e = assertThrows(IOException.class, output::close);
+        assertEquals("写出搜索结果失败", e.getMessage());
+    }
+}
@@ -0,0 +1,39 @@
+package com.tool.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileNameMatcherTest {
+    @Test
+    void substringAndPrefixAreCaseSensitive() {
+        FileNameMatcher substring = new FileNameMatcher(FileNameMatcher.Mode.SUBSTRING, "Main");
+        assertEquals(0, substring.score("AppMain.java"));
+        assertEquals(-1, substring.score("appmain.java"));
+        FileNameMatcher prefix = new FileNameMatcher(FileNameMatcher.Mode.PREFIX, "App");
+        assertEquals(0, prefix.score("AppMain.java"));
+        assertEquals(-1, prefix.score("MainApp.java"));
+    }
+
+    @Test
+    void fuzzyMatchesSubsequenceIgnoringCase() {
+        FileNameMatcher fuzzy = new FileNameMatcher(FileNameMatcher.Mode.FUZZY, "fnm");
+        assertTrue(fuzzy.score("FileNameMatcher.java") > 0);
+        assertEquals(-1, fuzzy.score("Matcher.java"));
+        // 单词起始处和连续字符的命中得分更高
+        assertTrue(fuzzy.score("FileNameMatcher.java") > fuzzy.score("forename.java"));
+        FileNameMatcher exact = new FileNameMatcher(FileNameMatcher.Mode.FUZZY, "main");
+        assertTrue(exact.score("Main.java") > exact.score("domain.java"));
+    }
+
+    @Test
+    void fuzzyIndexesStayOnOriginalName() {
+        // 'İ'.toLowerCase() 为两个字符，按整个字符串转换会使下标偏移甚至越界
+        FileNameMatcher fuzzy = new FileNameMatcher(FileNameMatcher.Mode.FUZZY, "b");
+        assertTrue(fuzzy.score("İİİİb") > 0);
+        FileNameMatcher dotted = new FileNameMatcher(FileNameMatcher.Mode.FUZZY, "İx");
+        assertTrue(dotted.score("aİ_x") > 0);
+        assertEquals(fuzzy.score("aaaa_b"), fuzzy.score("İİİİ_b"));
+    }
+}
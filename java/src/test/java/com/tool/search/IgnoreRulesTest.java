@@ -0,0 +1,76 @@
+package com.tool.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IgnoreRulesTest {
+    private static IgnoreRules rules(Path root, String gitignore) throws IOException {
+        Files.createDirectories(root.resolve(".git"));
+        Files.writeString(root.resolve(".gitignore"), gitignore);
+        return IgnoreRules.load(root);
+    }
+
+    @Test
+    void namesExtensionsAndDirectories(@TempDir Path root) throws IOException {
+        IgnoreRules ignore = rules(root, "# comment\nnode_modules\n*.log\nout/\n\\#notes\n");
+        assertTrue(ignore.isIgnored(root.resolve("node_modules"), true));
+        assertTrue(ignore.isIgnored(root.resolve("a/b/node_modules"), true));
+        assertTrue(ignore.isIgnored(root.resolve("src/debug.log"), false));
+        assertTrue(ignore.isIgnored(root.resolve("out"), true));
+        assertFalse(ignore.isIgnored(root.resolve("out"), false));
+        assertTrue(ignore.isIgnored(root.resolve("#notes"), false));
+        assertFalse(ignore.isIgnored(root.resolve("src/Main.java"), false));
+        assertTrue(ignore.isIgnored(root.resolve(".git"), true));
+    }
+
+    @Test
+    void anchoredAndWildcardRules(@TempDir Path root) throws IOException {
+        IgnoreRules ignore = rules(root, "/build\ndocs/*.md\n**/gen\nlib/**\nfile[0-9].txt\ntmp?\n");
+        assertTrue(ignore.isIgnored(root.resolve("build"), true));
+        assertFalse(ignore.isIgnored(root.resolve("sub/build"), true));
+        assertTrue(ignore.isIgnored(root.resolve("docs/readme.md"), false));
+        assertFalse(ignore.isIgnored(root.resolve("docs/api/readme.md"), false));
+        assertTrue(ignore.isIgnored(root.resolve("a/b/gen"), true));
+        assertTrue(ignore.isIgnored(root.resolve("lib/x/y.jar"), false));
+        assertFalse(ignore.isIgnored(root.resolve("lib"), true));
+        assertTrue(ignore.isIgnored(root.resolve("file7.txt"), false));
+        assertFalse(ignore.isIgnored(root.resolve("fileX.txt"), false));
+        assertTrue(ignore.isIgnored(root.resolve("tmp1"), false));
+        assertFalse(ignore.isIgnored(root.resolve("tmp12"), false));
+    }
+
+    @Test
+    void negationAndPrecedence(@TempDir Path root) throws IOException {
+        Files.createDirectories(root.resolve("sub"));
+        Files.writeString(root.resolve("sub/.gitignore"), "!important.log\n");
+        Files.writeString(root.resolve(".ignore"), "!kept.log\n");
+        Files.createDirectories(root.resolve(".git/info"));
+        Files.writeString(root.resolve(".git/info/exclude"), "*.bak\n");
+        IgnoreRules ignore = rules(root, "*.log\n!keep.log\n*.bak\n!local.bak\n");
+        assertTrue(ignore.isIgnored(root.resolve("other.log"), false));
+        assertFalse(ignore.isIgnored(root.resolve("keep.log"), false));
+        assertFalse(ignore.isIgnored(root.resolve("kept.log"), false));
+        assertFalse(ignore.isIgnored(root.resolve("sub/important.log"), false));
+        assertTrue(ignore.isIgnored(root.resolve("important.log"), false));
+        assertTrue(ignore.isIgnored(root.resolve("x.bak"), false));
+        assertFalse(ignore.isIgnored(root.resolve("local.bak"), false));
+    }
+
+    @Test
+    void rulesAboveTheRootInsideTheRepository(@TempDir Path repo) throws IOException {
+        Files.createDirectories(repo.resolve(".git"));
+        Files.writeString(repo.resolve(".gitignore"), "*.class\n/module/generated/\n");
+        Path root = Files.createDirectories(repo.resolve("module"));
+        IgnoreRules ignore = IgnoreRules.load(root);
+        assertTrue(ignore.isIgnored(root.resolve("A.class"), false));
+        assertTrue(ignore.isIgnored(root.resolve("generated"), true));
+        assertFalse(ignore.isIgnored(root.resolve("src/generated"), true));
+    }
+}
@@ -0,0 +1,102 @@
+package com.tool.search;
+
+import com.tool.metrics.CommandStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineScannerTest {
+    /** 远小于 MAP_THRESHOLD 的映射区域，使超过阈值的文件被切成多段 */
+    private static final int REGION = 4096;
+
+    private static List<String> content(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            lines.add("第" + i + "行 " + "x".repeat(i % 97));
+        }
+        return lines;
+    }
+
+    private static Path write(Path dir, List<String> lines, boolean trailingNewline) throws IOException {
+        String text = String.join("\n", lines) + (trailingNewline ? "\n" : "");
+        assertTrue(text.length() > LineScanner.MAP_THRESHOLD);
+        return Files.writeString(dir.resolve("big.txt"), text);
+    }
+
+    private static void assertScansAllLines(Path file, List<String> expected) throws IOException {
+        LineScanner scanner = new LineScanner(REGION);
+        List<String> seen = new ArrayList<>();
+        int[] regions = {0};
+        CommandStats stats = new CommandStats("test");
+        CommandStats previous = CommandStats.bind(stats);
+        try {
+            assertTrue(scanner.scan(file, region -> {
+                regions[0]++;
+                assertTrue(region.end() - region.start() <= REGION);
+                region.forEachLine((line, start, end) -> {
+                    assertEquals(seen.size() + 1, line);
+                    seen.add(region.decode(start, end));
+                });
+            }));
+        } finally {
+            CommandStats.bind(previous);
+        }
+        assertTrue(regions[0] > LineScanner.MAP_THRESHOLD / REGION, "regions: " + regions[0]);
+        assertEquals(expected, seen);
+        assertEquals(expected.size(), stats.get(CommandStats.Counter.LINES_SCANNED));
+    }
+
+    @Test
+    void mappedRegionsEndOnLineBoundaries(@TempDir Path dir) throws IOException {
+        List<String> lines = content(40_000);
+        assertScansAllLines(write(dir, lines, true), lines);
+    }
+
+    @Test
+    void lastLineWithoutNewlineIsScanned(@TempDir Path dir) throws IOException {
+        List<String> lines = content(40_001);
+        assertScansAllLines(write(dir, lines, false), lines);
+    }
+
+    @Test
+    void lineNumbersContinueAcrossRegions(@TempDir Path dir) throws IOException {
+        List<String> lines = content(40_000);
+        Path file = write(dir, lines, true);
+        List<Long> found = new ArrayList<>();
+        new LineScanner(REGION).scan(file, region -> {
+            for (int at = region.start(); ; ) {
+                int hit = LineScanner.indexOf(region.buffer(), "第30000行".getBytes(StandardCharsets.UTF_8),
+                        at, region.end());
+                if (hit < 0) {
+                    break;
+                }
+                found.add(region.lineAt(hit));
+                at = region.lineEnd(hit);
+            }
+        });
+        assertEquals(List.of(30_000L), found);
+    }
+
+    @Test
+    void binarySniffOnlyLooksAtFilePrefix(@TempDir Path dir) throws IOException {
+        byte[] data = String.join("\n", content(40_000)).getBytes(StandardCharsets.UTF_8);
+        data[100] = 0;
+        Path early = Files.write(dir.resolve("early.bin"), data);
+        assertFalse(new LineScanner(REGION).scan(early, region -> { }));
+
+        data[100] = 'x';
+        data[LineScanner.SNIFF_LENGTH * 10] = 0;
+        Path late = Files.write(dir.resolve("late.bin"), data);
+        assertTrue(new LineScanner(REGION).scan(late, region -> { }));
+    }
+}
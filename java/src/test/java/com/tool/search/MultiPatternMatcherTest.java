@@ -0,0 +1,87 @@
+package com.tool.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MultiPatternMatcherTest {
+    /** 以 "模式@结束偏移" 的形式列出全部匹配 */
+    private static TreeSet<String> find(MultiPatternMatcher matcher, String text) {
+        ByteBuffer buf = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        TreeSet<String> found = new TreeSet<>();
+        matcher.find(buf, 0, buf.limit(), (ids, end) -> {
+            for (int id : ids) {
+                found.add(matcher.pattern(id) + "@" + end);
+            }
+        });
+        return found;
+    }
+
+    private static TreeSet<String> naive(List<String> patterns, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        TreeSet<String> found = new TreeSet<>();
+        for (String p : patterns) {
+            byte[] needle = p.getBytes(StandardCharsets.UTF_8);
+            outer:
+            for (int i = 0; i + needle.length <= bytes.length; i++) {
+                for (int j = 0; j < needle.length; j++) {
+                    if (bytes[i + j] != needle[j]) {
+                        continue outer;
+                    }
+                }
+                found.add(p + "@" + (i + needle.length));
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void reportsOverlappingAndNestedPatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("he", "she", "his", "hers"));
+        assertEquals(new TreeSet<>(List.of("she@4", "he@4", "hers@6")), find(matcher, "ushers"));
+    }
+
+    @Test
+    void ignoresEmptyAndDuplicatePatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("a", "", "b", "a"));
+        assertEquals(2, matcher.patternCount());
+        assertEquals("a", matcher.pattern(0));
+        assertEquals("b", matcher.pattern(1));
+    }
+
+    @Test
+    void matchesDoNotSpanLines() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("ab", "错误"));
+        assertEquals(new TreeSet<>(List.of("ab@6")), find(matcher, "a\nb\nab"));
+        assertEquals(new TreeSet<>(List.of("错误@12")), find(matcher, "发生错误\n错\n误"));
+    }
+
+    @Test
+    void agreesWithNaiveSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                patterns.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, 500);
+            assertEquals(naive(patterns, text), find(new MultiPatternMatcher(patterns), text), patterns.toString());
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "abcab中";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
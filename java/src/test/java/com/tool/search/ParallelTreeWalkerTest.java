@@ -0,0 +1,89 @@
+package com.tool.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelTreeWalkerTest {
+    /** 每个文件按内容中的数字产生对应条数的结果，结果形如 "相对路径#序号" */
+    private static final ParallelTreeWalker.FileHandler<String> HANDLER = (file, results) -> {
+        int count = Integer.parseInt(Files.readString(file).trim());
+        String name = file.getParent().getFileName() + "/" + file.getFileName();
+        for (int i = 0; i < count; i++) {
+            results.accept(name + "#" + i);
+        }
+    };
+
+    private static void tree(Path root, int largeFile) throws IOException {
+        for (int d = 0; d < 6; d++) {
+            Path dir = Files.createDirectories(root.resolve("d" + d).resolve("sub" + d));
+            for (int f = 0; f < 5; f++) {
+                Files.writeString(root.resolve("d" + d).resolve("f" + f + ".txt"), String.valueOf(f + 1));
+                Files.writeString(dir.resolve("g" + f + ".txt"), "3");
+            }
+        }
+        Files.writeString(root.resolve("d0/large.txt"), String.valueOf(largeFile));
+    }
+
+    private static List<String> walk(Path root, int threads, boolean ordered) throws IOException {
+        List<String> out = new ArrayList<>();
+        new ParallelTreeWalker(threads, ordered).walk(root, HANDLER, out::add);
+        return out;
+    }
+
+    @Test
+    void orderedWalkIsIndependentOfThreadCount(@TempDir Path root) throws IOException {
+        tree(root, 10);
+        List<String> single = walk(root, 1, true);
+        assertEquals(6 * (15 + 15) + 10, single.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(single, walk(root, 4, true));
+        }
+        assertEquals("d0/f0.txt#0", single.get(0));
+        assertTrue(single.indexOf("d0/large.txt#0") < single.indexOf("sub0/g0.txt#0"));
+        assertTrue(single.indexOf("sub0/g4.txt#2") < single.indexOf("d1/f0.txt#0"));
+    }
+
+    @Test
+    void unorderedWalkKeepsEachFileContiguous(@TempDir Path root) throws IOException {
+        int large = ParallelTreeWalker.BATCH_SIZE * 3 + 7;
+        tree(root, large);
+        List<String> out = walk(root, 4, false);
+        assertEquals(6 * (15 + 15) + large, out.size());
+        Set<String> finished = new LinkedHashSet<>();
+        String current = null;
+        int expected = 0;
+        for (String result : out) {
+            String file = result.substring(0, result.indexOf('#'));
+            int index = Integer.parseInt(result.substring(result.indexOf('#') + 1));
+            if (!file.equals(current)) {
+                assertFalse(finished.contains(file), file + " 的结果被拆开输出");
+                if (current != null) {
+                    finished.add(current);
+                }
+                current = file;
+                expected = 0;
+            }
+            assertEquals(expected++, index, result);
+        }
+    }
+
+    @Test
+    void singleFileRoot(@TempDir Path root) throws IOException {
+        Path file = Files.writeString(root.resolve("one.txt"), "2");
+        List<String> out = new ArrayList<>();
+        new ParallelTreeWalker(4, false).walk(file, HANDLER, out::add);
+        assertEquals(List.of(root.getFileName() + "/one.txt#0", root.getFileName() + "/one.txt#1"), out);
+    }
+}
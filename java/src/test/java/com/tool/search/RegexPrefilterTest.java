@@ -0,0 +1,121 @@
+package com.tool.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 字面量预过滤的可靠性：Pattern.find 能匹配的行，预过滤都不能排除
+ */
+class RegexPrefilterTest {
+    private static final String[] PIECES = {
+            "a", "b", "x", "Bar", "foo", "é", "É", "错", "😀", "😁", ".", "\\w", "\\d", "\\s", "\\b", "\\.", "\\😀",
+            "?", "*", "+", "{2}", "{0,2}", "+?", "[ab]", "[😀]", "(a|b)", "(😀)?", "|", "^", "$", "\\Qa😀\\E",
+            "(?i)", "\\x41", "\\u00e9", "\\\\", "{1,}", "\\p{L}", "(?:x)", "[^a]", "\\E", "\\Q", "{", "}", "]", "\\1", "(?<n>a)", "\\k<n>", "(?=a)", "(?i:a)", "(?-i)", "\\t", "\\R", "++", "?+", "{2}?"
+    };
+    private static final String[] LINE_PIECES = {
+            "a", "A", "b", "x", "X", "bar", "Bar", "BAR", "foo", "FOO", "é", "É", "错", "😀", "😁", " ", ".", "1",
+            "\t", "ab", "\\", "{", "}", "0", ",", "E", "Q", "\r"
+    };
+
+    @Test
+    void supplementaryCharacterQuantifiers() {
+        assertSound("😀?x", "x", "smile 😀😀x end", "😀x");
+        assertSound("😀*x", "x", "😀😀x");
+        assertSound("{0,2}ab", "ab", "xab");
+        assertSound("a😀{0,2}b", "ab", "a😀b");
+        assertSound("\\Qfoo😀\\E?x", "foox", "foo😀x");
+        assertSound("\\😀?x", "x");
+        assertEquals(List.of("x"), RegexLiterals.analyze("😀?x", 0).required());
+        assertEquals(List.of("😀", "x"), RegexLiterals.analyze("😀+x", 0).required());
+    }
+
+    @Test
+    void requiredLiterals() {
+        assertEquals(List.of("foo", "Bar"), RegexLiterals.analyze("foo\\w+Bar", 0).required());
+        assertEquals(List.of("a"), RegexLiterals.analyze("ab?", 0).required());
+        assertEquals(List.of("x"), RegexLiterals.analyze("{0,2}x", 0).required());
+        assertTrue(RegexLiterals.analyze("foo|bar", 0).required().isEmpty());
+        assertTrue(RegexLiterals.analyze("(?iU)foo", 0).required().isEmpty());
+        assertTrue(RegexLiterals.analyze("foo", Pattern.CANON_EQ).required().isEmpty());
+        assertTrue(RegexLiterals.analyze("(?i)foo", 0).caseInsensitive());
+    }
+
+    @Test
+    void noPrefilterWithoutLiterals() {
+        assertNull(RegexPrefilter.of(Pattern.compile("^\\s*$")));
+        assertNull(RegexPrefilter.of(Pattern.compile("a|b")));
+        assertNotNull(RegexPrefilter.of(Pattern.compile("foo\\w+Bar")));
+    }
+
+    @Test
+    void caseInsensitiveFoldsAsciiOnly() {
+        assertSound("(?i)foo\\w+bar", "FOOxBAR", "Foo_bAr");
+        assertSound("(?i)é", "é", "É");
+        RegexPrefilter prefilter = RegexPrefilter.of(Pattern.compile("(?i)foo"));
+        assertTrue(mayMatch(prefilter, "xFoO"));
+        assertFalse(mayMatch(prefilter, "xfo"));
+    }
+
+    @Test
+    void randomPatternsAreSound() {
+        Random random = new Random(20261017L);
+        int checked = 0;
+        for (int round = 0; round < 20000; round++) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = random.nextInt(6) + 1; i > 0; i--) {
+                regex.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex.toString());
+            } catch (PatternSyntaxException e) {
+                continue;
+            }
+            RegexPrefilter prefilter = RegexPrefilter.of(pattern);
+            if (prefilter == null) {
+                continue;
+            }
+            for (int j = 0; j < 20; j++) {
+                StringBuilder line = new StringBuilder();
+                for (int k = random.nextInt(8); k > 0; k--) {
+                    line.append(LINE_PIECES[random.nextInt(LINE_PIECES.length)]);
+                }
+                if (pattern.matcher(line).find() && !mayMatch(prefilter, line.toString())) {
+                    fail("预过滤排除了匹配行: 正则 " + regex + " 行 " + line);
+                }
+                checked++;
+            }
+        }
+        assertTrue(checked > 10000);
+    }
+
+    private static void assertSound(String regex, String... lines) {
+        Pattern pattern = Pattern.compile(regex);
+        RegexPrefilter prefilter = RegexPrefilter.of(pattern);
+        for (String line : lines) {
+            if (pattern.matcher(line).find()) {
+                assertTrue(prefilter == null || mayMatch(prefilter, line), "正则 " + regex + " 行 " + line);
+            }
+        }
+    }
+
+    private static boolean mayMatch(RegexPrefilter prefilter, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+        buf.put(bytes).flip();
+        return prefilter.findAnchor(buf, 0, bytes.length) >= 0 && prefilter.containsOthers(buf, 0, bytes.length);
+    }
+}
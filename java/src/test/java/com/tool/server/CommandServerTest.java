@@ -0,0 +1,121 @@
+package com.tool.server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandServerTest {
+    private static String send(Path socket, Path directory, String... args) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            CommandProtocol.writeRequest(Channels.newOutputStream(channel), directory, args);
+            InputStream in = Channels.newInputStream(channel);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Future<?> start(ExecutorService executor, Path socket) throws Exception {
+        CommandProtocol.prepareDirectory(socket);
+        Future<?> running = executor.submit(() -> {
+            new CommandServer(socket, 2, 0).run();
+            return null;
+        });
+        // 等待服务开始监听；套接字文件可能是上次遗留的，不能只检查文件是否存在
+        for (int i = 0; i < 200; i++) {
+            try {
+                SocketChannel.open(UnixDomainSocketAddress.of(socket)).close();
+                return running;
+            } catch (IOException e) {
+                Thread.sleep(25);
+            }
+        }
+        throw new AssertionError("服务未启动");
+    }
+
+    @Test
+    void servesRequestsRelativeToClientDirectory(@TempDir Path dir) throws Exception {
+        Path socket = dir.resolve("run/tool.sock");
+        Path work = Files.createDirectories(dir.resolve("work"));
+        Files.writeString(work.resolve("notes.txt"), "第一行\n第二行\n");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> running = start(executor, socket);
+            assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socket.getParent())));
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socket)));
+
+            String output = send(socket, work, "readFile", "notes.txt");
+            assertTrue(output.contains("第二行"), output);
+            assertTrue(send(socket, work, "serve").startsWith("服务已在运行"));
+
+            assertEquals("服务正在停止。" + System.lineSeparator(), send(socket, work, "serve", "stop"));
+            running.get(10, TimeUnit.SECONDS);
+            assertTrue(Files.notExists(socket));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void replacesStaleSocketButNotRunningServer(@TempDir Path dir) throws Exception {
+        Path socket = dir.resolve("tool.sock");
+        // 上次异常退出遗留的套接字文件：没有进程在监听
+        try (ServerSocketChannel stale = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            stale.bind(UnixDomainSocketAddress.of(socket));
+        }
+        assertTrue(Files.exists(socket));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> running = start(executor, socket);
+            IOException e = assertThrows(IOException.class, () -> new CommandServer(socket, 1, 0).run());
+            assertTrue(e.getMessage().startsWith("已有服务在运行"), e.getMessage());
+
+            send(socket, dir, "serve", "stop");
+            running.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void malformedRequestIsReported(@TempDir Path dir) throws Exception {
+        Path socket = dir.resolve("tool.sock");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> running = start(executor, socket);
+            try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+                channel.write(ByteBuffer.wrap("relative\0-1\0".getBytes(StandardCharsets.UTF_8)));
+                channel.shutdownOutput();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                Channels.newInputStream(channel).transferTo(out);
+                assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("无法解析请求"), out.toString());
+            }
+            send(socket, dir, "serve", "stop");
+            running.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tool.watch;
+
+import com.tool.output.SearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MatchDiffTest {
+    private final List<String> changes = new ArrayList<>();
+    private final MatchDiff.Changes recorder = new MatchDiff.Changes() {
+        @Override
+        public void added(SearchHit match) {
+            changes.add("+" + match.path + ":" + match.line + ":" + match.text);
+        }
+
+        @Override
+        public void removed(SearchHit match) {
+            changes.add("-" + match.path + ":" + match.line + ":" + match.text);
+        }
+    };
+
+    private static SearchHit hit(Path file, long line, String text) {
+        return new SearchHit(file, line, 1, "x", text, null);
+    }
+
+    @Test
+    void movedLinesAreNotChanges() {
+        Path file = Paths.get("a.txt");
+        MatchDiff diff = new MatchDiff();
+        diff.add(hit(file, 1, "foo"));
+        diff.add(hit(file, 5, "bar"));
+        diff.update(file, List.of(hit(file, 3, "foo"), hit(file, 7, "bar"), hit(file, 9, "baz")), recorder);
+        assertEquals(List.of("+a.txt:9:baz"), changes);
+
+        changes.clear();
+        diff.update(file, List.of(hit(file, 7, "bar")), recorder);
+        assertEquals(List.of("-a.txt:3:foo", "-a.txt:9:baz"), changes);
+    }
+
+    @Test
+    void duplicateLinesCorrespondInOrder() {
+        Path file = Paths.get("dup.txt");
+        MatchDiff diff = new MatchDiff();
+        diff.add(hit(file, 1, "same"));
+        diff.add(hit(file, 2, "same"));
+        diff.add(hit(file, 3, "same"));
+        diff.update(file, List.of(hit(file, 2, "same"), hit(file, 4, "same")), recorder);
+        assertEquals(List.of("-dup.txt:3:same"), changes);
+
+        changes.clear();
+        diff.update(file, List.of(hit(file, 2, "same"), hit(file, 4, "same"), hit(file, 6, "same")), recorder);
+        assertEquals(List.of("+dup.txt:6:same"), changes);
+    }
+
+    @Test
+    void removeDropsEverythingBelowPath() {
+        MatchDiff diff = new MatchDiff();
+        diff.add(hit(Paths.get("dir/a.txt"), 1, "a"));
+        diff.add(hit(Paths.get("dir/sub/b.txt"), 2, "b"));
+        diff.add(hit(Paths.get("dir2/c.txt"), 3, "c"));
+        diff.remove(Paths.get("dir"), recorder);
+        changes.sort(null);
+        assertEquals(List.of("-dir/a.txt:1:a", "-dir/sub/b.txt:2:b"), changes);
+
+        changes.clear();
+        diff.remove(Paths.get("dir"), recorder);
+        assertEquals(List.of(), changes);
+    }
+
+    @Test
+    void replaceAllReportsOnlyDifferences() {
+        Path a = Paths.get("a.txt");
+        Path b = Paths.get("b.txt");
+        MatchDiff diff = new MatchDiff();
+        diff.add(hit(a, 1, "keep"));
+        diff.add(hit(b, 1, "gone"));
+        MatchDiff fresh = new MatchDiff();
+        fresh.add(hit(a, 2, "keep"));
+        fresh.add(hit(a, 3, "new"));
+        diff.replaceAll(fresh, recorder);
+        assertEquals(List.of("-b.txt:1:gone", "+a.txt:3:new"), changes);
+    }
+}
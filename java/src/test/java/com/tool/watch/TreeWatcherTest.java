@@ -0,0 +1,104 @@
+package com.tool.watch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TreeWatcherTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final BlockingQueue<Set<Path>> batches = new LinkedBlockingQueue<>();
+    private TreeWatcher watcher;
+
+    @AfterEach
+    void stop() throws IOException {
+        executor.shutdownNow();
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private void start(Path root) throws IOException {
+        watcher = new TreeWatcher(100, 1000);
+        watcher.register(root);
+        executor.submit(() -> {
+            watcher.run((changed, overflow) -> {
+                batches.add(new HashSet<>(changed));
+                return true;
+            });
+            return null;
+        });
+    }
+
+    /** 收集变化直到包含全部期望的路径 */
+    private Set<Path> awaitChanges(Path... expected) throws InterruptedException {
+        Set<Path> seen = new HashSet<>();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!seen.containsAll(Set.of(expected)) && System.currentTimeMillis() < deadline) {
+            Set<Path> batch = batches.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+            if (batch != null) {
+                seen.addAll(batch);
+            }
+        }
+        assertTrue(seen.containsAll(Set.of(expected)), "收到的变化: " + seen);
+        return seen;
+    }
+
+    @Test
+    void reportsChangesInNestedAndNewDirectories(@TempDir Path root) throws Exception {
+        Path sub = Files.createDirectories(root.resolve("sub"));
+        Path existing = Files.writeString(sub.resolve("a.txt"), "a");
+        start(root);
+        assertEquals(2, watcher.directoryCount());
+
+        Files.writeString(existing, "changed");
+        awaitChanges(existing);
+
+        // 新目录和其中已有的文件都会报告，之后目录内的变化同样能收到
+        Path created = Files.createDirectories(root.resolve("new/deeper"));
+        Path inside = Files.writeString(created.resolve("b.txt"), "b");
+        awaitChanges(root.resolve("new"), inside);
+        Path later = Files.writeString(created.resolve("c.txt"), "c");
+        awaitChanges(later);
+
+        Files.delete(existing);
+        awaitChanges(existing);
+    }
+
+    @Test
+    void singleFileReportsOnlyThatFile(@TempDir Path dir) throws Exception {
+        Path file = Files.writeString(dir.resolve("watched.txt"), "1");
+        Path other = dir.resolve("other.txt");
+        start(file);
+        Files.writeString(other, "x");
+        Files.writeString(file, "2");
+        Set<Path> seen = awaitChanges(file.toAbsolutePath());
+        assertFalse(seen.contains(other.toAbsolutePath()), seen.toString());
+    }
+
+    @Test
+    void editsAreBatched(@TempDir Path root) throws Exception {
+        start(root);
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(root.resolve("f" + i + ".txt"), "v" + i);
+        }
+        Set<Path> first = batches.poll(10, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertEquals(5, first.size(), first.toString());
+    }
+}